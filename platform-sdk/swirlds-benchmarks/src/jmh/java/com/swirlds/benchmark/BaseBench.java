@@ -28,6 +28,7 @@ import com.swirlds.config.api.Configuration;
 import com.swirlds.config.api.ConfigurationBuilder;
 import com.swirlds.config.extensions.export.ConfigExport;
 import com.swirlds.config.extensions.sources.LegacyFileConfigSource;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.virtualmap.config.VirtualMapConfig;
 import java.io.IOException;
@@ -86,8 +87,8 @@ public abstract class BaseBench {
 
     protected static Configuration configuration;
 
-    private static void loadConfig() throws IOException {
-        ConfigurationBuilder configurationBuilder = ConfigurationBuilder.create()
+    private static ConfigurationBuilder createConfigurationBuilder() throws IOException {
+        return ConfigurationBuilder.create()
                 .autoDiscoverExtensions()
                 .withSource(new LegacyFileConfigSource(Path.of(".", "settings.txt")))
                 .withConfigDataType(BenchmarkConfig.class)
@@ -95,7 +96,10 @@ public abstract class BaseBench {
                 .withConfigDataType(MerkleDbConfig.class)
                 .withConfigDataType(MetricsConfig.class)
                 .withConfigDataType(CryptoConfig.class);
-        configuration = configurationBuilder.build();
+    }
+
+    private static void loadConfig() throws IOException {
+        configuration = createConfigurationBuilder().build();
 
         final StringBuilder settingsUsed = new StringBuilder();
         ConfigExport.addConfigContents(configuration, settingsUsed);
@@ -248,6 +252,25 @@ public abstract class BaseBench {
         return configuration.getConfigData(configCls);
     }
 
+    /**
+     * Get config data with a single property overridden. It's useful for benchmarks that compare
+     * different values of a setting using JMH params.
+     */
+    public <T extends Record> T getConfig(Class<T> configCls, String propertyName, String propertyValue)
+            throws IOException {
+        return getConfiguration(propertyName, propertyValue).getConfigData(configCls);
+    }
+
+    /**
+     * Get configuration with a single property overridden, for components that are created
+     * with a {@link Configuration} rather than with config data.
+     */
+    public Configuration getConfiguration(String propertyName, String propertyValue) throws IOException {
+        return createConfigurationBuilder()
+                .withSource(new SimpleConfigSource(propertyName, propertyValue).withOrdinal(Integer.MAX_VALUE))
+                .build();
+    }
+
     public BenchmarkConfig getBenchmarkConfig() {
         return getConfig(BenchmarkConfig.class);
     }
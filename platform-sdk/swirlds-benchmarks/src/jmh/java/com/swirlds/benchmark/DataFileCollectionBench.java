@@ -19,17 +19,22 @@ package com.swirlds.benchmark;
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
 import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.LongListOffHeap;
+import com.swirlds.merkledb.config.DataFileReadMode;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileCollection;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.files.DataFileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
@@ -41,6 +46,9 @@ import org.openjdk.jmh.annotations.Warmup;
 @Measurement(iterations = 5)
 public class DataFileCollectionBench extends BaseBench {
 
+    @Param({DataFileReadMode.CHANNEL, DataFileReadMode.MMAP, DataFileReadMode.HYBRID})
+    public String readMode = DataFileReadMode.CHANNEL;
+
     String benchmarkName() {
         return "DataFileCollectionBench";
     }
@@ -52,7 +60,7 @@ public class DataFileCollectionBench extends BaseBench {
 
         final LongListOffHeap index = new LongListOffHeap();
         final BenchmarkRecord[] map = new BenchmarkRecord[verify ? maxKey : 0];
-        final MerkleDbConfig dbConfig = getConfig(MerkleDbConfig.class);
+        final MerkleDbConfig dbConfig = getConfig(MerkleDbConfig.class, "merkleDb.dataFileReadMode", readMode);
         final BenchmarkRecordSerializer serializer = new BenchmarkRecordSerializer();
         final var store =
                 new DataFileCollection(dbConfig, getTestDir(), storeName, null, (dataLocation, dataValue) -> {}) {
@@ -108,4 +116,56 @@ public class DataFileCollectionBench extends BaseBench {
             index.close();
         });
     }
+
+    @Benchmark
+    public void read() throws Exception {
+        String storeName = "readBench";
+        beforeTest(storeName);
+
+        final LongListOffHeap index = new LongListOffHeap();
+        final MerkleDbConfig dbConfig = getConfig(MerkleDbConfig.class, "merkleDb.dataFileReadMode", readMode);
+        final BenchmarkRecordSerializer serializer = new BenchmarkRecordSerializer();
+        final var store =
+                new DataFileCollection(dbConfig, getTestDir(), storeName, null, (dataLocation, dataValue) -> {});
+        System.out.println();
+
+        // Write files
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < numFiles; i++) {
+            store.startWriting();
+            resetKeys();
+            for (int j = 0; j < numRecords; ++j) {
+                long id = nextAscKey();
+                BenchmarkRecord record = new BenchmarkRecord(id, nextValue());
+                index.put(id, store.storeDataItem(record::serialize, BenchmarkRecord.getSerializedSize()));
+            }
+            store.endWriting(0, maxKey).setFileCompleted();
+        }
+        System.out.println("Created " + numFiles + " files in " + (System.currentTimeMillis() - start) + "ms");
+
+        // Read random records from multiple threads
+        start = System.currentTimeMillis();
+        final AtomicLong total = new AtomicLong(0);
+        IntStream.range(0, numThreads).parallel().forEach(thread -> {
+            long sum = 0;
+            try {
+                for (int i = 0; i < numRecords; ++i) {
+                    final BufferedData recordData = store.readDataItemUsingIndex(index, Utils.randomLong(maxKey));
+                    if (recordData != null) {
+                        sum += serializer.deserialize(recordData).hashCode();
+                    }
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            total.addAndGet(sum);
+        });
+        System.out.println("Read " + (long) numRecords * numThreads + " records from " + numThreads + " threads in "
+                + (System.currentTimeMillis() - start) + "ms, mode=" + readMode);
+
+        afterTest(() -> {
+            store.close();
+            index.close();
+        });
+    }
 }
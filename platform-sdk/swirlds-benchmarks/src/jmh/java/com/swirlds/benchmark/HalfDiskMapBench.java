@@ -16,6 +16,7 @@
 
 package com.swirlds.benchmark;
 
+import com.swirlds.config.api.Configuration;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
@@ -25,6 +26,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
@@ -38,6 +40,9 @@ public class HalfDiskMapBench extends BaseBench {
 
     private static final long INVALID_PATH = -1L;
 
+    @Param({"0", "1024"})
+    public String maxBucketSplitsPerFlush = "0";
+
     String benchmarkName() {
         return "KeyValueStoreBench";
     }
@@ -99,4 +104,49 @@ public class HalfDiskMapBench extends BaseBench {
 
         afterTest(store::close);
     }
+
+    /**
+     * Creates a map for 1/10 of the keys it eventually stores, then adds keys in batches and
+     * periodically measures lookup latency. With bucket splits enabled, the latency is expected
+     * to stay flat as the map grows. With splits disabled, buckets get longer and lookups slower.
+     */
+    @Benchmark
+    public void growth() throws Exception {
+        String storeName = "growthBench";
+        beforeTest(storeName);
+
+        final Configuration config =
+                getConfiguration("merkleDb.halfDiskHashMapMaxBucketSplitsPerFlush", maxBucketSplitsPerFlush);
+        final long totalKeys = (long) numFiles * numRecords;
+        final var store = new HalfDiskHashMap(config, totalKeys / 10, getTestDir(), storeName, null, false);
+        System.out.println();
+
+        final BenchmarkKeySerializer keySerializer = new BenchmarkKeySerializer();
+        final int reportInterval = Math.max(numFiles / 10, 1);
+        long numKeys = 0;
+        for (int i = 0; i < numFiles; i++) {
+            store.startWriting();
+            for (int j = 0; j < numRecords; ++j) {
+                BenchmarkKey key = new BenchmarkKey(numKeys++);
+                store.put(keySerializer.toBytes(key), key.hashCode(), nextValue());
+            }
+            store.endWriting();
+
+            if ((i + 1) % reportInterval == 0) {
+                // Look up random existing keys
+                final long start = System.nanoTime();
+                for (int j = 0; j < numRecords; ++j) {
+                    BenchmarkKey key = new BenchmarkKey(Utils.randomLong(numKeys));
+                    if (store.get(keySerializer.toBytes(key), key.hashCode(), INVALID_PATH) == INVALID_PATH) {
+                        throw new RuntimeException("Missing value");
+                    }
+                }
+                final long nanosPerLookup = (System.nanoTime() - start) / numRecords;
+                System.out.println("Keys: " + numKeys + ", avg lookup: " + nanosPerLookup + "ns, splitsPerFlush="
+                        + maxBucketSplitsPerFlush);
+            }
+        }
+
+        afterTest(store::close);
+    }
 }
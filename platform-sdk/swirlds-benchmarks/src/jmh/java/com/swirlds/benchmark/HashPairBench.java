@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.benchmark;
+
+import com.swirlds.common.crypto.Cryptography;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.HashBuilder;
+import com.swirlds.common.crypto.engine.HashPairBatch;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares internal node hashing throughput, one node at a time with a {@link HashBuilder}, like
+ * virtual hasher used to do, and in batches with a {@link HashPairBatch}. Every benchmark call
+ * hashes {@code numPairs} hash pairs.
+ */
+@Fork(value = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class HashPairBench {
+
+    @Param({"64"})
+    public int batchSize = 64;
+
+    @Param({"1024"})
+    public int numPairs = 1024;
+
+    private Hash[] inputs;
+    private Hash[] results;
+    private HashBuilder builder;
+    private HashPairBatch batch;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        inputs = new Hash[numPairs * 2];
+        for (int i = 0; i < inputs.length; i++) {
+            final byte[] value = new byte[Cryptography.DEFAULT_DIGEST_TYPE.digestLength()];
+            random.nextBytes(value);
+            inputs[i] = new Hash(value, Cryptography.DEFAULT_DIGEST_TYPE);
+        }
+        results = new Hash[numPairs];
+        builder = new HashBuilder(Cryptography.DEFAULT_DIGEST_TYPE);
+        batch = new HashPairBatch(Cryptography.DEFAULT_DIGEST_TYPE, batchSize);
+    }
+
+    @Benchmark
+    public void hashBuilder(final Blackhole blackhole) {
+        for (int i = 0; i < numPairs; i++) {
+            builder.reset();
+            builder.update((long) i);
+            builder.update(1);
+            builder.update(inputs[i * 2]);
+            builder.update(inputs[i * 2 + 1]);
+            results[i] = builder.build();
+        }
+        blackhole.consume(results);
+    }
+
+    @Benchmark
+    public void hashPairBatch(final Blackhole blackhole) {
+        for (int from = 0; from < numPairs; from += batchSize) {
+            final int to = Math.min(from + batchSize, numPairs);
+            for (int i = from; i < to; i++) {
+                batch.add(i, 1, inputs[i * 2], inputs[i * 2 + 1]);
+            }
+            batch.digest(results, from);
+        }
+        blackhole.consume(results);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.benchmark;
+
+import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.collections.LongListDisk;
+import com.swirlds.merkledb.collections.LongListHeap;
+import com.swirlds.merkledb.collections.LongListOffHeap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares long list implementations under concurrent updates. Every thread updates {@code numRecords}
+ * random indices in the range from 0 to {@code maxKey}, either with plain puts, like index updates during
+ * flushes, or with compare-and-set operations, like index updates during compactions.
+ */
+@Fork(value = 1)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class LongListBench extends BaseBench {
+
+    @Param({"heap", "offheap", "disk"})
+    public String listType = "offheap";
+
+    String benchmarkName() {
+        return "LongListBench";
+    }
+
+    private LongList createList() {
+        final LongList list =
+                switch (listType) {
+                    case "heap" -> new LongListHeap();
+                    case "offheap" -> new LongListOffHeap();
+                    case "disk" -> new LongListDisk(configuration);
+                    default -> throw new IllegalArgumentException("Unknown long list type: " + listType);
+                };
+        list.updateValidRange(0, maxKey - 1);
+        return list;
+    }
+
+    @Benchmark
+    public void concurrentPut() throws Exception {
+        beforeTest("concurrentPut");
+        final LongList list = createList();
+
+        final long start = System.currentTimeMillis();
+        runConcurrently(() -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < numRecords; i++) {
+                list.put(random.nextInt(maxKey), random.nextLong(1, Long.MAX_VALUE));
+            }
+        });
+        System.out.println("Put " + ((long) numThreads * numRecords) + " values to " + listType + " list in "
+                + (System.currentTimeMillis() - start) + "ms");
+
+        afterTest(list::close);
+    }
+
+    @Benchmark
+    public void concurrentPutIfEqual() throws Exception {
+        beforeTest("concurrentPutIfEqual");
+        final LongList list = createList();
+        for (int i = 0; i < maxKey; i++) {
+            list.put(i, i + 1);
+        }
+
+        final AtomicLong updated = new AtomicLong();
+        final long start = System.currentTimeMillis();
+        runConcurrently(() -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            long count = 0;
+            for (int i = 0; i < numRecords; i++) {
+                final int index = random.nextInt(maxKey);
+                final long oldValue = list.get(index);
+                if (list.putIfEqual(index, oldValue, oldValue + 1)) {
+                    count++;
+                }
+            }
+            updated.addAndGet(count);
+        });
+        System.out.println("Updated " + updated.get() + " of " + ((long) numThreads * numRecords) + " values in "
+                + listType + " list in " + (System.currentTimeMillis() - start) + "ms");
+
+        afterTest(list::close);
+    }
+
+    private void runConcurrently(final Runnable task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(numThreads);
+            for (int t = 0; t < numThreads; t++) {
+                futures.add(executor.submit(task));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -16,14 +16,19 @@
 
 package com.swirlds.benchmark;
 
+import static com.swirlds.virtualmap.constructable.ConstructableUtils.registerVirtualMapConstructables;
+
 import com.swirlds.benchmark.reconnect.MerkleBenchmarkUtils;
 import com.swirlds.benchmark.reconnect.StateBuilder;
+import com.swirlds.common.constructable.ConstructableRegistryException;
 import com.swirlds.common.merkle.MerkleInternal;
 import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualMap;
 import com.swirlds.virtualmap.VirtualValue;
+import com.swirlds.virtualmap.config.VirtualMapReconnectMode;
 import com.swirlds.virtualmap.internal.pipeline.VirtualRoot;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -69,6 +74,15 @@ public class ReconnectBench extends VirtualMapBaseBench {
     @Param({"0.05"})
     public double teacherModifyProbability;
 
+    /**
+     * Virtual map reconnect mode, see {@link VirtualMapReconnectMode}. Together with the teacher
+     * add, remove, and modify probabilities above, it allows to compare the number of bytes sent
+     * and reconnect time in different modes at different divergence ratios between the teacher
+     * and the learner.
+     */
+    @Param({VirtualMapReconnectMode.PULL_TOP_TO_BOTTOM, VirtualMapReconnectMode.PULL_RANGE_DIGEST})
+    public String reconnectMode;
+
     /**
      * Emulated delay for sendAsync() calls in both Teaching- and Learning-Synchronizers,
      * or zero for no delay. This emulates slow disk I/O when reading data.
@@ -133,7 +147,10 @@ public class ReconnectBench extends VirtualMapBaseBench {
 
     /** Generate a state and save it to disk once for the entire benchmark. */
     @Setup
-    public void setupBenchmark() {
+    public void setupBenchmark() throws IOException, ConstructableRegistryException {
+        configuration = getConfiguration("virtualMap.reconnectMode", reconnectMode);
+        registerVirtualMapConstructables(configuration);
+
         beforeTest("reconnect");
         updateMerkleDbPath();
 
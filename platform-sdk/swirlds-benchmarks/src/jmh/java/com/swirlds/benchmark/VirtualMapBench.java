@@ -18,6 +18,7 @@ package com.swirlds.benchmark;
 
 import com.swirlds.virtualmap.VirtualMap;
 import java.util.ArrayDeque;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -261,4 +262,28 @@ public abstract class VirtualMapBench extends VirtualMapBaseBench {
 
         afterTest(true);
     }
+
+    /**
+     * Save a pre-created map and load it back, like a node does at startup. Measures how long
+     * it takes to restore the map including all data source indices.
+     */
+    @Benchmark
+    public void load() throws Exception {
+        beforeTest("load");
+
+        logger.info(RUN_DELIMITER);
+
+        preCreateMap();
+        virtualMapP = saveMap(virtualMapP);
+
+        final long start = System.currentTimeMillis();
+        final VirtualMap<BenchmarkKey, BenchmarkValue> restoredMap =
+                Objects.requireNonNull(restoreMap(LABEL), "Saved map not found");
+        logger.info("Loaded {} records in {} ms", restoredMap.size(), System.currentTimeMillis() - start);
+
+        afterTest(true, () -> {
+            restoredMap.release();
+            restoredMap.getDataSource().close();
+        });
+    }
 }
@@ -204,6 +204,10 @@ public class MerkleBenchmarkUtils {
                         "Exception(s) in synchronization test", firstReconnectException.get());
             }
 
+            System.out.printf(
+                    "Reconnect bytes sent: teacher=%,d, learner=%,d%n",
+                    streams.getTeacherBytesSent(), streams.getLearnerBytesSent());
+
             final MerkleNode generatedTree = learner.getRoot();
             return (T) generatedTree;
         }
@@ -16,6 +16,8 @@
 
 package com.swirlds.benchmark.reconnect;
 
+import com.swirlds.common.io.extendable.ExtendableOutputStream;
+import com.swirlds.common.io.extendable.extensions.CountingStreamExtension;
 import com.swirlds.common.io.streams.MerkleDataInputStream;
 import com.swirlds.common.io.streams.MerkleDataOutputStream;
 import com.swirlds.platform.network.SocketConfig;
@@ -42,6 +44,9 @@ public class PairedStreams implements AutoCloseable {
     protected BufferedInputStream learnerInputBuffer;
     protected MerkleDataInputStream learnerInput;
 
+    protected CountingStreamExtension teacherBytesSent;
+    protected CountingStreamExtension learnerBytesSent;
+
     protected Socket teacherSocket;
     protected Socket learnerSocket;
     protected ServerSocket server;
@@ -55,13 +60,17 @@ public class PairedStreams implements AutoCloseable {
         teacherSocket = new Socket("127.0.0.1", server.getLocalPort());
         learnerSocket = server.accept();
 
-        teacherOutputBuffer = new BufferedOutputStream(teacherSocket.getOutputStream());
+        teacherBytesSent = new CountingStreamExtension();
+        teacherOutputBuffer =
+                new BufferedOutputStream(new ExtendableOutputStream(teacherSocket.getOutputStream(), teacherBytesSent));
         teacherOutput = new MerkleDataOutputStream(teacherOutputBuffer);
 
         teacherInputBuffer = new BufferedInputStream(teacherSocket.getInputStream());
         teacherInput = new MerkleDataInputStream(teacherInputBuffer);
 
-        learnerOutputBuffer = new BufferedOutputStream(learnerSocket.getOutputStream());
+        learnerBytesSent = new CountingStreamExtension();
+        learnerOutputBuffer =
+                new BufferedOutputStream(new ExtendableOutputStream(learnerSocket.getOutputStream(), learnerBytesSent));
         learnerOutput = new MerkleDataOutputStream(learnerOutputBuffer);
 
         learnerInputBuffer = new BufferedInputStream(learnerSocket.getInputStream());
@@ -84,6 +93,20 @@ public class PairedStreams implements AutoCloseable {
         return learnerInput;
     }
 
+    /**
+     * The number of bytes sent by the teacher so far.
+     */
+    public long getTeacherBytesSent() {
+        return teacherBytesSent.getCount();
+    }
+
+    /**
+     * The number of bytes sent by the learner so far.
+     */
+    public long getLearnerBytesSent() {
+        return learnerBytesSent.getCount();
+    }
+
     @Override
     public void close() throws IOException {
         teacherOutput.close();
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.crypto.engine;
+
+import com.swirlds.common.crypto.CryptographyException;
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.logging.legacy.LogMarker;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Computes digests of multiple hash pairs in a single call. Every message in a batch consists of
+ * a class ID, a class version, and two hashes, which is how internal nodes of merkle trees are
+ * hashed. The produced digests are exactly the same as produced by {@link
+ * com.swirlds.common.crypto.HashBuilder}, when these four values are added to the builder one by
+ * one.
+ *
+ * <p>All messages of a batch are serialized into a single reusable buffer, and every message is
+ * passed to the underlying {@link MessageDigest} in a single update call. It avoids per byte digest
+ * updates and per message buffer allocations, and lets the JDK use its intrinsic multi-block
+ * compression functions, where available.
+ *
+ * <p>This class is not thread safe. It's expected to be used from a single thread, for example,
+ * via a thread local.
+ */
+public final class HashPairBatch {
+
+    /** Digest type */
+    private final DigestType digestType;
+
+    /** Digest length, in bytes */
+    private final int digestLength;
+
+    /** A single message length: class ID, class version, and two hashes */
+    private final int messageLength;
+
+    /** Max number of messages in the batch */
+    private final int capacity;
+
+    /** Serialized messages */
+    private final byte[] messages;
+
+    /** Message digest instance, reused for all messages */
+    private final MessageDigest digest;
+
+    /** Current number of messages in the batch */
+    private int size = 0;
+
+    /**
+     * Creates a new empty batch.
+     *
+     * @param digestType the digest type
+     * @param capacity max number of messages in the batch
+     */
+    public HashPairBatch(@NonNull final DigestType digestType, final int capacity) {
+        Objects.requireNonNull(digestType, "digestType");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        this.digestType = digestType;
+        this.digestLength = digestType.digestLength();
+        this.messageLength = Long.BYTES + Integer.BYTES + 2 * digestLength;
+        this.capacity = capacity;
+        this.messages = new byte[capacity * messageLength];
+        try {
+            this.digest = MessageDigest.getInstance(digestType.algorithmName());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new CryptographyException(e, LogMarker.EXCEPTION);
+        }
+    }
+
+    /**
+     * Max number of messages in this batch.
+     *
+     * @return the batch capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Current number of messages in this batch.
+     *
+     * @return the batch size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a message to this batch.
+     *
+     * @param classId the class ID
+     * @param classVersion the class version
+     * @param left the left hash
+     * @param right the right hash
+     * @return the index of the message in the batch
+     * @throws IllegalStateException if the batch is full
+     * @throws IllegalArgumentException if a hash is of a different digest type
+     */
+    public int add(final long classId, final int classVersion, @NonNull final Hash left, @NonNull final Hash right) {
+        if (size == capacity) {
+            throw new IllegalStateException("Hash pair batch is full: " + capacity);
+        }
+        checkHash(left, "left");
+        checkHash(right, "right");
+        int pos = size * messageLength;
+        // Same byte order as in HashBuilder.update(long) and HashBuilder.update(int)
+        long id = classId;
+        for (int i = 0; i < Long.BYTES; i++) {
+            messages[pos++] = (byte) id;
+            id >>= Byte.SIZE;
+        }
+        int version = classVersion;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            messages[pos++] = (byte) version;
+            version >>= Byte.SIZE;
+        }
+        left.getBytes().getBytes(0, messages, pos, digestLength);
+        pos += digestLength;
+        right.getBytes().getBytes(0, messages, pos, digestLength);
+        return size++;
+    }
+
+    /**
+     * Computes digests of all messages in this batch and clears the batch. The digest of the
+     * message with index {@code i} is stored to {@code results[offset + i]}.
+     *
+     * @param results the array to store digests to
+     * @param offset the index in the array to store the first digest to
+     */
+    public void digest(@NonNull final Hash[] results, final int offset) {
+        Objects.requireNonNull(results, "results");
+        if ((offset < 0) || (offset + size > results.length)) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " and batch size " + size
+                    + " out of bounds for length " + results.length);
+        }
+        try {
+            for (int i = 0; i < size; i++) {
+                digest.update(messages, i * messageLength, messageLength);
+                final byte[] value = new byte[digestLength];
+                digest.digest(value, 0, digestLength);
+                results[offset + i] = new Hash(value, digestType);
+            }
+        } catch (final DigestException e) {
+            throw new CryptographyException(e, LogMarker.EXCEPTION);
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Removes all messages from this batch.
+     */
+    public void clear() {
+        size = 0;
+        digest.reset();
+    }
+
+    private void checkHash(final Hash hash, final String name) {
+        Objects.requireNonNull(hash, name);
+        if (hash.getDigestType() != digestType) {
+            throw new IllegalArgumentException(name + ": " + hash.getDigestType());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.swirlds.common.merkle.synchronization;
+
+import com.swirlds.common.io.streams.MerkleDataInputStream;
+import com.swirlds.common.io.streams.MerkleDataOutputStream;
+import com.swirlds.common.merkle.route.MerkleRoute;
+import com.swirlds.common.merkle.route.MerkleRouteFactory;
+import com.swirlds.common.merkle.synchronization.views.LearnerTreeView;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Streams to an additional teacher, which holds the same state as the main teacher during learner
+ * reconnect. Helper teachers don't send the whole tree to the learner. Instead, the learner asks them
+ * to serve particular custom reconnect roots, one at a time, identified by merkle routes. Only learner
+ * views that support helper teachers make use of them, see {@link LearnerTreeView#supportsHelperTeachers()}.
+ *
+ * <p>Protocol: for every custom reconnect root, the learner sends {@code true} followed by the root
+ * route. The teacher replies with {@code true} if it can serve the root, and then the views on both
+ * sides exchange messages until the learner view is done. When all roots are received, the learner
+ * sends {@code false}.
+ *
+ * @param name the teacher name, used for logging
+ * @param inputStream the input stream to read data from the teacher
+ * @param outputStream the output stream to write data to the teacher
+ */
+public record HelperTeacher(
+        @NonNull String name,
+        @NonNull MerkleDataInputStream inputStream,
+        @NonNull MerkleDataOutputStream outputStream) {
+
+    /**
+     * The maximum length of a route of a custom reconnect root.
+     */
+    static final int MAX_ROUTE_LENGTH = 1024;
+
+    public HelperTeacher {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(inputStream, "inputStream must not be null");
+        Objects.requireNonNull(outputStream, "outputStream must not be null");
+    }
+
+    /**
+     * Asks this teacher to serve a custom reconnect root. The teacher reply must be read by the
+     * learner view using {@link #readServeReply()}.
+     *
+     * @param route the route of the custom reconnect root
+     * @throws IOException if an I/O error occurs
+     */
+    void requestServe(@NonNull final MerkleRoute route) throws IOException {
+        final List<Integer> steps = new ArrayList<>();
+        route.forEach(steps::add);
+        outputStream.writeBoolean(true);
+        outputStream.writeIntList(steps);
+        outputStream.flush();
+    }
+
+    /**
+     * Reads the teacher reply to the last {@link #requestServe(MerkleRoute)} call.
+     *
+     * @return whether the teacher serves the requested root
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean readServeReply() throws IOException {
+        return inputStream.readBoolean();
+    }
+
+    /**
+     * Notifies this teacher that no more custom reconnect roots are requested.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void endRequests() throws IOException {
+        outputStream.writeBoolean(false);
+        outputStream.flush();
+    }
+
+    /**
+     * Reads a route of the next custom reconnect root to serve, on the teacher side.
+     *
+     * @param in the input stream to read from
+     * @return the route, or null if the learner doesn't request more roots
+     * @throws IOException if an I/O error occurs
+     */
+    static MerkleRoute readServeRequest(@NonNull final MerkleDataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return MerkleRouteFactory.buildRoute(in.readIntList(MAX_ROUTE_LENGTH));
+    }
+}
@@ -30,6 +30,8 @@ import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
 import com.swirlds.common.merkle.synchronization.stats.ReconnectMapMetrics;
 import com.swirlds.common.merkle.synchronization.stats.ReconnectMapStats;
 import com.swirlds.common.merkle.synchronization.streams.AsyncOutputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedInputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedOutputStream;
 import com.swirlds.common.merkle.synchronization.task.ReconnectNodeCount;
 import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationException;
 import com.swirlds.common.merkle.synchronization.views.CustomReconnectRoot;
@@ -41,8 +43,11 @@ import com.swirlds.common.threading.pool.StandardWorkGroup;
 import com.swirlds.logging.legacy.payload.SynchronizationCompletePayload;
 import com.swirlds.metrics.api.Metrics;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.ExecutionException;
@@ -61,14 +66,20 @@ public class LearningSynchronizer implements ReconnectNodeCount {
     private static final Logger logger = LogManager.getLogger(LearningSynchronizer.class);
 
     /**
-     * Used to get data from the teacher.
+     * Used to get data from the teacher. Replaced with a decompressing stream if compression is negotiated.
      */
-    private final MerkleDataInputStream inputStream;
+    private MerkleDataInputStream inputStream;
 
     /**
-     * Used to transmit data to the teacher.
+     * Used to transmit data to the teacher. Replaced with a compressing stream if compression is negotiated.
      */
-    private final MerkleDataOutputStream outputStream;
+    private MerkleDataOutputStream outputStream;
+
+    /**
+     * Additional teachers, which hold the same state as the main teacher. Streams are replaced with compressed
+     * streams if compression is negotiated.
+     */
+    private List<HelperTeacher> helperTeachers;
 
     private final Queue<MerkleNode> rootsToReceive;
     private final Deque<LearnerTreeView<?>> viewsToInitialize;
@@ -117,11 +128,36 @@ public class LearningSynchronizer implements ReconnectNodeCount {
             @NonNull final Runnable breakConnection,
             @NonNull final ReconnectConfig reconnectConfig,
             @NonNull final Metrics metrics) {
+        this(threadManager, in, out, List.of(), root, breakConnection, reconnectConfig, metrics);
+    }
+
+    /**
+     * Create a new learning synchronizer, which uses helper teachers in addition to the main teacher.
+     *
+     * @param threadManager   responsible for managing thread lifecycles
+     * @param in              the input stream of the main teacher
+     * @param out             the output stream of the main teacher
+     * @param helperTeachers  helper teachers, which hold the same state as the main teacher
+     * @param root            the root of the tree
+     * @param breakConnection a method that breaks connections to all teachers. Used iff an exception is encountered.
+     * @param reconnectConfig the configuration for the reconnect
+     * @param metrics         a Metrics instance for ReconnectMapStats
+     */
+    public LearningSynchronizer(
+            @NonNull final ThreadManager threadManager,
+            @NonNull final MerkleDataInputStream in,
+            @NonNull final MerkleDataOutputStream out,
+            @NonNull final List<HelperTeacher> helperTeachers,
+            @NonNull final MerkleNode root,
+            @NonNull final Runnable breakConnection,
+            @NonNull final ReconnectConfig reconnectConfig,
+            @NonNull final Metrics metrics) {
 
         this.threadManager = Objects.requireNonNull(threadManager, "threadManager is null");
 
         inputStream = Objects.requireNonNull(in, "inputStream is null");
         outputStream = Objects.requireNonNull(out, "outputStream is null");
+        this.helperTeachers = List.copyOf(Objects.requireNonNull(helperTeachers, "helperTeachers is null"));
         this.reconnectConfig = Objects.requireNonNull(reconnectConfig, "reconnectConfig is null");
 
         rootsToReceive = new LinkedList<>();
@@ -188,6 +224,7 @@ public class LearningSynchronizer implements ReconnectNodeCount {
         logger.info(RECONNECT.getMarker(), "synchronizing tree");
         final long start = System.currentTimeMillis();
 
+        negotiateCompression();
         while (!rootsToReceive.isEmpty()) {
             final MerkleNode root = receiveTree(rootsToReceive.remove());
             if (newRoot == null) {
@@ -195,11 +232,100 @@ public class LearningSynchronizer implements ReconnectNodeCount {
                 newRoot = root;
             }
         }
+        endHelperTeacherRequests();
 
         synchronizationTimeMilliseconds = System.currentTimeMillis() - start;
         logger.info(RECONNECT.getMarker(), "synchronization complete");
     }
 
+    /**
+     * Agree with the teacher on whether to compress streams, and wrap the streams if so.
+     */
+    private void negotiateCompression() {
+        final boolean compress;
+        try {
+            compress = StreamCompression.negotiate(inputStream, outputStream, reconnectConfig.compressStreams());
+        } catch (final IOException e) {
+            throw new MerkleSynchronizationException("Failed to negotiate stream compression", e);
+        }
+        logger.info(RECONNECT.getMarker(), "stream compression is {}", compress ? "enabled" : "disabled");
+        if (compress) {
+            inputStream = compressedInputStream(inputStream);
+            outputStream = compressedOutputStream(outputStream);
+        }
+
+        final List<HelperTeacher> negotiated = new ArrayList<>(helperTeachers.size());
+        for (final HelperTeacher helper : helperTeachers) {
+            final boolean compressHelper;
+            try {
+                compressHelper = StreamCompression.negotiate(
+                        helper.inputStream(), helper.outputStream(), reconnectConfig.compressStreams());
+            } catch (final IOException e) {
+                throw new MerkleSynchronizationException(
+                        "Failed to negotiate stream compression with helper teacher " + helper.name(), e);
+            }
+            negotiated.add(
+                    compressHelper
+                            ? new HelperTeacher(
+                                    helper.name(),
+                                    compressedInputStream(helper.inputStream()),
+                                    compressedOutputStream(helper.outputStream()))
+                            : helper);
+        }
+        helperTeachers = negotiated;
+    }
+
+    private MerkleDataInputStream compressedInputStream(final MerkleDataInputStream in) {
+        return new MerkleDataInputStream(new CompressedInputStream(in, mapStats));
+    }
+
+    private MerkleDataOutputStream compressedOutputStream(final MerkleDataOutputStream out) {
+        return new MerkleDataOutputStream(new CompressedOutputStream(
+                out, StreamCompression.FRAME_SIZE, reconnectConfig.streamCompressionLevel()));
+    }
+
+    /**
+     * Ask all helper teachers to serve a custom reconnect root, which is about to be received.
+     *
+     * @param root the custom reconnect root on the learner side
+     */
+    private void requestHelperTeachers(final MerkleNode root) {
+        for (final HelperTeacher helper : helperTeachers) {
+            try {
+                helper.requestServe(root.getRoute());
+            } catch (final IOException e) {
+                throw new MerkleSynchronizationException(
+                        "Failed to send request to helper teacher " + helper.name(), e);
+            }
+        }
+    }
+
+    /**
+     * Notify all helper teachers that no more custom reconnect roots will be requested.
+     */
+    private void endHelperTeacherRequests() {
+        for (final HelperTeacher helper : helperTeachers) {
+            try {
+                helper.endRequests();
+            } catch (final IOException e) {
+                throw new MerkleSynchronizationException(
+                        "Failed to send request to helper teacher " + helper.name(), e);
+            }
+        }
+    }
+
+    /**
+     * Get the helper teachers, which hold the same state as the main teacher. The list is empty, unless helper
+     * teachers are provided to this synchronizer. Views that support helper teachers must read the reply to the
+     * serve request, see {@link HelperTeacher#readServeReply()}, from every helper teacher before using it.
+     *
+     * @return the helper teachers
+     */
+    @NonNull
+    public List<HelperTeacher> getHelperTeachers() {
+        return helperTeachers;
+    }
+
     /**
      * Initialize the tree.
      */
@@ -290,6 +416,10 @@ public class LearningSynchronizer implements ReconnectNodeCount {
 
         final AtomicReference<T> reconstructedRoot = new AtomicReference<>();
 
+        if (!helperTeachers.isEmpty() && view.supportsHelperTeachers()) {
+            requestHelperTeachers(root);
+        }
+
         view.startLearnerTasks(this, workGroup, inputStream, outputStream, rootsToReceive, reconstructedRoot);
         InterruptedException interruptException = null;
         try {
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.merkle.synchronization;
+
+import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedInputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedOutputStream;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+
+/**
+ * Reconnect stream compression utilities shared by {@link TeachingSynchronizer} and {@link LearningSynchronizer}.
+ * Both the teacher and the learner always write a flag, whether compression is enabled locally, then read the flag
+ * sent by the peer. Streams are compressed in both directions if and only if both flags are set. Flags are exchanged
+ * even if compression is disabled, so peers with different compression settings still agree on the stream format.
+ */
+final class StreamCompression {
+
+    /** Max uncompressed size of a single {@link CompressedOutputStream} frame, in bytes */
+    static final int FRAME_SIZE = 64 * 1024;
+
+    private StreamCompression() {}
+
+    /**
+     * Exchanges compression flags with the peer. Must be called by both peers at the same point of the protocol.
+     *
+     * @param in the stream to read the peer flag from
+     * @param out the stream to write the local flag to
+     * @param enabled whether compression is enabled locally
+     * @return whether streams should be wrapped into {@link CompressedInputStream} and
+     *     {@link CompressedOutputStream}
+     * @throws IOException if an I/O error occurred
+     */
+    static boolean negotiate(
+            @NonNull final SerializableDataInputStream in,
+            @NonNull final SerializableDataOutputStream out,
+            final boolean enabled)
+            throws IOException {
+        out.writeBoolean(enabled);
+        out.flush();
+        final boolean peerEnabled = in.readBoolean();
+        return enabled && peerEnabled;
+    }
+}
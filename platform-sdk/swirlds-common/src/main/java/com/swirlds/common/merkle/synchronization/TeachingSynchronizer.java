@@ -24,16 +24,22 @@ import com.swirlds.common.io.streams.MerkleDataInputStream;
 import com.swirlds.common.io.streams.MerkleDataOutputStream;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
 import com.swirlds.common.merkle.MerkleNode;
+import com.swirlds.common.merkle.exceptions.MerkleRouteException;
+import com.swirlds.common.merkle.route.MerkleRoute;
 import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
 import com.swirlds.common.merkle.synchronization.streams.AsyncOutputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedInputStream;
+import com.swirlds.common.merkle.synchronization.streams.CompressedOutputStream;
 import com.swirlds.common.merkle.synchronization.task.TeacherSubtree;
 import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationException;
+import com.swirlds.common.merkle.synchronization.views.CustomReconnectRoot;
 import com.swirlds.common.merkle.synchronization.views.TeacherTreeView;
 import com.swirlds.common.threading.manager.ThreadManager;
 import com.swirlds.common.threading.pool.StandardWorkGroup;
 import com.swirlds.config.api.Configuration;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
 import java.net.SocketException;
 import java.util.LinkedList;
 import java.util.Objects;
@@ -53,14 +59,19 @@ public class TeachingSynchronizer {
     private static final Logger logger = LogManager.getLogger(TeachingSynchronizer.class);
 
     /**
-     * Used to get data from the listener.
+     * Used to get data from the listener. Replaced with a decompressing stream if compression is negotiated.
      */
-    private final MerkleDataInputStream inputStream;
+    private MerkleDataInputStream inputStream;
 
     /**
-     * Used to transmit data to the listener.
+     * Used to transmit data to the listener. Replaced with a compressing stream if compression is negotiated.
      */
-    private final MerkleDataOutputStream outputStream;
+    private MerkleDataOutputStream outputStream;
+
+    /**
+     * The compressing stream that wraps the original output stream, or null if streams are not compressed.
+     */
+    private CompressedOutputStream compressedOutputStream;
 
     /**
      * <p>
@@ -75,6 +86,11 @@ public class TeachingSynchronizer {
      */
     private final Queue<TeacherSubtree> subtrees;
 
+    /**
+     * The root of the tree to teach.
+     */
+    private final MerkleNode root;
+
     private final Runnable breakConnection;
 
     /**
@@ -114,6 +130,7 @@ public class TeachingSynchronizer {
         inputStream = Objects.requireNonNull(in, "in must not be null");
         outputStream = Objects.requireNonNull(out, "out must not be null");
 
+        this.root = root;
         subtrees = new LinkedList<>();
         subtrees.add(new TeacherSubtree(configuration, root));
 
@@ -126,12 +143,20 @@ public class TeachingSynchronizer {
      */
     public void synchronize() throws InterruptedException {
         try {
+            negotiateCompression();
             while (!subtrees.isEmpty()) {
                 try (final TeacherSubtree subtree = subtrees.remove()) {
                     subtree.getView().waitUntilReady();
                     sendTree(subtree.getRoot(), subtree.getView());
                 }
             }
+            if (compressedOutputStream != null) {
+                logger.info(
+                        RECONNECT.getMarker(),
+                        "sent {} bytes compressed to {} bytes",
+                        compressedOutputStream.getBytesWritten(),
+                        compressedOutputStream.getCompressedBytesWritten());
+            }
         } finally {
             // If we crash, make sure to clean up any remaining subtrees.
             for (final TeacherSubtree subtree : subtrees) {
@@ -140,6 +165,85 @@ public class TeachingSynchronizer {
         }
     }
 
+    /**
+     * Serve a learner, which uses this node as a helper teacher, i.e. one of several teachers of the same
+     * state. The learner doesn't receive the whole tree from this node. Instead, it requests custom reconnect
+     * roots by routes, one at a time, see {@link HelperTeacher} for details. For every requested root, a
+     * teacher view is created, and if it supports helper learners, it is used to serve the learner view
+     * the same way as in {@link #synchronize()}.
+     */
+    public void serveHelperLearner() throws InterruptedException {
+        try {
+            negotiateCompression();
+            MerkleRoute route;
+            while ((route = HelperTeacher.readServeRequest(inputStream)) != null) {
+                try (final TeacherSubtree subtree = buildHelperSubtree(route)) {
+                    outputStream.writeBoolean(subtree != null);
+                    outputStream.flush();
+                    if (subtree != null) {
+                        subtree.getView().waitUntilReady();
+                        sendTree(subtree.getRoot(), subtree.getView());
+                    }
+                }
+            }
+            logger.info(RECONNECT.getMarker(), "finished serving helper learner");
+        } catch (final IOException e) {
+            throw new MerkleSynchronizationException("Failed to serve helper learner", e);
+        } finally {
+            for (final TeacherSubtree subtree : subtrees) {
+                subtree.close();
+            }
+        }
+    }
+
+    /**
+     * Creates a subtree to serve a helper learner request for the given route.
+     *
+     * @param route the route of a custom reconnect root
+     * @return the subtree, or null if there is no custom reconnect root at the route, or its view
+     *     doesn't support helper learners
+     */
+    @Nullable
+    private TeacherSubtree buildHelperSubtree(@NonNull final MerkleRoute route) {
+        final MerkleNode node;
+        try {
+            node = (root == null) ? null : root.getNodeAtRoute(route);
+        } catch (final MerkleRouteException e) {
+            logger.warn(RECONNECT.getMarker(), "helper learner requested invalid route {}", route, e);
+            return null;
+        }
+        if ((node == null) || !node.hasCustomReconnectView()) {
+            logger.warn(RECONNECT.getMarker(), "no custom reconnect root for helper learner at route {}", route);
+            return null;
+        }
+        final TeacherTreeView<?> view = ((CustomReconnectRoot<?, ?>) node).buildTeacherView(reconnectConfig);
+        if (!view.supportsHelperLearners()) {
+            logger.info(RECONNECT.getMarker(), "view at route {} doesn't support helper learners", route);
+            view.close();
+            return null;
+        }
+        return new TeacherSubtree(node, view);
+    }
+
+    /**
+     * Agree with the learner on whether to compress streams, and wrap the streams if so.
+     */
+    private void negotiateCompression() {
+        final boolean compress;
+        try {
+            compress = StreamCompression.negotiate(inputStream, outputStream, reconnectConfig.compressStreams());
+        } catch (final IOException e) {
+            throw new MerkleSynchronizationException("Failed to negotiate stream compression", e);
+        }
+        logger.info(RECONNECT.getMarker(), "stream compression is {}", compress ? "enabled" : "disabled");
+        if (compress) {
+            compressedOutputStream = new CompressedOutputStream(
+                    outputStream, StreamCompression.FRAME_SIZE, reconnectConfig.streamCompressionLevel());
+            inputStream = new MerkleDataInputStream(new CompressedInputStream(inputStream, null));
+            outputStream = new MerkleDataOutputStream(compressedOutputStream);
+        }
+    }
+
     /**
      * Send a tree (or subtree).
      */
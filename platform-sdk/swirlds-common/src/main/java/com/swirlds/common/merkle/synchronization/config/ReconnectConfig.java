@@ -18,6 +18,8 @@ package com.swirlds.common.merkle.synchronization.config;
 
 import com.swirlds.config.api.ConfigData;
 import com.swirlds.config.api.ConfigProperty;
+import com.swirlds.config.api.validation.annotation.Max;
+import com.swirlds.config.api.validation.annotation.Min;
 import java.time.Duration;
 
 /**
@@ -56,6 +58,22 @@ import java.time.Duration;
  * @param pullLearnerRootResponseTimeout         In pull-based reconnect implementations (virtual trees only), the
  *                                               timeout on the learner side to get a virtual root node response from
  *                                               teacher
+ * @param compressStreams                        If true, reconnect streams are compressed. Teacher and learner
+ *                                               exchange this setting at the start of every synchronization, and
+ *                                               streams are only compressed if it's enabled on both of them.
+ * @param streamCompressionLevel                 Deflate compression level, from 1 (fastest) to 9 (best compression),
+ *                                               used for compressed reconnect streams
+ * @param asyncOutputStreamBatchSize             The minimum number of messages an asyncOutputStream buffers before
+ *                                               it flushes when there are no more messages to send. Buffered
+ *                                               messages are still flushed every {@link #asyncOutputStreamFlush}.
+ *                                               If 0, the stream is flushed every time it runs out of messages.
+ * @param maxHelperTeachers                      The maximum number of additional teachers a learner uses in
+ *                                               parallel with the main teacher. Helper teachers only serve
+ *                                               virtual maps reconnected in pull mode, and only if their virtual
+ *                                               map root hashes match the main teacher. If 0, a single teacher is
+ *                                               used.
+ * @param helperTeacherWaitTime                  How long a learner waits for helper teachers to connect after the
+ *                                               main teacher connection is established
  */
 @ConfigData("reconnect")
 public record ReconnectConfig(
@@ -70,4 +88,9 @@ public record ReconnectConfig(
         @ConfigProperty(defaultValue = "10m") Duration minimumTimeBetweenReconnects,
         @ConfigProperty(defaultValue = "0") int teacherMaxNodesPerSecond,
         @ConfigProperty(defaultValue = "1us") Duration teacherRateLimiterSleep,
-        @ConfigProperty(defaultValue = "60s") Duration pullLearnerRootResponseTimeout) {}
+        @ConfigProperty(defaultValue = "60s") Duration pullLearnerRootResponseTimeout,
+        @ConfigProperty(defaultValue = "false") boolean compressStreams,
+        @Min(1) @Max(9) @ConfigProperty(defaultValue = "1") int streamCompressionLevel,
+        @Min(0) @ConfigProperty(defaultValue = "0") int asyncOutputStreamBatchSize,
+        @Min(0) @ConfigProperty(defaultValue = "0") int maxHelperTeachers,
+        @ConfigProperty(defaultValue = "2s") Duration helperTeacherWaitTime) {}
@@ -16,6 +16,7 @@
 
 package com.swirlds.common.merkle.synchronization.stats;
 
+import com.swirlds.metrics.api.DoubleGauge;
 import com.swirlds.metrics.api.LongGauge;
 import com.swirlds.metrics.api.Metrics;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -48,6 +49,14 @@ public class ReconnectMapMetrics implements ReconnectMapStats {
     private final LongGauge leafData;
     private final LongGauge leafCleanData;
 
+    private final LongGauge streamBytes;
+    private final LongGauge streamCompressedBytes;
+    private final DoubleGauge streamCompressionRatio;
+    private final DoubleGauge streamThroughput;
+
+    /** The time when this object was created, used to compute stream throughput. */
+    private final long startNanos;
+
     /**
      * Create an instance of ReconnectMapMetrics.
      * @param metrics a non-null Metrics object
@@ -98,6 +107,20 @@ public class ReconnectMapMetrics implements ReconnectMapStats {
                 metrics.getOrCreate(new LongGauge.Config(RECONNECT_MAP_CATEGORY, formatName("leafCleanData", label))
                         .withDescription("number of clean leaf node data transferred"));
 
+        this.streamBytes =
+                metrics.getOrCreate(new LongGauge.Config(RECONNECT_MAP_CATEGORY, formatName("streamBytes", label))
+                        .withDescription("number of bytes received in compressed streams, after decompression"));
+        this.streamCompressedBytes = metrics.getOrCreate(
+                new LongGauge.Config(RECONNECT_MAP_CATEGORY, formatName("streamCompressedBytes", label))
+                        .withDescription("number of bytes received in compressed streams, before decompression"));
+        this.streamCompressionRatio = metrics.getOrCreate(
+                new DoubleGauge.Config(RECONNECT_MAP_CATEGORY, formatGaugeName("streamCompressionRatio", label))
+                        .withDescription("ratio of received stream bytes after and before decompression"));
+        this.streamThroughput = metrics.getOrCreate(
+                new DoubleGauge.Config(RECONNECT_MAP_CATEGORY, formatGaugeName("streamThroughput", label))
+                        .withDescription("received stream bytes per second, after decompression"));
+        this.startNanos = System.nanoTime();
+
         // Reset metric values to zeros on reconnect start
         resetMetrics();
     }
@@ -106,6 +129,10 @@ public class ReconnectMapMetrics implements ReconnectMapStats {
         return (label == null || label.isBlank() ? name : (name + "_" + label + "_")) + "Total";
     }
 
+    private static String formatGaugeName(final String name, final String label) {
+        return label == null || label.isBlank() ? name : (name + "_" + label);
+    }
+
     private static void add(final LongGauge metric, final long value) {
         metric.set(metric.get() + value);
     }
@@ -130,6 +157,11 @@ public class ReconnectMapMetrics implements ReconnectMapStats {
         leafCleanHashes.set(0);
         leafData.set(0);
         leafCleanData.set(0);
+
+        streamBytes.set(0);
+        streamCompressedBytes.set(0);
+        streamCompressionRatio.set(0);
+        streamThroughput.set(0);
     }
 
     /**
@@ -202,6 +234,27 @@ public class ReconnectMapMetrics implements ReconnectMapStats {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void incrementStreamBytes(final long bytes, final long compressedBytes) {
+        add(streamBytes, bytes);
+        add(streamCompressedBytes, compressedBytes);
+        final long totalBytes = streamBytes.get();
+        final long totalCompressedBytes = streamCompressedBytes.get();
+        if (totalCompressedBytes > 0) {
+            streamCompressionRatio.set((double) totalBytes / totalCompressedBytes);
+        }
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        if (elapsedNanos > 0) {
+            streamThroughput.set(totalBytes * 1_000_000_000.0 / elapsedNanos);
+        }
+        if (aggregateStats != null) {
+            aggregateStats.incrementStreamBytes(bytes, compressedBytes);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -225,6 +278,15 @@ public class ReconnectMapMetrics implements ReconnectMapStats {
         sb.append("leafData=").append(leafData.get()).append("; ");
         sb.append("leafCleanData=").append(leafCleanData.get());
 
+        if (streamCompressedBytes.get() > 0) {
+            sb.append("; streamBytes=").append(streamBytes.get()).append("; ");
+            sb.append("streamCompressedBytes=").append(streamCompressedBytes.get()).append("; ");
+            sb.append("streamCompressionRatio=")
+                    .append(String.format("%.2f", streamCompressionRatio.get()))
+                    .append("; ");
+            sb.append("streamThroughput=").append(String.format("%.0f", streamThroughput.get()));
+        }
+
         return sb.toString();
     }
 }
@@ -73,6 +73,13 @@ public interface ReconnectMapStats {
      */
     default void incrementLeafData(int dataNum, int cleanDataNum) {}
 
+    /**
+     * Gather stats about compressed reconnect stream data received.
+     * @param bytes the number of data bytes received, after decompression
+     * @param compressedBytes the number of bytes actually read from the network, including framing
+     */
+    default void incrementStreamBytes(long bytes, long compressedBytes) {}
+
     /**
      * Formats a string with all the accumulated stats and any other useful information
      * maintained by the implementation of this interface, such as the map name and similar.
@@ -85,6 +85,12 @@ public class AsyncOutputStream<T extends SelfSerializable> implements AutoClosea
      */
     private int bufferedMessageCount;
 
+    /**
+     * The minimum number of buffered messages to flush when there are no more messages to send. If 0, buffered
+     * messages are flushed every time the queue is empty.
+     */
+    private final int batchSize;
+
     /**
      * The maximum amount of time to wait when writing a message.
      */
@@ -114,6 +120,7 @@ public class AsyncOutputStream<T extends SelfSerializable> implements AutoClosea
         this.timeSinceLastFlush.start();
         this.flushInterval = config.asyncOutputStreamFlush();
         this.timeout = config.asyncStreamTimeout();
+        this.batchSize = config.asyncOutputStreamBatchSize();
     }
 
     /**
@@ -149,7 +156,7 @@ public class AsyncOutputStream<T extends SelfSerializable> implements AutoClosea
             flushIfRequired();
             boolean workDone = handleNextMessage();
             if (!workDone) {
-                workDone = flush();
+                workDone = bufferedMessageCount >= batchSize && flush();
                 if (!workDone) {
                     try {
                         Thread.sleep(0, 1);
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.merkle.synchronization.streams;
+
+import static com.swirlds.common.merkle.synchronization.streams.CompressedOutputStream.FRAME_DEFLATED;
+import static com.swirlds.common.merkle.synchronization.streams.CompressedOutputStream.FRAME_STORED;
+import static com.swirlds.common.merkle.synchronization.streams.CompressedOutputStream.MAX_FRAME_SIZE;
+
+import com.swirlds.common.merkle.synchronization.stats.ReconnectMapStats;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * An input stream that reads and decompresses frames written by {@link CompressedOutputStream}. This stream never
+ * reads from the underlying stream past the end of the current frame.
+ * <p>
+ * This class is not thread safe.
+ */
+public class CompressedInputStream extends InputStream {
+
+    private final InputStream in;
+
+    private final Inflater inflater = new Inflater();
+
+    /** Optional stats to report the number of bytes received, before and after decompression */
+    @Nullable
+    private final ReconnectMapStats stats;
+
+    /** Frame header buffer */
+    private final byte[] header = new byte[Integer.BYTES];
+
+    /** Decompressed data of the current frame */
+    private byte[] buffer = new byte[0];
+
+    /** Compressed data of the current frame */
+    private byte[] deflated = new byte[0];
+
+    /** The position of the next byte to read in the buffer */
+    private int position = 0;
+
+    /** The number of data bytes in the buffer */
+    private int limit = 0;
+
+    private boolean closed = false;
+
+    /**
+     * Creates a new compressed input stream.
+     *
+     * @param in the underlying stream to read frames from
+     * @param stats optional stats to report received bytes to, may be null
+     */
+    public CompressedInputStream(@NonNull final InputStream in, @Nullable final ReconnectMapStats stats) {
+        this.in = Objects.requireNonNull(in, "in must not be null");
+        this.stats = stats;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        if ((position == limit) && !readFrame()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(@NonNull final byte[] b, final int off, final int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        if ((position == limit) && !readFrame()) {
+            return -1;
+        }
+        final int n = Math.min(len, limit - position);
+        System.arraycopy(buffer, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    /**
+     * Returns the number of bytes remaining in the current frame. This stream doesn't check if the next frame
+     * is available without blocking.
+     */
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    /**
+     * Releases the decompressor and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            in.close();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Reads the next frame from the underlying stream.
+     *
+     * @return true if a frame is read, or false if the end of the underlying stream is reached
+     */
+    private boolean readFrame() throws IOException {
+        final int frameType = in.read();
+        if (frameType < 0) {
+            return false;
+        }
+        final int length = readInt();
+        if ((length <= 0) || (length > MAX_FRAME_SIZE)) {
+            throw new IOException("Invalid compressed stream frame length: " + length);
+        }
+        // One extra byte, so the decompressor always has space to consume all frame data
+        if (buffer.length <= length) {
+            buffer = new byte[length + 1];
+        }
+        final int frameLength;
+        if (frameType == FRAME_STORED) {
+            readFully(buffer, length);
+            frameLength = CompressedOutputStream.STORED_HEADER_SIZE + length;
+        } else if (frameType == FRAME_DEFLATED) {
+            final int deflatedLength = readInt();
+            if ((deflatedLength <= 0) || (deflatedLength > length + (length >>> 8) + 64)) {
+                throw new IOException("Invalid compressed stream frame compressed length: " + deflatedLength);
+            }
+            if (deflated.length < deflatedLength) {
+                deflated = new byte[deflatedLength];
+            }
+            readFully(deflated, deflatedLength);
+            inflate(deflatedLength, length);
+            frameLength = CompressedOutputStream.DEFLATED_HEADER_SIZE + deflatedLength;
+        } else {
+            throw new IOException("Unknown compressed stream frame type: " + frameType);
+        }
+        position = 0;
+        limit = length;
+        if (stats != null) {
+            stats.incrementStreamBytes(length, frameLength);
+        }
+        return true;
+    }
+
+    private void inflate(final int deflatedLength, final int length) throws IOException {
+        inflater.setInput(deflated, 0, deflatedLength);
+        int inflatedLength = 0;
+        try {
+            // Consume all frame data, including the flush marker, or the decompressor state would be broken
+            while (!inflater.needsInput()) {
+                final int n = inflater.inflate(buffer, inflatedLength, buffer.length - inflatedLength);
+                if ((n == 0) && !inflater.needsInput()) {
+                    throw new IOException("Corrupted compressed stream frame");
+                }
+                inflatedLength += n;
+                if (inflatedLength > length) {
+                    break;
+                }
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException("Corrupted compressed stream frame", e);
+        }
+        if (inflatedLength != length) {
+            throw new IOException(
+                    "Compressed stream frame length mismatch, expected " + length + ", got " + inflatedLength);
+        }
+    }
+
+    private int readInt() throws IOException {
+        readFully(header, Integer.BYTES);
+        return ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16) | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+    }
+
+    private void readFully(final byte[] bytes, final int length) throws IOException {
+        int off = 0;
+        while (off < length) {
+            final int n = in.read(bytes, off, length - off);
+            if (n < 0) {
+                throw new EOFException("Unexpected end of compressed stream");
+            }
+            off += n;
+        }
+    }
+}
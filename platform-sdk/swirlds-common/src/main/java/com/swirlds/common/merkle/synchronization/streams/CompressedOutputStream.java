@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.merkle.synchronization.streams;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+/**
+ * An output stream that compresses data written to it and writes it to the underlying stream as a sequence of
+ * frames, to be read by {@link CompressedInputStream}. Data is buffered, and a frame is written every time the
+ * buffer is full or the stream is flushed.
+ * <p>
+ * The compressor state is preserved across frames, so later frames may refer to data from earlier frames. Every
+ * frame is complete, i.e. the reader never needs to read ahead of the current frame to get all data written before
+ * the flush. This makes the stream suitable for request/response protocols, and the underlying stream can still be
+ * used after the last frame is read. Small frames are written uncompressed.
+ * <p>
+ * Frame format: frame type (1 byte), uncompressed data length (4 bytes), then for compressed frames compressed data
+ * length (4 bytes), then the data itself.
+ * <p>
+ * This class is not thread safe.
+ */
+public class CompressedOutputStream extends OutputStream {
+
+    /** Frame type of uncompressed frames */
+    static final int FRAME_STORED = 0;
+
+    /** Frame type of compressed frames */
+    static final int FRAME_DEFLATED = 1;
+
+    /** Header size of uncompressed frames: frame type and data length */
+    static final int STORED_HEADER_SIZE = 1 + Integer.BYTES;
+
+    /** Header size of compressed frames: frame type, data length, and compressed data length */
+    static final int DEFLATED_HEADER_SIZE = 1 + 2 * Integer.BYTES;
+
+    /** Max uncompressed frame size, in bytes */
+    static final int MAX_FRAME_SIZE = 1 << 24;
+
+    /** Frames with less data than this are not compressed, as compression wouldn't save much, if anything */
+    private static final int MIN_DEFLATED_FRAME_SIZE = 256;
+
+    private final OutputStream out;
+
+    private final Deflater deflater;
+
+    private final int frameSize;
+
+    /** Data buffer. The first {@link #STORED_HEADER_SIZE} bytes are reserved for uncompressed frame header */
+    private final byte[] buffer;
+
+    /** The number of data bytes in the buffer */
+    private int count = 0;
+
+    /** Compressed frame buffer, grows as needed */
+    private byte[] deflated;
+
+    private long bytesWritten = 0;
+
+    private long compressedBytesWritten = 0;
+
+    private boolean closed = false;
+
+    /**
+     * Creates a new compressed output stream.
+     *
+     * @param out the underlying stream to write frames to
+     * @param frameSize max uncompressed frame size, in bytes
+     * @param level compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+     */
+    public CompressedOutputStream(@NonNull final OutputStream out, final int frameSize, final int level) {
+        this.out = Objects.requireNonNull(out, "out must not be null");
+        if ((frameSize <= 0) || (frameSize > MAX_FRAME_SIZE)) {
+            throw new IllegalArgumentException("Invalid frame size: " + frameSize);
+        }
+        if ((level < Deflater.BEST_SPEED) || (level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.frameSize = frameSize;
+        this.deflater = new Deflater(level);
+        this.buffer = new byte[STORED_HEADER_SIZE + frameSize];
+        this.deflated = new byte[DEFLATED_HEADER_SIZE + frameSize / 2];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final int b) throws IOException {
+        if (count == frameSize) {
+            writeFrame();
+        }
+        buffer[STORED_HEADER_SIZE + count++] = (byte) b;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(@NonNull final byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        while (len > 0) {
+            if (count == frameSize) {
+                writeFrame();
+            }
+            final int n = Math.min(len, frameSize - count);
+            System.arraycopy(b, off, buffer, STORED_HEADER_SIZE + count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Writes all buffered data as a frame and flushes the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            writeFrame();
+        }
+        out.flush();
+    }
+
+    /**
+     * Flushes this stream, releases the compressor, and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    /**
+     * Returns the total number of data bytes written to this stream, before compression.
+     *
+     * @return the number of data bytes
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Returns the total number of bytes written to the underlying stream, including frame headers.
+     *
+     * @return the number of bytes written to the underlying stream
+     */
+    public long getCompressedBytesWritten() {
+        return compressedBytesWritten;
+    }
+
+    private void writeFrame() throws IOException {
+        final int frameLength;
+        if (count < MIN_DEFLATED_FRAME_SIZE) {
+            buffer[0] = FRAME_STORED;
+            putInt(buffer, 1, count);
+            out.write(buffer, 0, STORED_HEADER_SIZE + count);
+            frameLength = STORED_HEADER_SIZE + count;
+        } else {
+            deflater.setInput(buffer, STORED_HEADER_SIZE, count);
+            int length = DEFLATED_HEADER_SIZE;
+            while (true) {
+                // With SYNC_FLUSH, all input is compressed unless the output buffer is full
+                length += deflater.deflate(deflated, length, deflated.length - length, Deflater.SYNC_FLUSH);
+                if (length < deflated.length) {
+                    break;
+                }
+                deflated = Arrays.copyOf(deflated, deflated.length * 2);
+            }
+            deflated[0] = FRAME_DEFLATED;
+            putInt(deflated, 1, count);
+            putInt(deflated, 1 + Integer.BYTES, length - DEFLATED_HEADER_SIZE);
+            out.write(deflated, 0, length);
+            frameLength = length;
+        }
+        bytesWritten += count;
+        compressedBytesWritten += frameLength;
+        count = 0;
+    }
+
+    private static void putInt(final byte[] bytes, final int offset, final int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
@@ -68,6 +68,17 @@ public interface LearnerTreeView<T> extends LearnerExpectedLessonQueue<T>, Learn
      */
     default void abort() {}
 
+    /**
+     * Indicates whether this view can send requests to helper teachers in addition to the main
+     * teacher, see {@link LearningSynchronizer#getHelperTeachers()}. If so, learning synchronizer
+     * asks all helper teachers to serve this view before its tasks are started.
+     *
+     * @return whether this view can use helper teachers
+     */
+    default boolean supportsHelperTeachers() {
+        return false;
+    }
+
     /**
      * Check if this view represents the root of the state.
      *
@@ -63,6 +63,18 @@ public interface TeacherTreeView<T>
      */
     default void abort() {}
 
+    /**
+     * Indicates whether this view can serve a learner, which uses this node as one of several
+     * teachers of the same state. Such a learner doesn't receive the whole tree from this node,
+     * it only sends requests for some nodes of this view. See {@link
+     * TeachingSynchronizer#serveHelperLearner()} for details.
+     *
+     * @return whether this view can be used by helper teachers
+     */
+    default boolean supportsHelperLearners() {
+        return false;
+    }
+
     /**
      * Get the root of the tree.
      *
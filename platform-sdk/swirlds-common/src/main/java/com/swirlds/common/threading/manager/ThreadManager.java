@@ -36,6 +36,16 @@ public interface ThreadManager extends Lifecycle {
      */
     Thread createThread(ThreadGroup threadGroup, Runnable runnable);
 
+    /**
+     * Create a new virtual thread. Thread is not automatically started. Virtual threads are always daemon threads, and
+     * they don't belong to any user provided thread group.
+     *
+     * @param runnable the runnable that will be executed on the thread
+     * @return a new virtual Thread
+     * @throws LifecycleException if called before the thread manager has been started
+     */
+    Thread createVirtualThread(Runnable runnable);
+
     /**
      * Create a new thread factory. Thread factory will throw {@link MutabilityException MutabilityException} if it is
      * used to create a thread before the thread manager is started.
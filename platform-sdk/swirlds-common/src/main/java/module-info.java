@@ -83,7 +83,8 @@ module com.swirlds.common {
             com.swirlds.common.testing;
     exports com.swirlds.common.crypto.engine to
             com.swirlds.common.testing,
-            com.swirlds.common.test.fixtures;
+            com.swirlds.common.test.fixtures,
+            com.swirlds.virtualmap;
 
     opens com.swirlds.common.crypto to
             com.fasterxml.jackson.databind;
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.crypto.engine;
+
+import static com.swirlds.common.test.fixtures.RandomUtils.randomHash;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.HashBuilder;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HashPairBatchTest {
+
+    private static Hash buildHash(final long classId, final int classVersion, final Hash left, final Hash right) {
+        final HashBuilder builder = new HashBuilder(DigestType.SHA_384);
+        builder.update(classId);
+        builder.update(classVersion);
+        builder.update(left);
+        builder.update(right);
+        return builder.build();
+    }
+
+    @Test
+    void sameHashesAsHashBuilder() {
+        final Random random = new Random(42);
+        final HashPairBatch batch = new HashPairBatch(DigestType.SHA_384, 16);
+        final long[] classIds = new long[16];
+        final int[] classVersions = new int[16];
+        final Hash[] lefts = new Hash[16];
+        final Hash[] rights = new Hash[16];
+        for (int i = 0; i < 16; i++) {
+            classIds[i] = random.nextLong();
+            classVersions[i] = random.nextInt();
+            lefts[i] = randomHash(random);
+            rights[i] = randomHash(random);
+            assertEquals(i, batch.add(classIds[i], classVersions[i], lefts[i], rights[i]), "Wrong index in batch");
+        }
+        final Hash[] results = new Hash[20];
+        batch.digest(results, 2);
+        assertEquals(0, batch.size(), "Batch must be cleared after digest");
+        for (int i = 0; i < 16; i++) {
+            assertEquals(
+                    buildHash(classIds[i], classVersions[i], lefts[i], rights[i]),
+                    results[i + 2],
+                    "Batch hash must be the same as built by HashBuilder");
+        }
+    }
+
+    @Test
+    void batchIsReusable() {
+        final Random random = new Random(43);
+        final HashPairBatch batch = new HashPairBatch(DigestType.SHA_384, 4);
+        final Hash left = randomHash(random);
+        final Hash right = randomHash(random);
+        final Hash[] results = new Hash[1];
+        // partially filled batch, then cleared
+        batch.add(1, 2, right, left);
+        batch.clear();
+        batch.add(3, 4, left, right);
+        batch.digest(results, 0);
+        assertEquals(buildHash(3, 4, left, right), results[0], "Wrong hash after clear");
+        batch.add(5, 6, left, right);
+        batch.digest(results, 0);
+        assertEquals(buildHash(5, 6, left, right), results[0], "Wrong hash after digest");
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HashPairBatch(DigestType.SHA_384, 0), "Zero capacity");
+        final HashPairBatch batch = new HashPairBatch(DigestType.SHA_384, 1);
+        final Hash hash = randomHash();
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> batch.add(1, 1, hash, new Hash(DigestType.SHA_512)),
+                "Different digest type");
+        batch.add(1, 1, hash, hash);
+        assertThrows(IllegalStateException.class, () -> batch.add(1, 1, hash, hash), "Batch is full");
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.digest(new Hash[1], 1), "Results don't fit");
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.merkle.synchronization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class StreamCompressionTest {
+
+    /**
+     * Negotiates compression with a peer, which sends the given flag.
+     *
+     * @return the negotiation result, and the flag sent to the peer
+     */
+    private static boolean[] negotiate(final boolean enabled, final boolean peerEnabled) throws IOException {
+        final ByteArrayOutputStream peerOut = new ByteArrayOutputStream();
+        new SerializableDataOutputStream(peerOut).writeBoolean(peerEnabled);
+        final ByteArrayInputStream wireIn = new ByteArrayInputStream(peerOut.toByteArray());
+        final ByteArrayOutputStream wireOut = new ByteArrayOutputStream();
+        final boolean compress = StreamCompression.negotiate(
+                new SerializableDataInputStream(wireIn), new SerializableDataOutputStream(wireOut), enabled);
+        assertEquals(0, wireIn.available(), "The peer flag must be read");
+        final boolean sent = new SerializableDataInputStream(new ByteArrayInputStream(wireOut.toByteArray()))
+                .readBoolean();
+        return new boolean[] {compress, sent};
+    }
+
+    @Test
+    void enabledCompressionExchangesFlags() throws IOException {
+        final boolean[] result = negotiate(true, true);
+        assertTrue(result[0], "Compression must be enabled");
+        assertTrue(result[1], "Local flag must be sent to the peer");
+    }
+
+    @Test
+    void disabledCompressionExchangesFlags() throws IOException {
+        final boolean[] result = negotiate(false, false);
+        assertFalse(result[0], "Compression must be disabled");
+        assertFalse(result[1], "Local flag must be sent to the peer");
+    }
+
+    @Test
+    void mismatchedSettingsDisableCompression() throws IOException {
+        final boolean[] enabledLocally = negotiate(true, false);
+        assertFalse(enabledLocally[0], "Compression must be disabled, if the peer disables it");
+        assertTrue(enabledLocally[1], "Local flag must be sent to the peer");
+
+        final boolean[] enabledByPeer = negotiate(false, true);
+        assertFalse(enabledByPeer[0], "Compression must be disabled, if it's disabled locally");
+        assertFalse(enabledByPeer[1], "Local flag must be sent to the peer");
+    }
+}
@@ -17,6 +17,8 @@
 package com.swirlds.common.merkle.synchronization.config;
 
 import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.config.api.validation.ConfigViolationException;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -30,4 +32,19 @@ class ReconnectConfigTest {
         // then
         Assertions.assertDoesNotThrow(() -> builder.build(), "All default values of ReconnectConfig should be valid");
     }
+
+    @Test
+    public void testStreamCompressionLevelOutOfRange() {
+        for (final int level : new int[] {0, 10}) {
+            // given
+            final ConfigurationBuilder builder = ConfigurationBuilder.create()
+                    .withSources(new SimpleConfigSource("reconnect.streamCompressionLevel", level))
+                    .withConfigDataType(ReconnectConfig.class);
+
+            // then
+            final ConfigViolationException exception = Assertions.assertThrows(
+                    ConfigViolationException.class, builder::build, "Level " + level + " must be rejected");
+            Assertions.assertEquals(1, exception.getViolations().size(), "We must exactly have 1 violation");
+        }
+    }
 }
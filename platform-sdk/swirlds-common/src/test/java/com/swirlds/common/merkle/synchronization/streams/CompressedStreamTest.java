@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.merkle.synchronization.streams;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.merkle.synchronization.stats.ReconnectMapStats;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CompressedStreamTest {
+
+    @Test
+    void invalidArguments() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(IllegalArgumentException.class, () -> new CompressedOutputStream(out, 0, 1), "Zero frame size");
+        assertThrows(IllegalArgumentException.class, () -> new CompressedOutputStream(out, 1024, 0), "Level 0");
+        assertThrows(IllegalArgumentException.class, () -> new CompressedOutputStream(out, 1024, 10), "Level 10");
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        final Random random = new Random(42);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        final CompressedOutputStream out = new CompressedOutputStream(wire, 4096, 1);
+        for (int i = 0; i < 200; i++) {
+            final byte[] chunk = new byte[random.nextInt(10_000)];
+            if (i % 3 == 0) {
+                random.nextBytes(chunk);
+            } else {
+                // Compressible data
+                for (int j = 0; j < chunk.length; j++) {
+                    chunk[j] = (byte) (j % 17);
+                }
+            }
+            if (i % 5 == 0) {
+                for (final byte b : chunk) {
+                    out.write(b);
+                }
+            } else {
+                out.write(chunk);
+            }
+            expected.write(chunk);
+            if (i % 7 == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        // Data written after the compressed stream must be readable from the underlying stream
+        wire.write(123);
+
+        final byte[] expectedBytes = expected.toByteArray();
+        assertEquals(expectedBytes.length, out.getBytesWritten(), "All data bytes must be counted");
+        assertEquals(wire.size() - 1, out.getCompressedBytesWritten(), "All frame bytes must be counted");
+        assertTrue(out.getCompressedBytesWritten() < out.getBytesWritten(), "Data must be compressed");
+
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicLong compressedBytes = new AtomicLong();
+        final ReconnectMapStats stats = new ReconnectMapStats() {
+            @Override
+            public void incrementStreamBytes(final long b, final long c) {
+                bytes.addAndGet(b);
+                compressedBytes.addAndGet(c);
+            }
+        };
+        final InputStream raw = new ByteArrayInputStream(wire.toByteArray());
+        final CompressedInputStream in = new CompressedInputStream(raw, stats);
+        final byte[] actualBytes = in.readNBytes(expectedBytes.length);
+        assertArrayEquals(expectedBytes, actualBytes, "Decompressed data must match");
+        assertEquals(123, raw.read(), "Compressed stream must not read past the last frame");
+        assertEquals(expectedBytes.length, bytes.get(), "Stats must report all data bytes");
+        assertEquals(out.getCompressedBytesWritten(), compressedBytes.get(), "Stats must report all frame bytes");
+        assertEquals(-1, in.read(), "End of stream expected");
+    }
+
+    @Test
+    void corruptedFrame() throws IOException {
+        final ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        final CompressedOutputStream out = new CompressedOutputStream(wire, 4096, 1);
+        out.write(new byte[1000]);
+        out.flush();
+        final byte[] frame = wire.toByteArray();
+        // Break the compressed data length
+        frame[5] = 0x7F;
+        final CompressedInputStream in = new CompressedInputStream(new ByteArrayInputStream(frame), null);
+        assertThrows(IOException.class, in::read, "Corrupted frame must be detected");
+        // Unknown frame type
+        frame[0] = 5;
+        final CompressedInputStream in2 = new CompressedInputStream(new ByteArrayInputStream(frame), null);
+        assertThrows(IOException.class, in2::read, "Unknown frame type must be detected");
+    }
+}
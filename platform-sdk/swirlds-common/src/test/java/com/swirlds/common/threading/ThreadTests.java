@@ -29,7 +29,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.swirlds.base.state.MutabilityException;
 import com.swirlds.common.platform.NodeId;
 import com.swirlds.common.test.fixtures.junit.tags.TestComponentTags;
+import com.swirlds.common.threading.framework.StoppableThread;
 import com.swirlds.common.threading.framework.ThreadSeed;
+import com.swirlds.common.threading.framework.config.StoppableThreadConfiguration;
 import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
@@ -161,6 +163,42 @@ class ThreadTests {
         assertFalse(threadException.get(), "there should not have been any exceptions");
     }
 
+    @Test
+    @Tag(TestComponentTags.THREADING)
+    @DisplayName("Virtual Thread Test")
+    void virtualThreadTest() throws InterruptedException {
+        final AtomicBoolean runnableCalled = new AtomicBoolean(false);
+        final Runnable runnable = () -> {
+            assertTrue(Thread.currentThread().isVirtual(), "expected thread to be virtual");
+            runnableCalled.set(true);
+        };
+
+        final Thread thread = new ThreadConfiguration(getStaticThreadManager())
+                .setComponent("component")
+                .setThreadName("virtual")
+                .setDaemon(false)
+                .setPriority(Thread.MAX_PRIORITY)
+                .setVirtual(true)
+                .setRunnable(runnable)
+                .build();
+
+        assertTrue(thread.isVirtual(), "thread should be virtual");
+        assertTrue(thread.isDaemon(), "virtual threads are always daemons");
+        assertEquals("<component: virtual>", thread.getName(), "name should be set on virtual threads");
+
+        thread.start();
+        thread.join();
+        assertTrue(runnableCalled.get(), "runnable should have been called");
+
+        final StoppableThread stoppableThread = new StoppableThreadConfiguration<>(getStaticThreadManager())
+                .setVirtual(true)
+                .setWork(() -> Thread.sleep(1))
+                .build(true);
+        assertEventuallyTrue(stoppableThread::isAlive, Duration.ofSeconds(1), "thread should be running");
+        stoppableThread.stop();
+        assertFalse(stoppableThread.isAlive(), "thread should be stopped");
+    }
+
     @Test
     @Tag(TestComponentTags.THREADING)
     @DisplayName("Class Loader Test")
@@ -32,6 +32,7 @@ import com.swirlds.common.merkle.MerkleLeaf;
 import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.common.merkle.crypto.MerkleCryptoFactory;
 import com.swirlds.common.merkle.iterators.MerkleIterator;
+import com.swirlds.common.merkle.synchronization.HelperTeacher;
 import com.swirlds.common.merkle.synchronization.LearningSynchronizer;
 import com.swirlds.common.merkle.synchronization.TeachingSynchronizer;
 import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
@@ -984,6 +985,14 @@ public final class MerkleTestUtils {
         }
     }
 
+    private static void helperTeachingSynchronizerThread(final TeachingSynchronizer helper) {
+        try {
+            helper.serveHelperLearner();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static void learningSynchronizerThread(final LearningSynchronizer learner) {
         try {
             learner.synchronize();
@@ -1254,6 +1263,113 @@ public final class MerkleTestUtils {
         return testSynchronization(startingTree, desiredTree, 0, reconnectConfig);
     }
 
+    /**
+     * Synchronize two trees using helper teachers in addition to the main teacher, and verify that the end
+     * result is the expected result. Helper teachers serve the given trees, which may or may not be the same
+     * as the desired tree.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends MerkleNode> T hashAndTestSynchronizationWithHelpers(
+            final MerkleNode startingTree,
+            final MerkleNode desiredTree,
+            final List<MerkleNode> helperTrees,
+            final ReconnectConfig reconnectConfig)
+            throws Exception {
+        for (final MerkleNode tree : helperTrees) {
+            if (tree.getHash() == null) {
+                MerkleCryptoFactory.getInstance().digestTreeSync(tree);
+            }
+        }
+        if (startingTree != null && startingTree.getHash() == null) {
+            MerkleCryptoFactory.getInstance().digestTreeSync(startingTree);
+        }
+        if (desiredTree != null && desiredTree.getHash() == null) {
+            MerkleCryptoFactory.getInstance().digestTreeSync(desiredTree);
+        }
+
+        final List<PairedStreams> helperStreams = new ArrayList<>();
+        try (PairedStreams streams = new PairedStreams()) {
+            final List<HelperTeacher> helperTeachers = new ArrayList<>();
+            for (int i = 0; i < helperTrees.size(); i++) {
+                final PairedStreams helperStream = new PairedStreams();
+                helperStreams.add(helperStream);
+                helperTeachers.add(new HelperTeacher(
+                        "helper-" + i, helperStream.getLearnerInput(), helperStream.getLearnerOutput()));
+            }
+            final Runnable disconnectAll = () -> {
+                streams.disconnect();
+                helperStreams.forEach(PairedStreams::disconnect);
+            };
+
+            final LearningSynchronizer learner = new LearningSynchronizer(
+                    getStaticThreadManager(),
+                    streams.getLearnerInput(),
+                    streams.getLearnerOutput(),
+                    helperTeachers,
+                    startingTree,
+                    disconnectAll,
+                    reconnectConfig,
+                    metrics);
+            final Configuration configuration =
+                    TestPlatformContextBuilder.create().build().getConfiguration();
+            final TeachingSynchronizer teacher = new TeachingSynchronizer(
+                    configuration,
+                    Time.getCurrent(),
+                    getStaticThreadManager(),
+                    streams.getTeacherInput(),
+                    streams.getTeacherOutput(),
+                    desiredTree,
+                    streams::disconnect,
+                    reconnectConfig);
+            final List<TeachingSynchronizer> helpers = new ArrayList<>();
+            for (int i = 0; i < helperTrees.size(); i++) {
+                final PairedStreams helperStream = helperStreams.get(i);
+                helpers.add(new TeachingSynchronizer(
+                        configuration,
+                        Time.getCurrent(),
+                        getStaticThreadManager(),
+                        helperStream.getTeacherInput(),
+                        helperStream.getTeacherOutput(),
+                        helperTrees.get(i),
+                        helperStream::disconnect,
+                        reconnectConfig));
+            }
+
+            final AtomicReference<Throwable> firstReconnectException = new AtomicReference<>();
+            final Function<Throwable, Boolean> exceptionListener = t -> {
+                firstReconnectException.compareAndSet(null, t);
+                return false;
+            };
+            final StandardWorkGroup workGroup = new StandardWorkGroup(
+                    getStaticThreadManager(), "synchronization-test", null, exceptionListener, true);
+            workGroup.execute("teaching-synchronizer-main", () -> teachingSynchronizerThread(teacher));
+            for (final TeachingSynchronizer helper : helpers) {
+                workGroup.execute("teaching-synchronizer-helper", () -> helperTeachingSynchronizerThread(helper));
+            }
+            workGroup.execute("learning-synchronizer-main", () -> learningSynchronizerThread(learner));
+
+            try {
+                workGroup.waitForTermination();
+            } catch (InterruptedException e) {
+                workGroup.shutdown();
+                Thread.currentThread().interrupt();
+            }
+
+            if (workGroup.hasExceptions()) {
+                throw new MerkleSynchronizationException(
+                        "Exception(s) in synchronization test", firstReconnectException.get());
+            }
+
+            final MerkleNode generatedTree = learner.getRoot();
+
+            assertReconnectValidity(startingTree, desiredTree, generatedTree);
+
+            return (T) generatedTree;
+        } finally {
+            helperStreams.forEach(PairedStreams::close);
+        }
+    }
+
     /**
      * Walk down a tree and return the node at the specified position.
      *
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.swirlds.merkledb;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Virtual leaf records cache bounded by size in bytes rather than by number of entries. The cache
+ * is split into a number of shards by key hash codes, every shard is protected by its own lock,
+ * and every shard gets an equal part of the total cache size.
+ *
+ * <p>Within a shard, entries are evicted using CLOCK (second chance) algorithm. All shard entries
+ * are organized in a circular list, a "hand" points to the next eviction candidate. Every entry
+ * has a "referenced" flag, which is set when the entry is read or updated. When an entry needs to
+ * be evicted, the hand moves over the list, clearing the flags, till it finds an entry, which
+ * isn't referenced. New entries are added right behind the hand, with the flag cleared, so they
+ * are evicted first, unless accessed again. It protects frequently accessed entries from being
+ * evicted by long sequences of one-time reads.
+ *
+ * <p>Entry sizes are estimates: key and value bytes plus {@link #ENTRY_OVERHEAD_BYTES} for all
+ * the objects involved.
+ */
+final class ClockLeafRecordCache implements LeafRecordCache {
+
+    /** Default number of cache shards */
+    static final int DEFAULT_SHARD_COUNT = 64;
+
+    /**
+     * Estimated heap overhead of a single cache entry, in bytes: the entry itself, the virtual
+     * leaf record, key and value objects, and a hash map node.
+     */
+    static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final Shard[] shards;
+
+    private final Runnable evictionListener;
+
+    /**
+     * Creates a new CLOCK cache.
+     *
+     * @param capacityBytes total cache size, in bytes
+     * @param shardCount number of cache shards, must be a power of two
+     * @param evictionListener a callback to run every time an entry is evicted from the cache
+     */
+    ClockLeafRecordCache(final long capacityBytes, final int shardCount, @NonNull final Runnable evictionListener) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        if ((shardCount <= 0) || (Integer.bitCount(shardCount) != 1)) {
+            throw new IllegalArgumentException("Shard count must be a positive power of two");
+        }
+        this.evictionListener = evictionListener;
+        final long shardCapacityBytes = Math.max(1, capacityBytes / shardCount);
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(shardCapacityBytes);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Nullable
+    @Override
+    public VirtualLeafBytes get(@NonNull final Bytes keyBytes, final int keyHashCode) {
+        return shard(keyHashCode).get(keyBytes);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void put(@NonNull final VirtualLeafBytes leafBytes, final int keyHashCode) {
+        final int evicted = shard(keyHashCode).put(leafBytes);
+        for (int i = 0; i < evicted; i++) {
+            evictionListener.run();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void invalidate(@NonNull final Bytes keyBytes, final int keyHashCode) {
+        shard(keyHashCode).remove(keyBytes);
+    }
+
+    /**
+     * Returns the current estimated size of all cache entries, in bytes.
+     *
+     * @return cache size, in bytes
+     */
+    long getSizeInBytes() {
+        long size = 0;
+        for (final Shard shard : shards) {
+            size += shard.getSizeInBytes();
+        }
+        return size;
+    }
+
+    private Shard shard(final int keyHashCode) {
+        // Spread higher bits, since many key hash codes are poorly distributed in lower bits
+        final int h = keyHashCode ^ (keyHashCode >>> 16);
+        return shards[h & (shards.length - 1)];
+    }
+
+    private static long entrySize(final VirtualLeafBytes leafBytes) {
+        final Bytes valueBytes = leafBytes.valueBytes();
+        return ENTRY_OVERHEAD_BYTES + leafBytes.keyBytes().length() + (valueBytes == null ? 0 : valueBytes.length());
+    }
+
+    /** Cache entry, an element of a circular doubly linked list */
+    private static final class Entry {
+        private VirtualLeafBytes leafBytes;
+        private long sizeBytes;
+        private boolean referenced = false;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(final VirtualLeafBytes leafBytes, final long sizeBytes) {
+            this.leafBytes = leafBytes;
+            this.sizeBytes = sizeBytes;
+        }
+    }
+
+    /** A single cache shard. All methods are synchronized */
+    private static final class Shard {
+
+        private final long capacityBytes;
+
+        private final Map<Bytes, Entry> entries = new HashMap<>();
+
+        /** The next eviction candidate, or null if the shard is empty */
+        private Entry hand = null;
+
+        private long sizeBytes = 0;
+
+        private Shard(final long capacityBytes) {
+            this.capacityBytes = capacityBytes;
+        }
+
+        synchronized VirtualLeafBytes get(final Bytes keyBytes) {
+            final Entry entry = entries.get(keyBytes);
+            if (entry == null) {
+                return null;
+            }
+            entry.referenced = true;
+            return entry.leafBytes;
+        }
+
+        /**
+         * Puts a leaf record to this shard and evicts other entries, if the shard size exceeds
+         * its capacity.
+         *
+         * @return number of evicted entries
+         */
+        synchronized int put(final VirtualLeafBytes leafBytes) {
+            final long entrySize = entrySize(leafBytes);
+            if (entrySize > capacityBytes) {
+                // Too large to be cached at all
+                remove(leafBytes.keyBytes());
+                return 0;
+            }
+            final Entry existing = entries.get(leafBytes.keyBytes());
+            if (existing != null) {
+                sizeBytes += entrySize - existing.sizeBytes;
+                existing.leafBytes = leafBytes;
+                existing.sizeBytes = entrySize;
+                existing.referenced = true;
+            } else {
+                final Entry entry = new Entry(leafBytes, entrySize);
+                entries.put(leafBytes.keyBytes(), entry);
+                link(entry);
+                sizeBytes += entrySize;
+            }
+            int evicted = 0;
+            while (sizeBytes > capacityBytes) {
+                while (hand.referenced) {
+                    hand.referenced = false;
+                    hand = hand.next;
+                }
+                final Entry victim = hand;
+                unlink(victim);
+                entries.remove(victim.leafBytes.keyBytes());
+                sizeBytes -= victim.sizeBytes;
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized void remove(final Bytes keyBytes) {
+            final Entry entry = entries.remove(keyBytes);
+            if (entry != null) {
+                unlink(entry);
+                sizeBytes -= entry.sizeBytes;
+            }
+        }
+
+        synchronized long getSizeInBytes() {
+            return sizeBytes;
+        }
+
+        /** Links a new entry right behind the hand, so it's the last entry to be checked */
+        private void link(final Entry entry) {
+            if (hand == null) {
+                entry.prev = entry;
+                entry.next = entry;
+                hand = entry;
+            } else {
+                entry.next = hand;
+                entry.prev = hand.prev;
+                hand.prev.next = entry;
+                hand.prev = entry;
+            }
+        }
+
+        private void unlink(final Entry entry) {
+            if (entry.next == entry) {
+                hand = null;
+            } else {
+                entry.prev.next = entry.next;
+                entry.next.prev = entry.prev;
+                if (hand == entry) {
+                    hand = entry.next;
+                }
+            }
+            entry.prev = null;
+            entry.next = null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.swirlds.merkledb;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Virtual leaf records cache backed by a simple array indexed by key hash codes % cache size.
+ * Cache eviction is not needed, as array size is fixed. Index conflicts are resolved in a very
+ * straightforward way: whatever entry is put last, it's stored in the cache.
+ *
+ * <p>No synchronization is needed. Java guarantees (JLS 17.7) that reference writes are atomic,
+ * so we will never get corrupted objects from the array. An entry may be overwritten in the cache
+ * in a different thread in parallel, but it isn't a problem as entry keys are checked on reads.
+ */
+final class DirectMappedLeafRecordCache implements LeafRecordCache {
+
+    private final VirtualLeafBytes[] entries;
+
+    private final Runnable evictionListener;
+
+    /**
+     * Creates a new direct-mapped cache.
+     *
+     * @param size cache size, in entries
+     * @param evictionListener a callback to run every time an entry is replaced with an entry for
+     *                         a different key
+     */
+    DirectMappedLeafRecordCache(final int size, @NonNull final Runnable evictionListener) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.entries = new VirtualLeafBytes[size];
+        this.evictionListener = evictionListener;
+    }
+
+    /** {@inheritDoc} */
+    @Nullable
+    @Override
+    public VirtualLeafBytes get(@NonNull final Bytes keyBytes, final int keyHashCode) {
+        final VirtualLeafBytes cached = entries[cacheIndex(keyHashCode)];
+        return (cached != null) && keyBytes.equals(cached.keyBytes()) ? cached : null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void put(@NonNull final VirtualLeafBytes leafBytes, final int keyHashCode) {
+        final int cacheIndex = cacheIndex(keyHashCode);
+        final VirtualLeafBytes replaced = entries[cacheIndex];
+        entries[cacheIndex] = leafBytes;
+        if ((replaced != null) && !replaced.keyBytes().equals(leafBytes.keyBytes())) {
+            evictionListener.run();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The cache is only updated, if the current entry at the key's index has the given key.
+     */
+    @Override
+    public void invalidate(@NonNull final Bytes keyBytes, final int keyHashCode) {
+        final int cacheIndex = cacheIndex(keyHashCode);
+        final VirtualLeafBytes cached = entries[cacheIndex];
+        if ((cached != null) && keyBytes.equals(cached.keyBytes())) {
+            entries[cacheIndex] = null;
+        }
+    }
+
+    private int cacheIndex(final int keyHashCode) {
+        return Math.abs(keyHashCode % entries.length);
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded queue to stream records from producer threads to a single consumer thread in batches.
+ * It's used by {@link MerkleDbDataSource} to overlap leaf serialization, which is done by many
+ * threads, with writing leaves to disk, which is done by a single thread, without keeping all
+ * serialized leaves of a flush in memory at the same time.
+ * <p>
+ * The queue holds at most two batches of records. Producers block, when the queue is full. The
+ * consumer is woken up, when a full batch is available, or when the queue is closed. After all
+ * records are added, the queue must be {@link #close() closed}. If the consumer fails, it should
+ * {@link #abort() abort} the queue, so producers are never blocked forever. If a producer fails,
+ * it should abort the queue, too, so the consumer doesn't process an incomplete set of records.
+ * All records added to an aborted queue are dropped.
+ * <p>
+ * Producers may be {@link ForkJoinPool} workers, for example when records are added from a
+ * parallel stream. Producers block through {@link ForkJoinPool#managedBlock}, so the pool can
+ * compensate for blocked workers, and other tasks in the pool are not stalled by a slow consumer.
+ *
+ * @param <T> the type of records
+ */
+final class FlushBatchQueue<T> {
+
+    /** Max number of batches in the queue */
+    private static final int MAX_PENDING_BATCHES = 2;
+
+    /** Max number of records returned by {@link #takeBatch()} */
+    private final int batchSize;
+
+    /** Max number of records in the queue */
+    private final int capacity;
+
+    /** Queued records. Guarded by lock */
+    private final ArrayDeque<T> records;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Signalled when a full batch is available, or the queue is closed */
+    private final Condition batchAvailable = lock.newCondition();
+
+    /** Signalled when records are taken from the queue, or the queue is aborted */
+    private final Condition notFull = lock.newCondition();
+
+    /** Whether no more records will be added. Guarded by lock */
+    private boolean closed = false;
+
+    /** Whether the consumer failed. Guarded by lock */
+    private boolean aborted = false;
+
+    /** Blocks a producer till the queue isn't full, or is aborted */
+    private final ForkJoinPool.ManagedBlocker notFullBlocker = new ForkJoinPool.ManagedBlocker() {
+        @Override
+        public boolean block() {
+            lock.lock();
+            try {
+                while (!aborted && (records.size() >= capacity)) {
+                    notFull.awaitUninterruptibly();
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean isReleasable() {
+            lock.lock();
+            try {
+                return aborted || (records.size() < capacity);
+            } finally {
+                lock.unlock();
+            }
+        }
+    };
+
+    /**
+     * Creates a new queue.
+     *
+     * @param batchSize max number of records in a single batch
+     */
+    FlushBatchQueue(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.capacity = batchSize * MAX_PENDING_BATCHES;
+        this.records = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Adds a record to the queue. If the queue is full, this method blocks till the consumer takes
+     * the next batch. If the queue is aborted, the record is dropped.
+     *
+     * @param record the record to add
+     * @throws IllegalStateException if the queue is closed
+     */
+    void put(final T record) {
+        while (!offer(record)) {
+            try {
+                ForkJoinPool.managedBlock(notFullBlocker);
+            } catch (final InterruptedException e) {
+                // Not expected, the blocker waits uninterruptibly
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Adds a record to the queue, unless the queue is full. If the queue is aborted, the record
+     * is dropped.
+     *
+     * @param record the record to add
+     * @return true if the record is added or dropped, false if the queue is full
+     * @throws IllegalStateException if the queue is closed
+     */
+    private boolean offer(final T record) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Flush batch queue is closed");
+            }
+            if (aborted) {
+                return true;
+            }
+            if (records.size() >= capacity) {
+                return false;
+            }
+            records.add(record);
+            if (records.size() >= batchSize) {
+                batchAvailable.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks that no more records will be added to the queue. Records already in the queue can
+     * still be taken by the consumer.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            batchAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aborts the queue. Queued records are dropped, blocked producers are released, and all
+     * records added to the queue after this call are dropped, too.
+     */
+    void abort() {
+        lock.lock();
+        try {
+            aborted = true;
+            records.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if this queue is aborted.
+     *
+     * @return whether {@link #abort()} has been called
+     */
+    boolean isAborted() {
+        lock.lock();
+        try {
+            return aborted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next batch of records from the queue. This method blocks till a full batch is
+     * available, or the queue is closed. If the queue is closed, the last batch may be smaller
+     * than the batch size.
+     *
+     * @return the next batch, or an empty list if the queue is closed and all records have been
+     *     taken, or the queue is aborted
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    List<T> takeBatch() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!closed && !aborted && (records.size() < batchSize)) {
+                batchAvailable.await();
+            }
+            final int size = Math.min(batchSize, records.size());
+            final List<T> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(records.poll());
+            }
+            notFull.signalAll();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over all records in the queue. Records are taken from the queue batch
+     * by batch, each batch is sorted using the given comparator. The iterator blocks, while the
+     * next batch isn't available. It must only be used by the consumer thread.
+     * <p>
+     * If the queue is aborted, the iterator throws an {@link UncheckedIOException} rather than
+     * reporting the end of records, so the consumer never mistakes an incomplete set of records
+     * for a complete one.
+     *
+     * @param batchOrder the comparator to sort records in each batch
+     * @return the iterator
+     */
+    Iterator<T> iterator(final Comparator<? super T> batchOrder) {
+        return new Iterator<>() {
+            private List<T> batch = List.of();
+            private int next = 0;
+            private boolean done = false;
+
+            @Override
+            public boolean hasNext() {
+                if (next < batch.size()) {
+                    return true;
+                }
+                if (done) {
+                    return false;
+                }
+                try {
+                    batch = takeBatch();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for records"));
+                }
+                if (batch.isEmpty() && isAborted()) {
+                    throw new UncheckedIOException(new IOException("Flush batch queue is aborted"));
+                }
+                batch.sort(batchOrder);
+                next = 0;
+                done = batch.isEmpty();
+                return !done;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.get(next++);
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
+
+import com.swirlds.merkledb.collections.DeltaSnapshotable;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Writes snapshots of a single in-memory index, like path to disk location index, as chains of a full
+ * snapshot file and delta files. A snapshot of an index to file {@code X} consists of the file {@code X}
+ * itself, which is a full snapshot, and zero or more delta files {@code X.delta1}, {@code X.delta2}, etc.
+ * <p>
+ * When a new snapshot is taken, and the previous snapshot is known, all files of the previous snapshot
+ * are hard-linked to the new snapshot directory, and a single new delta with index chunks modified since
+ * the previous snapshot is written. When the chain gets too long, or the deltas get larger than the full
+ * snapshot, the chain is merged, i.e. the next snapshot is full again. If anything goes wrong, the next
+ * snapshot is full, too.
+ * <p>
+ * This class is not thread safe. Snapshots of the same index must not be taken concurrently.
+ */
+final class IndexSnapshotChain {
+
+    private static final Logger logger = LogManager.getLogger(IndexSnapshotChain.class);
+
+    /** Delta file name suffix, followed by the delta number starting from 1 */
+    private static final String DELTA_FILE_SUFFIX = ".delta";
+
+    /** Max number of deltas after a full snapshot. If zero, all snapshots are full */
+    private final int maxDeltas;
+
+    /** The full snapshot file of the last snapshot, or null if the next snapshot must be full */
+    private Path lastSnapshotFile = null;
+
+    /** The number of deltas in the last snapshot */
+    private int lastSnapshotDeltas = 0;
+
+    /** The size of the full snapshot file in the current chain, in bytes */
+    private long fullSnapshotSize = 0;
+
+    /** The total size of all delta files in the current chain, in bytes */
+    private long deltasSize = 0;
+
+    /**
+     * Creates a new snapshot chain. The first snapshot is always full.
+     *
+     * @param maxDeltas max number of deltas after a full snapshot
+     */
+    IndexSnapshotChain(final int maxDeltas) {
+        this.maxDeltas = maxDeltas;
+    }
+
+    /**
+     * Writes a snapshot of the given index to the given file, either full or incremental.
+     *
+     * @param index the index to snapshot
+     * @param file the full snapshot file name in the snapshot directory
+     * @throws IOException if an I/O error occurred
+     */
+    void snapshot(@NonNull final DeltaSnapshotable index, @NonNull final Path file) throws IOException {
+        final Path previousFile = lastSnapshotFile;
+        final int previousDeltas = lastSnapshotDeltas;
+        // If the snapshot fails, the chain is broken, as modified chunks may already be marked as written
+        lastSnapshotFile = null;
+        if (canWriteDelta(previousFile, previousDeltas, file)
+                && linkSnapshotFiles(previousFile, previousDeltas, file)) {
+            final Path deltaFile = deltaFile(file, previousDeltas + 1);
+            index.writeDeltaToFile(deltaFile);
+            lastSnapshotDeltas = previousDeltas + 1;
+            deltasSize += Files.size(deltaFile);
+        } else {
+            index.writeToFile(file);
+            lastSnapshotDeltas = 0;
+            fullSnapshotSize = Files.size(file);
+            deltasSize = 0;
+        }
+        lastSnapshotFile = file;
+    }
+
+    private boolean canWriteDelta(final Path previousFile, final int previousDeltas, final Path file) {
+        return (maxDeltas > 0)
+                && (previousFile != null)
+                && !previousFile.equals(file)
+                && (previousDeltas < maxDeltas)
+                && (deltasSize <= fullSnapshotSize);
+    }
+
+    /**
+     * Hard-links the full snapshot file and all delta files of the previous snapshot to the new
+     * snapshot. If linking fails, for example, because the previous snapshot has been deleted,
+     * all partially linked files are removed.
+     *
+     * @return whether all files are linked
+     */
+    private static boolean linkSnapshotFiles(final Path previousFile, final int previousDeltas, final Path file)
+            throws IOException {
+        final List<Path> linked = new ArrayList<>(previousDeltas + 1);
+        try {
+            Files.createLink(file, previousFile);
+            linked.add(file);
+            for (int i = 1; i <= previousDeltas; i++) {
+                final Path deltaFile = deltaFile(file, i);
+                Files.createLink(deltaFile, deltaFile(previousFile, i));
+                linked.add(deltaFile);
+            }
+            return true;
+        } catch (final IOException | UnsupportedOperationException e) {
+            logger.info(
+                    MERKLE_DB.getMarker(),
+                    "Cannot link previous snapshot files {}, writing a full snapshot to {}",
+                    previousFile,
+                    file,
+                    e);
+            for (final Path path : linked) {
+                Files.deleteIfExists(path);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Applies all deltas of a snapshot to an index loaded from the full snapshot file.
+     *
+     * @param index the index loaded from the full snapshot file
+     * @param file the full snapshot file
+     * @return the number of applied deltas
+     * @throws IOException if an I/O error occurred
+     */
+    static int applyDeltas(@NonNull final DeltaSnapshotable index, @NonNull final Path file) throws IOException {
+        int deltas = 0;
+        Path deltaFile = deltaFile(file, 1);
+        while (Files.exists(deltaFile)) {
+            index.applyDeltaFromFile(deltaFile);
+            deltas++;
+            deltaFile = deltaFile(file, deltas + 1);
+        }
+        return deltas;
+    }
+
+    /**
+     * Returns the delta file name of the given full snapshot file.
+     *
+     * @param file the full snapshot file
+     * @param deltaNumber the delta number, starting from 1
+     * @return the delta file
+     */
+    static Path deltaFile(@NonNull final Path file, final int deltaNumber) {
+        return file.resolveSibling(file.getFileName() + DELTA_FILE_SUFFIX + deltaNumber);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.swirlds.merkledb;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.merkledb.config.LeafRecordCacheMode;
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Virtual leaf records cache used by {@link MerkleDbDataSource} to avoid reading frequently
+ * accessed leaves and leaf keys from disk. Cache entries may contain leaf values, or just leaf
+ * paths, if only key to path lookups were made for the keys. Negative results, leaf records with
+ * invalid paths, are cached as well.
+ *
+ * <p>Implementations must be thread safe.
+ */
+interface LeafRecordCache {
+
+    /**
+     * Creates a leaf record cache as configured in {@link MerkleDbConfig#leafRecordCacheMode()}.
+     *
+     * @param config MerkleDb config
+     * @param evictionListener a callback to run every time an entry is evicted from the cache
+     * @return the new cache, or null if the cache is disabled
+     */
+    @Nullable
+    static LeafRecordCache create(@NonNull final MerkleDbConfig config, @NonNull final Runnable evictionListener) {
+        final String cacheMode = config.leafRecordCacheMode();
+        return switch (cacheMode) {
+            case LeafRecordCacheMode.DIRECT_MAPPED -> (config.leafRecordCacheSize() > 0)
+                    ? new DirectMappedLeafRecordCache(config.leafRecordCacheSize(), evictionListener)
+                    : null;
+            case LeafRecordCacheMode.CLOCK -> new ClockLeafRecordCache(
+                    config.leafRecordCacheBytes(), ClockLeafRecordCache.DEFAULT_SHARD_COUNT, evictionListener);
+            case LeafRecordCacheMode.NONE -> null;
+            default -> throw new IllegalArgumentException("Unknown leaf record cache mode: " + cacheMode);
+        };
+    }
+
+    /**
+     * Looks up a cache entry for the given key.
+     *
+     * @param keyBytes virtual key
+     * @param keyHashCode virtual key hash code
+     * @return the cached leaf record, or null if the key isn't cached
+     */
+    @Nullable
+    VirtualLeafBytes get(@NonNull Bytes keyBytes, int keyHashCode);
+
+    /**
+     * Puts a leaf record to the cache. Implementations may decide not to cache the record, or
+     * to evict some other entries.
+     *
+     * @param leafBytes the leaf record to cache
+     * @param keyHashCode virtual key hash code of the record
+     */
+    void put(@NonNull VirtualLeafBytes leafBytes, int keyHashCode);
+
+    /**
+     * Removes a cache entry for the given key, if it exists.
+     *
+     * @param keyBytes virtual key
+     * @param keyHashCode virtual key hash code
+     */
+    void invalidate(@NonNull Bytes keyBytes, int keyHashCode);
+}
@@ -43,6 +43,7 @@ import com.swirlds.merkledb.collections.LongListDisk;
 import com.swirlds.merkledb.collections.LongListOffHeap;
 import com.swirlds.merkledb.collections.OffHeapUser;
 import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.files.CompactionThrottle;
 import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.files.DataFileReader;
@@ -57,6 +58,7 @@ import com.swirlds.virtualmap.serialize.ValueSerializer;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
@@ -67,11 +69,15 @@ import java.util.Iterator;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -139,18 +145,16 @@ public final class MerkleDbDataSource implements VirtualDataSource {
     private final MemoryIndexDiskKeyValueStore pathToKeyValue;
 
     /**
-     * Cache size for reading virtual leaf records. Initialized in data source creation time from
-     * MerkleDb settings. If the value is zero, leaf records cache isn't used.
+     * Virtual leaf records cache. Cache type and size are initialized in data source creation time
+     * from MerkleDb settings. If null, leaf records cache isn't used.
      */
-    private final int leafRecordCacheSize;
+    private final LeafRecordCache leafRecordCache;
 
     /**
-     * Virtual leaf records cache. It's a simple array indexed by leaf keys % cache size. Cache
-     * eviction is not needed, as array size is fixed and can be configured in MerkleDb settings.
-     * Index conflicts are resolved in a very straightforward way: whatever entry is read last, it's
-     * put to the cache.
+     * Compaction I/O budget shared by all data sources. Flush durations and leaf read latencies
+     * are reported to it, so compactions can back off when the data source is under load.
      */
-    private final VirtualLeafBytes[] leafRecordCache;
+    private final CompactionThrottle compactionThrottle;
 
     /** Thread pool storing internal records */
     private final ExecutorService storeHashesExecutor;
@@ -158,7 +162,27 @@ public final class MerkleDbDataSource implements VirtualDataSource {
     /** Thread pool storing key-to-path mappings */
     private final ExecutorService storeLeavesExecutor;
 
-    /** Thread pool creating snapshots, it is unbounded in threads, but we use at most 7 */
+    /**
+     * Number of dirty leaves in a single batch, when leaves are streamed to disk during flushes. If
+     * zero, all dirty leaves are serialized and sorted before they are written. See
+     * {@link MerkleDbConfig#flushLeavesBatchSize()}
+     */
+    private final int flushLeavesBatchSize;
+
+    /**
+     * Snapshot chains of path to disk location indices and RAM hash store. Unless disabled, snapshots
+     * of these indices are written incrementally. See {@link MerkleDbConfig#indexSnapshotMaxDeltas()}
+     */
+    private final IndexSnapshotChain pathToDiskLocationInternalNodesSnapshots;
+
+    private final IndexSnapshotChain pathToDiskLocationLeafNodesSnapshots;
+
+    private final IndexSnapshotChain hashStoreRamSnapshots;
+
+    /**
+     * Thread pool creating snapshots, it is unbounded in threads, but we use at most 7. It's also
+     * used to load indices and data stores in parallel, when the data source is created
+     */
     private final ExecutorService snapshotExecutor;
 
     /** Flag for if a snapshot is in progress */
@@ -238,38 +262,41 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         }
         saveMetadata(dbPaths);
 
-        // create path to disk location index
+        // load in-memory indices. If parallel loading is enabled, all indices are loaded concurrently
+        final boolean parallelLoading = merkleDbConfig.parallelDataSourceLoading();
+        final long indicesLoadStart = System.currentTimeMillis();
         final boolean forceIndexRebuilding = merkleDbConfig.indexRebuildingEnforced();
-        if (tableConfig.isPreferDiskBasedIndices()) {
-            pathToDiskLocationInternalNodes =
-                    new LongListDisk(dbPaths.pathToDiskLocationInternalNodesFile, database.getConfiguration());
-        } else if (Files.exists(dbPaths.pathToDiskLocationInternalNodesFile) && !forceIndexRebuilding) {
-            pathToDiskLocationInternalNodes =
-                    new LongListOffHeap(dbPaths.pathToDiskLocationInternalNodesFile, database.getConfiguration());
-        } else {
-            pathToDiskLocationInternalNodes = new LongListOffHeap();
-        }
+        // path to disk location index, internal nodes
+        final Future<LongList> internalNodesIndexLoader = startLoading(
+                parallelLoading,
+                () -> loadPathToDiskLocationIndex(
+                        dbPaths.pathToDiskLocationInternalNodesFile, forceIndexRebuilding, LongListOffHeap::new));
         // path to disk location index, leaf nodes
-        if (tableConfig.isPreferDiskBasedIndices()) {
-            pathToDiskLocationLeafNodes =
-                    new LongListDisk(dbPaths.pathToDiskLocationLeafNodesFile, database.getConfiguration());
-        } else if (Files.exists(dbPaths.pathToDiskLocationLeafNodesFile) && !forceIndexRebuilding) {
-            pathToDiskLocationLeafNodes =
-                    new LongListOffHeap(dbPaths.pathToDiskLocationLeafNodesFile, database.getConfiguration());
-        } else {
-            pathToDiskLocationLeafNodes = new LongListOffHeap(merkleDbConfig.reservedBufferLengthForLeafList());
-        }
-
+        final Future<LongList> leafNodesIndexLoader = startLoading(
+                parallelLoading,
+                () -> loadPathToDiskLocationIndex(
+                        dbPaths.pathToDiskLocationLeafNodesFile,
+                        forceIndexRebuilding,
+                        () -> new LongListOffHeap(merkleDbConfig.reservedBufferLengthForLeafList())));
         // internal node hashes store, RAM
+        final Future<HashListByteBuffer> hashStoreRamLoader;
         if (tableConfig.getHashesRamToDiskThreshold() > 0) {
-            if (Files.exists(dbPaths.hashStoreRamFile)) {
-                hashStoreRam = new HashListByteBuffer(dbPaths.hashStoreRamFile);
-            } else {
-                hashStoreRam = new HashListByteBuffer();
-            }
+            hashStoreRamLoader = startLoading(parallelLoading, () -> {
+                if (Files.exists(dbPaths.hashStoreRamFile)) {
+                    final HashListByteBuffer hashes = new HashListByteBuffer(dbPaths.hashStoreRamFile);
+                    IndexSnapshotChain.applyDeltas(hashes, dbPaths.hashStoreRamFile);
+                    return hashes;
+                } else {
+                    return new HashListByteBuffer();
+                }
+            });
         } else {
-            hashStoreRam = null;
+            hashStoreRamLoader = null;
         }
+        pathToDiskLocationInternalNodes = awaitLoading(internalNodesIndexLoader);
+        pathToDiskLocationLeafNodes = awaitLoading(leafNodesIndexLoader);
+        hashStoreRam = (hashStoreRamLoader != null) ? awaitLoading(hashStoreRamLoader) : null;
+        final long indicesLoadTimeMs = System.currentTimeMillis() - indicesLoadStart;
 
         statisticsUpdater = new MerkleDbStatisticsUpdater(merkleDbConfig, tableName);
 
@@ -278,56 +305,122 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             statisticsUpdater.updateOffHeapStats(this);
         };
 
+        // load data file stores. The stores are independent, if parallel loading is enabled, they
+        // are loaded concurrently, including index rebuilding, if needed
+        final long storesLoadStart = System.currentTimeMillis();
+
         // internal node hashes store, on disk
         hasDiskStoreForHashes = tableConfig.getHashesRamToDiskThreshold() < Long.MAX_VALUE;
-        final DataFileCompactor hashStoreDiskFileCompactor;
+        final String hashStoreDiskName = tableName + "_internalhashes";
+        final Future<MemoryIndexDiskKeyValueStore> hashStoreDiskLoader;
+        PathIndexRebuildCallback hashRecordLoadedCallback = null;
         if (hasDiskStoreForHashes) {
             final boolean hashIndexEmpty = pathToDiskLocationInternalNodes.size() == 0;
-            final LoadedDataCallback hashRecordLoadedCallback;
             if (hashIndexEmpty) {
                 if (validLeafPathRange.getMaxValidKey() >= 0) {
                     pathToDiskLocationInternalNodes.updateValidRange(0, validLeafPathRange.getMaxValidKey());
                 }
-                hashRecordLoadedCallback = (dataLocation, hashData) -> {
-                    final VirtualHashRecord hashRecord = VirtualHashRecord.parseFrom(hashData);
-                    pathToDiskLocationInternalNodes.put(hashRecord.path(), dataLocation);
-                };
-            } else {
-                hashRecordLoadedCallback = null;
+                hashRecordLoadedCallback = new PathIndexRebuildCallback(
+                        pathToDiskLocationInternalNodes,
+                        hashData -> VirtualHashRecord.parseFrom(hashData).path());
             }
-            final String storeName = tableName + "_internalhashes";
-            hashStoreDisk = new MemoryIndexDiskKeyValueStore(
-                    merkleDbConfig,
-                    dbPaths.hashStoreDiskDirectory,
-                    storeName,
-                    tableName + ":internalHashes",
-                    hashRecordLoadedCallback,
-                    pathToDiskLocationInternalNodes);
+            final LoadedDataCallback hashStoreDiskCallback = hashRecordLoadedCallback;
+            hashStoreDiskLoader = startLoading(
+                    parallelLoading,
+                    () -> new MemoryIndexDiskKeyValueStore(
+                            merkleDbConfig,
+                            dbPaths.hashStoreDiskDirectory,
+                            hashStoreDiskName,
+                            tableName + ":internalHashes",
+                            hashStoreDiskCallback,
+                            pathToDiskLocationInternalNodes));
+        } else {
+            hashStoreDiskLoader = null;
+        }
+
+        // key to path store
+        final String keyToPathStoreName = tableName + "_objectkeytopath";
+        final Future<HalfDiskHashMap> keyToPathLoader = startLoading(
+                parallelLoading,
+                () -> new HalfDiskHashMap(
+                        database.getConfiguration(),
+                        tableConfig.getMaxNumberOfKeys(),
+                        dbPaths.keyToPathDirectory,
+                        keyToPathStoreName,
+                        tableName + ":objectKeyToPath",
+                        tableConfig.isPreferDiskBasedIndices()));
+
+        final PathIndexRebuildCallback leafRecordLoadedCallback;
+        final boolean needRestorePathToDiskLocationLeafNodes = pathToDiskLocationLeafNodes.size() == 0;
+        if (needRestorePathToDiskLocationLeafNodes) {
+            if (validLeafPathRange.getMaxValidKey() >= 0) {
+                pathToDiskLocationLeafNodes.updateValidRange(
+                        validLeafPathRange.getMinValidKey(), validLeafPathRange.getMaxValidKey());
+            }
+            leafRecordLoadedCallback = new PathIndexRebuildCallback(
+                    pathToDiskLocationLeafNodes,
+                    leafData -> VirtualLeafBytes.parseFrom(leafData).path());
+        } else {
+            leafRecordLoadedCallback = null;
+        }
+        // Create path to key/value store, this will create new or load if files exist
+        final String pathToKeyValueStoreName = tableName + "_pathtohashkeyvalue";
+        // Leaf data compression mode is a table setting with a fallback to MerkleDb config. Hashes
+        // and buckets are mostly random bytes, they aren't worth compressing
+        final String leafDataFileCompression = tableConfig.getDataFileCompression() != null
+                ? tableConfig.getDataFileCompression()
+                : merkleDbConfig.dataFileCompression();
+        final Future<MemoryIndexDiskKeyValueStore> pathToKeyValueLoader = startLoading(
+                parallelLoading,
+                () -> new MemoryIndexDiskKeyValueStore(
+                        merkleDbConfig,
+                        dbPaths.pathToKeyValueDirectory,
+                        pathToKeyValueStoreName,
+                        tableName + ":pathToHashKeyValue",
+                        leafDataFileCompression,
+                        leafRecordLoadedCallback,
+                        pathToDiskLocationLeafNodes));
+
+        hashStoreDisk = (hashStoreDiskLoader != null) ? awaitLoading(hashStoreDiskLoader) : null;
+        keyToPath = awaitLoading(keyToPathLoader);
+        pathToKeyValue = awaitLoading(pathToKeyValueLoader);
+        final long storesLoadTimeMs = System.currentTimeMillis() - storesLoadStart;
+        statisticsUpdater.setLoadTimes(indicesLoadTimeMs, storesLoadTimeMs);
+        if ((hashRecordLoadedCallback != null) || (leafRecordLoadedCallback != null)) {
+            final long rebuiltIndexEntries =
+                    ((hashRecordLoadedCallback != null) ? hashRecordLoadedCallback.getEntryCount() : 0)
+                            + ((leafRecordLoadedCallback != null) ? leafRecordLoadedCallback.getEntryCount() : 0);
+            statisticsUpdater.setRebuiltIndexEntries(rebuiltIndexEntries);
+            logger.info(
+                    MERKLE_DB.getMarker(),
+                    "[{}] Rebuilt path to disk location indices from {} data items",
+                    tableName,
+                    rebuiltIndexEntries);
+        }
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "[{}] Loaded indices in {} ms, data stores in {} ms",
+                tableName,
+                indicesLoadTimeMs,
+                storesLoadTimeMs);
+
+        final DataFileCompactor hashStoreDiskFileCompactor;
+        if (hasDiskStoreForHashes) {
             hashStoreDiskFileCompactor = new DataFileCompactor(
                     merkleDbConfig,
-                    storeName,
+                    hashStoreDiskName,
                     hashStoreDisk.getFileCollection(),
                     pathToDiskLocationInternalNodes,
                     statisticsUpdater::setHashesStoreCompactionTimeMs,
                     statisticsUpdater::setHashesStoreCompactionSavedSpaceMb,
                     statisticsUpdater::setHashesStoreFileSizeByLevelMb,
+                    statisticsUpdater::setHashesStoreCompactionThrottledMs,
                     updateTotalStatsFunction);
         } else {
-            hashStoreDisk = null;
             hashStoreDiskFileCompactor = null;
         }
 
-        final DataFileCompactor keyToPathFileCompactor;
-        // key to path store
-        String keyToPathStoreName = tableName + "_objectkeytopath";
-        keyToPath = new HalfDiskHashMap(
-                database.getConfiguration(),
-                tableConfig.getMaxNumberOfKeys(),
-                dbPaths.keyToPathDirectory,
-                keyToPathStoreName,
-                tableName + ":objectKeyToPath",
-                tableConfig.isPreferDiskBasedIndices());
-        keyToPathFileCompactor = new DataFileCompactor(
+        final DataFileCompactor keyToPathFileCompactor = new DataFileCompactor(
                 merkleDbConfig,
                 keyToPathStoreName,
                 keyToPath.getFileCollection(),
@@ -335,32 +428,10 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                 statisticsUpdater::setLeafKeysStoreCompactionTimeMs,
                 statisticsUpdater::setLeafKeysStoreCompactionSavedSpaceMb,
                 statisticsUpdater::setLeafKeysStoreFileSizeByLevelMb,
+                statisticsUpdater::setLeafKeysStoreCompactionThrottledMs,
                 updateTotalStatsFunction);
         keyToPath.printStats();
 
-        final LoadedDataCallback leafRecordLoadedCallback;
-        final boolean needRestorePathToDiskLocationLeafNodes = pathToDiskLocationLeafNodes.size() == 0;
-        if (needRestorePathToDiskLocationLeafNodes) {
-            if (validLeafPathRange.getMaxValidKey() >= 0) {
-                pathToDiskLocationLeafNodes.updateValidRange(
-                        validLeafPathRange.getMinValidKey(), validLeafPathRange.getMaxValidKey());
-            }
-            leafRecordLoadedCallback = (dataLocation, leafData) -> {
-                final VirtualLeafBytes leafBytes = VirtualLeafBytes.parseFrom(leafData);
-                pathToDiskLocationLeafNodes.put(leafBytes.path(), dataLocation);
-            };
-        } else {
-            leafRecordLoadedCallback = null;
-        }
-        // Create path to key/value store, this will create new or load if files exist
-        final String pathToKeyValueStoreName = tableName + "_pathtohashkeyvalue";
-        pathToKeyValue = new MemoryIndexDiskKeyValueStore(
-                merkleDbConfig,
-                dbPaths.pathToKeyValueDirectory,
-                pathToKeyValueStoreName,
-                tableName + ":pathToHashKeyValue",
-                leafRecordLoadedCallback,
-                pathToDiskLocationLeafNodes);
         final DataFileCompactor pathToKeyValueFileCompactor = new DataFileCompactor(
                 merkleDbConfig,
                 pathToKeyValueStoreName,
@@ -369,11 +440,21 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                 statisticsUpdater::setLeavesStoreCompactionTimeMs,
                 statisticsUpdater::setLeavesStoreCompactionSavedSpaceMb,
                 statisticsUpdater::setLeavesStoreFileSizeByLevelMb,
+                statisticsUpdater::setLeavesStoreCompactionThrottledMs,
                 updateTotalStatsFunction);
 
         // Leaf records cache
-        leafRecordCacheSize = merkleDbConfig.leafRecordCacheSize();
-        leafRecordCache = (leafRecordCacheSize > 0) ? new VirtualLeafBytes[leafRecordCacheSize] : null;
+        // Statistics updater may be replaced in copyStatisticsFrom(), so it isn't captured here
+        leafRecordCache = LeafRecordCache.create(merkleDbConfig, () -> statisticsUpdater.countLeafCacheEvictions());
+
+        compactionThrottle = CompactionThrottle.getInstance(merkleDbConfig);
+
+        flushLeavesBatchSize = merkleDbConfig.flushLeavesBatchSize();
+
+        final int indexSnapshotMaxDeltas = merkleDbConfig.indexSnapshotMaxDeltas();
+        pathToDiskLocationInternalNodesSnapshots = new IndexSnapshotChain(indexSnapshotMaxDeltas);
+        pathToDiskLocationLeafNodesSnapshots = new IndexSnapshotChain(indexSnapshotMaxDeltas);
+        hashStoreRamSnapshots = new IndexSnapshotChain(indexSnapshotMaxDeltas);
 
         // Update count of open databases
         COUNT_OF_OPEN_DATABASES.increment();
@@ -497,6 +578,7 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             @NonNull final Stream<VirtualLeafBytes> leafRecordsToDelete,
             final boolean isReconnectContext)
             throws IOException {
+        final long flushStart = System.nanoTime();
         try {
             validLeafPathRange = new KeyRange(firstLeafPath, lastLeafPath);
             final CountDownLatch countDownLatch = new CountDownLatch(lastLeafPath > 0 ? 2 : 1);
@@ -516,25 +598,55 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                 });
             }
 
+            final FlushBatchQueue<VirtualLeafBytes> leavesQueue =
+                    (flushLeavesBatchSize > 0) ? new FlushBatchQueue<>(flushLeavesBatchSize) : null;
+
             // Use an executor to make sure the data source is not closed in parallel. See
             // the comment in close() for details
             storeLeavesExecutor.execute(() -> {
+                boolean stored = false;
                 try {
                     // we might as well do this in the archive thread rather than leaving it waiting
+                    final Iterator<VirtualLeafBytes> dirtyIterator = (leavesQueue != null)
+                            ? leavesQueue.iterator(Comparator.comparingLong(VirtualLeafBytes::path))
+                            : sortedLeaves(leafRecordsToAddOrUpdate);
                     writeLeavesToPathToKeyValue(
                             firstLeafPath,
                             lastLeafPath,
-                            leafRecordsToAddOrUpdate,
-                            leafRecordsToDelete,
+                            dirtyIterator,
+                            leafRecordsToDelete.iterator(),
                             isReconnectContext);
+                    stored = true;
                 } catch (final IOException e) {
                     logger.error(EXCEPTION.getMarker(), "[{}] Failed to store leaves", tableName, e);
                     throw new UncheckedIOException(e);
                 } finally {
+                    if (!stored && (leavesQueue != null)) {
+                        // Release the flushing thread, if it's blocked on a full queue
+                        leavesQueue.abort();
+                    }
                     countDownLatch.countDown();
                 }
             });
 
+            RuntimeException leavesProducerException = null;
+            if (leavesQueue != null) {
+                // Leaves are serialized by this thread and the common pool in parallel with writing
+                // previous batches to disk. The queue is bounded, so only a few batches of serialized
+                // leaves are in memory at any time. Common pool workers blocked on a full queue are
+                // managed blockers, so the pool compensates for them
+                try {
+                    leafRecordsToAddOrUpdate.parallel().forEach(leavesQueue::put);
+                } catch (final RuntimeException e) {
+                    // Don't let the leaf writer finish the flush with an incomplete set of leaves. The
+                    // writer fails on an aborted queue, the exception is rethrown once it's done
+                    leavesQueue.abort();
+                    leavesProducerException = e;
+                } finally {
+                    leavesQueue.close();
+                }
+            }
+
             // wait for the other threads in the rare case they are not finished yet. We need to
             // have all writing
             // done before we return as when we return the state version we are writing is deleted
@@ -550,6 +662,13 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                         e);
                 Thread.currentThread().interrupt();
             }
+            if (leavesProducerException != null) {
+                throw leavesProducerException;
+            }
+            if ((leavesQueue != null) && leavesQueue.isAborted()) {
+                throw new IOException("Failed to store leaves in " + tableName);
+            }
+            compactionThrottle.reportFlush(System.nanoTime() - flushStart);
         } finally {
             // Report total size on disk as sum of all store files. All metadata and other helper files
             // are considered small enough to be ignored. If/when we decide to use on-disk long lists
@@ -573,18 +692,11 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         requireNonNull(keyBytes);
 
         final long path;
-        VirtualLeafBytes cached = null;
-        int cacheIndex = -1;
-        if (leafRecordCache != null) {
-            cacheIndex = Math.abs(keyHashCode % leafRecordCacheSize);
-            // No synchronization is needed here. Java guarantees (JLS 17.7) that reference writes
-            // are atomic, so we will never get corrupted objects from the array. The object may
-            // be overwritten in the cache in a different thread in parallel, but it isn't a
-            // problem as cached entry key is checked below anyway
-            cached = leafRecordCache[cacheIndex];
-        }
-        // If an entry is found in the cache, and entry key is the one requested
-        if ((cached != null) && keyBytes.equals(cached.keyBytes())) {
+        long readStart = 0;
+        final VirtualLeafBytes cached = (leafRecordCache != null) ? leafRecordCache.get(keyBytes, keyHashCode) : null;
+        // If an entry is found in the cache
+        if (cached != null) {
+            statisticsUpdater.countLeafCacheHits();
             // Some cache entries contain just key and path, but no value. If the value is there,
             // just return the cached entry. If not, at least make use of the path
             if (cached.valueBytes() != null) {
@@ -594,7 +706,10 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             path = cached.path();
         } else {
             // Cache miss
-            cached = null;
+            readStart = compactionThrottle.isEnabled() ? System.nanoTime() : 0;
+            if (leafRecordCache != null) {
+                statisticsUpdater.countLeafCacheMisses();
+            }
             statisticsUpdater.countLeafKeyReads();
             path = keyToPath.get(keyBytes, keyHashCode, INVALID_PATH);
         }
@@ -603,7 +718,7 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         if (path == INVALID_PATH) {
             // Cache the result if not already cached
             if (leafRecordCache != null && cached == null) {
-                leafRecordCache[cacheIndex] = new VirtualLeafBytes(path, keyBytes, 0, null);
+                leafRecordCache.put(new VirtualLeafBytes(path, keyBytes, keyHashCode, null), keyHashCode);
             }
             return null;
         }
@@ -621,8 +736,10 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         assert leafBytes != null && leafBytes.keyBytes().equals(keyBytes);
 
         if (leafRecordCache != null) {
-            // No synchronization is needed here, see the comment above
-            leafRecordCache[cacheIndex] = leafBytes;
+            leafRecordCache.put(leafBytes, keyHashCode);
+        }
+        if (readStart != 0) {
+            compactionThrottle.reportRead(System.nanoTime() - readStart);
         }
 
         return leafBytes;
@@ -647,7 +764,13 @@ public final class MerkleDbDataSource implements VirtualDataSource {
             return null;
         }
         statisticsUpdater.countLeafReads();
-        return VirtualLeafBytes.parseFrom(pathToKeyValue.get(path));
+        if (!compactionThrottle.isEnabled()) {
+            return VirtualLeafBytes.parseFrom(pathToKeyValue.get(path));
+        }
+        final long readStart = System.nanoTime();
+        final VirtualLeafBytes leafBytes = VirtualLeafBytes.parseFrom(pathToKeyValue.get(path));
+        compactionThrottle.reportRead(System.nanoTime() - readStart);
+        return leafBytes;
     }
 
     /**
@@ -662,15 +785,14 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         requireNonNull(keyBytes);
 
         // Check the cache first
-        int cacheIndex = -1;
         if (leafRecordCache != null) {
-            cacheIndex = Math.abs(keyHashCode % leafRecordCacheSize);
-            // No synchronization is needed here. See the comment in loadLeafRecord(key) above
-            final VirtualLeafBytes cached = leafRecordCache[cacheIndex];
-            if (cached != null && keyBytes.equals(cached.keyBytes())) {
+            final VirtualLeafBytes cached = leafRecordCache.get(keyBytes, keyHashCode);
+            if (cached != null) {
+                statisticsUpdater.countLeafCacheHits();
                 // Cached path may be a valid path or INVALID_PATH, both are legal here
                 return cached.path();
             }
+            statisticsUpdater.countLeafCacheMisses();
         }
 
         statisticsUpdater.countLeafKeyReads();
@@ -678,7 +800,7 @@ public final class MerkleDbDataSource implements VirtualDataSource {
 
         if (leafRecordCache != null) {
             // Path may be INVALID_PATH here. Still needs to be cached (negative result)
-            leafRecordCache[cacheIndex] = new VirtualLeafBytes(path, keyBytes, keyHashCode, null);
+            leafRecordCache.put(new VirtualLeafBytes(path, keyBytes, keyHashCode, null), keyHashCode);
         }
 
         return path;
@@ -830,15 +952,17 @@ public final class MerkleDbDataSource implements VirtualDataSource {
                 final CountDownLatch countDownLatch = new CountDownLatch(7);
                 // write all data stores
                 runWithSnapshotExecutor(true, countDownLatch, "pathToDiskLocationInternalNodes", () -> {
-                    pathToDiskLocationInternalNodes.writeToFile(snapshotDbPaths.pathToDiskLocationInternalNodesFile);
+                    pathToDiskLocationInternalNodesSnapshots.snapshot(
+                            pathToDiskLocationInternalNodes, snapshotDbPaths.pathToDiskLocationInternalNodesFile);
                     return true;
                 });
                 runWithSnapshotExecutor(true, countDownLatch, "pathToDiskLocationLeafNodes", () -> {
-                    pathToDiskLocationLeafNodes.writeToFile(snapshotDbPaths.pathToDiskLocationLeafNodesFile);
+                    pathToDiskLocationLeafNodesSnapshots.snapshot(
+                            pathToDiskLocationLeafNodes, snapshotDbPaths.pathToDiskLocationLeafNodesFile);
                     return true;
                 });
                 runWithSnapshotExecutor(hashStoreRam != null, countDownLatch, "internalHashStoreRam", () -> {
-                    hashStoreRam.writeToFile(snapshotDbPaths.hashStoreRamFile);
+                    hashStoreRamSnapshots.snapshot(hashStoreRam, snapshotDbPaths.hashStoreRamFile);
                     return true;
                 });
                 runWithSnapshotExecutor(hashStoreDisk != null, countDownLatch, "internalHashStoreDisk", () -> {
@@ -1044,6 +1168,81 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         }
     }
 
+    /**
+     * Loads a path to disk location index from the given file, or creates a new empty index, if
+     * the file doesn't exist or indices are to be rebuilt. All incremental snapshots, if any, are
+     * applied to the loaded index.
+     *
+     * @param file the index file
+     * @param forceIndexRebuilding whether the index is to be rebuilt from data files
+     * @param emptyIndexSupplier creates a new empty off-heap index
+     * @return the index
+     * @throws IOException if an I/O error occurred
+     */
+    private LongList loadPathToDiskLocationIndex(
+            final Path file, final boolean forceIndexRebuilding, final Supplier<LongList> emptyIndexSupplier)
+            throws IOException {
+        final LongList index;
+        if (tableConfig.isPreferDiskBasedIndices()) {
+            index = new LongListDisk(file, database.getConfiguration());
+        } else if (Files.exists(file) && !forceIndexRebuilding) {
+            index = new LongListOffHeap(file, database.getConfiguration());
+        } else {
+            index = emptyIndexSupplier.get();
+        }
+        // apply incremental snapshots, if any, on top of the loaded index
+        if (Files.exists(file) && (tableConfig.isPreferDiskBasedIndices() || !forceIndexRebuilding)) {
+            IndexSnapshotChain.applyDeltas(index, file);
+        }
+        return index;
+    }
+
+    /**
+     * Starts a data source loading task. If parallel loading is enabled, the task is run on the
+     * snapshot executor, which is idle while the data source is being loaded. Otherwise the task
+     * is run in the current thread before this method returns.
+     *
+     * @param parallel whether to run the task in background
+     * @param loader the loading task
+     * @return the future to get the task result with {@link #awaitLoading(Future)}
+     * @param <T> the task result type
+     */
+    private <T> Future<T> startLoading(final boolean parallel, final Callable<T> loader) {
+        if (parallel) {
+            return snapshotExecutor.submit(loader);
+        }
+        final FutureTask<T> task = new FutureTask<>(loader);
+        task.run();
+        return task;
+    }
+
+    /**
+     * Waits for a data source loading task started with {@link #startLoading(boolean, Callable)}.
+     *
+     * @param loader the loading task future
+     * @return the task result
+     * @param <T> the task result type
+     * @throws IOException if the task failed with an I/O error, or the current thread is interrupted
+     */
+    private static <T> T awaitLoading(final Future<T> loader) throws IOException {
+        try {
+            return loader.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading data source");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("Failed to load data source", cause);
+        }
+    }
+
     /**
      * Run a runnable on background thread using snapshot ExecutorService, counting down latch when
      * done.
@@ -1123,24 +1322,26 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         }
     }
 
+    /**
+     * Sorts all the given leaf records by path. The resulting iterator is consumed on a single
+     * thread, but it still makes sense to use parallel streams as supplying elements to the stream
+     * includes expensive operations like serialization to bytes.
+     */
+    private static Iterator<VirtualLeafBytes> sortedLeaves(@NonNull final Stream<VirtualLeafBytes> leaves) {
+        return leaves.parallel()
+                .sorted(Comparator.comparingLong(VirtualLeafBytes::path))
+                .iterator();
+    }
+
     /** Write all the given leaf records to pathToKeyValue */
     private void writeLeavesToPathToKeyValue(
             final long firstLeafPath,
             final long lastLeafPath,
-            @NonNull final Stream<VirtualLeafBytes> dirtyLeaves,
-            @NonNull final Stream<VirtualLeafBytes> deletedLeaves,
+            @NonNull final Iterator<VirtualLeafBytes> dirtyIterator,
+            @NonNull final Iterator<VirtualLeafBytes> deletedIterator,
             boolean isReconnect)
             throws IOException {
-        // If both streams are empty, no new data files should be created. One simple way to
-        // check emptiness is to use iterators. The iterators are consumed on a single thread
-        // (the current thread), but it still makes sense to use parallel streams as supplying
-        // elements to the stream includes expensive operations like serialization to bytes
-        final Iterator<VirtualLeafBytes> dirtyIterator = dirtyLeaves
-                .parallel()
-                .sorted(Comparator.comparingLong(VirtualLeafBytes::path))
-                .iterator();
-        final Iterator<VirtualLeafBytes> deletedIterator = deletedLeaves.iterator();
-
+        // If both iterators are empty, no new data files should be created
         if (lastLeafPath < 0) {
             // Empty store
             pathToKeyValue.updateValidKeyRange(-1, -1);
@@ -1215,12 +1416,8 @@ public final class MerkleDbDataSource implements VirtualDataSource {
     /**
      * Invalidates the given key in virtual leaf record cache, if the cache is enabled.
      * <p>
-     * If the key is deleted, it's still updated in the cache. It means no record with the given
-     * key exists in the data source, so further lookups for the key are skipped.
-     * <p>
-     * Cache index is calculated as the key's hash code % cache size. The cache is only updated,
-     * if the current record at this index has the given key. If the key is different, no update is
-     * performed.
+     * If the key is deleted, it's removed from the cache, so the next lookup for the key goes to
+     * the data source.
      *
      * @param keyBytes virtual key
      * @param keyHashCode virtual key hash code
@@ -1229,11 +1426,7 @@ public final class MerkleDbDataSource implements VirtualDataSource {
         if (leafRecordCache == null) {
             return;
         }
-        final int cacheIndex = Math.abs(keyHashCode % leafRecordCacheSize);
-        final VirtualLeafBytes cached = leafRecordCache[cacheIndex];
-        if ((cached != null) && keyBytes.equals(cached.keyBytes())) {
-            leafRecordCache[cacheIndex] = null;
-        }
+        leafRecordCache.invalidate(keyBytes, keyHashCode);
     }
 
     FileStatisticAware getHashStoreDisk() {
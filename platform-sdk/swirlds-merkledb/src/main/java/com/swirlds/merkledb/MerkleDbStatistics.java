@@ -18,6 +18,7 @@ package com.swirlds.merkledb;
 
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.metrics.api.DoubleAccumulator;
+import com.swirlds.metrics.api.DoubleGauge;
 import com.swirlds.metrics.api.FloatFormats;
 import com.swirlds.metrics.api.IntegerGauge;
 import com.swirlds.metrics.api.LongAccumulator;
@@ -43,10 +44,14 @@ public class MerkleDbStatistics {
     private static final String FLUSHES_PREFIX = "flushes_";
     /** Prefix for compaction related metrics */
     private static final String COMPACTIONS_PREFIX = "compactions_";
+    /** Prefix for all leaf records cache related metrics */
+    private static final String CACHE_PREFIX = "cache_";
 
     private static final String LEVEL_PREFIX = "level_";
     /** Prefix for all off-heap related metrics */
     private static final String OFFHEAP_PREFIX = "offheap_";
+    /** Prefix for data source loading related metrics */
+    private static final String LOAD_PREFIX = "load_";
 
     private final MerkleDbConfig dbConfig;
 
@@ -59,6 +64,13 @@ public class MerkleDbStatistics {
     /** Leaf keys - reads / s */
     private LongAccumulator leafKeyReads;
 
+    /** Leaf records cache - hits / s */
+    private LongAccumulator leafCacheHits;
+    /** Leaf records cache - misses / s */
+    private LongAccumulator leafCacheMisses;
+    /** Leaf records cache - evictions / s */
+    private LongAccumulator leafCacheEvictions;
+
     /** Hashes store - file count */
     private IntegerGauge hashesStoreFileCount;
     /** Hashes store - total file size in Mb */
@@ -71,6 +83,12 @@ public class MerkleDbStatistics {
     private IntegerGauge leafKeysStoreFileCount;
     /** Leaf keys store - total file size in Mb */
     private IntegerGauge leafKeysStoreFileSizeMb;
+    /** Hashes store - estimated garbage ratio */
+    private DoubleGauge hashesStoreGarbageRatio;
+    /** Leaves store - estimated garbage ratio */
+    private DoubleGauge leavesStoreGarbageRatio;
+    /** Leaf keys store - estimated garbage ratio */
+    private DoubleGauge leafKeysStoreGarbageRatio;
     /** Total file size in Mb */
     // Should all file sizes be doubles?
     private IntegerGauge totalFileSizeMb;
@@ -87,12 +105,16 @@ public class MerkleDbStatistics {
     private final List<LongAccumulator> hashesStoreCompactionTimeMsList;
     /** Hashes store compactions - saved space in Mb */
     private final List<DoubleAccumulator> hashesStoreCompactionSavedSpaceMbList;
+    /** Hashes store compactions - time spent waiting for I/O budget in ms */
+    private final List<LongAccumulator> hashesStoreCompactionThrottledMsList;
     /** Hashes store - cumulative file size by compaction level in Mb */
     private final List<DoubleAccumulator> hashesStoreFileSizeByLevelMbList;
     /** Leaves store compactions - time in ms */
     private final List<LongAccumulator> leavesStoreCompactionTimeMsList;
     /** Leaves store compactions - saved space in Mb */
     private final List<DoubleAccumulator> leavesStoreCompactionSavedSpaceMbList;
+    /** Leaves store compactions - time spent waiting for I/O budget in ms */
+    private final List<LongAccumulator> leavesStoreCompactionThrottledMsList;
 
     /** Leaves store - cumulative file size by compaction level in Mb */
     private final List<DoubleAccumulator> leavesStoreFileSizeByLevelMbList;
@@ -100,6 +122,8 @@ public class MerkleDbStatistics {
     private final List<LongAccumulator> leafKeysStoreCompactionTimeMsList;
     /** Leaf keys store compactions - saved space in Mb */
     private final List<DoubleAccumulator> leafKeysStoreCompactionSavedSpaceMbList;
+    /** Leaf keys store compactions - time spent waiting for I/O budget in ms */
+    private final List<LongAccumulator> leafKeysStoreCompactionThrottledMsList;
 
     /** Leaf keys store - cumulative file size by compaction level in Mb */
     private final List<DoubleAccumulator> leafKeysStoreFileSizeByLevelMbList;
@@ -114,6 +138,18 @@ public class MerkleDbStatistics {
     /** Total data source off-heap usage in MB */
     private IntegerGauge offHeapDataSourceMb;
 
+    /** Data source loading time, in-memory indices, ms. Set before metrics are registered */
+    private volatile int loadIndicesTimeMsValue;
+    /** Data source loading time, data file stores including index rebuilding, ms */
+    private volatile int loadStoresTimeMsValue;
+
+    /** Number of index entries rebuilt from data files at startup. Set before metrics are registered */
+    private volatile long loadRebuiltIndexEntriesValue;
+
+    private IntegerGauge loadIndicesTimeMs;
+    private IntegerGauge loadStoresTimeMs;
+    private DoubleGauge loadRebuiltIndexEntries;
+
     /**
      * Create a new statistics object for a MerkleDb instances.
      *
@@ -128,12 +164,15 @@ public class MerkleDbStatistics {
         this.label = label.replace('.', '_');
         hashesStoreCompactionTimeMsList = new ArrayList<>();
         hashesStoreCompactionSavedSpaceMbList = new ArrayList<>();
+        hashesStoreCompactionThrottledMsList = new ArrayList<>();
         hashesStoreFileSizeByLevelMbList = new ArrayList<>();
         leavesStoreCompactionTimeMsList = new ArrayList<>();
         leavesStoreCompactionSavedSpaceMbList = new ArrayList<>();
+        leavesStoreCompactionThrottledMsList = new ArrayList<>();
         leavesStoreFileSizeByLevelMbList = new ArrayList<>();
         leafKeysStoreCompactionTimeMsList = new ArrayList<>();
         leafKeysStoreCompactionSavedSpaceMbList = new ArrayList<>();
+        leafKeysStoreCompactionThrottledMsList = new ArrayList<>();
         leafKeysStoreFileSizeByLevelMbList = new ArrayList<>();
     }
 
@@ -141,6 +180,12 @@ public class MerkleDbStatistics {
         return metrics.getOrCreate(new IntegerGauge.Config(STAT_CATEGORY, name).withDescription(description));
     }
 
+    private static DoubleGauge buildDoubleGauge(final Metrics metrics, final String name, final String description) {
+        return metrics.getOrCreate(new DoubleGauge.Config(STAT_CATEGORY, name)
+                .withDescription(description)
+                .withFormat(FloatFormats.FORMAT_9_6));
+    }
+
     private static LongAccumulator buildLongAccumulator(
             final Metrics metrics, final String name, final String description) {
         return metrics.getOrCreate(new LongAccumulator.Config(STAT_CATEGORY, name)
@@ -176,6 +221,16 @@ public class MerkleDbStatistics {
         leafKeyReads = buildLongAccumulator(
                 metrics, DS_PREFIX + READS_PREFIX + "leafKeys_" + label, "Number of leaf key reads, " + label);
 
+        // Leaf records cache
+        leafCacheHits = buildLongAccumulator(
+                metrics, DS_PREFIX + CACHE_PREFIX + "leafHits_" + label, "Number of leaf cache hits, " + label);
+        leafCacheMisses = buildLongAccumulator(
+                metrics, DS_PREFIX + CACHE_PREFIX + "leafMisses_" + label, "Number of leaf cache misses, " + label);
+        leafCacheEvictions = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + CACHE_PREFIX + "leafEvictions_" + label,
+                "Number of leaf cache evictions, " + label);
+
         // File counts and sizes
         hashesStoreFileCount = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + FILES_PREFIX + "hashesStoreFileCount_" + label)
@@ -198,6 +253,18 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + FILES_PREFIX + "leafKeysStoreFileSizeMb_" + label,
                 "File size, leaves store, " + label + ", Mb");
+        hashesStoreGarbageRatio = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "hashesStoreGarbageRatio_" + label,
+                "Estimated fraction of garbage in files, hashes store, " + label);
+        leavesStoreGarbageRatio = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "leavesStoreGarbageRatio_" + label,
+                "Estimated fraction of garbage in files, leaves store, " + label);
+        leafKeysStoreGarbageRatio = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "leafKeysStoreGarbageRatio_" + label,
+                "Estimated fraction of garbage in files, leaf keys store, " + label);
         totalFileSizeMb = buildIntegerGauge(
                 metrics,
                 DS_PREFIX + FILES_PREFIX + "totalSizeMb_" + label,
@@ -245,6 +312,10 @@ public class MerkleDbStatistics {
                     metrics,
                     DS_PREFIX + COMPACTIONS_PREFIX + LEVEL_PREFIX + level + "_hashesSavedSpaceMb_" + label,
                     "Saved space during compactions of level %s, hashes store, %s, Mb".formatted(level, label)));
+            hashesStoreCompactionThrottledMsList.add(buildLongAccumulator(
+                    metrics,
+                    DS_PREFIX + COMPACTIONS_PREFIX + LEVEL_PREFIX + level + "_hashesThrottledMs_" + label,
+                    "Compactions throttled time of level %s, hashes store, %s, ms".formatted(level, label)));
             hashesStoreFileSizeByLevelMbList.add(buildDoubleAccumulator(
                     metrics,
                     DS_PREFIX + FILES_PREFIX + LEVEL_PREFIX + level + "_hashesFileSizeByLevelMb_" + label,
@@ -259,6 +330,10 @@ public class MerkleDbStatistics {
                     metrics,
                     DS_PREFIX + COMPACTIONS_PREFIX + LEVEL_PREFIX + level + "_leavesSavedSpaceMb_" + label,
                     "Saved space during compactions of level %s, leaves store, %s, Mb".formatted(level, label)));
+            leavesStoreCompactionThrottledMsList.add(buildLongAccumulator(
+                    metrics,
+                    DS_PREFIX + COMPACTIONS_PREFIX + LEVEL_PREFIX + level + "_leavesThrottledMs_" + label,
+                    "Compactions throttled time of level %s, leaves store, %s, ms".formatted(level, label)));
             leavesStoreFileSizeByLevelMbList.add(buildDoubleAccumulator(
                     metrics,
                     DS_PREFIX + FILES_PREFIX + LEVEL_PREFIX + level + "_leavesFileSizeByLevelMb_" + label,
@@ -273,6 +348,10 @@ public class MerkleDbStatistics {
                     metrics,
                     DS_PREFIX + COMPACTIONS_PREFIX + LEVEL_PREFIX + level + "_leafKeysSavedSpaceMb_" + label,
                     "Saved space during compactions of level %s, leaf keys store, %s, Mb".formatted(level, label)));
+            leafKeysStoreCompactionThrottledMsList.add(buildLongAccumulator(
+                    metrics,
+                    DS_PREFIX + COMPACTIONS_PREFIX + LEVEL_PREFIX + level + "_leafKeysThrottledMs_" + label,
+                    "Compactions throttled time of level %s, leaf keys store, %s, ms".formatted(level, label)));
             leafKeysStoreFileSizeByLevelMbList.add(buildDoubleAccumulator(
                     metrics,
                     DS_PREFIX + FILES_PREFIX + LEVEL_PREFIX + level + "_leafKeysFileSizeByLevelMb_" + label,
@@ -295,6 +374,23 @@ public class MerkleDbStatistics {
         offHeapDataSourceMb = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "dataSourceMb_" + label)
                         .withDescription("Off-heap usage, data source, " + label + ", Mb"));
+
+        // Loading
+        loadIndicesTimeMs = buildIntegerGauge(
+                metrics,
+                DS_PREFIX + LOAD_PREFIX + "indicesTimeMs_" + label,
+                "Time to load in-memory indices at startup, " + label + ", ms");
+        loadIndicesTimeMs.set(loadIndicesTimeMsValue);
+        loadStoresTimeMs = buildIntegerGauge(
+                metrics,
+                DS_PREFIX + LOAD_PREFIX + "storesTimeMs_" + label,
+                "Time to load data file stores at startup, including index rebuilding, " + label + ", ms");
+        loadStoresTimeMs.set(loadStoresTimeMsValue);
+        loadRebuiltIndexEntries = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + LOAD_PREFIX + "rebuiltIndexEntries_" + label,
+                "Number of path to disk location index entries rebuilt from data files at startup, " + label);
+        loadRebuiltIndexEntries.set(loadRebuiltIndexEntriesValue);
     }
 
     /**
@@ -324,6 +420,33 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Increments {@link #leafCacheHits} stat by 1
+     */
+    public void countLeafCacheHits() {
+        if (leafCacheHits != null) {
+            leafCacheHits.update(1);
+        }
+    }
+
+    /**
+     * Increments {@link #leafCacheMisses} stat by 1
+     */
+    public void countLeafCacheMisses() {
+        if (leafCacheMisses != null) {
+            leafCacheMisses.update(1);
+        }
+    }
+
+    /**
+     * Increments {@link #leafCacheEvictions} stat by 1
+     */
+    public void countLeafCacheEvictions() {
+        if (leafCacheEvictions != null) {
+            leafCacheEvictions.update(1);
+        }
+    }
+
     /**
      * Set the current value for the {@link #hashesStoreFileCount} stat
      *
@@ -396,6 +519,42 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for the {@link #hashesStoreGarbageRatio} stat
+     *
+     * @param value
+     * 		the value to set
+     */
+    public void setHashesStoreGarbageRatio(final double value) {
+        if (hashesStoreGarbageRatio != null) {
+            hashesStoreGarbageRatio.set(value);
+        }
+    }
+
+    /**
+     * Set the current value for the {@link #leavesStoreGarbageRatio} stat
+     *
+     * @param value
+     * 		the value to set
+     */
+    public void setLeavesStoreGarbageRatio(final double value) {
+        if (leavesStoreGarbageRatio != null) {
+            leavesStoreGarbageRatio.set(value);
+        }
+    }
+
+    /**
+     * Set the current value for the {@link #leafKeysStoreGarbageRatio} stat
+     *
+     * @param value
+     * 		the value to set
+     */
+    public void setLeafKeysStoreGarbageRatio(final double value) {
+        if (leafKeysStoreGarbageRatio != null) {
+            leafKeysStoreGarbageRatio.set(value);
+        }
+    }
+
     /**
      * Set the current value for the {@link #totalFileSizeMb} stat
      *
@@ -480,6 +639,21 @@ public class MerkleDbStatistics {
         hashesStoreCompactionSavedSpaceMbList.get(compactionLevel).update(value);
     }
 
+    /**
+     * Set the current value for the accumulator corresponding to provided compaction level from
+     * {@link #hashesStoreCompactionThrottledMsList}
+     *
+     * @param value the value to set
+     */
+    public void setHashesStoreCompactionThrottledMs(final int compactionLevel, final long value) {
+        assert compactionLevel >= 0 && compactionLevel <= dbConfig.maxCompactionLevel();
+        if (hashesStoreCompactionThrottledMsList.isEmpty()) {
+            // if the method called before the metrics are registered, there is nothing to do
+            return;
+        }
+        hashesStoreCompactionThrottledMsList.get(compactionLevel).update(value);
+    }
+
     /**
      * Set the current value for the accumulator corresponding to provided compaction level from
      * {@link #hashesStoreFileSizeByLevelMbList}
@@ -524,6 +698,21 @@ public class MerkleDbStatistics {
         leavesStoreCompactionSavedSpaceMbList.get(compactionLevel).update(value);
     }
 
+    /**
+     * Set the current value for the accumulator corresponding to provided compaction level from
+     * {@link #leavesStoreCompactionThrottledMsList}
+     *
+     * @param value the value to set
+     */
+    public void setLeavesStoreCompactionThrottledMs(final int compactionLevel, final long value) {
+        assert compactionLevel >= 0 && compactionLevel <= dbConfig.maxCompactionLevel();
+        if (leavesStoreCompactionThrottledMsList.isEmpty()) {
+            // if the method called before the metrics are registered, there is nothing to do
+            return;
+        }
+        leavesStoreCompactionThrottledMsList.get(compactionLevel).update(value);
+    }
+
     /**
      * Set the current value for the accumulator corresponding to provided compaction level from
      * {@link #leavesStoreFileSizeByLevelMbList}
@@ -568,6 +757,21 @@ public class MerkleDbStatistics {
         leafKeysStoreCompactionSavedSpaceMbList.get(compactionLevel).update(value);
     }
 
+    /**
+     * Set the current value for the accumulator corresponding to provided compaction level from
+     * {@link #leafKeysStoreCompactionThrottledMsList}
+     *
+     * @param value the value to set
+     */
+    public void setLeafKeysStoreCompactionThrottledMs(final int compactionLevel, final long value) {
+        assert compactionLevel >= 0 && compactionLevel <= dbConfig.maxCompactionLevel();
+        if (leafKeysStoreCompactionThrottledMsList.isEmpty()) {
+            // if the method called before the metrics are registered, there is nothing to do
+            return;
+        }
+        leafKeysStoreCompactionThrottledMsList.get(compactionLevel).update(value);
+    }
+
     /**
      * Set the current value for the accumulator corresponding to provided compaction level from
      * {@link #leafKeysStoreCompactionSavedSpaceMbList}
@@ -637,4 +841,35 @@ public class MerkleDbStatistics {
             offHeapDataSourceMb.set(value);
         }
     }
+
+    /**
+     * Set data source loading times. Data sources are loaded before metrics are registered, so
+     * the values are kept and reported when metrics are registered.
+     *
+     * @param indicesTimeMs time to load in-memory indices, ms
+     * @param storesTimeMs time to load data file stores, ms
+     */
+    public void setLoadTimes(final int indicesTimeMs, final int storesTimeMs) {
+        loadIndicesTimeMsValue = indicesTimeMs;
+        loadStoresTimeMsValue = storesTimeMs;
+        if (loadIndicesTimeMs != null) {
+            loadIndicesTimeMs.set(indicesTimeMs);
+        }
+        if (loadStoresTimeMs != null) {
+            loadStoresTimeMs.set(storesTimeMs);
+        }
+    }
+
+    /**
+     * Set the number of path to disk location index entries rebuilt from data files, when the data
+     * source is loaded. The value is kept and reported when metrics are registered.
+     *
+     * @param entries number of rebuilt index entries
+     */
+    public void setRebuiltIndexEntries(final long entries) {
+        loadRebuiltIndexEntriesValue = entries;
+        if (loadRebuiltIndexEntries != null) {
+            loadRebuiltIndexEntries.set(entries);
+        }
+    }
 }
@@ -78,7 +78,7 @@ public class MerkleDbStatisticsUpdater {
     }
 
     /**
-     * Updates hashes store file stats: file count and total size in Mb. No-op if all hashes
+     * Updates hashes store file stats: file count, total size in Mb, and garbage ratio. No-op if all hashes
      * are cached in RAM.
      *
      * @return hashes store file size, Mb
@@ -90,13 +90,15 @@ public class MerkleDbStatisticsUpdater {
             statistics.setHashesStoreFileCount((int) internalHashesFileSizeStats.getCount());
             final int fileSizeInMb = (int) (internalHashesFileSizeStats.getSum() * BYTES_TO_MEBIBYTES);
             statistics.setHashesStoreFileSizeMb(fileSizeInMb);
+            statistics.setHashesStoreGarbageRatio(
+                    dataSource.getHashStoreDisk().getFileCollection().getGarbageRatio());
             return fileSizeInMb;
         }
         return 0;
     }
 
     /**
-     * Updates leaves store file stats: file count and total size in Mb.
+     * Updates leaves store file stats: file count, total size in Mb, and garbage ratio.
      *
      * @return leaves store file size, Mb
      */
@@ -106,11 +108,13 @@ public class MerkleDbStatisticsUpdater {
         statistics.setLeavesStoreFileCount((int) leafDataFileSizeStats.getCount());
         final int fileSizeInMb = (int) (leafDataFileSizeStats.getSum() * BYTES_TO_MEBIBYTES);
         statistics.setLeavesStoreFileSizeMb(fileSizeInMb);
+        statistics.setLeavesStoreGarbageRatio(
+                dataSource.getPathToKeyValue().getFileCollection().getGarbageRatio());
         return fileSizeInMb;
     }
 
     /**
-     * Updates leaf keys store file stats: file count and total size in Mb. No-op if keys are
+     * Updates leaf keys store file stats: file count, total size in Mb, and garbage ratio. No-op if keys are
      * longs and stored in a LongList rather than in a store on disk.
      *
      * @return leaf keys store file size, Mb
@@ -122,6 +126,8 @@ public class MerkleDbStatisticsUpdater {
             statistics.setLeafKeysStoreFileCount((int) leafKeyFileSizeStats.getCount());
             final int fileSizeInMb = (int) (leafKeyFileSizeStats.getSum() * BYTES_TO_MEBIBYTES);
             statistics.setLeafKeysStoreFileSizeMb(fileSizeInMb);
+            statistics.setLeafKeysStoreGarbageRatio(
+                    dataSource.getKeyToPath().getFileCollection().getGarbageRatio());
             return fileSizeInMb;
         }
         return 0;
@@ -152,6 +158,16 @@ public class MerkleDbStatisticsUpdater {
         statistics.setOffHeapDataSourceMb(totalOffHeapMemoryConsumption);
     }
 
+    /** Updates statistics with data source loading times, in-memory indices and data file stores. */
+    void setLoadTimes(final long indicesTimeMs, final long storesTimeMs) {
+        statistics.setLoadTimes((int) indicesTimeMs, (int) storesTimeMs);
+    }
+
+    /** Updates statistics with the number of index entries rebuilt from data files at startup. */
+    void setRebuiltIndexEntries(final long entries) {
+        statistics.setRebuiltIndexEntries(entries);
+    }
+
     /** Updates statistics with number of leaf reads. */
     void countLeafReads() {
         statistics.countLeafReads();
@@ -162,6 +178,21 @@ public class MerkleDbStatisticsUpdater {
         statistics.countLeafKeyReads();
     }
 
+    /** Updates statistics with number of leaf records cache hits. */
+    void countLeafCacheHits() {
+        statistics.countLeafCacheHits();
+    }
+
+    /** Updates statistics with number of leaf records cache misses. */
+    void countLeafCacheMisses() {
+        statistics.countLeafCacheMisses();
+    }
+
+    /** Updates statistics with number of leaf records cache evictions. */
+    void countLeafCacheEvictions() {
+        statistics.countLeafCacheEvictions();
+    }
+
     /** Updates statistics with number of hash reads. */
     void countHashReads() {
         statistics.countHashReads();
@@ -211,6 +242,10 @@ public class MerkleDbStatisticsUpdater {
         statistics.setLeafKeysStoreCompactionSavedSpaceMb(compactionLevel, savedSpace);
     }
 
+    void setLeafKeysStoreCompactionThrottledMs(Integer compactionLevel, Long time) {
+        statistics.setLeafKeysStoreCompactionThrottledMs(compactionLevel, time);
+    }
+
     void setLeafKeysStoreFileSizeByLevelMb(Integer compactionLevel, Double savedSpace) {
         statistics.setLeafKeysStoreFileSizeByLevelMb(compactionLevel, savedSpace);
     }
@@ -223,6 +258,10 @@ public class MerkleDbStatisticsUpdater {
         statistics.setHashesStoreCompactionSavedSpaceMb(compactionLevel, savedSpace);
     }
 
+    void setHashesStoreCompactionThrottledMs(Integer compactionLevel, Long time) {
+        statistics.setHashesStoreCompactionThrottledMs(compactionLevel, time);
+    }
+
     void setHashesStoreFileSizeByLevelMb(Integer compactionLevel, Double savedSpace) {
         statistics.setHashesStoreFileSizeByLevelMb(compactionLevel, savedSpace);
     }
@@ -235,6 +274,10 @@ public class MerkleDbStatisticsUpdater {
         statistics.setLeavesStoreCompactionSavedSpaceMb(compactionType, savedSpace);
     }
 
+    void setLeavesStoreCompactionThrottledMs(Integer compactionType, Long time) {
+        statistics.setLeavesStoreCompactionThrottledMs(compactionType, time);
+    }
+
     void setLeavesStoreFileSizeByLevelMb(Integer compactionType, Double savedSpace) {
         statistics.setLeavesStoreFileSizeByLevelMb(compactionType, savedSpace);
     }
@@ -30,9 +30,11 @@ import com.swirlds.common.crypto.DigestType;
 import com.swirlds.common.io.SelfSerializable;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.virtualmap.serialize.KeySerializer;
 import com.swirlds.virtualmap.serialize.ValueSerializer;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 /**
@@ -46,6 +48,7 @@ public final class MerkleDbTableConfig implements SelfSerializable {
 
     private static final class ClassVersion {
         public static final int ORIGINAL = 1;
+        public static final int DATA_FILE_COMPRESSION = 2;
     }
 
     private static final FieldDefinition FIELD_TABLECONFIG_HASHVERSION =
@@ -75,6 +78,11 @@ public final class MerkleDbTableConfig implements SelfSerializable {
             new FieldDefinition("maxNumberOfKeys", FieldType.UINT64, false, true, false, 8);
     private static final FieldDefinition FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD =
             new FieldDefinition("hashesRamToDiskThreshold", FieldType.UINT64, false, true, false, 9);
+    private static final FieldDefinition FIELD_TABLECONFIG_DATAFILECOMPRESSION =
+            new FieldDefinition("dataFileCompression", FieldType.BYTES, false, true, false, 10);
+
+    /** Max length of data file compression mode name in serialized table configs */
+    private static final int MAX_DATA_FILE_COMPRESSION_LENGTH = 64;
 
     /**
      * Hash version.
@@ -132,6 +140,12 @@ public final class MerkleDbTableConfig implements SelfSerializable {
      */
     private boolean preferDiskBasedIndices = false;
 
+    /**
+     * Compression mode for new key/value data files, see {@link DataFileCompression}. If null,
+     * the default mode from MerkleDb configuration is used.
+     */
+    private String dataFileCompression = null;
+
     /**
      * Creates a new virtual table config with default values. This constructor should only be used
      * for deserialization.
@@ -184,6 +198,7 @@ public final class MerkleDbTableConfig implements SelfSerializable {
         preferDiskBasedIndices = false;
         maxNumberOfKeys = 0;
         hashesRamToDiskThreshold = 0;
+        dataFileCompression = null;
 
         while (in.hasRemaining()) {
             final int tag = in.readVarInt(false);
@@ -211,6 +226,11 @@ public final class MerkleDbTableConfig implements SelfSerializable {
                 maxNumberOfKeys = in.readVarLong(false);
             } else if (fieldNum == FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD.number()) {
                 hashesRamToDiskThreshold = in.readVarLong(false);
+            } else if (fieldNum == FIELD_TABLECONFIG_DATAFILECOMPRESSION.number()) {
+                final int len = in.readVarInt(false);
+                final byte[] bb = new byte[len];
+                in.readBytes(bb);
+                dataFileCompression = new String(bb, StandardCharsets.UTF_8);
             } else {
                 throw new IllegalArgumentException("Unknown table config field: " + fieldNum);
             }
@@ -246,6 +266,10 @@ public final class MerkleDbTableConfig implements SelfSerializable {
                     FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG);
             size += ProtoWriterTools.sizeOfVarInt64(hashesRamToDiskThreshold);
         }
+        if (dataFileCompression != null) {
+            size += ProtoWriterTools.sizeOfDelimited(
+                    FIELD_TABLECONFIG_DATAFILECOMPRESSION, dataFileCompression.getBytes(StandardCharsets.UTF_8).length);
+        }
         return size;
     }
 
@@ -267,6 +291,11 @@ public final class MerkleDbTableConfig implements SelfSerializable {
             ProtoWriterTools.writeTag(out, FIELD_TABLECONFIG_HASHRAMTODISKTHRESHOLD);
             out.writeVarLong(hashesRamToDiskThreshold, false);
         }
+        if (dataFileCompression != null) {
+            final byte[] bb = dataFileCompression.getBytes(StandardCharsets.UTF_8);
+            ProtoWriterTools.writeDelimited(
+                    out, FIELD_TABLECONFIG_DATAFILECOMPRESSION, bb.length, t -> t.writeBytes(bb));
+        }
     }
 
     /**
@@ -387,6 +416,36 @@ public final class MerkleDbTableConfig implements SelfSerializable {
         return this;
     }
 
+    /**
+     * Compression mode for new key/value data files, see {@link DataFileCompression}.
+     *
+     * @return
+     *      Data file compression mode, or null if the default mode from MerkleDb config is used
+     */
+    public String getDataFileCompression() {
+        return dataFileCompression;
+    }
+
+    /**
+     * Specifies compression mode for new key/value data files. Existing data files are not affected,
+     * they are read in the mode they were written in.
+     *
+     * @param dataFileCompression
+     *      Data file compression mode, see {@link DataFileCompression}, or null to use the default
+     *      mode from MerkleDb config
+     * @return
+     *      This table config object
+     * @throws IllegalArgumentException
+     *      If the compression mode is not supported
+     */
+    public MerkleDbTableConfig dataFileCompression(final String dataFileCompression) {
+        if ((dataFileCompression != null) && !DataFileCompression.isValid(dataFileCompression)) {
+            throw new IllegalArgumentException("Unknown data file compression: " + dataFileCompression);
+        }
+        this.dataFileCompression = dataFileCompression;
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -400,7 +459,7 @@ public final class MerkleDbTableConfig implements SelfSerializable {
      */
     @Override
     public int getVersion() {
-        return ClassVersion.ORIGINAL;
+        return ClassVersion.DATA_FILE_COMPRESSION;
     }
 
     /**
@@ -417,6 +476,7 @@ public final class MerkleDbTableConfig implements SelfSerializable {
         out.writeSerializable(null, true); // key serializer
         out.writeShort(0); // value version
         out.writeSerializable(null, true); // value serializer
+        out.writeNormalisedString(dataFileCompression);
     }
 
     /**
@@ -433,6 +493,9 @@ public final class MerkleDbTableConfig implements SelfSerializable {
         in.readSerializable(); // key serializer
         in.readShort(); // value version
         in.readSerializable(); // value serializer
+        if (version >= ClassVersion.DATA_FILE_COMPRESSION) {
+            dataFileCompression = in.readNormalisedString(MAX_DATA_FILE_COMPRESSION_LENGTH);
+        }
     }
 
     /**
@@ -448,6 +511,7 @@ public final class MerkleDbTableConfig implements SelfSerializable {
         final MerkleDbTableConfig copy =
                 new MerkleDbTableConfig(hashVersion, hashType, maxNumberOfKeys, hashesRamToDiskThreshold);
         copy.preferDiskIndices(preferDiskBasedIndices);
+        copy.dataFileCompression(dataFileCompression);
         return copy;
     }
 
@@ -456,7 +520,13 @@ public final class MerkleDbTableConfig implements SelfSerializable {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(hashVersion, hashType, preferDiskBasedIndices, maxNumberOfKeys, hashesRamToDiskThreshold);
+        return Objects.hash(
+                hashVersion,
+                hashType,
+                preferDiskBasedIndices,
+                maxNumberOfKeys,
+                hashesRamToDiskThreshold,
+                dataFileCompression);
     }
 
     /**
@@ -471,6 +541,7 @@ public final class MerkleDbTableConfig implements SelfSerializable {
                 && (maxNumberOfKeys == other.maxNumberOfKeys)
                 && (hashesRamToDiskThreshold == other.hashesRamToDiskThreshold)
                 && (hashVersion == other.hashVersion)
-                && Objects.equals(hashType, other.hashType);
+                && Objects.equals(hashType, other.hashType)
+                && Objects.equals(dataFileCompression, other.dataFileCompression);
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rebuilds a path to disk location index from data files. Every data item found in data files is
+ * parsed to get its path, and the index is updated with the data item location. When data files
+ * are scanned in parallel, the index keeps the greatest data location for every path, which is
+ * the newest one.
+ */
+final class PathIndexRebuildCallback implements LoadedDataCallback {
+
+    /** The index to rebuild */
+    private final LongList index;
+
+    /** Parses a path from data item bytes */
+    private final ToLongFunction<BufferedData> pathParser;
+
+    /** Number of data items processed */
+    private final LongAdder entries = new LongAdder();
+
+    /**
+     * Creates a new callback.
+     *
+     * @param index the index to rebuild
+     * @param pathParser parses a path from data item bytes
+     */
+    PathIndexRebuildCallback(@NonNull final LongList index, @NonNull final ToLongFunction<BufferedData> pathParser) {
+        this.index = Objects.requireNonNull(index);
+        this.pathParser = Objects.requireNonNull(pathParser);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void newIndexEntry(final long dataLocation, @NonNull final BufferedData dataValue) {
+        index.put(pathParser.applyAsLong(dataValue), dataLocation);
+        entries.increment();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void newIndexEntryIfNewer(final long dataLocation, @NonNull final BufferedData dataValue) {
+        index.putIfGreater(pathParser.applyAsLong(dataValue), dataLocation);
+        entries.increment();
+    }
+
+    /**
+     * Returns the number of data items processed by this callback so far.
+     */
+    long getEntryCount() {
+        return entries.sum();
+    }
+}
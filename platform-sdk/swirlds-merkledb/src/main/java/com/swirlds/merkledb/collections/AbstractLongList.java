@@ -29,6 +29,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -42,6 +43,11 @@ import java.util.stream.StreamSupport;
 /**
  * Common parent class for long list implementations. It takes care of loading a snapshot from disk,
  * chunk management and other common functionality.
+ * <p>
+ * Chunks modified since the last snapshot are tracked, so snapshots can be written incrementally,
+ * see {@link DeltaSnapshotable}. A delta file contains the list metadata (min and max valid indices
+ * and size) and a record for every modified chunk. A record is either a chunk index and full chunk
+ * data, or just a chunk index, if the chunk was released.
  *
  * @param <C> a type that represents a chunk (byte buffer, array or long that represents an offset of the chunk)
  */
@@ -94,6 +100,21 @@ public abstract class AbstractLongList<C> implements LongList {
     protected static final int FILE_HEADER_SIZE_V2 = VERSION_METADATA_SIZE + FORMAT_METADATA_SIZE_V2;
     /** File header size for the latest format */
     protected final int currentFileHeaderSize;
+    /** A marker at the start of every delta file, so delta files can't be confused with full snapshots */
+    private static final int DELTA_FILE_MARKER = 0x4C4C4454;
+    /** The version number for format of delta files */
+    private static final int DELTA_FILE_FORMAT_VERSION = 1;
+    /** The number of bytes to read for delta file header:<br>
+     * - marker and version<br>
+     * - number of longs per chunk<br>
+     * - max number of longs supported by the list<br>
+     * - min and max valid indices and size<br>
+     * - number of chunk records in the file<br>
+     */
+    private static final int DELTA_FILE_HEADER_SIZE =
+            Integer.BYTES * 3 + Long.BYTES + Long.BYTES * 3 + Integer.BYTES;
+    /** The number of bytes in a delta chunk record header: chunk index and whether the chunk exists */
+    private static final int DELTA_CHUNK_HEADER_SIZE = Integer.BYTES + 1;
 
     /**
      * The number of longs to store in each allocated buffer. Must be a positive integer. If the
@@ -122,6 +143,9 @@ public abstract class AbstractLongList<C> implements LongList {
     /** Atomic reference array of our memory chunks */
     protected final AtomicReferenceArray<C> chunkList;
 
+    /** Chunks modified since the last snapshot, see {@link DeltaSnapshotable} */
+    private final DirtyChunkSet dirtyChunks;
+
     /**
      * A length of a buffer that is reserved to remain intact after memory optimization that is
      * happening in {@link LongList#updateValidRange}
@@ -155,6 +179,7 @@ public abstract class AbstractLongList<C> implements LongList {
         }
         currentFileHeaderSize = FILE_HEADER_SIZE_V2;
         chunkList = new AtomicReferenceArray<>(chunkNum);
+        dirtyChunks = new DirtyChunkSet(chunkNum);
         // multiplyExact throws exception if we overflow and int
         memoryChunkSize = Math.multiplyExact(numLongsPerChunk, Long.BYTES);
         this.reservedBufferLength = reservedBufferLength;
@@ -185,6 +210,7 @@ public abstract class AbstractLongList<C> implements LongList {
             maxLongs = DEFAULT_MAX_LONGS_TO_STORE;
             currentFileHeaderSize = FILE_HEADER_SIZE_V2;
             chunkList = new AtomicReferenceArray<>(calculateNumberOfChunks(maxLongs));
+            dirtyChunks = new DirtyChunkSet(chunkList.length());
             onEmptyOrAbsentSourceFile(path);
         } else {
             try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
@@ -225,6 +251,7 @@ public abstract class AbstractLongList<C> implements LongList {
                 }
                 maxValidIndex.set(size.get() - 1);
                 chunkList = new AtomicReferenceArray<>(calculateNumberOfChunks(maxLongs));
+                dirtyChunks = new DirtyChunkSet(chunkList.length());
                 readBodyFromFileChannelOnInit(file.getName(), fileChannel);
             }
         }
@@ -299,6 +326,40 @@ public abstract class AbstractLongList<C> implements LongList {
         putImpl(index, IMPERMISSIBLE_VALUE);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final long getAndPut(final long index, final long value) {
+        checkIndex(index);
+        checkValue(value);
+        return getAndPutImpl(index, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final long getAndRemove(final long index) {
+        checkIndex(index);
+        return getAndPutImpl(index, IMPERMISSIBLE_VALUE);
+    }
+
+    private long getAndPutImpl(final long index, final long value) {
+        assert index >= minValidIndex.get()
+                : String.format("Index %d is less than min valid index %d", index, minValidIndex.get());
+        assert index <= maxValidIndex.get()
+                : String.format("Index %d is greater than max valid index %d", index, maxValidIndex.get());
+        final C chunk = createOrGetChunk(index);
+        final int subIndex = toIntExact(index % numLongsPerChunk);
+        long oldValue = lookupInChunk(chunk, subIndex);
+        while (!putIfEqual(chunk, subIndex, oldValue, value)) {
+            oldValue = lookupInChunk(chunk, subIndex);
+        }
+        dirtyChunks.mark(toIntExact(index / numLongsPerChunk));
+        return oldValue;
+    }
+
     private void putImpl(final long index, final long value) {
         assert index >= minValidIndex.get()
                 : String.format("Index %d is less than min valid index %d", index, minValidIndex.get());
@@ -307,6 +368,7 @@ public abstract class AbstractLongList<C> implements LongList {
         final C chunk = createOrGetChunk(index);
         final int subIndex = toIntExact(index % numLongsPerChunk);
         putToChunk(chunk, subIndex, value);
+        dirtyChunks.mark(toIntExact(index / numLongsPerChunk));
     }
 
     /**
@@ -344,10 +406,31 @@ public abstract class AbstractLongList<C> implements LongList {
         if (result) {
             // update the size if necessary
             size.getAndUpdate(oldSize -> index >= oldSize ? (index + 1) : oldSize);
+            dirtyChunks.mark(chunkIndex);
         }
         return result;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean putIfGreater(final long index, final long value) {
+        checkIndex(index);
+        checkValue(value);
+        final C chunk = createOrGetChunk(index);
+        final int subIndex = toIntExact(index % numLongsPerChunk);
+        long currentValue = lookupInChunk(chunk, subIndex);
+        while ((currentValue == IMPERMISSIBLE_VALUE) || (currentValue < value)) {
+            if (putIfEqual(chunk, subIndex, currentValue, value)) {
+                dirtyChunks.mark(toIntExact(index / numLongsPerChunk));
+                return true;
+            }
+            currentValue = lookupInChunk(chunk, subIndex);
+        }
+        return false;
+    }
+
     /**
      * Stores a long in a given chunk at a given sub index, on the condition that the current long therein has a given
      * value.
@@ -414,6 +497,8 @@ public abstract class AbstractLongList<C> implements LongList {
      */
     @Override
     public void writeToFile(final Path file) throws IOException {
+        // All chunks are written, the next delta should only include chunks modified after this point
+        dirtyChunks.clearAll();
         try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
             // write header
             writeHeader(fc);
@@ -443,6 +528,110 @@ public abstract class AbstractLongList<C> implements LongList {
         fc.position(currentFileHeaderSize);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void writeDeltaToFile(final Path file) throws IOException {
+        final long deltaMinValidIndex = minValidIndex.get();
+        final long deltaMaxValidIndex = maxValidIndex.get();
+        final long deltaSize = size.get();
+        try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // The header is written last, when the number of chunk records is known
+            fc.position(DELTA_FILE_HEADER_SIZE);
+            final ByteBuffer chunkHeaderBuffer = ByteBuffer.allocate(DELTA_CHUNK_HEADER_SIZE);
+            final ByteBuffer chunkDataBuffer = ByteBuffer.allocate(memoryChunkSize).order(ByteOrder.nativeOrder());
+            int numOfChunks = 0;
+            for (int i = dirtyChunks.nextMarked(0); i >= 0; i = dirtyChunks.nextMarked(i + 1)) {
+                // Clear the mark before the chunk is read. If the chunk is modified after that, it will be
+                // marked again and included into the next delta
+                dirtyChunks.clear(i);
+                final C chunk = chunkList.get(i);
+                chunkHeaderBuffer.clear();
+                chunkHeaderBuffer.putInt(i);
+                chunkHeaderBuffer.put((byte) (chunk != null ? 1 : 0));
+                chunkHeaderBuffer.flip();
+                MerkleDbFileUtils.completelyWrite(fc, chunkHeaderBuffer);
+                if (chunk != null) {
+                    chunkDataBuffer.clear();
+                    readChunkData(chunk, chunkDataBuffer);
+                    chunkDataBuffer.flip();
+                    MerkleDbFileUtils.completelyWrite(fc, chunkDataBuffer);
+                }
+                numOfChunks++;
+            }
+            final ByteBuffer headerBuffer = ByteBuffer.allocate(DELTA_FILE_HEADER_SIZE);
+            headerBuffer.putInt(DELTA_FILE_MARKER);
+            headerBuffer.putInt(DELTA_FILE_FORMAT_VERSION);
+            headerBuffer.putInt(numLongsPerChunk);
+            headerBuffer.putLong(maxLongs);
+            headerBuffer.putLong(deltaMinValidIndex);
+            headerBuffer.putLong(deltaMaxValidIndex);
+            headerBuffer.putLong(deltaSize);
+            headerBuffer.putInt(numOfChunks);
+            headerBuffer.flip();
+            MerkleDbFileUtils.completelyWrite(fc, headerBuffer, 0);
+            fc.force(true);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void applyDeltaFromFile(final Path file) throws IOException {
+        try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer headerBuffer = readFromFileChannel(fc, DELTA_FILE_HEADER_SIZE);
+            if (headerBuffer.getInt() != DELTA_FILE_MARKER) {
+                throw new IOException("Not a long list delta file: " + file);
+            }
+            final int formatVersion = headerBuffer.getInt();
+            if (formatVersion != DELTA_FILE_FORMAT_VERSION) {
+                throw new IOException("Delta file format version is not supported. File format version ["
+                        + formatVersion
+                        + "], the latest supported version is ["
+                        + DELTA_FILE_FORMAT_VERSION
+                        + "].");
+            }
+            final int fileNumLongsPerChunk = headerBuffer.getInt();
+            final long fileMaxLongs = headerBuffer.getLong();
+            if ((fileNumLongsPerChunk != numLongsPerChunk) || (fileMaxLongs != maxLongs)) {
+                throw new IOException("Delta file " + file + " doesn't match the list: " + fileNumLongsPerChunk
+                        + " longs per chunk, max " + fileMaxLongs + " longs");
+            }
+            final long deltaMinValidIndex = headerBuffer.getLong();
+            final long deltaMaxValidIndex = headerBuffer.getLong();
+            final long deltaSize = headerBuffer.getLong();
+            final int numOfChunks = headerBuffer.getInt();
+            final ByteBuffer chunkHeaderBuffer = ByteBuffer.allocate(DELTA_CHUNK_HEADER_SIZE);
+            final ByteBuffer chunkDataBuffer = ByteBuffer.allocate(memoryChunkSize).order(ByteOrder.nativeOrder());
+            for (int n = 0; n < numOfChunks; n++) {
+                chunkHeaderBuffer.clear();
+                MerkleDbFileUtils.completelyRead(fc, chunkHeaderBuffer);
+                chunkHeaderBuffer.flip();
+                final int chunkIndex = chunkHeaderBuffer.getInt();
+                final boolean chunkExists = chunkHeaderBuffer.get() != 0;
+                if (chunkExists) {
+                    chunkDataBuffer.clear();
+                    if (MerkleDbFileUtils.completelyRead(fc, chunkDataBuffer) != memoryChunkSize) {
+                        throw new IOException("Unexpected end of delta file " + file);
+                    }
+                    chunkDataBuffer.flip();
+                    C chunk = chunkList.get(chunkIndex);
+                    if (chunk == null) {
+                        chunk = createChunk();
+                        chunkList.set(chunkIndex, chunk);
+                    }
+                    writeChunkData(chunk, chunkDataBuffer);
+                } else {
+                    final C chunk = chunkList.getAndSet(chunkIndex, null);
+                    if (chunk != null) {
+                        closeChunk(chunk);
+                    }
+                }
+            }
+            minValidIndex.set(deltaMinValidIndex);
+            maxValidIndex.set(deltaMaxValidIndex);
+            size.set(deltaSize);
+        }
+    }
+
     /**
      * Write the long data to file, This it is expected to be in one simple block of raw longs.
      *
@@ -451,6 +640,34 @@ public abstract class AbstractLongList<C> implements LongList {
      */
     protected abstract void writeLongsData(final FileChannel fc) throws IOException;
 
+    /**
+     * Reads all longs from the given chunk into a buffer, in native byte order. Used to write
+     * deltas. This default implementation reads longs one by one.
+     *
+     * @param chunk the chunk to read
+     * @param dst the buffer to read longs into, it has enough space for the whole chunk
+     * @throws IOException if there was a problem reading the chunk
+     */
+    protected void readChunkData(@NonNull final C chunk, @NonNull final ByteBuffer dst) throws IOException {
+        for (int i = 0; i < numLongsPerChunk; i++) {
+            dst.putLong(lookupInChunk(chunk, i));
+        }
+    }
+
+    /**
+     * Writes all longs from a buffer to the given chunk. Used to apply deltas. This default
+     * implementation writes longs one by one.
+     *
+     * @param chunk the chunk to write to
+     * @param src the buffer with longs in native byte order, it has exactly one chunk of data
+     * @throws IOException if there was a problem writing the chunk
+     */
+    protected void writeChunkData(@NonNull final C chunk, @NonNull final ByteBuffer src) throws IOException {
+        for (int i = 0; i < numLongsPerChunk; i++) {
+            putToChunk(chunk, i, src.getLong());
+        }
+    }
+
     /**
      * Lookup a long in data
      *
@@ -526,6 +743,7 @@ public abstract class AbstractLongList<C> implements LongList {
             final C chunk = chunkList.get(i);
             if (chunk != null && chunkList.compareAndSet(i, chunk, null)) {
                 closeChunk(chunk);
+                dirtyChunks.mark(i);
             }
         }
 
@@ -535,6 +753,7 @@ public abstract class AbstractLongList<C> implements LongList {
         C chunk = chunkList.get(firstChunkWithDataIndex);
         if (chunk != null && numberOfElementsToCleanUp > 0) {
             partialChunkCleanup(chunk, true, numberOfElementsToCleanUp);
+            dirtyChunks.mark(firstChunkWithDataIndex);
         }
 
         // clean up chunk(s) reserved for buffer
@@ -542,6 +761,7 @@ public abstract class AbstractLongList<C> implements LongList {
             chunk = chunkList.get(i);
             if (chunk != null) {
                 partialChunkCleanup(chunk, true, numLongsPerChunk);
+                dirtyChunks.mark(i);
             }
         }
     }
@@ -563,6 +783,7 @@ public abstract class AbstractLongList<C> implements LongList {
             final C chunk = chunkList.get(i);
             if (chunk != null && chunkList.compareAndSet(i, chunk, null)) {
                 closeChunk(chunk);
+                dirtyChunks.mark(i);
             }
         }
 
@@ -572,6 +793,7 @@ public abstract class AbstractLongList<C> implements LongList {
         C chunk = chunkList.get(firstChunkWithDataIndex);
         if (chunk != null && numberOfEntriesToCleanUp > 0) {
             partialChunkCleanup(chunk, false, numberOfEntriesToCleanUp);
+            dirtyChunks.mark(firstChunkWithDataIndex);
         }
 
         // clean up chunk(s) reserved for buffer
@@ -579,6 +801,7 @@ public abstract class AbstractLongList<C> implements LongList {
             chunk = chunkList.get(i);
             if (chunk != null) {
                 partialChunkCleanup(chunk, false, numLongsPerChunk);
+                dirtyChunks.mark(i);
             }
         }
     }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.collections;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A data structure, which contents can be written to disk incrementally. Contents are split into
+ * fixed size chunks, and chunks modified since the last snapshot are tracked. A full snapshot is
+ * written using {@link #writeToFile(Path)}. Every next snapshot may be written as a delta, which
+ * only contains chunks modified since the previous snapshot, either full or delta. To restore the
+ * data structure, it's loaded from the full snapshot file, then all deltas are applied in order
+ * using {@link #applyDeltaFromFile(Path)}.
+ */
+public interface DeltaSnapshotable {
+
+    /**
+     * Writes all contents to a file. After this call, all chunks are considered not modified, so
+     * the next delta will only contain chunks modified after this call.
+     *
+     * @param file the file to write to, it should not exist
+     * @throws IOException if there was a problem writing the file
+     */
+    void writeToFile(Path file) throws IOException;
+
+    /**
+     * Writes all chunks modified since the last snapshot, full or delta, to a file. After this call,
+     * all chunks are considered not modified. If chunks are modified while this method is running,
+     * they may or may not be included into the delta, but in both cases they are included into
+     * the next delta.
+     *
+     * @param file the file to write to, it should not exist
+     * @throws IOException if there was a problem writing the file
+     */
+    void writeDeltaToFile(Path file) throws IOException;
+
+    /**
+     * Applies a delta written by {@link #writeDeltaToFile(Path)} to this data structure. Chunks
+     * updated from the delta are not considered modified. This method must not be called
+     * concurrently with any other updates.
+     *
+     * @param file the delta file to apply
+     * @throws IOException if there was a problem reading the file, or the file is incompatible
+     *     with this data structure
+     */
+    void applyDeltaFromFile(Path file) throws IOException;
+}
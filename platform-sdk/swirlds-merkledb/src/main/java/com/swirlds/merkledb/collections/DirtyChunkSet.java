@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.collections;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe set of chunk indices, used by {@link DeltaSnapshotable} implementations to track
+ * chunks modified since the last snapshot. Chunks are marked on every update, so marking a chunk,
+ * which is already marked, is a plain volatile read.
+ */
+final class DirtyChunkSet {
+
+    /** One bit per chunk */
+    private final AtomicLongArray bits;
+
+    /** Max number of chunks in the set */
+    private final int capacity;
+
+    /**
+     * Creates a new empty set.
+     *
+     * @param capacity max number of chunks
+     */
+    DirtyChunkSet(final int capacity) {
+        this.capacity = capacity;
+        this.bits = new AtomicLongArray((capacity + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Marks the given chunk as modified.
+     *
+     * @param chunkIndex the chunk index
+     */
+    void mark(final int chunkIndex) {
+        final int index = chunkIndex >>> 6;
+        final long mask = 1L << chunkIndex;
+        if ((bits.get(index) & mask) == 0) {
+            bits.getAndUpdate(index, v -> v | mask);
+        }
+    }
+
+    /**
+     * Clears the mark of the given chunk.
+     *
+     * @param chunkIndex the chunk index
+     * @return whether the chunk was marked
+     */
+    boolean clear(final int chunkIndex) {
+        final int index = chunkIndex >>> 6;
+        final long mask = 1L << chunkIndex;
+        return (bits.getAndUpdate(index, v -> v & ~mask) & mask) != 0;
+    }
+
+    /**
+     * Clears marks of all chunks.
+     */
+    void clearAll() {
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0);
+        }
+    }
+
+    /**
+     * Returns the index of the first marked chunk at or after the given index.
+     *
+     * @param fromChunkIndex the chunk index to start from
+     * @return the marked chunk index, or -1 if there are no marked chunks at or after the index
+     */
+    int nextMarked(final int fromChunkIndex) {
+        if (fromChunkIndex >= capacity) {
+            return -1;
+        }
+        int index = fromChunkIndex >>> 6;
+        long word = bits.get(index) & (-1L << fromChunkIndex);
+        while (true) {
+            if (word != 0) {
+                final int chunkIndex = (index << 6) + Long.numberOfTrailingZeros(word);
+                return chunkIndex < capacity ? chunkIndex : -1;
+            }
+            if (++index == bits.length()) {
+                return -1;
+            }
+            word = bits.get(index);
+        }
+    }
+}
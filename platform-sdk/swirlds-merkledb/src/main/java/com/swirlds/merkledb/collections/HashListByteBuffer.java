@@ -27,6 +27,7 @@ import com.swirlds.common.crypto.Hash;
 import com.swirlds.merkledb.utilities.HashTools;
 import com.swirlds.merkledb.utilities.MemoryUtils;
 import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
@@ -53,8 +54,11 @@ import java.util.concurrent.atomic.AtomicLong;
  * + data size of 384 bits = 48 bytes.
  * = 100 bytes, or over 2x overhead.
  * </pre>
+ *
+ * <p>Buffers modified since the last snapshot are tracked, so snapshots can be written incrementally,
+ * see {@link DeltaSnapshotable}. Every buffer is a chunk in terms of deltas.
  */
-public final class HashListByteBuffer implements HashList, OffHeapUser {
+public final class HashListByteBuffer implements HashList, DeltaSnapshotable, OffHeapUser {
     /**
      * The version number for format of current data files
      */
@@ -64,6 +68,20 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
      */
     private static final int FILE_HEADER_SIZE =
             Integer.BYTES + Integer.BYTES + Long.BYTES + 1 + Long.BYTES + Long.BYTES + Integer.BYTES;
+    /**
+     * A marker at the start of every delta file, so delta files can't be confused with full snapshots
+     */
+    private static final int DELTA_FILE_MARKER = 0x484C4454;
+    /**
+     * The version number for format of delta files
+     */
+    private static final int DELTA_FILE_FORMAT_VERSION = 1;
+    /**
+     * The number of bytes to read for delta file header: marker, version, number of hashes per buffer,
+     * max hashes, max index that can be stored, number of hashes stored, number of buffers in the file
+     */
+    private static final int DELTA_FILE_HEADER_SIZE =
+            Integer.BYTES * 3 + Long.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
     /**
      * A suitable default value for the number of hashes to store per {@link ByteBuffer}.
      */
@@ -120,6 +138,11 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
      */
     private final boolean offHeap;
 
+    /**
+     * Buffers modified since the last snapshot, see {@link DeltaSnapshotable}.
+     */
+    private final DirtyChunkSet dirtyBuffers;
+
     /**
      * Create a new off-heap {@link HashListByteBuffer} with default number of hashes per buffer and max capacity.
      */
@@ -148,6 +171,7 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
             memoryBufferSize = numHashesPerBuffer * HASH_SIZE_BYTES;
             maxHashes = headerBuffer.getLong();
             offHeap = headerBuffer.get() == 1;
+            dirtyBuffers = new DirtyChunkSet(maxNumberOfBuffers(maxHashes, numHashesPerBuffer));
             maxIndexThatCanBeStored.set(headerBuffer.getLong());
             numberOfHashesStored.set(headerBuffer.getLong());
             final int numOfBuffers = headerBuffer.getInt();
@@ -187,6 +211,11 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
         this.memoryBufferSize = numHashesPerBuffer * HASH_SIZE_BYTES;
         this.maxHashes = maxHashes;
         this.offHeap = offHeap;
+        this.dirtyBuffers = new DirtyChunkSet(maxNumberOfBuffers(maxHashes, numHashesPerBuffer));
+    }
+
+    private static int maxNumberOfBuffers(final long maxHashes, final int numHashesPerBuffer) {
+        return (int) Math.min(Integer.MAX_VALUE, (maxHashes + numHashesPerBuffer - 1) / numHashesPerBuffer);
     }
 
     /**
@@ -246,6 +275,7 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
         numberOfHashesStored.updateAndGet(currentValue -> Math.max(currentValue, index + 1));
         // Get the right buffer
         hashToByteBuffer(hash, getBuffer(index));
+        dirtyBuffers.mark((int) (index / numHashesPerBuffer));
     }
 
     /**
@@ -286,6 +316,8 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
      */
     @Override
     public void writeToFile(Path file) throws IOException {
+        // All buffers are written, the next delta should only include buffers modified after this point
+        dirtyBuffers.clearAll();
         final int numOfBuffers = data.size();
         try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
             // write header
@@ -317,6 +349,94 @@ public final class HashListByteBuffer implements HashList, OffHeapUser {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeDeltaToFile(@NonNull final Path file) throws IOException {
+        final long deltaMaxIndexThatCanBeStored = maxIndexThatCanBeStored.get();
+        final long deltaNumberOfHashesStored = numberOfHashesStored.get();
+        try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // The header is written last, when the number of buffers is known
+            fc.position(DELTA_FILE_HEADER_SIZE);
+            final ByteBuffer bufferIndexBuffer = ByteBuffer.allocate(Integer.BYTES);
+            int numOfBuffers = 0;
+            for (int i = dirtyBuffers.nextMarked(0); i >= 0; i = dirtyBuffers.nextMarked(i + 1)) {
+                // Clear the mark before the buffer is written. If the buffer is modified after that,
+                // it will be marked again and included into the next delta
+                dirtyBuffers.clear(i);
+                bufferIndexBuffer.clear();
+                bufferIndexBuffer.putInt(i);
+                bufferIndexBuffer.flip();
+                MerkleDbFileUtils.completelyWrite(fc, bufferIndexBuffer);
+                final ByteBuffer buf = data.get(i).slice(); // slice so we don't mess with state of stored buffer
+                buf.position(0);
+                buf.limit(buf.capacity());
+                MerkleDbFileUtils.completelyWrite(fc, buf);
+                numOfBuffers++;
+            }
+            final ByteBuffer headerBuffer = ByteBuffer.allocate(DELTA_FILE_HEADER_SIZE);
+            headerBuffer.putInt(DELTA_FILE_MARKER);
+            headerBuffer.putInt(DELTA_FILE_FORMAT_VERSION);
+            headerBuffer.putInt(numHashesPerBuffer);
+            headerBuffer.putLong(maxHashes);
+            headerBuffer.putLong(deltaMaxIndexThatCanBeStored);
+            headerBuffer.putLong(deltaNumberOfHashesStored);
+            headerBuffer.putInt(numOfBuffers);
+            headerBuffer.flip();
+            MerkleDbFileUtils.completelyWrite(fc, headerBuffer, 0);
+            fc.force(true);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyDeltaFromFile(@NonNull final Path file) throws IOException {
+        try (final FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer headerBuffer = MerkleDbFileUtils.readFromFileChannel(fc, DELTA_FILE_HEADER_SIZE);
+            if (headerBuffer.getInt() != DELTA_FILE_MARKER) {
+                throw new IOException("Not a hash list delta file: " + file);
+            }
+            final int formatVersion = headerBuffer.getInt();
+            if (formatVersion != DELTA_FILE_FORMAT_VERSION) {
+                throw new IOException("Tried to read a delta file with incompatible file format version ["
+                        + formatVersion + "], expected [" + DELTA_FILE_FORMAT_VERSION + "].");
+            }
+            final int fileNumHashesPerBuffer = headerBuffer.getInt();
+            final long fileMaxHashes = headerBuffer.getLong();
+            if ((fileNumHashesPerBuffer != numHashesPerBuffer) || (fileMaxHashes != maxHashes)) {
+                throw new IOException("Delta file " + file + " doesn't match the list: " + fileNumHashesPerBuffer
+                        + " hashes per buffer, max " + fileMaxHashes + " hashes");
+            }
+            final long deltaMaxIndexThatCanBeStored = headerBuffer.getLong();
+            final long deltaNumberOfHashesStored = headerBuffer.getLong();
+            final int numOfBuffers = headerBuffer.getInt();
+            final ByteBuffer bufferIndexBuffer = ByteBuffer.allocate(Integer.BYTES);
+            for (int n = 0; n < numOfBuffers; n++) {
+                bufferIndexBuffer.clear();
+                MerkleDbFileUtils.completelyRead(fc, bufferIndexBuffer);
+                final int bufferIndex = bufferIndexBuffer.getInt(0);
+                while (data.size() <= bufferIndex) {
+                    data.add(offHeap ? allocateDirect(memoryBufferSize) : allocate(memoryBufferSize));
+                }
+                final ByteBuffer buf = data.get(bufferIndex).slice(); // slice so we don't mess with its state
+                buf.position(0);
+                buf.limit(buf.capacity());
+                if (MerkleDbFileUtils.completelyRead(fc, buf) != memoryBufferSize) {
+                    throw new IOException("Unexpected end of delta file " + file);
+                }
+            }
+            // Buffers, which were allocated, but never written, aren't in the delta
+            while ((long) data.size() * numHashesPerBuffer - 1 < deltaMaxIndexThatCanBeStored) {
+                data.add(offHeap ? allocateDirect(memoryBufferSize) : allocate(memoryBufferSize));
+            }
+            maxIndexThatCanBeStored.set(deltaMaxIndexThatCanBeStored);
+            numberOfHashesStored.set(deltaNumberOfHashesStored);
+        }
+    }
+
     /**
      * Get off-heap usage of this hash list, in bytes. It's calculated as the number of
      * currently allocated buffers * number of hashes in each buffer * hash size. Even if
@@ -36,7 +36,7 @@ import java.util.stream.LongStream;
  * more like a long-to-long map than a traditional list.
  *
  */
-public interface LongList extends CASableLongIndex, Closeable {
+public interface LongList extends CASableLongIndex, DeltaSnapshotable, Closeable {
     /**
      * A LongList may not contain the non-existent data location, which is used as a sentinel for a
      * never-set index.
@@ -68,6 +68,28 @@ public interface LongList extends CASableLongIndex, Closeable {
      */
     void remove(long index);
 
+    /**
+     * Stores a long at the given index and returns the previous value. The swap is atomic with
+     * respect to other updates of the same index, e.g. {@link #putIfEqual(long, long, long)} calls
+     * made by compactions.
+     *
+     * @param index the index to use
+     * @param value the long to store
+     * @return the previous value, or {@link #IMPERMISSIBLE_VALUE} if the index was not set
+     * @throws IndexOutOfBoundsException if the index is negative or beyond the max capacity of the list
+     * @throws IllegalArgumentException  if the value is zero
+     */
+    long getAndPut(long index, long value);
+
+    /**
+     * Marks the index as not containing a valid long value and returns the previous value. The swap
+     * is atomic with respect to other updates of the same index.
+     *
+     * @param index the index to clear
+     * @return the previous value, or {@link #IMPERMISSIBLE_VALUE} if the index was not set
+     */
+    long getAndRemove(long index);
+
     /**
      * Stores a long at the given index, on the condition that the current long therein has a given
      * value.
@@ -82,6 +104,19 @@ public interface LongList extends CASableLongIndex, Closeable {
     @Override
     boolean putIfEqual(long index, long oldValue, long newValue);
 
+    /**
+     * Stores a long at the given index, on the condition that the index is not set, or the current
+     * long therein is less than the given value. Concurrent calls for the same index result in the
+     * greatest of the values being stored.
+     *
+     * @param index the index to use
+     * @param value the long to store
+     * @return whether the value was set
+     * @throws IndexOutOfBoundsException if the index is negative or beyond the max capacity of the list
+     * @throws IllegalArgumentException  if the value is zero
+     */
+    boolean putIfGreater(long index, long value);
+
     /**
      * Get the maximum capacity of this LongList; that is, one greater than the maximum legal value
      * of an {@code index} parameter used in a {@code put()} call.
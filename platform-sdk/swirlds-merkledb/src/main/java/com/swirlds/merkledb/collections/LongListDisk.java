@@ -36,6 +36,7 @@ import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  *  A direct on disk implementation of LongList. This implementation creates a temporary file to store the data.
@@ -43,12 +44,19 @@ import java.util.concurrent.ConcurrentLinkedDeque;
  *  it will take the name of the file provided by the user and create a temporary file with this name.
  * <p>
  *  Unlike the "snapshot" file, the temporary files doesn't contain the header, only the body.
- *
+ * <p>
+ *  Values are read and written using positional file channel operations, which are safe to use from
+ *  multiple threads. Reads don't take any locks. Writes to the same index must not interleave with
+ *  {@link #putIfEqual(long, long, long)} read-compare-write sequences, so writes are guarded by a set of
+ *  striped locks, selected by value offset in the file. Writes to different indices rarely contend on
+ *  the same lock.
  */
 public class LongListDisk extends AbstractLongList<Long> {
 
     private static final String STORE_POSTFIX = "longListDisk";
     private static final String DEFAULT_FILE_NAME = "LongListDisk.ll";
+    /** Number of write locks, must be a power of two */
+    private static final int NUM_OF_WRITE_LOCKS = 256;
     /** A temp byte buffer for reading and writing longs */
     private static final ThreadLocal<ByteBuffer> TEMP_LONG_BUFFER_THREAD_LOCAL;
 
@@ -71,6 +79,15 @@ public class LongListDisk extends AbstractLongList<Long> {
      */
     private final Deque<Long> freeChunks;
 
+    /**
+     * Offset of the next chunk to allocate at the end of the file, if there are no free chunks. The
+     * offset is always a multiple of memory chunk size.
+     */
+    private final AtomicLong nextChunkOffset = new AtomicLong(0);
+
+    /** Striped write locks, see {@link #writeLock(long)} */
+    private final Object[] writeLocks = createWriteLocks();
+
     static {
         TRANSFER_BUFFER_THREAD_LOCAL = new ThreadLocal<>();
         // it's initialized as 8 bytes (Long.BYTES) but likely it's going to be resized later
@@ -129,6 +146,32 @@ public class LongListDisk extends AbstractLongList<Long> {
         }
         currentFileChannel = FileChannel.open(
                 tempFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Chunks loaded from the source file are placed at the beginning of the temp file
+        long maxOffset = -1;
+        for (int i = 0; i < chunkList.length(); i++) {
+            final Long currentOffset = chunkList.get(i);
+            maxOffset = Math.max(maxOffset, currentOffset == null ? -1 : currentOffset);
+        }
+        nextChunkOffset.set(maxOffset == -1 ? 0 : maxOffset + memoryChunkSize);
+    }
+
+    private static Object[] createWriteLocks() {
+        final Object[] locks = new Object[NUM_OF_WRITE_LOCKS];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    /**
+     * Returns the lock to guard writes to the value at the given offset in the file. Neighbour values
+     * are guarded by different locks, so sequential index updates from multiple threads don't contend.
+     *
+     * @param offset the value offset in the file
+     * @return the lock object
+     */
+    private Object writeLock(final long offset) {
+        return writeLocks[(int) (offset / Long.BYTES) & (NUM_OF_WRITE_LOCKS - 1)];
     }
 
     /**
@@ -216,38 +259,43 @@ public class LongListDisk extends AbstractLongList<Long> {
 
     /** {@inheritDoc} */
     @Override
-    protected synchronized void putToChunk(final Long chunk, final int subIndex, final long value) {
-        try {
-            final ByteBuffer buf = TEMP_LONG_BUFFER_THREAD_LOCAL.get();
-            final long offset = chunk + (long) subIndex * Long.BYTES;
-            // write new value to file
-            buf.putLong(0, value);
-            buf.position(0);
-            MerkleDbFileUtils.completelyWrite(currentFileChannel, buf, offset);
-        } catch (final IOException e) {
-            throw new UncheckedIOException(e);
+    protected void putToChunk(final Long chunk, final int subIndex, final long value) {
+        final ByteBuffer buf = TEMP_LONG_BUFFER_THREAD_LOCAL.get();
+        final long offset = chunk + (long) subIndex * Long.BYTES;
+        synchronized (writeLock(offset)) {
+            try {
+                // write new value to file
+                buf.putLong(0, value);
+                buf.position(0);
+                MerkleDbFileUtils.completelyWrite(currentFileChannel, buf, offset);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
 
     /** {@inheritDoc} */
     @Override
-    protected synchronized boolean putIfEqual(
-            final Long chunk, final int subIndex, final long oldValue, long newValue) {
+    protected boolean putIfEqual(final Long chunk, final int subIndex, final long oldValue, long newValue) {
         final ByteBuffer buf = TEMP_LONG_BUFFER_THREAD_LOCAL.get();
-        buf.position(0);
-        try {
-            final long offset = chunk + (long) subIndex * Long.BYTES;
-            MerkleDbFileUtils.completelyRead(currentFileChannel, buf, offset);
-            final long filesOldValue = buf.getLong(0);
-            if (filesOldValue == oldValue) {
-                // write new value to file
-                buf.putLong(0, newValue);
-                buf.position(0);
-                MerkleDbFileUtils.completelyWrite(currentFileChannel, buf, offset);
-                return true;
+        final long offset = chunk + (long) subIndex * Long.BYTES;
+        synchronized (writeLock(offset)) {
+            // if there is nothing to read, for example, in a new chunk, the buffer will have the default value
+            buf.putLong(0, IMPERMISSIBLE_VALUE);
+            buf.position(0);
+            try {
+                MerkleDbFileUtils.completelyRead(currentFileChannel, buf, offset);
+                final long filesOldValue = buf.getLong(0);
+                if (filesOldValue == oldValue) {
+                    // write new value to file
+                    buf.putLong(0, newValue);
+                    buf.position(0);
+                    MerkleDbFileUtils.completelyWrite(currentFileChannel, buf, offset);
+                    return true;
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } catch (final IOException e) {
-            throw new UncheckedIOException(e);
         }
         return false;
     }
@@ -331,6 +379,22 @@ public class LongListDisk extends AbstractLongList<Long> {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void readChunkData(@NonNull final Long chunkOffset, @NonNull final ByteBuffer dst) throws IOException {
+        MerkleDbFileUtils.completelyRead(currentFileChannel, dst, chunkOffset);
+        // The chunk may not be completely written to the file yet, missing longs are zeroes
+        while (dst.hasRemaining()) {
+            dst.put((byte) 0);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void writeChunkData(@NonNull final Long chunkOffset, @NonNull final ByteBuffer src) throws IOException {
+        MerkleDbFileUtils.completelyWrite(currentFileChannel, src, chunkOffset);
+    }
+
     /**
      *  Flushes and closes the file chanel and clears the free chunks offset list.
      */
@@ -392,12 +456,9 @@ public class LongListDisk extends AbstractLongList<Long> {
     protected Long createChunk() {
         Long chunkOffset = freeChunks.poll();
         if (chunkOffset == null) {
-            long maxOffset = -1;
-            for (int i = 0; i < chunkList.length(); i++) {
-                Long currentOffset = chunkList.get(i);
-                maxOffset = Math.max(maxOffset, currentOffset == null ? -1 : currentOffset);
-            }
-            return maxOffset == -1 ? 0 : maxOffset + memoryChunkSize;
+            // Chunks may be created concurrently from multiple threads, each thread must get its own
+            // offset. Offsets are never reused other than via the free chunks list
+            return nextChunkOffset.getAndAdd(memoryChunkSize);
         } else {
             return chunkOffset;
         }
@@ -204,6 +204,19 @@ public final class LongListOffHeap extends AbstractLongList<ByteBuffer> implemen
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void readChunkData(@NonNull final ByteBuffer chunk, @NonNull final ByteBuffer dst) {
+        // Slice so we don't mess with the byte buffer pointers
+        dst.put(chunk.slice(0, chunk.capacity()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void writeChunkData(@NonNull final ByteBuffer chunk, @NonNull final ByteBuffer src) {
+        chunk.slice(0, chunk.capacity()).put(src);
+    }
+
     protected ByteBuffer createChunk() {
         final ByteBuffer directBuffer = ByteBuffer.allocateDirect(memoryChunkSize);
         directBuffer.order(ByteOrder.nativeOrder());
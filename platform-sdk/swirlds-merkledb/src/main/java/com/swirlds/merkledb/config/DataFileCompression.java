@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.config;
+
+/**
+ * Compression modes for MerkleDb data files. When compression is enabled, data items are grouped
+ * into blocks of about {@link MerkleDbConfig#dataFileCompressionBlockSize()} bytes, and every block
+ * is compressed separately, so a random read only needs to decompress a single block.
+ */
+public final class DataFileCompression {
+
+    /**
+     * Data items are written to data files as is, without compression.
+     */
+    public static final String NONE = "none";
+
+    /**
+     * Data blocks are compressed using LZ4 block format. Fast compression and decompression, with a
+     * moderate compression ratio.
+     */
+    public static final String LZ4 = "lz4";
+
+    /**
+     * Data blocks are compressed using Deflate. Better compression ratio than {@link #LZ4}, at the
+     * cost of more CPU spent on writes, reads, and compactions.
+     */
+    public static final String DEFLATE = "deflate";
+
+    private DataFileCompression() {}
+
+    /**
+     * Checks if the given string is one of the supported compression modes.
+     *
+     * @param compression the compression mode to check
+     * @return whether the compression mode is supported
+     */
+    public static boolean isValid(final String compression) {
+        return NONE.equals(compression) || LZ4.equals(compression) || DEFLATE.equals(compression);
+    }
+}
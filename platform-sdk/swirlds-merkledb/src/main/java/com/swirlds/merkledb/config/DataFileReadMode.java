@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.config;
+
+/**
+ * Various modes to read data items from MerkleDb data files.
+ */
+public final class DataFileReadMode {
+
+    /**
+     * All data items are read using positioned file channel reads into thread-local buffers.
+     */
+    public static final String CHANNEL = "channel";
+
+    /**
+     * Completed data files are memory-mapped, and data items are returned as slices of the mapped
+     * buffers without copying. Files that are still being written are read using file channels.
+     */
+    public static final String MMAP = "mmap";
+
+    /**
+     * Completed data files not larger than {@link MerkleDbConfig#dataFileMmapSizeThreshold()} are
+     * memory-mapped, all other files are read using file channels.
+     */
+    public static final String HYBRID = "hybrid";
+
+    private DataFileReadMode() {}
+
+    /**
+     * Checks if the given string is one of the supported read modes.
+     *
+     * @param readMode the read mode to check
+     * @return whether the read mode is supported
+     */
+    public static boolean isValid(final String readMode) {
+        return CHANNEL.equals(readMode) || MMAP.equals(readMode) || HYBRID.equals(readMode);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.swirlds.merkledb.config;
+
+/**
+ * Various types of virtual leaf records caches in MerkleDb data sources.
+ */
+public final class LeafRecordCacheMode {
+
+    /**
+     * Direct-mapped cache, a fixed size array of {@link MerkleDbConfig#leafRecordCacheSize()}
+     * entries indexed by key hash codes. Whatever entry is read last, it's put to the cache,
+     * regardless of other entries with the same index.
+     */
+    public static final String DIRECT_MAPPED = "directMapped";
+
+    /**
+     * Sharded CLOCK cache bounded by {@link MerkleDbConfig#leafRecordCacheBytes()}. Entries are
+     * evicted using second chance algorithm, so frequently accessed entries stay in the cache even
+     * if their key hash codes collide with other entries.
+     */
+    public static final String CLOCK = "clock";
+
+    /**
+     * Virtual leaf records cache is disabled.
+     */
+    public static final String NONE = "none";
+
+    private LeafRecordCacheMode() {}
+
+    /**
+     * Checks if the given string is one of the supported cache modes.
+     *
+     * @param cacheMode the cache mode to check
+     * @return whether the cache mode is supported
+     */
+    public static boolean isValid(final String cacheMode) {
+        return DIRECT_MAPPED.equals(cacheMode) || CLOCK.equals(cacheMode) || NONE.equals(cacheMode);
+    }
+}
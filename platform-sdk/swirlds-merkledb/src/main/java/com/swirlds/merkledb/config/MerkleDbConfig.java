@@ -16,11 +16,16 @@
 
 package com.swirlds.merkledb.config;
 
+import static com.swirlds.merkledb.config.DataFileCompression.NONE;
+import static com.swirlds.merkledb.config.DataFileReadMode.CHANNEL;
+import static com.swirlds.merkledb.config.LeafRecordCacheMode.DIRECT_MAPPED;
+
 import com.swirlds.config.api.ConfigData;
 import com.swirlds.config.api.ConfigProperty;
 import com.swirlds.config.api.Configuration;
 import com.swirlds.config.api.validation.ConfigViolation;
 import com.swirlds.config.api.validation.annotation.ConstraintMethod;
+import com.swirlds.config.api.validation.annotation.Max;
 import com.swirlds.config.api.validation.annotation.Min;
 import com.swirlds.config.api.validation.annotation.Positive;
 import com.swirlds.config.extensions.validators.DefaultConfigViolation;
@@ -62,12 +67,70 @@ import com.swirlds.config.extensions.validators.DefaultConfigViolation;
  * @param reservedBufferLengthForLeafList
  *      Length of a reserved buffer in a LongList used to store leafs. Value in bytes.
  * @param leafRecordCacheSize
- *      Cache size in bytes for reading virtual leaf records. Initialized in data source creation time from MerkleDb config.
- *      If the value is zero, leaf records cache isn't used.
+ *      Cache size in entries for reading virtual leaf records, used in {@link LeafRecordCacheMode#DIRECT_MAPPED} mode.
+ *      Initialized in data source creation time from MerkleDb config. If the value is zero, leaf records cache isn't used.
  * @param maxFileChannelsPerFileReader
  *     Maximum number of file channels per file reader.
  * @param maxThreadsPerFileChannel
  *    Maximum number of threads per file channel.
+ * @param dataFileReadMode
+ *      Mode to read data items from completed data files. For the list of accepted values, see
+ *      {@link DataFileReadMode}.
+ * @param dataFileMmapSizeThreshold
+ *      Max size, in bytes, of a data file to be memory-mapped in {@link DataFileReadMode#HYBRID} mode.
+ *      Larger files are read using file channels.
+ * @param leafRecordCacheMode
+ *      Type of virtual leaf records cache. For the list of accepted values, see {@link LeafRecordCacheMode}.
+ * @param leafRecordCacheBytes
+ *      Cache size in bytes for reading virtual leaf records, per data source, used in {@link LeafRecordCacheMode#CLOCK}
+ *      mode.
+ * @param halfDiskHashMapBucketFilterBits
+ *      Number of bits in a per-bucket Bloom filter of key hash codes in half disk hash maps. The filter lets lookups
+ *      of absent keys skip reading buckets from disk. The value is rounded up to a multiple of 64. If the value is
+ *      zero, bucket filters aren't used.
+ * @param halfDiskHashMapMaxBucketSplitsPerFlush
+ *      Max number of buckets to split in a single flush, when half disk hash maps grow beyond the configured size.
+ *      Buckets are split one at a time using linear hashing, so the number of buckets grows incrementally with the
+ *      number of entries. If the value is zero, maps don't grow, and the number of buckets is fixed at map creation
+ *      time.
+ * @param dataFileCompression
+ *      Default compression mode for virtual leaf data files, used by tables that don't specify compression
+ *      explicitly in their table configs. For the list of accepted values, see {@link DataFileCompression}.
+ * @param dataFileCompressionBlockSize
+ *      Target size, in bytes, of uncompressed data blocks in compressed data files. Larger blocks give better
+ *      compression ratios, but random reads are slower, since a whole block is decompressed to read a single
+ *      data item.
+ * @param compactionMaxBytesPerSecond
+ *      Max rate, in bytes per second, of data copied by all data file compactions in the JVM. Compactions compete
+ *      for disk I/O with data source flushes and reads, and this limit keeps them in the background. If the value is
+ *      zero, compactions aren't throttled.
+ * @param compactionBackoffFlushMillis
+ *      If compactions are throttled, and any data source flush takes longer than this number of milliseconds, the
+ *      compaction rate is reduced till flushes are fast again.
+ * @param compactionBackoffReadP99Micros
+ *      If compactions are throttled, and the 99th percentile of virtual leaf read latencies is above this number of
+ *      microseconds, the compaction rate is reduced till reads are fast again.
+ * @param compactionGarbageRatioThreshold
+ *      Fraction, from 0.0 to 1.0, of data items in a data file no longer referenced from the index, to compact the
+ *      file regardless of its compaction level. Files with the most garbage are compacted first. If the value is
+ *      zero, files are selected for compaction based on their compaction levels and file counts only.
+ * @param flushLeavesBatchSize
+ *      If greater than zero, dirty leaves are streamed to disk in batches of this many leaves during flushes. Leaves
+ *      are serialized in parallel with writing previous batches, and at most two batches of serialized leaves are
+ *      kept in memory. Leaves are then sorted by path within each batch only. If zero, all dirty leaves of a flush
+ *      are serialized and sorted before the first one is written.
+ * @param indexSnapshotMaxDeltas
+ *      Max number of incremental snapshots of path to disk location indices and RAM hash store written after a full
+ *      snapshot. An incremental snapshot only contains index chunks modified since the previous snapshot, unchanged
+ *      chunks are referenced from the previous snapshot. When the number of deltas reaches this limit, or deltas get
+ *      larger than the full snapshot, the next snapshot is full again. If zero, all snapshots are full.
+ * @param parallelDataSourceLoading
+ *      Whether to load in-memory indices and data file stores of a data source in parallel, when the data source is
+ *      created from a saved state. If indices are rebuilt from data files, different stores are scanned in parallel.
+ * @param indexRebuildingThreads
+ *      Number of threads to scan data files of a single store in parallel, when path to disk location indices are
+ *      rebuilt from data files. Files are only scanned in parallel, if newer data items always have greater data
+ *      locations, otherwise they are scanned one by one. If 1, files are always scanned one by one.
  */
 @ConfigData("merkleDb")
 public record MerkleDbConfig(
@@ -86,7 +149,26 @@ public record MerkleDbConfig(
         @ConfigProperty(defaultValue = "262144") int reservedBufferLengthForLeafList,
         @ConfigProperty(defaultValue = "1048576") int leafRecordCacheSize,
         @Min(1) @ConfigProperty(defaultValue = "8") int maxFileChannelsPerFileReader,
-        @Min(1) @ConfigProperty(defaultValue = "8") int maxThreadsPerFileChannel) {
+        @Min(1) @ConfigProperty(defaultValue = "8") int maxThreadsPerFileChannel,
+        @ConstraintMethod("dataFileReadModeValidation") @ConfigProperty(defaultValue = CHANNEL)
+                String dataFileReadMode,
+        @Positive @ConfigProperty(defaultValue = "1073741824") long dataFileMmapSizeThreshold,
+        @ConstraintMethod("leafRecordCacheModeValidation") @ConfigProperty(defaultValue = DIRECT_MAPPED)
+                String leafRecordCacheMode,
+        @Positive @ConfigProperty(defaultValue = "134217728") long leafRecordCacheBytes,
+        @Min(0) @ConfigProperty(defaultValue = "0") int halfDiskHashMapBucketFilterBits,
+        @Min(0) @ConfigProperty(defaultValue = "0") int halfDiskHashMapMaxBucketSplitsPerFlush,
+        @ConstraintMethod("dataFileCompressionValidation") @ConfigProperty(defaultValue = NONE)
+                String dataFileCompression,
+        @Min(1024) @Max(65536) @ConfigProperty(defaultValue = "16384") int dataFileCompressionBlockSize,
+        @Min(0) @ConfigProperty(defaultValue = "0") long compactionMaxBytesPerSecond,
+        @Positive @ConfigProperty(defaultValue = "2000") long compactionBackoffFlushMillis,
+        @Positive @ConfigProperty(defaultValue = "10000") long compactionBackoffReadP99Micros,
+        @ConfigProperty(defaultValue = "0.0") double compactionGarbageRatioThreshold,
+        @Min(0) @ConfigProperty(defaultValue = "0") int flushLeavesBatchSize,
+        @Min(0) @ConfigProperty(defaultValue = "0") int indexSnapshotMaxDeltas,
+        @ConfigProperty(defaultValue = "false") boolean parallelDataSourceLoading,
+        @Min(1) @ConfigProperty(defaultValue = "1") int indexRebuildingThreads) {
 
     static double UNIT_FRACTION_PERCENT = 100.0;
 
@@ -104,6 +186,57 @@ public record MerkleDbConfig(
         return null;
     }
 
+    public ConfigViolation dataFileReadModeValidation(final Configuration configuration) {
+        final String dataFileReadMode = configuration.getConfigData(MerkleDbConfig.class).dataFileReadMode();
+        if (!DataFileReadMode.isValid(dataFileReadMode)) {
+            return new DefaultConfigViolation(
+                    "dataFileReadMode",
+                    dataFileReadMode,
+                    true,
+                    "Cannot configure dataFileReadMode to %s, it must be one of %s, %s, or %s"
+                            .formatted(
+                                    dataFileReadMode,
+                                    DataFileReadMode.CHANNEL,
+                                    DataFileReadMode.MMAP,
+                                    DataFileReadMode.HYBRID));
+        }
+        return null;
+    }
+
+    public ConfigViolation leafRecordCacheModeValidation(final Configuration configuration) {
+        final String leafRecordCacheMode = configuration.getConfigData(MerkleDbConfig.class).leafRecordCacheMode();
+        if (!LeafRecordCacheMode.isValid(leafRecordCacheMode)) {
+            return new DefaultConfigViolation(
+                    "leafRecordCacheMode",
+                    leafRecordCacheMode,
+                    true,
+                    "Cannot configure leafRecordCacheMode to %s, it must be one of %s, %s, or %s"
+                            .formatted(
+                                    leafRecordCacheMode,
+                                    LeafRecordCacheMode.DIRECT_MAPPED,
+                                    LeafRecordCacheMode.CLOCK,
+                                    LeafRecordCacheMode.NONE));
+        }
+        return null;
+    }
+
+    public ConfigViolation dataFileCompressionValidation(final Configuration configuration) {
+        final String dataFileCompression = configuration.getConfigData(MerkleDbConfig.class).dataFileCompression();
+        if (!DataFileCompression.isValid(dataFileCompression)) {
+            return new DefaultConfigViolation(
+                    "dataFileCompression",
+                    dataFileCompression,
+                    true,
+                    "Cannot configure dataFileCompression to %s, it must be one of %s, %s, or %s"
+                            .formatted(
+                                    dataFileCompression,
+                                    DataFileCompression.NONE,
+                                    DataFileCompression.LZ4,
+                                    DataFileCompression.DEFLATE));
+        }
+        return null;
+    }
+
     public int getNumHalfDiskHashMapFlushThreads() {
         final int numProcessors = Runtime.getRuntime().availableProcessors();
         final int threads = (numHalfDiskHashMapFlushThreads() == -1)
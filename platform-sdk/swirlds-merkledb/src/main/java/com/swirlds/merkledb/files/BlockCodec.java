@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2023-2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import com.swirlds.merkledb.config.DataFileCompression;
+import java.io.IOException;
+
+/**
+ * Codec to compress and decompress data blocks in compressed data files. Every codec has a unique
+ * ID, which is stored in data file metadata, so files written with different codecs can be read by
+ * the same file collection.
+ *
+ * <p>Implementations must be thread safe.
+ */
+interface BlockCodec {
+
+    /** Codec ID for uncompressed data files */
+    int NONE_ID = 0;
+
+    /**
+     * Get the codec ID stored in data file metadata.
+     *
+     * @return the codec ID, never {@link #NONE_ID}
+     */
+    int id();
+
+    /**
+     * Get the max number of bytes {@link #compress(byte[], int, byte[])} may produce for the given
+     * number of input bytes.
+     *
+     * @param length the number of bytes to compress
+     * @return the max compressed size, in bytes
+     */
+    int maxCompressedLength(int length);
+
+    /**
+     * Compresses bytes from the beginning of the source array to the beginning of the destination
+     * array. The destination array must be at least {@link #maxCompressedLength(int)} bytes long.
+     *
+     * @param src the bytes to compress
+     * @param length the number of bytes to compress
+     * @param dst the array to write compressed bytes to
+     * @return the number of compressed bytes
+     */
+    int compress(byte[] src, int length, byte[] dst);
+
+    /**
+     * Decompresses bytes from the source array to the beginning of the destination array.
+     *
+     * @param src the array with compressed bytes
+     * @param srcOffset the offset of compressed bytes in the source array
+     * @param srcLength the number of compressed bytes
+     * @param dst the array to write decompressed bytes to
+     * @param dstLength the expected number of decompressed bytes
+     * @throws IOException if the compressed bytes are malformed
+     */
+    void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstLength) throws IOException;
+
+    /**
+     * Get a codec for the given compression mode, see {@link DataFileCompression}.
+     *
+     * @param compression the compression mode
+     * @return the codec, or null if the mode is {@link DataFileCompression#NONE}
+     */
+    static BlockCodec forCompression(final String compression) {
+        return switch (compression) {
+            case DataFileCompression.NONE -> null;
+            case DataFileCompression.LZ4 -> Lz4BlockCodec.INSTANCE;
+            case DataFileCompression.DEFLATE -> DeflateBlockCodec.INSTANCE;
+            default -> throw new IllegalArgumentException("Unknown data file compression: " + compression);
+        };
+    }
+
+    /**
+     * Get a codec by its ID, as stored in data file metadata.
+     *
+     * @param id the codec ID
+     * @return the codec, or null if the ID is {@link #NONE_ID}
+     */
+    static BlockCodec forId(final int id) {
+        return switch (id) {
+            case NONE_ID -> null;
+            case Lz4BlockCodec.ID -> Lz4BlockCodec.INSTANCE;
+            case DeflateBlockCodec.ID -> DeflateBlockCodec.INSTANCE;
+            default -> throw new IllegalArgumentException("Unknown data file compression codec: " + id);
+        };
+    }
+}
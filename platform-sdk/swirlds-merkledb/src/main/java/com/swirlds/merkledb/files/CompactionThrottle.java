@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.swirlds.merkledb.files;
+
+import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
+import static java.util.Objects.requireNonNull;
+
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An I/O budget for data file compactions, shared by all {@link DataFileCompactor}s. The budget
+ * is a token bucket, where tokens are bytes copied by compactions. The bucket is refilled at
+ * {@link MerkleDbConfig#compactionMaxBytesPerSecond()} rate. If the value is zero, compactions
+ * aren't throttled, and all methods in this class are effectively no-ops.
+ *
+ * <p>The effective rate adapts to foreground load. Data sources report flush durations and
+ * leaf read latencies to the throttle. Once a second, the throttle checks the longest flush and
+ * the 99th percentile of read latencies since the previous check. If either of them is above its
+ * threshold, the rate is halved, down to 1/16 of the configured rate. Otherwise the rate is
+ * increased by 1/8 of the configured rate, up to the configured rate.
+ *
+ * <p>This class is thread safe.
+ */
+public final class CompactionThrottle {
+
+    private static final Logger logger = LogManager.getLogger(CompactionThrottle.class);
+
+    /** Max number of tokens in the bucket, as a period of time at the current rate */
+    private static final long MAX_BURST_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** How often to adjust the current rate based on reported foreground latencies */
+    private static final long ADJUST_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** The current rate never goes below the max rate divided by this number */
+    private static final int MAX_BACKOFF = 16;
+
+    /** Number of log2 buckets in read latency histogram */
+    private static final int LATENCY_BUCKETS = Long.SIZE;
+
+    /**
+     * A shared throttle instance. Accessed using {@link #getInstance(MerkleDbConfig)}.
+     */
+    private static CompactionThrottle instance = null;
+
+    /** Max rate, bytes per second, or zero if compactions aren't throttled */
+    private final long maxBytesPerSecond;
+
+    /** Flush duration threshold to back off, in nanoseconds */
+    private final long flushBackoffNanos;
+
+    /** Read latency 99th percentile threshold to back off, in nanoseconds */
+    private final long readBackoffNanos;
+
+    /** Current rate, bytes per second. Changes between max rate / MAX_BACKOFF and max rate */
+    private volatile long bytesPerSecond;
+
+    /** Available tokens. May be negative, if a compaction borrowed tokens from the future */
+    private long tokens;
+
+    /** Last time when tokens were added to the bucket */
+    private long lastRefillNanos;
+
+    /** Last time when the current rate was adjusted */
+    private long lastAdjustNanos;
+
+    /** The longest flush reported since the last rate adjustment, in nanoseconds */
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    /**
+     * Read latencies reported since the last rate adjustment. Bucket N counts latencies in
+     * [2^(N-1), 2^N) nanoseconds range.
+     */
+    private final AtomicLongArray readLatencies = new AtomicLongArray(LATENCY_BUCKETS);
+
+    /**
+     * Creates a new compaction throttle.
+     *
+     * @param maxBytesPerSecond max rate, bytes per second, or zero to disable throttling
+     * @param flushBackoffMillis flush duration threshold to back off, in milliseconds
+     * @param readBackoffMicros read latency 99th percentile threshold to back off, in microseconds
+     */
+    public CompactionThrottle(
+            final long maxBytesPerSecond, final long flushBackoffMillis, final long readBackoffMicros) {
+        if (maxBytesPerSecond < 0) {
+            throw new IllegalArgumentException("Compaction rate must not be negative: " + maxBytesPerSecond);
+        }
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.flushBackoffNanos = TimeUnit.MILLISECONDS.toNanos(flushBackoffMillis);
+        this.readBackoffNanos = TimeUnit.MICROSECONDS.toNanos(readBackoffMicros);
+        this.bytesPerSecond = maxBytesPerSecond;
+        final long now = System.nanoTime();
+        this.lastRefillNanos = now;
+        this.lastAdjustNanos = now;
+        this.tokens = maxBurst(maxBytesPerSecond);
+    }
+
+    /**
+     * Returns the throttle shared by all compactors. Similar to the compaction executor, the
+     * throttle is created using the configuration provided by the first caller. Subsequent calls
+     * return the same throttle, regardless of any new configurations provided.
+     *
+     * @param dbConfig MerkleDb config
+     * @return the shared compaction throttle
+     */
+    public static synchronized CompactionThrottle getInstance(@NonNull final MerkleDbConfig dbConfig) {
+        requireNonNull(dbConfig);
+        if (instance == null) {
+            instance = new CompactionThrottle(
+                    dbConfig.compactionMaxBytesPerSecond(),
+                    dbConfig.compactionBackoffFlushMillis(),
+                    dbConfig.compactionBackoffReadP99Micros());
+        }
+        return instance;
+    }
+
+    /**
+     * Checks if compactions are throttled. If not, there is no need to report anything to this
+     * throttle.
+     *
+     * @return whether this throttle is enabled
+     */
+    public boolean isEnabled() {
+        return maxBytesPerSecond > 0;
+    }
+
+    /**
+     * Returns the current rate, bytes per second. If the throttle is disabled, returns zero.
+     *
+     * @return the current compaction rate
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Takes the given number of bytes from the budget. If there are not enough bytes available,
+     * this method blocks till the bucket is refilled. The caller must not hold any locks, which
+     * are needed for snapshots or flushes, while calling this method.
+     *
+     * @param bytes number of bytes read and written by a compaction
+     * @return time spent waiting, in milliseconds
+     * @throws InterruptedException if the compaction thread is interrupted while waiting
+     */
+    public long acquire(final long bytes) throws InterruptedException {
+        if (!isEnabled() || (bytes <= 0)) {
+            return 0;
+        }
+        final long waitNanos;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            if (now - lastAdjustNanos >= ADJUST_INTERVAL_NANOS) {
+                adjustRate();
+                lastAdjustNanos = now;
+            }
+            final long rate = bytesPerSecond;
+            final long elapsed = now - lastRefillNanos;
+            lastRefillNanos = now;
+            tokens = Math.min(maxBurst(rate), tokens + (long) ((double) elapsed * rate / TimeUnit.SECONDS.toNanos(1)));
+            // Borrow from the future, if needed. Next callers will wait longer
+            tokens -= bytes;
+            waitNanos = (tokens >= 0) ? 0 : (long) ((double) -tokens * TimeUnit.SECONDS.toNanos(1) / rate);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+    }
+
+    /**
+     * Reports a data source flush duration.
+     *
+     * @param nanos flush duration, in nanoseconds
+     */
+    public void reportFlush(final long nanos) {
+        if (isEnabled()) {
+            maxFlushNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Reports a foreground read latency.
+     *
+     * @param nanos read duration, in nanoseconds
+     */
+    public void reportRead(final long nanos) {
+        if (isEnabled()) {
+            readLatencies.incrementAndGet(Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+        }
+    }
+
+    /**
+     * Updates the current rate based on foreground latencies reported since the last check. Must be
+     * called under lock.
+     */
+    private void adjustRate() {
+        final long flushNanos = maxFlushNanos.getAndSet(0);
+        final long readP99Nanos = readLatencyP99();
+        final long minRate = Math.max(1, maxBytesPerSecond / MAX_BACKOFF);
+        final long oldRate = bytesPerSecond;
+        final long newRate;
+        if ((flushNanos > flushBackoffNanos) || (readP99Nanos > readBackoffNanos)) {
+            newRate = Math.max(minRate, oldRate / 2);
+        } else {
+            newRate = Math.min(maxBytesPerSecond, oldRate + maxBytesPerSecond / 8);
+        }
+        if (newRate != oldRate) {
+            logger.debug(
+                    MERKLE_DB.getMarker(),
+                    "Compaction rate changed from {} to {} bytes/s, max flush {} ms, read p99 {} us",
+                    oldRate,
+                    newRate,
+                    TimeUnit.NANOSECONDS.toMillis(flushNanos),
+                    TimeUnit.NANOSECONDS.toMicros(readP99Nanos));
+            bytesPerSecond = newRate;
+        }
+    }
+
+    /**
+     * Estimates the 99th percentile of read latencies reported since the last call, and resets
+     * the histogram. The estimate is an upper bound of the corresponding log2 histogram bucket.
+     *
+     * @return read latency 99th percentile, in nanoseconds, or zero if no reads were reported
+     */
+    private long readLatencyP99() {
+        final long[] counts = new long[LATENCY_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            counts[i] = readLatencies.getAndSet(i, 0);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        // Number of reads allowed to be above the 99th percentile
+        final long tail = total / 100;
+        long above = 0;
+        for (int i = LATENCY_BUCKETS - 1; i > 0; i--) {
+            above += counts[i];
+            if (above > tail) {
+                return 1L << Math.min(i, LATENCY_BUCKETS - 2);
+            }
+        }
+        return 1;
+    }
+
+    private static long maxBurst(final long rate) {
+        return (long) ((double) rate * MAX_BURST_NANOS / TimeUnit.SECONDS.toNanos(1));
+    }
+}
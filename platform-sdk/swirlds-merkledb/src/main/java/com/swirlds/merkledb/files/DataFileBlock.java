@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2023-2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import static com.hedera.pbj.runtime.ProtoParserTools.TAG_FIELD_OFFSET;
+import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_BLOCKS;
+import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_ITEMS;
+
+import com.hedera.pbj.runtime.ProtoConstants;
+import com.hedera.pbj.runtime.ProtoWriterTools;
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import java.io.IOException;
+
+/**
+ * A reusable buffer for a single block of a compressed data file. A block is read from a file as
+ * is to a payload buffer, and then decoded to a data buffer. Decoded blocks contain data items in
+ * the same format as uncompressed data files: every item is prefixed with a tag and a size.
+ *
+ * <p>Block payload format: uncompressed block size (varint), then compressed block bytes. If a
+ * block can't be compressed to fewer bytes than its uncompressed size, it's stored uncompressed.
+ *
+ * <p>This class is not thread safe.
+ */
+final class DataFileBlock {
+
+    /** Protobuf tag of every block in a compressed data file */
+    static final int BLOCK_TAG =
+            (FIELD_DATAFILE_BLOCKS.number() << TAG_FIELD_OFFSET) | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal();
+
+    /** Protobuf tag of every data item in a decoded block */
+    private static final int DATA_ITEM_TAG =
+            (FIELD_DATAFILE_ITEMS.number() << TAG_FIELD_OFFSET) | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal();
+
+    /** Block bytes as read from the file */
+    private byte[] payload = new byte[0];
+    private BufferedData payloadData = BufferedData.wrap(payload);
+
+    /** Decoded block bytes */
+    private byte[] data = new byte[0];
+    private BufferedData blockData = BufferedData.wrap(data);
+
+    /** Decoded block size. May be less than {@link #data} length */
+    private int size = 0;
+
+    /** An object the current block is read from, e.g. a data file reader, or null if the buffer is empty */
+    private Object source = null;
+
+    /** Index of the current block in its file */
+    private int blockIndex = -1;
+
+    /**
+     * Get a payload buffer of at least the given size to read a block to.
+     *
+     * @param length the min buffer size, in bytes
+     * @return the payload buffer
+     */
+    byte[] payloadBuffer(final int length) {
+        if (payload.length < length) {
+            payload = new byte[length];
+            payloadData = BufferedData.wrap(payload);
+        }
+        return payload;
+    }
+
+    /**
+     * Checks if this buffer contains the given decoded block.
+     *
+     * @param blockSource the object the block is read from
+     * @param index the block index
+     * @return whether this buffer contains the block
+     */
+    boolean contains(final Object blockSource, final int index) {
+        return (source == blockSource) && (blockIndex == index);
+    }
+
+    /**
+     * Decodes a whole block field, including its tag and size, from the payload buffer.
+     *
+     * @param codec the codec to decompress the block
+     * @param fieldLength the field length, in bytes
+     * @param blockSource the object the block is read from
+     * @param index the block index
+     * @throws IOException if the block is malformed
+     */
+    void decodeField(final BlockCodec codec, final int fieldLength, final Object blockSource, final int index)
+            throws IOException {
+        final int tag = payloadData.getVarInt(0, false);
+        if (tag != BLOCK_TAG) {
+            throw new IOException("Unknown data block tag: tag=" + tag + " block=" + index);
+        }
+        final int sizeOfTag = ProtoWriterTools.sizeOfUnsignedVarInt32(tag);
+        final int payloadSize = payloadData.getVarInt(sizeOfTag, false);
+        final int headerSize = sizeOfTag + ProtoWriterTools.sizeOfUnsignedVarInt32(payloadSize);
+        if (headerSize + payloadSize != fieldLength) {
+            throw new IOException("Data block size mismatch: expected=" + (fieldLength - headerSize) + " actual="
+                    + payloadSize + " block=" + index);
+        }
+        decode(codec, headerSize, payloadSize);
+        source = blockSource;
+        blockIndex = index;
+    }
+
+    /**
+     * Decodes a block payload from the payload buffer.
+     *
+     * @param codec the codec to decompress the block
+     * @param offset the payload offset in the payload buffer
+     * @param length the payload length
+     * @throws IOException if the block is malformed
+     */
+    void decode(final BlockCodec codec, final int offset, final int length) throws IOException {
+        // The buffer content is about to be changed, it must not be used as a cached block
+        source = null;
+        blockIndex = -1;
+        final int uncompressedSize = payloadData.getVarInt(offset, false);
+        final int sizeOfSize = ProtoWriterTools.sizeOfUnsignedVarInt32(uncompressedSize);
+        final int compressedSize = length - sizeOfSize;
+        if ((uncompressedSize < 0) || (compressedSize < 0) || (compressedSize > uncompressedSize)) {
+            throw new IOException("Malformed data block: compressed=" + compressedSize + " uncompressed="
+                    + uncompressedSize);
+        }
+        if (data.length < uncompressedSize) {
+            data = new byte[uncompressedSize];
+            blockData = BufferedData.wrap(data);
+        }
+        if (compressedSize == uncompressedSize) {
+            System.arraycopy(payload, offset + sizeOfSize, data, 0, uncompressedSize);
+        } else {
+            codec.decompress(payload, offset + sizeOfSize, compressedSize, data, uncompressedSize);
+        }
+        size = uncompressedSize;
+    }
+
+    /**
+     * Get the decoded block size.
+     *
+     * @return the block size, in bytes
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get a data item at the given offset in the decoded block. The returned buffer is reused, its
+     * position is set to the start of data item bytes, and its limit is set to the end of the item.
+     *
+     * @param offsetInBlock the data item offset in the decoded block
+     * @return data item bytes
+     * @throws IOException if the data item is malformed
+     */
+    BufferedData dataItem(final int offsetInBlock) throws IOException {
+        if ((offsetInBlock < 0) || (offsetInBlock >= size)) {
+            throw new IOException("Data item offset is out of block bounds: off=" + offsetInBlock + " size=" + size);
+        }
+        blockData.reset();
+        final int tag = blockData.getVarInt(offsetInBlock, false);
+        if (tag != DATA_ITEM_TAG) {
+            throw new IOException("Unknown data item tag: tag=" + tag + " off=" + offsetInBlock);
+        }
+        final int sizeOfTag = ProtoWriterTools.sizeOfUnsignedVarInt32(tag);
+        final int itemSize = blockData.getVarInt(offsetInBlock + sizeOfTag, false);
+        final int itemStart = offsetInBlock + sizeOfTag + ProtoWriterTools.sizeOfUnsignedVarInt32(itemSize);
+        if ((itemSize < 0) || (itemStart + itemSize > size)) {
+            throw new IOException("Data item is out of block bounds: off=" + offsetInBlock + " size=" + itemSize);
+        }
+        blockData.position(itemStart);
+        blockData.limit(itemStart + itemSize);
+        return blockData;
+    }
+}
@@ -17,10 +17,13 @@
 package com.swirlds.merkledb.files;
 
 import static com.hedera.pbj.runtime.ProtoParserTools.TAG_FIELD_OFFSET;
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
 import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
 import static com.swirlds.merkledb.KeyRange.INVALID_KEY_RANGE;
+import static com.swirlds.merkledb.MerkleDb.MERKLEDB_COMPONENT;
 import static com.swirlds.merkledb.files.DataFileCommon.FILE_EXTENSION;
+import static com.swirlds.merkledb.files.DataFileCommon.NON_EXISTENT_DATA_LOCATION;
 import static com.swirlds.merkledb.files.DataFileCommon.byteOffsetFromDataLocation;
 import static com.swirlds.merkledb.files.DataFileCommon.fileIndexFromDataLocation;
 import static com.swirlds.merkledb.files.DataFileCommon.isFullyWrittenDataFile;
@@ -34,20 +37,24 @@ import com.hedera.pbj.runtime.io.WritableSequentialData;
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
 import com.hedera.pbj.runtime.io.stream.ReadableStreamingData;
 import com.hedera.pbj.runtime.io.stream.WritableStreamingData;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.merkledb.KeyRange;
 import com.swirlds.merkledb.Snapshotable;
 import com.swirlds.merkledb.collections.CASableLongIndex;
 import com.swirlds.merkledb.collections.ImmutableIndexedObjectList;
 import com.swirlds.merkledb.collections.ImmutableIndexedObjectListUsingArray;
 import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -56,7 +63,12 @@ import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -124,6 +136,11 @@ public class DataFileCollection implements Snapshotable {
      * legacyStoreName *
      */
     private final String legacyStoreName;
+    /**
+     * Compression mode for new data files, see {@link DataFileCompression}. Existing files are
+     * read according to their own metadata, so the mode can be changed between runs.
+     */
+    private final String compression;
     /** True if this DataFileCollection was loaded from an existing set of files */
     private final boolean loadedFromExistingFiles;
     /** The index to use for the next file we create */
@@ -191,6 +208,7 @@ public class DataFileCollection implements Snapshotable {
                 storeDir,
                 storeName,
                 null,
+                DataFileCompression.NONE,
                 loadedDataCallback,
                 l -> new ImmutableIndexedObjectListUsingArray<DataFileReader>(DataFileReader[]::new, l));
     }
@@ -218,11 +236,39 @@ public class DataFileCollection implements Snapshotable {
             final String legacyStoreName,
             final LoadedDataCallback loadedDataCallback)
             throws IOException {
+        this(dbConfig, storeDir, storeName, legacyStoreName, DataFileCompression.NONE, loadedDataCallback);
+    }
+
+    /**
+     * Construct a new DataFileCollection with a custom legacy store name and compression mode for
+     * new data files.
+     *
+     * @param dbConfig MerkleDb dbConfig
+     * @param storeDir The directory to store data files
+     * @param storeName Base name for the data files, allowing more than one DataFileCollection to
+     *     share a directory
+     * @param legacyStoreName Base name for the data files. If not null, data files with this prefix
+     *     are processed by this file collection at startup same way as files prefixed with
+     *     storeName
+     * @param compression Compression mode for new data files, see {@link DataFileCompression}
+     * @param loadedDataCallback Callback for rebuilding indexes from existing files, can be null if
+     *     not needed. Using this is expensive as it requires all files to be read and parsed.
+     * @throws IOException If there was a problem creating new data set or opening existing one
+     */
+    public DataFileCollection(
+            final MerkleDbConfig dbConfig,
+            final Path storeDir,
+            final String storeName,
+            final String legacyStoreName,
+            final String compression,
+            final LoadedDataCallback loadedDataCallback)
+            throws IOException {
         this(
                 dbConfig,
                 storeDir,
                 storeName,
                 legacyStoreName,
+                compression,
                 loadedDataCallback,
                 l -> new ImmutableIndexedObjectListUsingArray<DataFileReader>(DataFileReader[]::new, l));
     }
@@ -240,6 +286,7 @@ public class DataFileCollection implements Snapshotable {
      * @param legacyStoreName Base name for the data files. If not null, data files with this prefix
      *     are processed by this file collection at startup same way as files prefixed with
      *     storeName
+     * @param compression Compression mode for new data files, see {@link DataFileCompression}
      * @param loadedDataCallback Callback for rebuilding indexes from existing files, can be null if
      *     not needed. Using this is expensive as it requires all files to be read and parsed.
      * @param indexedObjectListConstructor Constructor for creating ImmutableIndexedObjectList
@@ -251,14 +298,18 @@ public class DataFileCollection implements Snapshotable {
             final Path storeDir,
             final String storeName,
             final String legacyStoreName,
+            final String compression,
             final LoadedDataCallback loadedDataCallback,
             final Function<List<DataFileReader>, ImmutableIndexedObjectList<DataFileReader>>
                     indexedObjectListConstructor)
             throws IOException {
+        // Fail fast on unknown compression modes
+        BlockCodec.forCompression(compression);
         this.dbConfig = dbConfig;
         this.storeDir = storeDir;
         this.storeName = storeName;
         this.legacyStoreName = legacyStoreName;
+        this.compression = compression;
         this.indexedObjectListConstructor = indexedObjectListConstructor;
 
         // check if exists, if so open existing files
@@ -327,6 +378,46 @@ public class DataFileCollection implements Snapshotable {
                         .summaryStatistics();
     }
 
+    /**
+     * Get the estimated fraction of space taken by data items no longer referenced from the index,
+     * across all completed files in this collection, from 0.0 to 1.0. The ratio of every file is
+     * weighted by the file size.
+     *
+     * @return the garbage ratio of this collection
+     */
+    public double getGarbageRatio() {
+        double garbageBytes = 0;
+        long totalBytes = 0;
+        for (final DataFileReader file : getAllCompletedFiles()) {
+            garbageBytes += file.getGarbageRatio() * file.getSize();
+            totalBytes += file.getSize();
+        }
+        return (totalBytes > 0) ? garbageBytes / totalBytes : 0.0;
+    }
+
+    /**
+     * Records that the data item at the given location is no longer referenced from the index, e.g.
+     * when the index entry is overwritten with a new location or removed. This method is used to
+     * track garbage in data files, see {@link DataFileReader#getGarbageRatio()}. If the location
+     * is {@link DataFileCommon#NON_EXISTENT_DATA_LOCATION}, or the file is not in this collection
+     * (any longer), this method is a no-op.
+     *
+     * @param dataLocation the data location of the dead data item
+     */
+    public void markDataItemDead(final long dataLocation) {
+        if (dataLocation == NON_EXISTENT_DATA_LOCATION) {
+            return;
+        }
+        final ImmutableIndexedObjectList<DataFileReader> currentIndexedFileList = dataFiles.get();
+        if (currentIndexedFileList == null) {
+            return;
+        }
+        final DataFileReader file = currentIndexedFileList.get(fileIndexFromDataLocation(dataLocation));
+        if (file != null) {
+            file.countDeadDataItem();
+        }
+    }
+
     /** Close all the data files */
     public void close() throws IOException {
         // finish writing if we still are
@@ -357,8 +448,7 @@ public class DataFileCollection implements Snapshotable {
         }
         final DataFileWriter writer = newDataFile(Instant.now(), INITIAL_COMPACTION_LEVEL);
         currentDataFileWriter.set(writer);
-        final DataFileMetadata metadata = writer.getMetadata();
-        final DataFileReader reader = addNewDataFileReader(writer.getPath(), metadata);
+        final DataFileReader reader = addNewDataFileReader(writer);
         currentDataFileReader.set(reader);
     }
 
@@ -601,6 +691,25 @@ public class DataFileCollection implements Snapshotable {
     public interface LoadedDataCallback {
         /** Add an index entry for the given data location and value */
         void newIndexEntry(long dataLocation, @NonNull BufferedData dataValue);
+
+        /**
+         * Whether this callback supports {@link #newIndexEntryIfNewer(long, BufferedData)} calls
+         * from multiple threads. If false, data files are always scanned one by one.
+         */
+        default boolean isThreadSafe() {
+            return false;
+        }
+
+        /**
+         * Add an index entry for the given data location and value, unless there is an entry for
+         * the same key with a greater data location already. This method is used instead of {@link
+         * #newIndexEntry(long, BufferedData)} when data files are scanned in parallel, so it may be
+         * called concurrently, and entries for the same key may come in any order. Files are only
+         * scanned in parallel, if newer entries always have greater data locations.
+         */
+        default void newIndexEntryIfNewer(long dataLocation, @NonNull BufferedData dataValue) {
+            throw new UnsupportedOperationException("Concurrent index entries are not supported");
+        }
     }
 
     // =================================================================================================================
@@ -625,7 +734,22 @@ public class DataFileCollection implements Snapshotable {
      * @return The newly added DataFileReader.
      */
     DataFileReader addNewDataFileReader(final Path filePath, final DataFileMetadata metadata) throws IOException {
-        final DataFileReader newDataFileReader = new DataFileReader(dbConfig, filePath, metadata);
+        return addNewDataFileReader(new DataFileReader(dbConfig, filePath, metadata));
+    }
+
+    /**
+     * Create and add a new data file reader for a file, which is being written with the given
+     * writer, to end of indexedFileList. If the file is compressed, the reader reads data items,
+     * which are not written to the file yet, from the writer.
+     *
+     * @param writer the data file writer
+     * @return The newly added DataFileReader.
+     */
+    DataFileReader addNewDataFileReader(final DataFileWriter writer) throws IOException {
+        return addNewDataFileReader(new DataFileReader(dbConfig, writer));
+    }
+
+    private DataFileReader addNewDataFileReader(final DataFileReader newDataFileReader) {
         dataFiles.getAndUpdate(currentFileList -> {
             try {
                 return (currentFileList == null)
@@ -670,7 +794,14 @@ public class DataFileCollection implements Snapshotable {
         if (logger.isTraceEnabled()) {
             setOfNewFileIndexes.add(newFileIndex);
         }
-        return new DataFileWriter(storeName, storeDir, newFileIndex, creationTime, compactionLevel);
+        return new DataFileWriter(
+                storeName,
+                storeDir,
+                newFileIndex,
+                creationTime,
+                compactionLevel,
+                compression,
+                dbConfig.dataFileCompressionBlockSize());
     }
 
     /**
@@ -794,12 +925,17 @@ public class DataFileCollection implements Snapshotable {
         nextFileIndex.set(getMaxFileReaderIndex(dataFileReaders) + 1);
         // now call indexEntryCallback
         if (loadedDataCallback != null) {
-            // now iterate over every file and every key
-            for (final DataFileReader reader : dataFileReaders) {
-                try (final DataFileIterator iterator = reader.createIterator()) {
-                    while (iterator.next()) {
-                        loadedDataCallback.newIndexEntry(
-                                iterator.getDataItemDataLocation(), iterator.getDataItemData());
+            final int threads = Math.min(dbConfig.indexRebuildingThreads(), dataFileReaders.length);
+            if ((threads > 1) && loadedDataCallback.isThreadSafe() && isFileIndexOrdered(dataFileReaders)) {
+                scanFilesInParallel(dataFileReaders, loadedDataCallback, threads);
+            } else {
+                // now iterate over every file and every key
+                for (final DataFileReader reader : dataFileReaders) {
+                    try (final DataFileIterator iterator = reader.createIterator()) {
+                        while (iterator.next()) {
+                            loadedDataCallback.newIndexEntry(
+                                    iterator.getDataItemDataLocation(), iterator.getDataItemData());
+                        }
                     }
                 }
             }
@@ -812,6 +948,103 @@ public class DataFileCollection implements Snapshotable {
                 MERKLE_DB.getMarker(), "Finished loading existing data files for DataFileCollection [{}]", storeName);
     }
 
+    /**
+     * Checks that data file indices grow in data file load order, i.e. a data item in a newer file
+     * always has a greater data location than a data item in an older file. It isn't always the
+     * case, compacted files get new indices, but keep creation dates of the files they are
+     * compacted from.
+     */
+    private static boolean isFileIndexOrdered(final DataFileReader[] dataFileReaders) {
+        for (int i = 1; i < dataFileReaders.length; i++) {
+            if (dataFileReaders[i].getIndex() <= dataFileReaders[i - 1].getIndex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans data files using multiple threads, every file is scanned by a single thread from start
+     * to end. Data items are reported to the callback using {@link
+     * LoadedDataCallback#newIndexEntryIfNewer(long, BufferedData)}, which resolves conflicts
+     * between files using data locations.
+     */
+    private void scanFilesInParallel(
+            final DataFileReader[] dataFileReaders, final LoadedDataCallback loadedDataCallback, final int threads)
+            throws IOException {
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "Scanning [{}] data files for DataFileCollection [{}] using {} threads",
+                dataFileReaders.length,
+                storeName,
+                threads);
+        final long start = System.currentTimeMillis();
+        final AtomicInteger filesScanned = new AtomicInteger();
+        final AtomicLong itemsScanned = new AtomicLong();
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                threads,
+                new ThreadConfiguration(getStaticThreadManager())
+                        .setComponent(MERKLEDB_COMPONENT)
+                        .setThreadName("Index rebuilding")
+                        .setExceptionHandler((t, ex) -> logger.error(
+                                EXCEPTION.getMarker(),
+                                "[{}] Uncaught exception during index rebuilding",
+                                storeName,
+                                ex))
+                        .buildFactory());
+        try {
+            final List<Future<Void>> futures = new ArrayList<>(dataFileReaders.length);
+            // Newest files first, they override the most entries from older files
+            for (int i = dataFileReaders.length - 1; i >= 0; i--) {
+                final DataFileReader reader = dataFileReaders[i];
+                futures.add(executor.submit(() -> {
+                    long items = 0;
+                    try (final DataFileIterator iterator = reader.createIterator()) {
+                        while (iterator.next()) {
+                            loadedDataCallback.newIndexEntryIfNewer(
+                                    iterator.getDataItemDataLocation(), iterator.getDataItemData());
+                            items++;
+                        }
+                    }
+                    final long totalItems = itemsScanned.addAndGet(items);
+                    logger.info(
+                            MERKLE_DB.getMarker(),
+                            "[{}] Scanned {} of {} data files, {} data items",
+                            storeName,
+                            filesScanned.incrementAndGet(),
+                            dataFileReaders.length,
+                            totalItems);
+                    return null;
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scanning data files of " + storeName);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException ioe) {
+                throw ioe;
+            } else if (cause instanceof RuntimeException re) {
+                throw re;
+            } else if (cause instanceof Error er) {
+                throw er;
+            }
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "[{}] Scanned {} data items in {} data files in {} ms",
+                storeName,
+                itemsScanned.get(),
+                dataFileReaders.length,
+                System.currentTimeMillis() - start);
+    }
+
     private int getMaxFileReaderIndex(final DataFileReader[] dataFileReaders) {
         int maxIndex = -1;
         for (final DataFileReader reader : dataFileReaders) {
@@ -80,6 +80,17 @@ public final class DataFileCommon {
     /** Bit mask to remove file index from data location long */
     private static final long ITEM_OFFSET_MASK = MAX_ADDRESSABLE_DATA_FILE_SIZE_BYTES - 1;
 
+    /**
+     * In compressed data files, data item offsets are not byte offsets in the files. Instead, the
+     * lower 16 bits of an offset is the data item offset in its uncompressed block, and the upper
+     * 24 bits is the block index in the file. It limits compressed files to 16 million blocks.
+     */
+    private static final int BLOCK_ITEM_OFFSET_BITS = 16;
+    /** Max size of uncompressed blocks in compressed data files, except blocks with a single item */
+    static final int MAX_COMPRESSION_BLOCK_SIZE = 1 << BLOCK_ITEM_OFFSET_BITS;
+    /** Max number of blocks in a compressed data file */
+    static final int MAX_COMPRESSION_BLOCKS = 1 << (DATA_ITEM_OFFSET_BITS - BLOCK_ITEM_OFFSET_BITS);
+
     /** Date formatter for dates used in data file names */
     private static final DateTimeFormatter DATE_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS").withZone(ZoneId.of("Z"));
@@ -96,6 +107,10 @@ public final class DataFileCommon {
             new FieldDefinition("metadata", FieldType.MESSAGE, false, false, false, 1);
     static final FieldDefinition FIELD_DATAFILE_ITEMS =
             new FieldDefinition("items", FieldType.MESSAGE, true, true, false, 11);
+    static final FieldDefinition FIELD_DATAFILE_BLOCKS =
+            new FieldDefinition("blocks", FieldType.BYTES, true, true, false, 12);
+    static final FieldDefinition FIELD_DATAFILE_BLOCK_INDEX =
+            new FieldDefinition("blockIndex", FieldType.FIXED64, true, true, false, 13);
 
     // Data file metadata protobuf fields
     static final FieldDefinition FIELD_DATAFILEMETADATA_INDEX =
@@ -113,6 +128,10 @@ public final class DataFileCommon {
 
     static final FieldDefinition FIELD_DATAFILEMETADATA_COMPACTION_LEVEL =
             new FieldDefinition("compactionLevel", FieldType.UINT32, false, true, false, 6);
+    static final FieldDefinition FIELD_DATAFILEMETADATA_COMPRESSION =
+            new FieldDefinition("compression", FieldType.UINT32, false, true, false, 7);
+    static final FieldDefinition FIELD_DATAFILEMETADATA_BLOCK_INDEX_OFFSET =
+            new FieldDefinition("blockIndexOffset", FieldType.FIXED64, false, false, false, 8);
 
     static final String ERROR_DATAITEM_TOO_LARGE =
             "Data item is too large to write to a data file. Increase data file mapped byte buffer size";
@@ -159,6 +178,42 @@ public final class DataFileCommon {
         return indexShifted | byteOffsetMasked;
     }
 
+    /**
+     * Get the data item offset in a compressed data file from block index and data item offset in
+     * the uncompressed block. The result can be used to build data locations using {@link
+     * #dataLocation(int, long)}.
+     *
+     * @param blockIndex the block index in the file
+     * @param offsetInBlock the data item offset in the uncompressed block
+     * @return data item offset in the compressed file
+     */
+    static long compressedDataItemOffset(final int blockIndex, final int offsetInBlock) {
+        assert (blockIndex >= 0) && (blockIndex < MAX_COMPRESSION_BLOCKS);
+        assert (offsetInBlock >= 0) && (offsetInBlock < MAX_COMPRESSION_BLOCK_SIZE);
+        return ((long) blockIndex << BLOCK_ITEM_OFFSET_BITS) | offsetInBlock;
+    }
+
+    /**
+     * Extract the block index from a data item offset in a compressed data file.
+     *
+     * @param byteOffset data item offset in a compressed file
+     * @return block index
+     */
+    static int blockIndexFromDataItemOffset(final long byteOffset) {
+        return (int) (byteOffset >>> BLOCK_ITEM_OFFSET_BITS);
+    }
+
+    /**
+     * Extract the data item offset in its uncompressed block from a data item offset in a
+     * compressed data file.
+     *
+     * @param byteOffset data item offset in a compressed file
+     * @return data item offset in the uncompressed block
+     */
+    static int offsetInBlockFromDataItemOffset(final long byteOffset) {
+        return (int) (byteOffset & (MAX_COMPRESSION_BLOCK_SIZE - 1));
+    }
+
     /**
      * Get a friendly string with the disk data location split into its file and offset parts. Very
      * useful for debugging and logging.
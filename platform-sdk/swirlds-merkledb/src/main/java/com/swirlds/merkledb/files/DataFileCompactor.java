@@ -35,6 +35,7 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
@@ -60,6 +61,11 @@ public class DataFileCompactor {
      */
     public static final int INITIAL_COMPACTION_LEVEL = 0;
 
+    /**
+     * Copied data is reported to the compaction throttle in batches of at least this number of bytes.
+     */
+    private static final long THROTTLE_BATCH_BYTES = 64 * 1024;
+
     private final MerkleDbConfig dbConfig;
 
     /**
@@ -88,6 +94,27 @@ public class DataFileCompactor {
 
     private final BiConsumer<Integer, Double> reportFileSizeByLevelMetricFunction;
 
+    /**
+     * A function that will be called to report how long the compaction was throttled, in ms
+     */
+    @Nullable
+    private final BiConsumer<Integer, Long> reportThrottledTimeMetricFunction;
+
+    /**
+     * I/O budget shared by all compactors
+     */
+    private final CompactionThrottle throttle;
+
+    /**
+     * Number of bytes copied during the current compaction, but not reported to the throttle yet
+     */
+    private long unthrottledBytes = 0;
+
+    /**
+     * Time spent waiting for the throttle during the current compaction, in ms
+     */
+    private long throttledMillis = 0;
+
     /**
      * A function that updates statistics of total usage of disk space and off-heap space
      */
@@ -128,6 +155,12 @@ public class DataFileCompactor {
      */
     private final List<Path> newCompactedFiles = new ArrayList<>();
 
+    /**
+     * Total uncompressed size of data blocks written to new files during the current compaction.
+     * Only used for compressed data files, to report compression ratio.
+     */
+    private long newCompactedFilesUncompressedSize = 0;
+
     /**
      * Indicates whether compaction is in progress at the time when {@link #pauseCompaction()}
      * is called. This flag is then checked in {@link DataFileCompactor#resumeCompaction()} )} to start a new
@@ -160,6 +193,39 @@ public class DataFileCompactor {
             @Nullable final BiConsumer<Integer, Double> reportSavedSpaceMetricFunction,
             @Nullable final BiConsumer<Integer, Double> reportFileSizeByLevelMetricFunction,
             @Nullable Runnable updateTotalStatsFunction) {
+        this(
+                dbConfig,
+                storeName,
+                dataFileCollection,
+                index,
+                reportDurationMetricFunction,
+                reportSavedSpaceMetricFunction,
+                reportFileSizeByLevelMetricFunction,
+                null,
+                updateTotalStatsFunction);
+    }
+
+    /**
+     * @param dbConfig                       MerkleDb config
+     * @param storeName                      name of the store to compact
+     * @param dataFileCollection             data file collection to compact
+     * @param index                          index to update during compaction
+     * @param reportDurationMetricFunction   function to report how long compaction took, in ms
+     * @param reportSavedSpaceMetricFunction function to report how much space was compacted, in Mb
+     * @param reportFileSizeByLevelMetricFunction function to report how much space is used by the store by compaction level, in Mb
+     * @param reportThrottledTimeMetricFunction function to report how long compaction waited for I/O budget, in ms
+     * @param updateTotalStatsFunction       A function that updates statistics of total usage of disk space and off-heap space
+     */
+    public DataFileCompactor(
+            final MerkleDbConfig dbConfig,
+            final String storeName,
+            final DataFileCollection dataFileCollection,
+            CASableLongIndex index,
+            @Nullable final BiConsumer<Integer, Long> reportDurationMetricFunction,
+            @Nullable final BiConsumer<Integer, Double> reportSavedSpaceMetricFunction,
+            @Nullable final BiConsumer<Integer, Double> reportFileSizeByLevelMetricFunction,
+            @Nullable final BiConsumer<Integer, Long> reportThrottledTimeMetricFunction,
+            @Nullable Runnable updateTotalStatsFunction) {
         this.dbConfig = dbConfig;
         this.storeName = storeName;
         this.dataFileCollection = dataFileCollection;
@@ -167,7 +233,9 @@ public class DataFileCompactor {
         this.reportDurationMetricFunction = reportDurationMetricFunction;
         this.reportSavedSpaceMetricFunction = reportSavedSpaceMetricFunction;
         this.reportFileSizeByLevelMetricFunction = reportFileSizeByLevelMetricFunction;
+        this.reportThrottledTimeMetricFunction = reportThrottledTimeMetricFunction;
         this.updateTotalStatsFunction = updateTotalStatsFunction;
+        this.throttle = CompactionThrottle.getInstance(dbConfig);
     }
 
     /**
@@ -187,7 +255,9 @@ public class DataFileCompactor {
             final List<? extends DataFileReader> filesToCompact,
             final int targetCompactionLevel)
             throws IOException, InterruptedException {
-        if (filesToCompact.size() < getMinNumberOfFilesToCompact()) {
+        if (filesToCompact.isEmpty()
+                || ((filesToCompact.size() < getMinNumberOfFilesToCompact())
+                        && !allFilesHaveGarbage(filesToCompact, dbConfig.compactionGarbageRatioThreshold()))) {
             // nothing to do we have merged since the last data update
             logger.debug(MERKLE_DB.getMarker(), "No files were available for merging [{}]", storeName);
             return Collections.emptyList();
@@ -203,6 +273,9 @@ public class DataFileCompactor {
         try {
             currentCompactionStartTime.set(startTime);
             newCompactedFiles.clear();
+            newCompactedFilesUncompressedSize = 0;
+            unthrottledBytes = 0;
+            throttledMillis = 0;
             startNewCompactionFile(targetCompactionLevel);
         } finally {
             snapshotCompactionLock.release();
@@ -225,6 +298,22 @@ public class DataFileCompactor {
             readers[r.getIndex() - firstIndexInc] = r;
         }
 
+        // The whole index is scanned below. Use it to count live data items in all other completed
+        // files, this corrects garbage estimates for these files
+        final List<DataFileReader> otherFiles = new ArrayList<>(dataFileCollection.getAllCompletedFiles());
+        otherFiles.removeIf(r -> (r.getIndex() >= firstIndexInc)
+                && (r.getIndex() < lastIndexExc)
+                && (readers[r.getIndex() - firstIndexInc] != null));
+        final int firstOtherIndexInc =
+                otherFiles.stream().mapToInt(DataFileReader::getIndex).min().orElse(0);
+        final int lastOtherIndexExc =
+                otherFiles.stream().mapToInt(DataFileReader::getIndex).max().orElse(-1) + 1;
+        final long[] liveItemCounts = new long[lastOtherIndexExc - firstOtherIndexInc];
+        final long[] deadItemCountsAtScanStart = new long[otherFiles.size()];
+        for (int i = 0; i < otherFiles.size(); i++) {
+            deadItemCountsAtScanStart[i] = otherFiles.get(i).getDeadDataItemCount();
+        }
+
         boolean allDataItemsProcessed = false;
         try {
             final KeyRange keyRange = dataFileCollection.getValidKeyRange();
@@ -233,6 +322,9 @@ public class DataFileCompactor {
                     return;
                 }
                 final int fileIndex = DataFileCommon.fileIndexFromDataLocation(dataLocation);
+                if ((fileIndex >= firstOtherIndexInc) && (fileIndex < lastOtherIndexExc)) {
+                    liveItemCounts[fileIndex - firstOtherIndexInc]++;
+                }
                 if ((fileIndex < firstIndexInc) || (fileIndex >= lastIndexExc)) {
                     return;
                 }
@@ -249,9 +341,13 @@ public class DataFileCompactor {
                     final DataFileWriter newFileWriter = currentWriter.get();
                     final BufferedData itemBytes = reader.readDataItem(fileOffset);
                     assert itemBytes != null;
+                    unthrottledBytes += itemBytes.remaining();
                     long newLocation = newFileWriter.storeDataItem(itemBytes);
-                    // update the index
-                    index.putIfEqual(path, dataLocation, newLocation);
+                    // update the index. If the entry has been changed in parallel, the copied item
+                    // is garbage in the new file
+                    if (!index.putIfEqual(path, dataLocation, newLocation)) {
+                        currentReader.get().countDeadDataItem();
+                    }
                 } catch (final ClosedByInterruptException e) {
                     logger.info(
                             MERKLE_DB.getMarker(),
@@ -266,8 +362,18 @@ public class DataFileCompactor {
                 } finally {
                     snapshotCompactionLock.release();
                 }
+                // Wait for I/O budget outside the lock, so snapshots are never delayed by throttling
+                if (unthrottledBytes >= THROTTLE_BATCH_BYTES) {
+                    throttledMillis += throttle.acquire(unthrottledBytes);
+                    unthrottledBytes = 0;
+                }
             });
             allDataItemsProcessed = true;
+            for (int i = 0; i < otherFiles.size(); i++) {
+                final DataFileReader r = otherFiles.get(i);
+                r.correctDeadDataItemCount(
+                        deadItemCountsAtScanStart[i], liveItemCounts[r.getIndex() - firstOtherIndexInc]);
+            }
         } finally {
             // Even if the thread is interrupted, make sure the new compacted file is properly closed
             // and is included to future compactions
@@ -309,10 +415,8 @@ public class DataFileCompactor {
         assert startTime != null;
         final DataFileWriter newFileWriter = dataFileCollection.newDataFile(startTime, compactionLevel);
         currentWriter.set(newFileWriter);
-        final Path newFileCreated = newFileWriter.getPath();
-        newCompactedFiles.add(newFileCreated);
-        final DataFileMetadata newFileMetadata = newFileWriter.getMetadata();
-        final DataFileReader newFileReader = dataFileCollection.addNewDataFileReader(newFileCreated, newFileMetadata);
+        newCompactedFiles.add(newFileWriter.getPath());
+        final DataFileReader newFileReader = dataFileCollection.addNewDataFileReader(newFileWriter);
         currentReader.set(newFileReader);
     }
 
@@ -326,7 +430,9 @@ public class DataFileCompactor {
      * @throws IOException If an I/O error occurs
      */
     private void finishCurrentCompactionFile() throws IOException {
-        currentWriter.get().finishWriting();
+        final DataFileWriter writer = currentWriter.get();
+        writer.finishWriting();
+        newCompactedFilesUncompressedSize += writer.getUncompressedBlocksSize();
         currentWriter.set(null);
         // Now include the file in future compactions
         currentReader.get().setFileCompleted();
@@ -401,8 +507,11 @@ public class DataFileCompactor {
     public boolean compact() throws IOException, InterruptedException {
         final List<DataFileReader> completedFiles = dataFileCollection.getAllCompletedFiles();
         reportFileSizeByLevel(completedFiles);
-        final List<DataFileReader> filesToCompact =
-                compactionPlan(completedFiles, getMinNumberOfFilesToCompact(), dbConfig.maxCompactionLevel());
+        final List<DataFileReader> filesToCompact = compactionPlan(
+                completedFiles,
+                getMinNumberOfFilesToCompact(),
+                dbConfig.maxCompactionLevel(),
+                dbConfig.compactionGarbageRatioThreshold());
         if (filesToCompact.isEmpty()) {
             logger.debug(MERKLE_DB.getMarker(), "[{}] No need to compact, as the compaction plan is empty", storeName);
             return false;
@@ -430,8 +539,23 @@ public class DataFileCompactor {
         if (reportDurationMetricFunction != null) {
             reportDurationMetricFunction.accept(targetCompactionLevel, tookMillis);
         }
+        if (throttledMillis > 0) {
+            logger.info(MERKLE_DB.getMarker(), "[{}] Compaction was throttled for {} ms", storeName, throttledMillis);
+        }
+        if (reportThrottledTimeMetricFunction != null) {
+            reportThrottledTimeMetricFunction.accept(targetCompactionLevel, throttledMillis);
+        }
 
         final long compactedFilesSize = getSizeOfFilesByPath(newFilesCreated);
+        // For compressed files, the saved space reported below includes space saved by compression
+        if (newCompactedFilesUncompressedSize > 0) {
+            logger.info(
+                    MERKLE_DB.getMarker(),
+                    "[{}] Compacted data compressed from {} to {}",
+                    storeName,
+                    formatSizeBytes(newCompactedFilesUncompressedSize),
+                    formatSizeBytes(compactedFilesSize));
+        }
         if (reportSavedSpaceMetricFunction != null) {
             reportSavedSpaceMetricFunction.accept(
                     targetCompactionLevel,
@@ -483,8 +607,12 @@ public class DataFileCompactor {
      *  - We maintain metrics for each level, and there should be a cap on the number of these metrics.
      */
     private int getTargetCompactionLevel(List<? extends DataFileReader> filesToCompact, int filesCount) {
-        int highestExistingCompactionLevel =
-                filesToCompact.get(filesCount - 1).getMetadata().getCompactionLevel();
+        int highestExistingCompactionLevel = 0;
+        for (int i = 0; i < filesCount; i++) {
+            highestExistingCompactionLevel = Math.max(
+                    highestExistingCompactionLevel,
+                    filesToCompact.get(i).getMetadata().getCompactionLevel());
+        }
 
         return Math.min(highestExistingCompactionLevel + 1, dbConfig.maxCompactionLevel());
     }
@@ -524,6 +652,60 @@ public class DataFileCompactor {
         return readersToCompact;
     }
 
+    /**
+     * This method creates a compaction plan like {@link #compactionPlan(List, int, int)}, and then
+     * adds files with a lot of garbage to it. Files with garbage ratio at or above the threshold are
+     * included, even if their compaction levels are not due for compaction yet, the files with the
+     * most garbage first, up to {@code minNumberOfFilesToCompact} extra files. If no level is due
+     * for compaction, these files are compacted on their own. This way garbage is reclaimed without
+     * rewriting mostly live files over and over again.
+     *
+     * @param garbageRatioThreshold min garbage ratio of a file to be included to the plan because of
+     *                              garbage, if zero, the plan is based on file counts only
+     * @return filter creating a compaction plan
+     */
+    static List<DataFileReader> compactionPlan(
+            List<DataFileReader> dataFileReaders,
+            int minNumberOfFilesToCompact,
+            int maxCompactionLevel,
+            double garbageRatioThreshold) {
+        final List<DataFileReader> readersToCompact =
+                compactionPlan(dataFileReaders, minNumberOfFilesToCompact, maxCompactionLevel);
+        if (garbageRatioThreshold <= 0) {
+            return readersToCompact;
+        }
+        final List<DataFileReader> garbageReaders = dataFileReaders.stream()
+                .filter(r -> r.getGarbageRatio() >= garbageRatioThreshold)
+                .filter(r -> !readersToCompact.contains(r))
+                .sorted(Comparator.comparingDouble(DataFileReader::getGarbageRatio)
+                        .reversed())
+                .limit(Math.max(1, minNumberOfFilesToCompact))
+                .toList();
+        if (garbageReaders.isEmpty()) {
+            return readersToCompact;
+        }
+        final List<DataFileReader> result = new ArrayList<>(readersToCompact);
+        result.addAll(garbageReaders);
+        return result;
+    }
+
+    /**
+     * Checks if all the given files have garbage ratio at or above the threshold. Such files are
+     * worth compacting, even if there are fewer of them than {@link #getMinNumberOfFilesToCompact()}.
+     */
+    private static boolean allFilesHaveGarbage(
+            final List<? extends DataFileReader> files, final double garbageRatioThreshold) {
+        if (garbageRatioThreshold <= 0) {
+            return false;
+        }
+        for (final DataFileReader file : files) {
+            if (file.getGarbageRatio() < garbageRatioThreshold) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static Map<Integer, List<DataFileReader>> getReadersByLevel(final List<DataFileReader> dataFileReaders) {
         return dataFileReaders.stream()
                 .collect(Collectors.groupingBy(r -> r.getMetadata().getCompactionLevel()));
@@ -17,6 +17,8 @@
 package com.swirlds.merkledb.files;
 
 import static com.hedera.pbj.runtime.ProtoParserTools.TAG_FIELD_OFFSET;
+import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_BLOCKS;
+import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_BLOCK_INDEX;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_ITEMS;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_METADATA;
 
@@ -39,6 +41,9 @@ import java.util.Objects;
  *
  * <p>It is designed to be used from a single thread.
  *
+ * <p>Compressed files are iterated block by block. Every block is decompressed to a buffer, and then
+ * data items are read from the buffer.
+ *
  * @see DataFileReader for definition of file structure
  */
 public final class DataFileIterator implements AutoCloseable {
@@ -61,6 +66,17 @@ public final class DataFileIterator implements AutoCloseable {
     /** True if this iterator has been closed */
     private boolean closed = false;
 
+    /** Codec to decompress data blocks, or null if the file isn't compressed */
+    private final BlockCodec codec;
+    /** Buffer for the current decompressed block, or null if the file isn't compressed */
+    private final DataFileBlock block;
+    /** Index of the current block in a compressed file, -1 being before the first block */
+    private int currentBlockIndex = -1;
+    /** Offset of the next data item in the current decompressed block */
+    private int nextOffsetInBlock = 0;
+    /** Offset of the current data item in the current decompressed block */
+    private int currentOffsetInBlock = 0;
+
     /**
      * Create a new DataFileIterator on an existing file.
      *
@@ -80,6 +96,8 @@ public final class DataFileIterator implements AutoCloseable {
                 Files.newInputStream(path, StandardOpenOption.READ), dbConfig.iteratorInputBufferBytes());
         this.in = new ReadableStreamingData(inputStream);
         this.in.limit(Files.size(path));
+        this.codec = BlockCodec.forId(metadata.getCompression());
+        this.block = codec != null ? new DataFileBlock() : null;
     }
 
     /**
@@ -130,6 +148,10 @@ public final class DataFileIterator implements AutoCloseable {
             return false;
         }
 
+        if ((block != null) && (nextOffsetInBlock < block.size())) {
+            return nextBlockItem();
+        }
+
         while (in.hasRemaining()) {
             currentDataItemFilePosition = in.position();
             final int tag = in.readVarInt(false);
@@ -139,9 +161,16 @@ public final class DataFileIterator implements AutoCloseable {
                 dataItemBuffer = fillBuffer(currentDataItemSize);
                 currentDataItem++;
                 return true;
-            } else if (fieldNum == FIELD_DATAFILE_METADATA.number()) {
-                final int metadataSize = in.readVarInt(false);
-                in.skip(metadataSize);
+            } else if (fieldNum == FIELD_DATAFILE_BLOCKS.number()) {
+                final int blockSize = in.readVarInt(false);
+                readBlock(blockSize);
+                if (nextOffsetInBlock < block.size()) {
+                    return nextBlockItem();
+                }
+            } else if ((fieldNum == FIELD_DATAFILE_METADATA.number())
+                    || (fieldNum == FIELD_DATAFILE_BLOCK_INDEX.number())) {
+                final int fieldSize = in.readVarInt(false);
+                in.skip(fieldSize);
             } else {
                 throw new IllegalArgumentException("Unknown data file field: " + fieldNum);
             }
@@ -167,6 +196,11 @@ public final class DataFileIterator implements AutoCloseable {
      * @return current data item location
      */
     public long getDataItemDataLocation() {
+        if (block != null) {
+            return DataFileCommon.dataLocation(
+                    metadata.getIndex(),
+                    DataFileCommon.compressedDataItemOffset(currentBlockIndex, currentOffsetInBlock));
+        }
         return DataFileCommon.dataLocation(metadata.getIndex(), currentDataItemFilePosition);
     }
 
@@ -237,6 +271,43 @@ public final class DataFileIterator implements AutoCloseable {
         return dataItemBuffer;
     }
 
+    /**
+     * Reads a block from the file and decompresses it to the block buffer.
+     *
+     * @param blockSize the block size in the file, in bytes
+     * @throws IOException if the block can't be read or decompressed
+     */
+    private void readBlock(final int blockSize) throws IOException {
+        if (block == null) {
+            throw new IOException("Malformed file [" + path + "], data block in an uncompressed file");
+        }
+        final byte[] blockBytes = block.payloadBuffer(blockSize);
+        final long bytesRead = in.readBytes(blockBytes, 0, blockSize);
+        if (bytesRead != blockSize) {
+            throw new IOException("Couldn't read " + blockSize + " bytes, data block [" + (currentBlockIndex + 1)
+                    + "], read bytes [" + bytesRead + "]");
+        }
+        block.decode(codec, 0, blockSize);
+        currentBlockIndex++;
+        nextOffsetInBlock = 0;
+    }
+
+    /**
+     * Advances to the next data item in the current decompressed block.
+     *
+     * @return always true
+     * @throws IOException if the data item is malformed
+     */
+    private boolean nextBlockItem() throws IOException {
+        currentOffsetInBlock = nextOffsetInBlock;
+        final BufferedData item = block.dataItem(currentOffsetInBlock);
+        nextOffsetInBlock = Math.toIntExact(item.limit());
+        // Same as for uncompressed files, the data item buffer position is zero
+        dataItemBuffer = item.slice(item.position(), item.remaining());
+        currentDataItem++;
+        return true;
+    }
+
     /**
      * Resizes the dataItemBuffer, or creates it if necessary, such that it is large enough
      * to read the bytes provided.
@@ -17,12 +17,15 @@
 package com.swirlds.merkledb.files;
 
 import static com.hedera.pbj.runtime.ProtoParserTools.TAG_FIELD_OFFSET;
+import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_BLOCK_INDEX;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_ITEMS;
 
 import com.hedera.pbj.runtime.ProtoConstants;
 import com.hedera.pbj.runtime.ProtoWriterTools;
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.hedera.pbj.runtime.io.stream.ReadableStreamingData;
 import com.swirlds.merkledb.collections.IndexedObject;
+import com.swirlds.merkledb.config.DataFileReadMode;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -32,6 +35,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -45,6 +49,16 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
  * The aim for a DataFileReader is to facilitate fast highly concurrent random reading of items from
  * a data file. It is designed to be used concurrently from many threads.
  *
+ * <p>Data items are read either using positioned file channel reads, or, for completed files and
+ * depending on {@link MerkleDbConfig#dataFileReadMode()}, from memory-mapped file segments. See
+ * {@link DataFileReadMode} for details.
+ *
+ * <p>In compressed files, data items are stored in compressed blocks. To read a data item, the
+ * whole block is read and decompressed. The last decompressed block is cached per thread, so
+ * reading multiple items from the same block in a row, e.g. during compactions, is cheap. Block
+ * offsets in the file are loaded from the block index, when the file is completed. While the file
+ * is being written, block offsets and items from the pending block are provided by the writer.
+ *
  * <p>Protobuf schema:
  *
  * <pre>
@@ -65,8 +79,25 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
  *     // Data item version. May not be needed
  *     uint64 itemVersion = 5;
  *
- *     // Data items
+ *     // Compaction level
+ *     uint32 compactionLevel = 6;
+ *
+ *     // Block compression codec ID, only present in compressed files
+ *     uint32 compression = 7;
+ *
+ *     // Offset of the block index in the file, only present in compressed files
+ *     fixed64 blockIndexOffset = 8;
+ *
+ *     // Data items, in uncompressed files
  *     repeated bytes items = 11;
+ *
+ *     // Data blocks, in compressed files. Every block is uncompressed size followed by
+ *     // compressed bytes. Uncompressed blocks contain data items in the same format as
+ *     // uncompressed files
+ *     repeated bytes blocks = 12;
+ *
+ *     // Offsets of all data blocks in the file, and the end of the last block
+ *     repeated fixed64 blockIndex = 13;
  * }
  * </pre>
  */
@@ -74,6 +105,25 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
 
     private static final ThreadLocal<ByteBuffer> BUFFER_CACHE = new ThreadLocal<>();
     private static final ThreadLocal<BufferedData> BUFFEREDDATA_CACHE = new ThreadLocal<>();
+    private static final ThreadLocal<DataFileBlock> BLOCK_CACHE = ThreadLocal.withInitial(DataFileBlock::new);
+
+    /** Protobuf tag of every data item in a data file */
+    private static final int DATA_ITEM_TAG =
+            (FIELD_DATAFILE_ITEMS.number() << TAG_FIELD_OFFSET) | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal();
+
+    /** Protobuf tag of the block index in a compressed data file */
+    private static final int BLOCK_INDEX_TAG =
+            (FIELD_DATAFILE_BLOCK_INDEX.number() << TAG_FIELD_OFFSET) | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal();
+
+    /**
+     * Max size of a single memory-mapped file segment. Data files may be larger than 2Gb, which is
+     * the limit for a single mapped byte buffer, so they are mapped in multiple segments. Data items
+     * that cross segment boundaries are read using file channels.
+     */
+    private static final long MAPPED_SEGMENT_SIZE = 1L << 30;
+
+    /** Max size of a data item header: one byte for the tag and up to five bytes for the size */
+    private static final int MAX_DATA_ITEM_HEADER_SIZE = 6;
 
     private final MerkleDbConfig dbConfig;
 
@@ -119,6 +169,37 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
      */
     private final AtomicLong fileSizeBytes = new AtomicLong(0);
 
+    /**
+     * Estimated number of data items in this file, which are no longer referenced from the index.
+     * Incremented when index entries pointing to this file are overwritten or removed, and
+     * corrected from the index during compactions, see {@link #correctDeadDataItemCount(long, long)}.
+     */
+    private final AtomicLong deadDataItemCount = new AtomicLong(0);
+
+    /**
+     * Memory-mapped segments of this file, or null if the file is not mapped. Files are only mapped
+     * when they are completed, see {@link #setFileCompleted()}. Segments are never unmapped
+     * explicitly, since data items returned by {@link #readDataItem(long)} are slices of these
+     * segments and may still be in use after this reader is closed. Mapped memory is released
+     * when the segments are garbage collected.
+     */
+    private volatile BufferedData[] mappedSegments = null;
+
+    /** Codec to decompress data blocks, or null if the file isn't compressed */
+    private final BlockCodec codec;
+
+    /**
+     * Offsets of all blocks in a compressed file, see {@link DataFileWriter#getBlockOffsets()}.
+     * Set in {@link #setFileCompleted()}. Before that, block offsets are provided by {@link #writer}.
+     */
+    private volatile long[] blockOffsets = null;
+
+    /**
+     * The writer of a compressed file, while the file is being written, or null otherwise. The
+     * writer is only cleared after {@link #blockOffsets} are set.
+     */
+    private volatile DataFileWriter writer = null;
+
     /**
      * Open an existing data file, reading the metadata from the file
      *
@@ -148,9 +229,24 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
         }
         this.path = path;
         this.metadata = metadata;
+        this.codec = BlockCodec.forId(metadata.getCompression());
         openNewFileChannel(0);
     }
 
+    /**
+     * Open a data file, which is being written by the given writer. If the file is compressed,
+     * items from blocks that are not written to the file yet are read from the writer.
+     *
+     * @param dbConfig MerkleDb config
+     * @param writer the data file writer
+     */
+    DataFileReader(final MerkleDbConfig dbConfig, final DataFileWriter writer) throws IOException {
+        this(dbConfig, writer.getPath(), writer.getMetadata());
+        if (codec != null) {
+            this.writer = writer;
+        }
+    }
+
     /**
      * Returns if this file is completed and ready to be compacted.
      *
@@ -168,7 +264,16 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
      */
     public void setFileCompleted() {
         try {
-            fileSizeBytes.set(fileChannels.get(0).size());
+            final long fileSize = fileChannels.get(0).size();
+            fileSizeBytes.set(fileSize);
+            if (codec != null) {
+                final DataFileWriter currentWriter = writer;
+                blockOffsets = currentWriter != null ? currentWriter.getBlockOffsets() : loadBlockOffsets();
+                writer = null;
+            }
+            if (shouldMapFile(fileSize)) {
+                mapFile(fileSize);
+            }
         } catch (final IOException e) {
             throw new UncheckedIOException("Failed to update data file reader size", e);
         } finally {
@@ -216,7 +321,9 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
     }
 
     /**
-     * Read data item from file at dataLocation.
+     * Read data item from file at dataLocation. If this file is memory-mapped, the returned buffer
+     * is a slice of the mapped file segment. Otherwise, it's a reused per thread buffer, which can
+     * only be used till the thread calls this method again.
      *
      * @param dataLocation data item location, which combines data file index and offset in the file
      * @return deserialized data item
@@ -225,6 +332,16 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
      */
     public BufferedData readDataItem(final long dataLocation) throws IOException {
         final long byteOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
+        if (codec != null) {
+            return readCompressed(byteOffset);
+        }
+        final BufferedData[] segments = mappedSegments;
+        if (segments != null) {
+            final BufferedData dataItem = readMapped(segments, byteOffset);
+            if (dataItem != null) {
+                return dataItem;
+            }
+        }
         return read(byteOffset);
     }
 
@@ -238,6 +355,50 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
         return fileSizeBytes.get();
     }
 
+    /**
+     * Records that one more data item in this file is no longer referenced from the index.
+     */
+    public void countDeadDataItem() {
+        deadDataItemCount.incrementAndGet();
+    }
+
+    /**
+     * Corrects the estimated number of dead data items using the number of items in this file,
+     * which are still referenced from the index. This method is used when the whole index is
+     * scanned during compaction. Flushes may mark items dead while the scan is running, so the
+     * correction is applied as a delta to the dead item count at scan start rather than as an
+     * overwrite, and items marked dead during the scan are not lost.
+     *
+     * @param deadDataItemCountAtScanStart the number of dead data items when the scan started
+     * @param liveDataItemCount the number of live data items found by the scan
+     */
+    public void correctDeadDataItemCount(final long deadDataItemCountAtScanStart, final long liveDataItemCount) {
+        final long delta =
+                Math.max(0, metadata.getDataItemCount() - liveDataItemCount) - deadDataItemCountAtScanStart;
+        deadDataItemCount.getAndUpdate(count -> Math.max(0, count + delta));
+    }
+
+    /**
+     * Get the estimated number of data items in this file, which are no longer referenced from
+     * the index.
+     *
+     * @return the number of dead data items
+     */
+    public long getDeadDataItemCount() {
+        return deadDataItemCount.get();
+    }
+
+    /**
+     * Get the estimated fraction of data items in this file, which are no longer referenced from
+     * the index, from 0.0 to 1.0. This method should only be called for completed files.
+     *
+     * @return the garbage ratio of this file
+     */
+    public double getGarbageRatio() {
+        final long dataItemCount = metadata.getDataItemCount();
+        return (dataItemCount > 0) ? Math.min(1.0, (double) deadDataItemCount.get() / dataItemCount) : 0.0;
+    }
+
     /** Equals for use when comparing in collections, based on matching file paths */
     @Override
     public boolean equals(final Object o) {
@@ -297,6 +458,7 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
     @Override
     public void close() throws IOException {
         open.set(false);
+        mappedSegments = null;
         for (int i = 0; i < maxFileChannels; i++) {
             final FileChannel fileChannel = fileChannels.getAndSet(i, null);
             if (fileChannel != null) {
@@ -308,6 +470,227 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
     // =================================================================================================================
     // Private methods
 
+    /**
+     * Checks if a completed file of the given size should be memory-mapped for reading.
+     *
+     * @param fileSize file size, in bytes
+     * @return whether the file should be memory-mapped
+     */
+    private boolean shouldMapFile(final long fileSize) {
+        if (fileSize == 0) {
+            return false;
+        }
+        final String readMode = dbConfig.dataFileReadMode();
+        return switch (readMode) {
+            case DataFileReadMode.CHANNEL -> false;
+            case DataFileReadMode.MMAP -> true;
+            case DataFileReadMode.HYBRID -> fileSize <= dbConfig.dataFileMmapSizeThreshold();
+            default -> throw new IllegalArgumentException("Unknown data file read mode: " + readMode);
+        };
+    }
+
+    /**
+     * Maps this file to memory, segment by segment. Each segment is at most {@link
+     * #MAPPED_SEGMENT_SIZE} bytes. A separate file channel is used for mapping, mapped buffers
+     * stay valid after the channel is closed.
+     *
+     * @param fileSize the size of the file, in bytes
+     * @throws IOException
+     *      If an I/O error occurs
+     */
+    private void mapFile(final long fileSize) throws IOException {
+        final int segmentsCount = Math.toIntExact((fileSize + MAPPED_SEGMENT_SIZE - 1) / MAPPED_SEGMENT_SIZE);
+        final BufferedData[] segments = new BufferedData[segmentsCount];
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int i = 0; i < segmentsCount; i++) {
+                final long segmentStart = i * MAPPED_SEGMENT_SIZE;
+                final long segmentSize = Math.min(MAPPED_SEGMENT_SIZE, fileSize - segmentStart);
+                segments[i] = BufferedData.wrap(channel.map(MapMode.READ_ONLY, segmentStart, segmentSize));
+            }
+        }
+        mappedSegments = segments;
+    }
+
+    /**
+     * Reads a data item at the given offset from memory-mapped file segments. No bytes are copied,
+     * the returned buffer is a slice of the corresponding mapped segment, its position is zero, and
+     * its limit is the data item size. The buffer isn't reused, so it's safe to hold it after other
+     * calls to this method.
+     *
+     * <p>If the data item crosses segment boundaries, this method returns null, the caller is
+     * expected to read the item using a file channel.
+     *
+     * @param segments memory-mapped file segments
+     * @param byteOffsetInFile data item offset in the file
+     * @return data item bytes, or null if the item can't be read from mapped segments
+     * @throws IOException if the data item at the given offset is malformed
+     */
+    private BufferedData readMapped(final BufferedData[] segments, final long byteOffsetInFile) throws IOException {
+        final int segmentIndex = Math.toIntExact(byteOffsetInFile / MAPPED_SEGMENT_SIZE);
+        if (segmentIndex >= segments.length) {
+            throw new IOException("Data item offset is beyond the end of file: file=" + getIndex() + " off="
+                    + byteOffsetInFile + " size=" + getSize());
+        }
+        final BufferedData segment = segments[segmentIndex];
+        final long offsetInSegment = byteOffsetInFile % MAPPED_SEGMENT_SIZE;
+        final long segmentSize = segment.length();
+        if (segmentSize - offsetInSegment < MAX_DATA_ITEM_HEADER_SIZE) {
+            return null;
+        }
+        final int tag = segment.getVarInt(offsetInSegment, false);
+        if (tag != DATA_ITEM_TAG) {
+            throw new IOException(
+                    "Unknown data item tag: tag=" + tag + " file=" + getIndex() + " off=" + byteOffsetInFile);
+        }
+        final int sizeOfTag = ProtoWriterTools.sizeOfUnsignedVarInt32(tag);
+        final int size = segment.getVarInt(offsetInSegment + sizeOfTag, false);
+        final int sizeOfSize = ProtoWriterTools.sizeOfUnsignedVarInt32(size);
+        final long dataOffsetInSegment = offsetInSegment + sizeOfTag + sizeOfSize;
+        if (dataOffsetInSegment + size > segmentSize) {
+            return null;
+        }
+        return segment.slice(dataOffsetInSegment, size);
+    }
+
+    /**
+     * Reads a data item from a compressed file. If the item is in the block, which was the last
+     * block read by the current thread from this file, the block isn't read and decompressed again.
+     * The returned buffer is a reused per thread buffer, it can only be used till the thread
+     * reads another item from a compressed file.
+     *
+     * @param byteOffset data item offset in the file, see {@link DataFileCommon#compressedDataItemOffset(int, int)}
+     * @return data item bytes, or null if the file was closed
+     * @throws IOException if there was a problem reading or decompressing the block
+     */
+    private BufferedData readCompressed(final long byteOffset) throws IOException {
+        final int blockIndex = DataFileCommon.blockIndexFromDataItemOffset(byteOffset);
+        final int offsetInBlock = DataFileCommon.offsetInBlockFromDataItemOffset(byteOffset);
+        final DataFileBlock block = BLOCK_CACHE.get();
+        if (block.contains(this, blockIndex)) {
+            return block.dataItem(offsetInBlock);
+        }
+        final long blockStart;
+        final long blockEnd;
+        long[] offsets = blockOffsets;
+        if (offsets == null) {
+            final DataFileWriter currentWriter = writer;
+            if (currentWriter != null) {
+                final BufferedData pendingItem = currentWriter.readPendingDataItem(blockIndex, offsetInBlock);
+                if (pendingItem != null) {
+                    return pendingItem;
+                }
+                blockStart = currentWriter.getBlockOffset(blockIndex);
+                blockEnd = currentWriter.getBlockOffset(blockIndex + 1);
+            } else {
+                // The writer is only cleared after block offsets are set
+                offsets = blockOffsets;
+                if (offsets == null) {
+                    throw new IOException("Block index is not loaded: file=" + getIndex());
+                }
+                blockStart = blockStart(offsets, blockIndex);
+                blockEnd = offsets[blockIndex + 1];
+            }
+        } else {
+            blockStart = blockStart(offsets, blockIndex);
+            blockEnd = offsets[blockIndex + 1];
+        }
+        final int blockSize = Math.toIntExact(blockEnd - blockStart);
+        final byte[] blockBytes = block.payloadBuffer(blockSize);
+        if (!readBytes(blockStart, blockBytes, blockSize)) {
+            return null;
+        }
+        block.decodeField(codec, blockSize, this, blockIndex);
+        return block.dataItem(offsetInBlock);
+    }
+
+    private long blockStart(final long[] offsets, final int blockIndex) throws IOException {
+        if ((blockIndex < 0) || (blockIndex >= offsets.length - 1)) {
+            throw new IOException("Data block is beyond the end of file: file=" + getIndex() + " block=" + blockIndex
+                    + " blocks=" + (offsets.length - 1));
+        }
+        return offsets[blockIndex];
+    }
+
+    /**
+     * Loads block offsets from the block index of a compressed file.
+     *
+     * @return block offsets
+     * @throws IOException if the block index can't be read
+     */
+    private long[] loadBlockOffsets() throws IOException {
+        final long blockIndexOffset = metadata.getBlockIndexOffset();
+        if (blockIndexOffset == 0) {
+            // The file wasn't completely written, no blocks can be read from it
+            return new long[1];
+        }
+        try (final ReadableStreamingData in = new ReadableStreamingData(path)) {
+            in.skip(blockIndexOffset);
+            final int tag = in.readVarInt(false);
+            if (tag != BLOCK_INDEX_TAG) {
+                throw new IOException("Unknown block index tag: tag=" + tag + " file=" + getIndex());
+            }
+            final int size = in.readVarInt(false);
+            final long[] offsets = new long[size / Long.BYTES];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = in.readLong();
+            }
+            return offsets;
+        }
+    }
+
+    /**
+     * Reads the given number of bytes from the file to the given array. If the file is mapped to
+     * memory, and the bytes are within a single mapped segment, they are copied from the segment.
+     * Otherwise, they are read using a file channel.
+     *
+     * @param byteOffsetInFile offset to start reading at
+     * @param dst the array to read bytes to
+     * @param length the number of bytes to read
+     * @return true if the bytes are read, false if the file was closed
+     * @throws IOException if there was a problem reading
+     */
+    private boolean readBytes(final long byteOffsetInFile, final byte[] dst, final int length) throws IOException {
+        final BufferedData[] segments = mappedSegments;
+        if (segments != null) {
+            final int segmentIndex = Math.toIntExact(byteOffsetInFile / MAPPED_SEGMENT_SIZE);
+            final long offsetInSegment = byteOffsetInFile % MAPPED_SEGMENT_SIZE;
+            if ((segmentIndex < segments.length) && (offsetInSegment + length <= segments[segmentIndex].length())) {
+                segments[segmentIndex].getBytes(offsetInSegment, dst, 0, length);
+                return true;
+            }
+        }
+        final ByteBuffer readBB = ByteBuffer.wrap(dst, 0, length);
+        for (int retries = 3; retries > 0; retries--) {
+            final int fcIndex = leaseFileChannel();
+            final FileChannel fileChannel = fileChannels.get(fcIndex);
+            try {
+                if (fileChannel == null) {
+                    // The file was closed, e.g. because of a race with compaction. The caller will
+                    // retry with a new data location
+                    return false;
+                }
+                readBB.clear();
+                readBB.limit(length);
+                final int bytesRead = MerkleDbFileUtils.completelyRead(fileChannel, readBB, byteOffsetInFile);
+                if (bytesRead != length) {
+                    throw new IOException("Failed to read all bytes: toread=" + length + " read=" + bytesRead
+                            + " file=" + getIndex() + " off=" + byteOffsetInFile);
+                }
+                return true;
+            } catch (final ClosedByInterruptException e) {
+                // If the thread and the channel are interrupted, propagate it to the callers
+                throw e;
+            } catch (final ClosedChannelException e) {
+                // The channel was closed, because a different thread reading from the channel was
+                // interrupted. Re-create the file channel and retry
+                reopenFileChannel(fcIndex, fileChannel);
+            } finally {
+                releaseFileChannel();
+            }
+        }
+        throw new IOException("Failed to read from file, file channel keeps getting closed");
+    }
+
     /**
      * Opens a new file channel for reading the file, if the total number of channels opened is
      * less than {@link #maxFileChannels}. This method is safe to call from multiple threads.
@@ -431,9 +814,7 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
                 // Then read the tag and size from the read buffer, since it's wrapped over the byte buffer
                 readBuf.reset();
                 final int tag = readBuf.getVarInt(0, false); // tag
-                if (tag
-                        != ((FIELD_DATAFILE_ITEMS.number() << TAG_FIELD_OFFSET)
-                                | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal())) {
+                if (tag != DATA_ITEM_TAG) {
                     throw new IOException(
                             "Unknown data item tag: tag=" + tag + " file=" + getIndex() + " off=" + byteOffsetInFile);
                 }
@@ -485,4 +866,12 @@ public final class DataFileReader implements AutoCloseable, Comparable<DataFileR
     int getFileChannelsCount() {
         return fileChannelsCount.get();
     }
+
+    boolean isMemoryMapped() {
+        return mappedSegments != null;
+    }
+
+    boolean isCompressed() {
+        return codec != null;
+    }
 }
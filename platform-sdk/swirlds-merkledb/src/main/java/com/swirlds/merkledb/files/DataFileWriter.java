@@ -16,12 +16,15 @@
 
 package com.swirlds.merkledb.files;
 
+import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_BLOCKS;
+import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_BLOCK_INDEX;
 import static com.swirlds.merkledb.files.DataFileCommon.FIELD_DATAFILE_ITEMS;
 import static com.swirlds.merkledb.files.DataFileCommon.PAGE_SIZE;
 import static com.swirlds.merkledb.files.DataFileCommon.createDataFilePath;
 
 import com.hedera.pbj.runtime.ProtoWriterTools;
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.merkledb.utilities.MemoryUtils;
 import java.io.IOException;
 import java.nio.BufferOverflowException;
@@ -32,6 +35,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 /**
@@ -44,6 +48,12 @@ import java.util.function.Consumer;
  * <p>At the end of the file it is padded till a 4096 byte page boundary then a footer page is
  * written by DataFileMetadata.
  *
+ * <p>If compression is enabled, data items aren't written to the file directly. Instead, they are
+ * collected to uncompressed blocks of about the configured block size, and every block is compressed
+ * and written to the file separately. Data items in blocks, which are not written to the file yet,
+ * are available to data file readers using {@link #readPendingDataItem(int, int)}. After all blocks
+ * are written, block offsets are written to the end of the file as a block index.
+ *
  * <p>Protobuf schema: see {@link DataFileReader} for details.
  */
 public final class DataFileWriter {
@@ -77,6 +87,25 @@ public final class DataFileWriter {
      */
     private long dataItemCount = 0;
 
+    /** Codec to compress data blocks, or null if the file isn't compressed */
+    private final BlockCodec codec;
+    /** Target uncompressed block size, in bytes */
+    private final int blockSize;
+    /** The current uncompressed block, which is not written to the file yet */
+    private byte[] pendingBlock;
+    private BufferedData pendingBlockData;
+    /** Buffer to compress blocks to */
+    private byte[] compressedBlock;
+    /**
+     * File offsets of all written blocks. Block N takes bytes from blockOffsets[N] (inclusive) to
+     * blockOffsets[N + 1] (exclusive) in the file, so the array contains blockCount + 1 entries
+     */
+    private long[] blockOffsets;
+    /** Number of blocks written to the file so far. It's also the index of the pending block */
+    private int blockCount = 0;
+    /** Total uncompressed size of all written blocks, in bytes */
+    private long uncompressedBlocksSize = 0;
+
     /**
      * Create a new data file in the given directory, in append mode. Puts the object into "writing"
      * mode (i.e. creates a lock file. So you'd better start writing data and be sure to finish it
@@ -94,14 +123,54 @@ public final class DataFileWriter {
             final Instant creationTime,
             final int compactionLevel)
             throws IOException {
+        this(filePrefix, dataFileDir, index, creationTime, compactionLevel, DataFileCompression.NONE, 0);
+    }
+
+    /**
+     * Create a new data file in the given directory, in append mode, optionally compressed.
+     *
+     * @param filePrefix string prefix for all files, must not contain "_" chars
+     * @param dataFileDir the path to directory to create the data file in
+     * @param index the index number for this file
+     * @param creationTime the time stamp for the creation time for this file
+     * @param compactionLevel the compaction level for this file
+     * @param compression compression mode, see {@link DataFileCompression}
+     * @param blockSize target uncompressed block size for compressed files, in bytes
+     */
+    public DataFileWriter(
+            final String filePrefix,
+            final Path dataFileDir,
+            final int index,
+            final Instant creationTime,
+            final int compactionLevel,
+            final String compression,
+            final int blockSize)
+            throws IOException {
         this.path = createDataFilePath(filePrefix, dataFileDir, index, creationTime, DataFileCommon.FILE_EXTENSION);
+        codec = BlockCodec.forCompression(compression);
         metadata = new DataFileMetadata(
                 0, // data item count will be updated later in finishWriting()
                 index,
                 creationTime,
-                compactionLevel);
+                compactionLevel,
+                codec != null ? codec.id() : BlockCodec.NONE_ID);
+        if (codec != null) {
+            if ((blockSize <= 0) || (blockSize > DataFileCommon.MAX_COMPRESSION_BLOCK_SIZE)) {
+                throw new IllegalArgumentException("Wrong compression block size: " + blockSize);
+            }
+            this.blockSize = blockSize;
+            pendingBlock = new byte[blockSize];
+            pendingBlockData = BufferedData.wrap(pendingBlock);
+            compressedBlock = new byte[codec.maxCompressedLength(blockSize)];
+            blockOffsets = new long[64];
+        } else {
+            this.blockSize = 0;
+        }
         Files.createFile(path);
         writeHeader();
+        if (codec != null) {
+            blockOffsets[0] = mmapPositionInFile;
+        }
     }
 
     /**
@@ -162,6 +231,9 @@ public final class DataFileWriter {
      * @throws IOException if there was a problem appending data to file
      */
     public synchronized long storeDataItem(final BufferedData dataItem) throws IOException {
+        if (codec != null) {
+            return storeCompressedDataItem(o -> o.writeBytes(dataItem), Math.toIntExact(dataItem.remaining()));
+        }
         // find offset for the start of this new data item, we assume we always write data in a
         // whole number of blocks
         long currentWritingMmapPos = writingPbjData.position();
@@ -199,6 +271,9 @@ public final class DataFileWriter {
      */
     public synchronized long storeDataItem(final Consumer<BufferedData> dataItemWriter, final int dataItemSize)
             throws IOException {
+        if (codec != null) {
+            return storeCompressedDataItem(dataItemWriter, dataItemSize);
+        }
         // find offset for the start of this new data item, we assume we always write data in a
         // whole number of blocks
         final long currentWritingMmapPos = writingPbjData.position();
@@ -226,12 +301,19 @@ public final class DataFileWriter {
      * @throws IOException if there was a problem sealing file or opening again as read only
      */
     public synchronized void finishWriting() throws IOException {
+        if (codec != null) {
+            writePendingBlock();
+            writeBlockIndex();
+        }
         // total file size is where the current writing pos is
         final long totalFileSize = mmapPositionInFile + writingPbjData.position();
         // update data item count in the metadata and in the file
         // not that updateDataItemCount() messes up with writing buffer state (position), but
         // the buffer will be closed below anyway
         metadata.updateDataItemCount(writingHeaderPbjData, dataItemCount);
+        if (codec != null) {
+            metadata.updateBlockIndexOffset(writingHeaderPbjData, blockOffsets[blockCount]);
+        }
         // release all the resources
         MemoryUtils.closeMmapBuffer(writingHeaderMmap);
         MemoryUtils.closeMmapBuffer(writingMmap);
@@ -242,4 +324,158 @@ public final class DataFileWriter {
             mmapPositionInFile = totalFileSize;
         }
     }
+
+    /**
+     * Reads a data item from the pending block, which is not written to the file yet. This method
+     * is used by data file readers, while the file is being written.
+     *
+     * @param blockIndex the block index
+     * @param offsetInBlock the data item offset in the uncompressed block
+     * @return a copy of data item bytes, or null if the block is already written to the file
+     * @throws IOException if the block index or offset is out of bounds
+     */
+    synchronized BufferedData readPendingDataItem(final int blockIndex, final int offsetInBlock) throws IOException {
+        if (blockIndex < blockCount) {
+            return null;
+        }
+        if ((blockIndex > blockCount) || (offsetInBlock >= pendingBlockData.position())) {
+            throw new IOException("Data item is not written yet: file=" + metadata.getIndex() + " block="
+                    + blockIndex + " off=" + offsetInBlock);
+        }
+        final int tag = pendingBlockData.getVarInt(offsetInBlock, false);
+        final int sizeOfTag = ProtoWriterTools.sizeOfUnsignedVarInt32(tag);
+        final int size = pendingBlockData.getVarInt(offsetInBlock + sizeOfTag, false);
+        final int itemStart = offsetInBlock + sizeOfTag + ProtoWriterTools.sizeOfUnsignedVarInt32(size);
+        return BufferedData.wrap(Arrays.copyOfRange(pendingBlock, itemStart, itemStart + size));
+    }
+
+    /**
+     * Get the file offset of a block, which is already written to the file. The offset for block
+     * index equal to the number of written blocks is where the next block will be written.
+     *
+     * @param blockIndex the block index
+     * @return the block offset in the file
+     */
+    synchronized long getBlockOffset(final int blockIndex) {
+        if ((blockIndex < 0) || (blockIndex > blockCount)) {
+            throw new IllegalArgumentException("Block is not written yet: file=" + metadata.getIndex() + " block="
+                    + blockIndex);
+        }
+        return blockOffsets[blockIndex];
+    }
+
+    /**
+     * Get offsets of all blocks written to the file. Block N takes bytes from offsets[N] (inclusive)
+     * to offsets[N + 1] (exclusive) in the file.
+     *
+     * @return block offsets, blockCount + 1 entries
+     */
+    synchronized long[] getBlockOffsets() {
+        return Arrays.copyOf(blockOffsets, blockCount + 1);
+    }
+
+    /**
+     * Get the total uncompressed size of all blocks written to the file, in bytes. Along with the
+     * file size, it can be used to estimate compression ratio.
+     *
+     * @return the uncompressed size of written blocks, or 0 if the file isn't compressed
+     */
+    public synchronized long getUncompressedBlocksSize() {
+        return uncompressedBlocksSize;
+    }
+
+    /**
+     * Stores a data item to the pending block. If the item doesn't fit into the block, the block
+     * is compressed and written to the file first. Items larger than the block size are stored in
+     * their own blocks.
+     */
+    private long storeCompressedDataItem(final Consumer<BufferedData> dataItemWriter, final int dataItemSize)
+            throws IOException {
+        final int sizeToWrite = ProtoWriterTools.sizeOfDelimited(FIELD_DATAFILE_ITEMS, dataItemSize);
+        int offsetInBlock = Math.toIntExact(pendingBlockData.position());
+        if ((offsetInBlock > 0) && (offsetInBlock + sizeToWrite > blockSize)) {
+            writePendingBlock();
+            offsetInBlock = 0;
+        }
+        if (blockCount >= DataFileCommon.MAX_COMPRESSION_BLOCKS) {
+            throw new IOException("Too many data blocks in file " + path);
+        }
+        if (pendingBlock.length < sizeToWrite) {
+            // offsetInBlock is 0 here, nothing to copy
+            pendingBlock = new byte[sizeToWrite];
+            pendingBlockData = BufferedData.wrap(pendingBlock);
+        }
+        ProtoWriterTools.writeDelimited(pendingBlockData, FIELD_DATAFILE_ITEMS, dataItemSize, dataItemWriter);
+        if (pendingBlockData.position() != offsetInBlock + sizeToWrite) {
+            throw new IOException("Estimated size / written bytes mismatch: expected=" + sizeToWrite + " written="
+                    + (pendingBlockData.position() - offsetInBlock));
+        }
+        dataItemCount++;
+        return DataFileCommon.dataLocation(
+                metadata.getIndex(), DataFileCommon.compressedDataItemOffset(blockCount, offsetInBlock));
+    }
+
+    /**
+     * Compresses the pending block and writes it to the file. If the block can't be compressed to
+     * fewer bytes than its uncompressed size, it's written uncompressed. If the pending block is
+     * empty, this method is a no-op.
+     */
+    private void writePendingBlock() throws IOException {
+        final int uncompressedSize = Math.toIntExact(pendingBlockData.position());
+        if (uncompressedSize == 0) {
+            return;
+        }
+        final int maxCompressedSize = codec.maxCompressedLength(uncompressedSize);
+        if (compressedBlock.length < maxCompressedSize) {
+            compressedBlock = new byte[maxCompressedSize];
+        }
+        final int compressedSize = codec.compress(pendingBlock, uncompressedSize, compressedBlock);
+        final byte[] blockBytes = compressedSize < uncompressedSize ? compressedBlock : pendingBlock;
+        final int blockBytesSize = Math.min(compressedSize, uncompressedSize);
+        final int payloadSize = ProtoWriterTools.sizeOfVarInt32(uncompressedSize) + blockBytesSize;
+        final int sizeToWrite = ProtoWriterTools.sizeOfDelimited(FIELD_DATAFILE_BLOCKS, payloadSize);
+        final long blockOffset = mmapPositionInFile + writingPbjData.position();
+        assert blockOffset == blockOffsets[blockCount];
+        if (writingPbjData.remaining() < sizeToWrite) {
+            moveWritingBuffer(blockOffset);
+        }
+        try {
+            ProtoWriterTools.writeDelimited(writingPbjData, FIELD_DATAFILE_BLOCKS, payloadSize, o -> {
+                o.writeVarInt(uncompressedSize, false);
+                o.writeBytes(blockBytes, 0, blockBytesSize);
+            });
+        } catch (final BufferOverflowException e) {
+            // Buffer overflow here means the mapped buffer is smaller than even a single block
+            throw new IOException(DataFileCommon.ERROR_DATAITEM_TOO_LARGE, e);
+        }
+        if (blockCount + 2 > blockOffsets.length) {
+            blockOffsets = Arrays.copyOf(blockOffsets, blockOffsets.length * 2);
+        }
+        blockOffsets[blockCount + 1] = blockOffset + sizeToWrite;
+        blockCount++;
+        uncompressedBlocksSize += uncompressedSize;
+        pendingBlockData.reset();
+    }
+
+    /**
+     * Writes offsets of all blocks to the end of the file. The offset of the block index itself is
+     * then stored in file metadata.
+     */
+    private void writeBlockIndex() throws IOException {
+        final int blockIndexSize = (blockCount + 1) * Long.BYTES;
+        final int sizeToWrite = ProtoWriterTools.sizeOfDelimited(FIELD_DATAFILE_BLOCK_INDEX, blockIndexSize);
+        final long blockIndexOffset = mmapPositionInFile + writingPbjData.position();
+        if (writingPbjData.remaining() < sizeToWrite) {
+            moveWritingBuffer(blockIndexOffset);
+        }
+        try {
+            ProtoWriterTools.writeDelimited(writingPbjData, FIELD_DATAFILE_BLOCK_INDEX, blockIndexSize, o -> {
+                for (int i = 0; i <= blockCount; i++) {
+                    o.writeLong(blockOffsets[i]);
+                }
+            });
+        } catch (final BufferOverflowException e) {
+            throw new IOException("Block index is too large to write to a data file", e);
+        }
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023-2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Block codec based on JDK {@link Deflater} and {@link Inflater}. Deflaters and inflaters aren't
+ * thread safe, so this codec keeps one instance of each per thread.
+ */
+final class DeflateBlockCodec implements BlockCodec {
+
+    /** Codec ID, see {@link BlockCodec#forId(int)} */
+    static final int ID = 2;
+
+    /** Codec instance */
+    static final DeflateBlockCodec INSTANCE = new DeflateBlockCodec();
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private DeflateBlockCodec() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int id() {
+        return ID;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int maxCompressedLength(final int length) {
+        // Same as zlib deflateBound(), plus some extra bytes for zlib header and trailer
+        return length + (length >> 12) + (length >> 14) + (length >> 25) + 64;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compress(final byte[] src, final int length, final byte[] dst) {
+        final Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(src, 0, length);
+        deflater.finish();
+        int compressed = 0;
+        while (!deflater.finished() && (compressed < dst.length)) {
+            compressed += deflater.deflate(dst, compressed, dst.length - compressed);
+        }
+        return compressed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void decompress(
+            final byte[] src, final int srcOffset, final int srcLength, final byte[] dst, final int dstLength)
+            throws IOException {
+        final Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(src, srcOffset, srcLength);
+        int decompressed = 0;
+        try {
+            while (!inflater.finished()) {
+                final int count;
+                if (decompressed < dstLength) {
+                    count = inflater.inflate(dst, decompressed, dstLength - decompressed);
+                } else {
+                    // All expected bytes are decompressed, but the stream isn't finished yet. Let
+                    // the inflater consume the stream trailer, any extra output byte is an error
+                    count = inflater.inflate(new byte[1]);
+                }
+                if ((count == 0) && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                decompressed += count;
+                if (decompressed > dstLength) {
+                    break;
+                }
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException("Malformed deflate block", e);
+        }
+        if ((decompressed != dstLength) || !inflater.finished()) {
+            throw new IOException(
+                    "Malformed deflate block: expected " + dstLength + " bytes, decompressed " + decompressed);
+        }
+    }
+}
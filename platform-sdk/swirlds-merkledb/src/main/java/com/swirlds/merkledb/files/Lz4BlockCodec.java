@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2023-2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Pure Java implementation of LZ4 block format. Blocks are compressed using a single pass with a
+ * small hash table of recent 4-byte sequences, which is fast, but doesn't give the best possible
+ * compression ratio. Blocks compressed by other LZ4 compressors can be decompressed by this codec,
+ * too.
+ *
+ * <p>Every compressed block is a sequence of tokens. Every token is a run of literals (bytes copied
+ * as is) followed by a match (a reference to bytes already decompressed). The last token only
+ * contains literals.
+ */
+final class Lz4BlockCodec implements BlockCodec {
+
+    /** Codec ID, see {@link BlockCodec#forId(int)} */
+    static final int ID = 1;
+
+    /** Codec instance. The codec is stateless, so it's safe to use a single instance */
+    static final Lz4BlockCodec INSTANCE = new Lz4BlockCodec();
+
+    /** Min match length */
+    private static final int MIN_MATCH = 4;
+
+    /** The last match must start at least this number of bytes before the end of block */
+    private static final int MF_LIMIT = 12;
+
+    /** The last bytes of every block are always literals */
+    private static final int LAST_LITERALS = 5;
+
+    /** Max match offset, matches are stored as 2-byte offsets */
+    private static final int MAX_OFFSET = 0xFFFF;
+
+    /** Number of bits in a match length in every token */
+    private static final int ML_BITS = 4;
+
+    /** Match length mask in every token */
+    private static final int ML_MASK = (1 << ML_BITS) - 1;
+
+    /** Literals length mask in every token, after it's shifted by {@link #ML_BITS} */
+    private static final int RUN_MASK = (1 << (8 - ML_BITS)) - 1;
+
+    /** Hash table size is 2^HASH_LOG entries */
+    private static final int HASH_LOG = 12;
+
+    /** Hash tables to find matches, one per thread to avoid allocations on every compress call */
+    private static final ThreadLocal<int[]> HASH_TABLE = ThreadLocal.withInitial(() -> new int[1 << HASH_LOG]);
+
+    private Lz4BlockCodec() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int id() {
+        return ID;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int maxCompressedLength(final int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compress(final byte[] src, final int length, final byte[] dst) {
+        int dp = 0;
+        int anchor = 0;
+        // Blocks shorter than MF_LIMIT + 1 bytes are always stored as literals
+        if (length > MF_LIMIT) {
+            final int[] table = HASH_TABLE.get();
+            Arrays.fill(table, -1);
+            final int matchLimit = length - LAST_LITERALS;
+            final int ipLimit = length - MF_LIMIT;
+            int ip = 0;
+            while (ip < ipLimit) {
+                final int sequence = readInt(src, ip);
+                final int h = hash(sequence);
+                final int ref = table[h];
+                table[h] = ip;
+                if ((ref < 0) || (ip - ref > MAX_OFFSET) || (readInt(src, ref) != sequence)) {
+                    ip++;
+                    continue;
+                }
+                // Extend the match backwards, but not beyond the previous match
+                int matchStart = ip;
+                int refStart = ref;
+                while ((matchStart > anchor) && (refStart > 0) && (src[matchStart - 1] == src[refStart - 1])) {
+                    matchStart--;
+                    refStart--;
+                }
+                // Extend the match forward
+                int matchEnd = ip + MIN_MATCH;
+                int refEnd = ref + MIN_MATCH;
+                while ((matchEnd < matchLimit) && (src[matchEnd] == src[refEnd])) {
+                    matchEnd++;
+                    refEnd++;
+                }
+                dp = writeSequence(
+                        src, anchor, matchStart - anchor, matchStart - refStart, matchEnd - matchStart, dst, dp);
+                ip = matchEnd;
+                anchor = ip;
+            }
+        }
+        return writeLastLiterals(src, anchor, length - anchor, dst, dp);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void decompress(
+            final byte[] src, final int srcOffset, final int srcLength, final byte[] dst, final int dstLength)
+            throws IOException {
+        final int srcEnd = srcOffset + srcLength;
+        int sp = srcOffset;
+        int dp = 0;
+        while (sp < srcEnd) {
+            final int token = src[sp++] & 0xFF;
+            // Literals
+            int literalLength = token >>> ML_BITS;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    if (sp >= srcEnd) {
+                        throw malformed("literals length is out of bounds");
+                    }
+                    b = src[sp++] & 0xFF;
+                    literalLength += b;
+                } while (b == 0xFF);
+            }
+            if ((literalLength > srcEnd - sp) || (literalLength > dstLength - dp)) {
+                throw malformed("literals are out of bounds");
+            }
+            System.arraycopy(src, sp, dst, dp, literalLength);
+            sp += literalLength;
+            dp += literalLength;
+            if (sp == srcEnd) {
+                // The last token, no match
+                break;
+            }
+            // Match
+            if (srcEnd - sp < 2) {
+                throw malformed("match offset is out of bounds");
+            }
+            final int offset = (src[sp++] & 0xFF) | ((src[sp++] & 0xFF) << 8);
+            int matchLength = token & ML_MASK;
+            if (matchLength == ML_MASK) {
+                int b;
+                do {
+                    if (sp >= srcEnd) {
+                        throw malformed("match length is out of bounds");
+                    }
+                    b = src[sp++] & 0xFF;
+                    matchLength += b;
+                } while (b == 0xFF);
+            }
+            matchLength += MIN_MATCH;
+            int ref = dp - offset;
+            if ((offset == 0) || (ref < 0) || (matchLength > dstLength - dp)) {
+                throw malformed("match is out of bounds");
+            }
+            if (offset >= matchLength) {
+                System.arraycopy(dst, ref, dst, dp, matchLength);
+                dp += matchLength;
+            } else {
+                // Overlapping match, must be copied byte by byte
+                for (int i = 0; i < matchLength; i++) {
+                    dst[dp++] = dst[ref++];
+                }
+            }
+        }
+        if (dp != dstLength) {
+            throw malformed("expected " + dstLength + " bytes, decompressed " + dp);
+        }
+    }
+
+    private static int writeSequence(
+            final byte[] src,
+            final int literalsStart,
+            final int literalLength,
+            final int offset,
+            final int matchLength,
+            final byte[] dst,
+            int dp) {
+        final int tokenPos = dp++;
+        int token;
+        if (literalLength >= RUN_MASK) {
+            token = RUN_MASK << ML_BITS;
+            dp = writeLength(literalLength - RUN_MASK, dst, dp);
+        } else {
+            token = literalLength << ML_BITS;
+        }
+        System.arraycopy(src, literalsStart, dst, dp, literalLength);
+        dp += literalLength;
+        dst[dp++] = (byte) offset;
+        dst[dp++] = (byte) (offset >>> 8);
+        final int extraMatchLength = matchLength - MIN_MATCH;
+        if (extraMatchLength >= ML_MASK) {
+            token |= ML_MASK;
+            dp = writeLength(extraMatchLength - ML_MASK, dst, dp);
+        } else {
+            token |= extraMatchLength;
+        }
+        dst[tokenPos] = (byte) token;
+        return dp;
+    }
+
+    private static int writeLastLiterals(
+            final byte[] src, final int literalsStart, final int literalLength, final byte[] dst, int dp) {
+        if (literalLength >= RUN_MASK) {
+            dst[dp++] = (byte) (RUN_MASK << ML_BITS);
+            dp = writeLength(literalLength - RUN_MASK, dst, dp);
+        } else {
+            dst[dp++] = (byte) (literalLength << ML_BITS);
+        }
+        System.arraycopy(src, literalsStart, dst, dp, literalLength);
+        return dp + literalLength;
+    }
+
+    private static int writeLength(int length, final byte[] dst, int dp) {
+        while (length >= 0xFF) {
+            dst[dp++] = (byte) 0xFF;
+            length -= 0xFF;
+        }
+        dst[dp++] = (byte) length;
+        return dp;
+    }
+
+    private static int readInt(final byte[] src, final int pos) {
+        return (src[pos] & 0xFF)
+                | ((src[pos + 1] & 0xFF) << 8)
+                | ((src[pos + 2] & 0xFF) << 16)
+                | ((src[pos + 3] & 0xFF) << 24);
+    }
+
+    private static int hash(final int sequence) {
+        return (sequence * -1640531535) >>> (Integer.SIZE - HASH_LOG);
+    }
+
+    private static IOException malformed(final String message) {
+        return new IOException("Malformed LZ4 block: " + message);
+    }
+}
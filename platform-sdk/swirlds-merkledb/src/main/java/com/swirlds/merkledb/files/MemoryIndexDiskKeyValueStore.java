@@ -23,6 +23,8 @@ import com.swirlds.merkledb.FileStatisticAware;
 import com.swirlds.merkledb.KeyRange;
 import com.swirlds.merkledb.Snapshotable;
 import com.swirlds.merkledb.collections.LongList;
+import com.swirlds.merkledb.collections.LongListDisk;
+import com.swirlds.merkledb.config.DataFileCompression;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -81,12 +83,43 @@ public class MemoryIndexDiskKeyValueStore implements AutoCloseable, Snapshotable
             final LoadedDataCallback loadedDataCallback,
             final LongList keyToDiskLocationIndex)
             throws IOException {
+        this(
+                config,
+                storeDir,
+                storeName,
+                legacyStoreName,
+                DataFileCompression.NONE,
+                loadedDataCallback,
+                keyToDiskLocationIndex);
+    }
+
+    /**
+     * Construct a new MemoryIndexDiskKeyValueStore with the given compression mode for new data files.
+     *
+     * @param storeDir The directory to store data files in
+     * @param storeName The name for the data store, this allows more than one data store in a single directory.
+     * @param legacyStoreName Base name for the data store. If not null, the store will process files with this prefix at startup. New files in the store will be prefixed with {@code storeName}
+     * @param compression compression mode for new data files, see {@link DataFileCompression}
+     * @param loadedDataCallback call back for handing loaded data from existing files on startup. Can be null if not needed.
+     * @param keyToDiskLocationIndex The index to use for keys to disk locations
+     * @throws IOException If there was a problem opening data files
+     */
+    public MemoryIndexDiskKeyValueStore(
+            final MerkleDbConfig config,
+            final Path storeDir,
+            final String storeName,
+            final String legacyStoreName,
+            final String compression,
+            final LoadedDataCallback loadedDataCallback,
+            final LongList keyToDiskLocationIndex)
+            throws IOException {
         this.storeName = storeName;
         index = keyToDiskLocationIndex;
         // create store dir
         Files.createDirectories(storeDir);
         // create file collection
-        fileCollection = new DataFileCollection(config, storeDir, storeName, legacyStoreName, loadedDataCallback);
+        fileCollection =
+                new DataFileCollection(config, storeDir, storeName, legacyStoreName, compression, loadedDataCallback);
     }
 
     /**
@@ -123,7 +156,15 @@ public class MemoryIndexDiskKeyValueStore implements AutoCloseable, Snapshotable
             throws IOException {
         final long dataLocation = fileCollection.storeDataItem(dataItemWriter, dataItemSize);
         // store data location in index
-        index.put(key, dataLocation);
+        if (index instanceof LongListDisk) {
+            // Reading the old location would cost an extra random disk read per put. Garbage in
+            // such stores is only estimated when the index is scanned during compactions
+            index.put(key, dataLocation);
+        } else {
+            // the previous data item for the key, if any, is garbage now. The location is swapped
+            // atomically, so a concurrent compaction can't move the old item to another file
+            fileCollection.markDataItemDead(index.getAndPut(key, dataLocation));
+        }
     }
 
     /**
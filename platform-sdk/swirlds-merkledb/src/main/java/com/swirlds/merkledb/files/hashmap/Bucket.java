@@ -31,6 +31,7 @@ import com.hedera.pbj.runtime.io.buffer.Bytes;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -209,6 +210,49 @@ public sealed class Bucket implements Closeable permits ParsedBucket {
         }
     }
 
+    /**
+     * Calls the given action for the key hash code of every entry in this bucket.
+     *
+     * @param action the action to call
+     */
+    public void forEachKeyHashCode(final IntConsumer action) {
+        bucketData.resetPosition();
+        while (bucketData.hasRemaining()) {
+            final int tag = bucketData.readVarInt(false);
+            final int fieldNum = tag >> TAG_FIELD_OFFSET;
+            if (fieldNum == FIELD_BUCKET_INDEX.number()) {
+                bucketData.skip(Integer.BYTES);
+            } else if (fieldNum == FIELD_BUCKET_ENTRIES.number()) {
+                final int entrySize = bucketData.readVarInt(false);
+                final long nextEntryOffset = bucketData.position() + entrySize;
+                final long oldLimit = bucketData.limit();
+                bucketData.limit(nextEntryOffset);
+                try {
+                    while (bucketData.hasRemaining()) {
+                        final int entryTag = bucketData.readVarInt(false);
+                        final int entryFieldNum = entryTag >> TAG_FIELD_OFFSET;
+                        if (entryFieldNum == FIELD_BUCKETENTRY_HASHCODE.number()) {
+                            action.accept(bucketData.readInt());
+                            break;
+                        } else if (entryFieldNum == FIELD_BUCKETENTRY_VALUE.number()) {
+                            bucketData.skip(Long.BYTES);
+                        } else if (entryFieldNum == FIELD_BUCKETENTRY_KEYBYTES.number()) {
+                            final int entryKeyBytesSize = bucketData.readVarInt(false);
+                            bucketData.skip(entryKeyBytesSize);
+                        } else {
+                            throw new IllegalArgumentException("Unknown bucket entry field: " + entryFieldNum);
+                        }
+                    }
+                } finally {
+                    bucketData.limit(oldLimit);
+                    bucketData.position(nextEntryOffset);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown bucket field: " + fieldNum);
+            }
+        }
+    }
+
     /**
      * Put a key/value entry into this bucket.
      *
@@ -240,22 +284,7 @@ public sealed class Bucket implements Closeable permits ParsedBucket {
                 if (needCheckOldValue && (oldValue != result.entryValue)) {
                     return;
                 }
-                final long nextEntryOffset = result.entryOffset() + result.entrySize();
-                final long remainderSize = bucketData.length() - nextEntryOffset;
-                if (remainderSize > 0) {
-                    final BufferedData remainder = bucketData.slice(nextEntryOffset, remainderSize);
-                    bucketData.position(result.entryOffset());
-                    bucketData.writeBytes(remainder);
-                }
-                if (bucketIndexFieldOffset > result.entryOffset()) {
-                    // It should not happen with default implementation, but if buckets are serialized
-                    // using 3rd-party tools, field order may be arbitrary, and "bucket index" field
-                    // may be after the deleted entry
-                    bucketIndexFieldOffset -= result.entrySize();
-                }
-                bucketData.position(0); // limit() doesn't work if the new limit is less than the current pos
-                bucketData.limit(result.entryOffset() + remainderSize);
-                entryCount--;
+                removeEntry(result.entryOffset(), result.entrySize());
             } else {
                 // entry not found, nothing to delete
             }
@@ -278,6 +307,80 @@ public sealed class Bucket implements Closeable permits ParsedBucket {
         }
     }
 
+    /**
+     * Sets the index of this bucket and removes all entries that don't belong to the bucket,
+     * i.e. entries with key hash codes that don't match the bucket index under the given mask.
+     * This method is used when buckets are split as the map grows.
+     *
+     * @param index the new bucket index
+     * @param bucketIndexMask the mask to apply to key hash codes to get bucket indices
+     */
+    public void sanitize(final int index, final int bucketIndexMask) {
+        setBucketIndex(index);
+        bucketData.resetPosition();
+        while (bucketData.hasRemaining()) {
+            final long fieldOffset = bucketData.position();
+            final int tag = bucketData.readVarInt(false);
+            final int fieldNum = tag >> TAG_FIELD_OFFSET;
+            if (fieldNum == FIELD_BUCKET_INDEX.number()) {
+                bucketData.skip(Integer.BYTES);
+            } else if (fieldNum == FIELD_BUCKET_ENTRIES.number()) {
+                final int entrySize = bucketData.readVarInt(false);
+                final long nextEntryOffset = bucketData.position() + entrySize;
+                int entryHashCode = index;
+                final long oldLimit = bucketData.limit();
+                bucketData.limit(nextEntryOffset);
+                try {
+                    while (bucketData.hasRemaining()) {
+                        final int entryTag = bucketData.readVarInt(false);
+                        final int entryFieldNum = entryTag >> TAG_FIELD_OFFSET;
+                        if (entryFieldNum == FIELD_BUCKETENTRY_HASHCODE.number()) {
+                            entryHashCode = bucketData.readInt();
+                            break;
+                        } else if (entryFieldNum == FIELD_BUCKETENTRY_VALUE.number()) {
+                            bucketData.skip(Long.BYTES);
+                        } else if (entryFieldNum == FIELD_BUCKETENTRY_KEYBYTES.number()) {
+                            final int entryKeyBytesSize = bucketData.readVarInt(false);
+                            bucketData.skip(entryKeyBytesSize);
+                        } else {
+                            throw new IllegalArgumentException("Unknown bucket entry field: " + entryFieldNum);
+                        }
+                    }
+                } finally {
+                    bucketData.limit(oldLimit);
+                }
+                if ((entryHashCode & bucketIndexMask) != index) {
+                    removeEntry(fieldOffset, Math.toIntExact(nextEntryOffset - fieldOffset));
+                    // the next entry is now at the removed entry offset
+                    bucketData.position(fieldOffset);
+                } else {
+                    bucketData.position(nextEntryOffset);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown bucket field: " + fieldNum);
+            }
+        }
+    }
+
+    private void removeEntry(final long entryOffset, final int entrySize) {
+        final long nextEntryOffset = entryOffset + entrySize;
+        final long remainderSize = bucketData.length() - nextEntryOffset;
+        if (remainderSize > 0) {
+            final BufferedData remainder = bucketData.slice(nextEntryOffset, remainderSize);
+            bucketData.position(entryOffset);
+            bucketData.writeBytes(remainder);
+        }
+        if (bucketIndexFieldOffset > entryOffset) {
+            // It should not happen with default implementation, but if buckets are serialized
+            // using 3rd-party tools, field order may be arbitrary, and "bucket index" field
+            // may be after the deleted entry
+            bucketIndexFieldOffset -= entrySize;
+        }
+        bucketData.position(0); // limit() doesn't work if the new limit is less than the current pos
+        bucketData.limit(entryOffset + remainderSize);
+        entryCount--;
+    }
+
     private void writeNewEntry(final int hashCode, final long value, final Bytes key) {
         final long entryOffset = bucketData.limit();
         final int keySize = Math.toIntExact(key.length());
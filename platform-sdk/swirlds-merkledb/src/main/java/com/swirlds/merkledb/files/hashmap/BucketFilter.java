@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files.hashmap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A set of small Bloom filters, one per {@link HalfDiskHashMap} bucket, over key hash codes
+ * stored in the buckets. If a filter reports that a bucket doesn't contain a hash code, there
+ * is no need to read the bucket from disk to look the key up.
+ *
+ * <p>Filters are kept in RAM, each filter takes the same number of bits, a multiple of 64.
+ * Bits for a hash code are derived from the full 32-bit key hash code, not only from its
+ * lower bits used to compute bucket indices, since all keys in a bucket share these lower bits.
+ *
+ * <p>This class is thread safe. Filter bits may be updated in one thread while other threads
+ * are checking them. It's up to the caller to make sure there are no false negatives during
+ * updates, e.g. by calling {@link #addAll(Bucket)} before a bucket on disk is replaced and
+ * {@link #reset(Bucket)} after that. The filter may grow to cover more buckets as the map
+ * grows, see {@link #resize(int)}.
+ */
+final class BucketFilter {
+
+    /** Filter file format version */
+    private static final int FILE_FORMAT_VERSION = 1;
+
+    /** Number of bits set in a filter for every hash code */
+    private static final int NUM_OF_HASHES = 3;
+
+    /** Number of longs used by a filter of a single bucket */
+    private final int longsPerBucket;
+
+    /** Number of bits in a filter of a single bucket */
+    private final int bitsPerBucket;
+
+    /** Filter bits for all buckets, bucket N filter starts at index N * longsPerBucket */
+    private volatile AtomicLongArray bits;
+
+    /**
+     * Creates a new empty filter.
+     *
+     * @param numOfBuckets number of buckets to cover
+     * @param bitsPerBucket number of filter bits per bucket, rounded up to a multiple of 64
+     */
+    BucketFilter(final int numOfBuckets, final int bitsPerBucket) {
+        if (numOfBuckets <= 0) {
+            throw new IllegalArgumentException("Number of buckets must be positive: " + numOfBuckets);
+        }
+        if (bitsPerBucket <= 0) {
+            throw new IllegalArgumentException("Number of bits per bucket must be positive: " + bitsPerBucket);
+        }
+        this.longsPerBucket = (bitsPerBucket + Long.SIZE - 1) / Long.SIZE;
+        this.bitsPerBucket = longsPerBucket * Long.SIZE;
+        this.bits = new AtomicLongArray(totalLongs(numOfBuckets));
+    }
+
+    /**
+     * Loads a filter from the given file. If the file was written for fewer buckets than expected
+     * or a different number of bits per bucket, or has an unknown format, this method returns null.
+     *
+     * @param file the file to load the filter from
+     * @param numOfBuckets minimum expected number of buckets
+     * @param bitsPerBucket expected number of filter bits per bucket
+     * @return the loaded filter, or null if the file doesn't match the expected parameters
+     * @throws IOException if an I/O error occurred
+     */
+    static BucketFilter loadFromFile(final Path file, final int numOfBuckets, final int bitsPerBucket)
+            throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            final int fileVersion = in.readInt();
+            final int fileNumOfBuckets = in.readInt();
+            final int fileLongsPerBucket = in.readInt();
+            if ((fileVersion != FILE_FORMAT_VERSION) || (fileNumOfBuckets < numOfBuckets)) {
+                return null;
+            }
+            final BucketFilter filter = new BucketFilter(fileNumOfBuckets, bitsPerBucket);
+            if (fileLongsPerBucket != filter.longsPerBucket) {
+                return null;
+            }
+            final AtomicLongArray filterBits = filter.bits;
+            for (int i = 0; i < filterBits.length(); i++) {
+                filterBits.set(i, in.readLong());
+            }
+            return filter;
+        }
+    }
+
+    /**
+     * Writes this filter to the given file.
+     *
+     * @param file the file to write the filter to
+     * @throws IOException if an I/O error occurred
+     */
+    void writeToFile(final Path file) throws IOException {
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            final AtomicLongArray currentBits = bits;
+            out.writeInt(FILE_FORMAT_VERSION);
+            out.writeInt(currentBits.length() / longsPerBucket);
+            out.writeInt(longsPerBucket);
+            for (int i = 0; i < currentBits.length(); i++) {
+                out.writeLong(currentBits.get(i));
+            }
+        }
+    }
+
+    /**
+     * Checks if a key with the given hash code may be stored in the given bucket.
+     *
+     * @param bucketIndex the bucket index
+     * @param keyHashCode the key hash code
+     * @return false if the key is definitely not in the bucket, true otherwise
+     */
+    boolean mightContain(final int bucketIndex, final int keyHashCode) {
+        final AtomicLongArray currentBits = bits;
+        final int base = bucketIndex * longsPerBucket;
+        final long mixed = mix(keyHashCode);
+        final int h1 = (int) mixed;
+        final int h2 = (int) (mixed >>> 32);
+        for (int i = 0; i < NUM_OF_HASHES; i++) {
+            final int bit = bitIndex(h1, h2, i);
+            if ((currentBits.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a single hash code to the given bucket filter.
+     *
+     * @param bucketIndex the bucket index
+     * @param keyHashCode the key hash code
+     */
+    void add(final int bucketIndex, final int keyHashCode) {
+        final AtomicLongArray currentBits = bits;
+        final int base = bucketIndex * longsPerBucket;
+        final long mixed = mix(keyHashCode);
+        final int h1 = (int) mixed;
+        final int h2 = (int) (mixed >>> 32);
+        for (int i = 0; i < NUM_OF_HASHES; i++) {
+            final int bit = bitIndex(h1, h2, i);
+            final int index = base + (bit >>> 6);
+            final long mask = 1L << bit;
+            long current = currentBits.get(index);
+            while ((current & mask) == 0) {
+                if (currentBits.compareAndSet(index, current, current | mask)) {
+                    break;
+                }
+                current = currentBits.get(index);
+            }
+        }
+    }
+
+    /**
+     * Adds hash codes of all entries in the given bucket to the bucket filter. Bits already
+     * set in the filter are preserved.
+     *
+     * @param bucket the bucket
+     */
+    void addAll(final Bucket bucket) {
+        final int bucketIndex = bucket.getBucketIndex();
+        bucket.forEachKeyHashCode(hashCode -> add(bucketIndex, hashCode));
+    }
+
+    /**
+     * Replaces the given bucket filter with a filter built from hash codes of all entries in
+     * the bucket. Filter words are replaced one by one, so for any hash code that was added to
+     * the filter before and is still in the bucket, {@link #mightContain(int, int)} keeps
+     * returning true while this method is running.
+     *
+     * @param bucket the bucket
+     */
+    void reset(final Bucket bucket) {
+        final int bucketIndex = bucket.getBucketIndex();
+        final long[] newBits = new long[longsPerBucket];
+        bucket.forEachKeyHashCode(hashCode -> {
+            final long mixed = mix(hashCode);
+            final int h1 = (int) mixed;
+            final int h2 = (int) (mixed >>> 32);
+            for (int i = 0; i < NUM_OF_HASHES; i++) {
+                final int bit = bitIndex(h1, h2, i);
+                newBits[bit >>> 6] |= 1L << bit;
+            }
+        });
+        final AtomicLongArray currentBits = bits;
+        final int base = bucketIndex * longsPerBucket;
+        for (int i = 0; i < longsPerBucket; i++) {
+            currentBits.set(base + i, newBits[i]);
+        }
+    }
+
+    /**
+     * Clears the given bucket filter, e.g. when the bucket is removed.
+     *
+     * @param bucketIndex the bucket index
+     */
+    void clear(final int bucketIndex) {
+        final AtomicLongArray currentBits = bits;
+        final int base = bucketIndex * longsPerBucket;
+        for (int i = 0; i < longsPerBucket; i++) {
+            currentBits.set(base + i, 0);
+        }
+    }
+
+    /**
+     * Returns the number of buckets covered by this filter.
+     */
+    int getNumOfBuckets() {
+        return bits.length() / longsPerBucket;
+    }
+
+    /**
+     * Grows this filter to cover the given number of buckets. Filters of existing buckets are
+     * preserved, filters of new buckets are empty. If the filter already covers the given number
+     * of buckets, this method is a no-op.
+     *
+     * <p>This method must not be called concurrently with methods that update filter bits. It
+     * may be called concurrently with {@link #mightContain(int, int)}.
+     *
+     * @param newNumOfBuckets the number of buckets to cover
+     */
+    void resize(final int newNumOfBuckets) {
+        final AtomicLongArray oldBits = bits;
+        if (newNumOfBuckets <= oldBits.length() / longsPerBucket) {
+            return;
+        }
+        final AtomicLongArray newBits = new AtomicLongArray(totalLongs(newNumOfBuckets));
+        for (int i = 0; i < oldBits.length(); i++) {
+            newBits.set(i, oldBits.get(i));
+        }
+        bits = newBits;
+    }
+
+    /**
+     * Returns the size of this filter in RAM, in bytes.
+     */
+    long getSizeInBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    private int totalLongs(final int numOfBuckets) {
+        final long totalLongs = (long) numOfBuckets * longsPerBucket;
+        if (totalLongs > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Bucket filter is too large: " + numOfBuckets + " buckets, " + bitsPerBucket + " bits per bucket");
+        }
+        return (int) totalLongs;
+    }
+
+    private int bitIndex(final int h1, final int h2, final int i) {
+        // Kirsch-Mitzenmacher double hashing: g_i(x) = h1(x) + i * h2(x)
+        return Math.floorMod(h1 + i * h2, bitsPerBucket);
+    }
+
+    /**
+     * Spreads bits of a 32-bit hash code over 64 bits. This is the finalization step of
+     * MurmurHash3 64-bit variant.
+     */
+    private static long mix(final int hashCode) {
+        long h = hashCode;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
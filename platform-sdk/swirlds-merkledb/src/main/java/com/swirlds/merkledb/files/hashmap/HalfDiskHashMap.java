@@ -18,6 +18,7 @@ package com.swirlds.merkledb.files.hashmap;
 
 import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
+import static com.swirlds.merkledb.files.DataFileCommon.NON_EXISTENT_DATA_LOCATION;
 import static java.util.Objects.requireNonNull;
 
 import com.hedera.pbj.runtime.io.buffer.BufferedData;
@@ -34,6 +35,7 @@ import com.swirlds.merkledb.collections.OffHeapUser;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileCollection;
 import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
+import com.swirlds.merkledb.files.DataFileCommon;
 import com.swirlds.merkledb.files.DataFileReader;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -46,6 +48,7 @@ import java.util.Iterator;
 import java.util.LongSummaryStatistics;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -70,10 +73,17 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
 
     /** The version number for format of current data files */
     private static final int METADATA_FILE_FORMAT_VERSION = 1;
+    /**
+     * The version number for format of metadata files of maps that can grow. In addition to
+     * the number of buckets, these files contain the split index and the number of entries
+     */
+    private static final int METADATA_FILE_FORMAT_VERSION_RESIZABLE = 2;
     /** Metadata file name suffix with extension. */
     private static final String METADATA_FILENAME_SUFFIX = "_metadata.hdhm";
     /** Bucket index file name suffix with extension */
     private static final String BUCKET_INDEX_FILENAME_SUFFIX = "_bucket_index.ll";
+    /** Bucket filter file name suffix with extension */
+    private static final String BUCKET_FILTER_FILENAME_SUFFIX = "_bucket_filter.bf";
     /**
      * A marker to indicate that a value should be deleted from the map, or that there is
      * no old value to compare against in putIfEqual/deleteIfEqual
@@ -88,6 +98,9 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
      */
     private static final long GOOD_AVERAGE_BUCKET_ENTRY_COUNT = 32;
 
+    /** The max number of buckets a map can grow to */
+    private static final int MAX_NUM_OF_BUCKETS = 1 << 30;
+
     /** The limit on the number of concurrent read tasks in {@code endWriting()} */
     private static final int MAX_IN_FLIGHT = 1024;
 
@@ -102,12 +115,32 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
     private final LongList bucketIndexToBucketLocation;
     /** DataFileCollection manages the files storing the buckets on disk */
     private final DataFileCollection fileCollection;
+    /**
+     * Per-bucket filters of key hash codes used to skip bucket reads for absent keys, or null
+     * if bucket filters are disabled
+     */
+    @Nullable
+    private final BucketFilter bucketFilter;
 
     /**
-     * This is the next power of 2 bigger than minimumBuckets. It needs to be a power of two, so
-     * that we can optimize and avoid the cost of doing a % to find the bucket index from hash code.
+     * Current bucket layout. The map grows using linear hashing: buckets are split one at a time,
+     * in order, starting from bucket 0. The higher 32 bits of the layout contain the number of
+     * buckets at the current level. It's initially the next power of 2 bigger than minimumBuckets,
+     * and it's always a power of two, so that we can optimize and avoid the cost of doing a % to
+     * find the bucket index from hash code. The lower 32 bits contain the split index, the index
+     * of the next bucket to split. Keys from buckets below the split index are distributed between
+     * the bucket and the bucket at (index + level number of buckets). When all buckets at the
+     * current level are split, the level number of buckets is doubled, and the split index is reset
+     * to zero.
+     *
+     * <p>Both components are stored in a single volatile field, so readers always see a consistent
+     * layout. The layout is only changed on the writing thread in {@link #endWriting()}.
      */
-    private final int numOfBuckets;
+    private volatile long bucketLayout;
+    /** Approximate number of entries in this map, used to decide when to split buckets */
+    private final AtomicLong numOfEntries = new AtomicLong();
+    /** Max number of buckets to split in a single flush, or zero if this map doesn't grow */
+    private final int maxBucketSplitsPerFlush;
     /**
      * The requested max size for the map, this is the maximum number of key/values expected to be
      * stored in this map.
@@ -222,6 +255,14 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         this.mapSize = mapSize;
         this.storeName = storeName;
         Path indexFile = storeDir.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX);
+        final Path filterFile = storeDir.resolve(storeName + BUCKET_FILTER_FILENAME_SUFFIX);
+        final int bucketFilterBits = merkleDbConfig.halfDiskHashMapBucketFilterBits();
+        // true if the bucket filter can't be loaded from disk and has to be rebuilt from buckets
+        boolean rebuildBucketFilter = false;
+        this.maxBucketSplitsPerFlush = merkleDbConfig.halfDiskHashMapMaxBucketSplitsPerFlush();
+        // true if the number of entries isn't known from metadata and has to be counted
+        boolean countEntries = false;
+        final int numOfBuckets;
         // create bucket pool
         this.bucketPool = new ReusableBucketPool(Bucket::new);
         // load or create new
@@ -238,15 +279,26 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
             if (Files.exists(metaDataFile)) {
                 try (DataInputStream metaIn = new DataInputStream(Files.newInputStream(metaDataFile))) {
                     final int fileVersion = metaIn.readInt();
-                    if (fileVersion != METADATA_FILE_FORMAT_VERSION) {
+                    if ((fileVersion != METADATA_FILE_FORMAT_VERSION)
+                            && (fileVersion != METADATA_FILE_FORMAT_VERSION_RESIZABLE)) {
                         throw new IOException("Tried to read a file with incompatible file format version ["
                                 + fileVersion
                                 + "], expected ["
                                 + METADATA_FILE_FORMAT_VERSION
+                                + "] or ["
+                                + METADATA_FILE_FORMAT_VERSION_RESIZABLE
                                 + "].");
                     }
                     metaIn.readInt(); // backwards compatibility, was: minimumBuckets
-                    numOfBuckets = metaIn.readInt();
+                    final int levelNumOfBuckets = metaIn.readInt();
+                    if (fileVersion == METADATA_FILE_FORMAT_VERSION_RESIZABLE) {
+                        bucketLayout = bucketLayout(levelNumOfBuckets, metaIn.readInt());
+                        numOfEntries.set(metaIn.readLong());
+                    } else {
+                        bucketLayout = bucketLayout(levelNumOfBuckets, 0);
+                        countEntries = maxBucketSplitsPerFlush > 0;
+                    }
+                    numOfBuckets = numOfBuckets(bucketLayout);
                 }
                 if (loadedLegacyMetadata) {
                     Files.delete(metaDataFile);
@@ -267,15 +319,34 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
                         ? new LongListDisk(indexFile, configuration)
                         : new LongListOffHeap(indexFile, configuration);
                 loadedDataCallback = null;
+                if (bucketFilterBits > 0) {
+                    final BucketFilter loadedFilter = Files.exists(filterFile)
+                            ? BucketFilter.loadFromFile(filterFile, numOfBuckets, bucketFilterBits)
+                            : null;
+                    rebuildBucketFilter = loadedFilter == null;
+                    bucketFilter =
+                            rebuildBucketFilter ? new BucketFilter(numOfBuckets, bucketFilterBits) : loadedFilter;
+                } else {
+                    bucketFilter = null;
+                }
             } else {
                 // create new index and setup call back to rebuild
                 bucketIndexToBucketLocation =
                         preferDiskBasedIndex ? new LongListDisk(indexFile, configuration) : new LongListOffHeap();
+                // bucket filter, if enabled, is rebuilt along with the index. Buckets are loaded
+                // from older to newer files, filter bits for obsolete bucket copies are not cleared,
+                // which may only result in some false positives
+                final BucketFilter filter =
+                        bucketFilterBits > 0 ? new BucketFilter(numOfBuckets, bucketFilterBits) : null;
                 loadedDataCallback = (dataLocation, bucketData) -> {
                     final Bucket bucket = bucketPool.getBucket();
                     bucket.readFrom(bucketData);
                     bucketIndexToBucketLocation.put(bucket.getBucketIndex(), dataLocation);
+                    if (filter != null) {
+                        filter.addAll(bucket);
+                    }
                 };
+                bucketFilter = filter;
             }
         } else {
             // create store dir
@@ -287,8 +358,11 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
             final int minimumBuckets = (int) (mapSize / GOOD_AVERAGE_BUCKET_ENTRY_COUNT);
             // numOfBuckets is the nearest power of two greater than minimumBuckets with a min of 2
             numOfBuckets = Math.max(Integer.highestOneBit(minimumBuckets) * 2, 2);
+            bucketLayout = bucketLayout(numOfBuckets, 0);
             // we are new so no need for a loadedDataCallback
             loadedDataCallback = null;
+            // new map, all bucket filters are empty
+            bucketFilter = bucketFilterBits > 0 ? new BucketFilter(numOfBuckets, bucketFilterBits) : null;
             // write metadata
             writeMetadata(storeDir);
             logger.info(
@@ -303,14 +377,24 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         fileCollection = new DataFileCollection(
                 // Need: propagate MerkleDb merkleDbConfig from the database
                 merkleDbConfig, storeDir, storeName, legacyStoreName, loadedDataCallback);
+        if (rebuildBucketFilter || countEntries) {
+            scanBuckets(rebuildBucketFilter, countEntries);
+        }
     }
 
     private void writeMetadata(final Path dir) throws IOException {
+        final long layout = bucketLayout;
+        // Old metadata format is used when possible to keep the files readable by older versions
+        final boolean resizable = (maxBucketSplitsPerFlush > 0) || (splitIndex(layout) != 0);
         try (DataOutputStream metaOut =
                 new DataOutputStream(Files.newOutputStream(dir.resolve(storeName + METADATA_FILENAME_SUFFIX)))) {
-            metaOut.writeInt(METADATA_FILE_FORMAT_VERSION);
+            metaOut.writeInt(resizable ? METADATA_FILE_FORMAT_VERSION_RESIZABLE : METADATA_FILE_FORMAT_VERSION);
             metaOut.writeInt(0); // backwards compatibility, was: minimumBuckets
-            metaOut.writeInt(numOfBuckets);
+            metaOut.writeInt(levelNumOfBuckets(layout));
+            if (resizable) {
+                metaOut.writeInt(splitIndex(layout));
+                metaOut.writeLong(numOfEntries.get());
+            }
             metaOut.flush();
         }
     }
@@ -321,6 +405,10 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         Files.createDirectories(snapshotDirectory);
         // write index to file
         bucketIndexToBucketLocation.writeToFile(snapshotDirectory.resolve(storeName + BUCKET_INDEX_FILENAME_SUFFIX));
+        // write bucket filter to file
+        if (bucketFilter != null) {
+            bucketFilter.writeToFile(snapshotDirectory.resolve(storeName + BUCKET_FILTER_FILENAME_SUFFIX));
+        }
         // snapshot files
         fileCollection.snapshot(snapshotDirectory);
         // write metadata
@@ -385,7 +473,7 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
             throw new IllegalStateException("Tried to write with different thread to startWriting()");
         }
         // store key and value in transaction cache
-        final int bucketIndex = computeBucketIndex(keyHashCode);
+        final int bucketIndex = computeBucketIndex(keyHashCode, bucketLayout);
         return oneTransactionsData.getIfAbsentPut(
                 bucketIndex, () -> new BucketMutation(keyBytes, keyHashCode, oldValue, value));
     }
@@ -504,8 +592,18 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
                 if (exceptionOccurred.get() != null) {
                     throw exceptionOccurred.get();
                 }
+            }
+            // Grow the map, if needed. Split buckets are written to the same data file
+            final int bucketsToSplit = numOfBucketsToSplit();
+            if (bucketsToSplit > 0) {
+                if (size == 0) {
+                    fileCollection.startWriting();
+                }
+                splitBuckets(bucketsToSplit);
+            }
+            if ((size > 0) || (bucketsToSplit > 0)) {
                 // close files session
-                dataFileReader = fileCollection.endWriting(0, numOfBuckets);
+                dataFileReader = fileCollection.endWriting(0, numOfBuckets(bucketLayout));
                 // we have updated all indexes so the data file can now be included in merges
                 dataFileReader.setFileCompleted();
             } else {
@@ -627,9 +725,16 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
                         throw new RuntimeException(
                                 "Bucket index integrity check " + bucketIndex + " != " + bucket.getBucketIndex());
                     }
+                    if (maxBucketSplitsPerFlush > 0) {
+                        // If the index was rebuilt from data files, the bucket may contain stale
+                        // entries from before the bucket was split, remove them
+                        bucket.sanitize(bucketIndex, bucketIndexMask(bucketIndex, bucketLayout));
+                    }
                 }
+                final int oldEntryCount = bucket.getBucketEntryCount();
                 // Apply all updates
                 keyUpdates.forEachKeyValue(bucket::putValue);
+                numOfEntries.addAndGet(bucket.getBucketEntryCount() - oldEntryCount);
                 // Schedule a "store bucket" task for this bucket
                 createAndScheduleStoreTask(bucket);
                 return true;
@@ -676,12 +781,24 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
                 final int bucketIndex = bucket.getBucketIndex();
                 if (bucket.isEmpty()) {
                     // bucket is missing or empty, remove it from the index
-                    bucketIndexToBucketLocation.remove(bucketIndex);
+                    updateBucketLocation(bucketIndex, NON_EXISTENT_DATA_LOCATION);
+                    if (bucketFilter != null) {
+                        bucketFilter.clear(bucketIndex);
+                    }
                 } else {
                     // save bucket
                     final long bucketLocation = fileCollection.storeDataItem(bucket::writeTo, bucket.sizeInBytes());
+                    // Bucket filter is updated in two steps. First, new hash codes are added to the
+                    // filter, so concurrent readers don't miss new keys once the index is updated.
+                    // Then, after the index is updated, the filter is replaced to drop deleted keys
+                    if (bucketFilter != null) {
+                        bucketFilter.addAll(bucket);
+                    }
                     // update bucketIndexToBucketLocation
-                    bucketIndexToBucketLocation.put(bucketIndex, bucketLocation);
+                    updateBucketLocation(bucketIndex, bucketLocation);
+                    if (bucketFilter != null) {
+                        bucketFilter.reset(bucket);
+                    }
                 }
                 next.send();
                 return true;
@@ -741,7 +858,28 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         if (keyBytes == null) {
             throw new IllegalArgumentException("Can not get a null key");
         }
-        final int bucketIndex = computeBucketIndex(keyHashCode);
+        long layout = bucketLayout;
+        while (true) {
+            final int bucketIndex = computeBucketIndex(keyHashCode, layout);
+            final long value = findValue(bucketIndex, keyBytes, keyHashCode, notFoundValue);
+            if (value != notFoundValue) {
+                return value;
+            }
+            // The bucket may have been split concurrently, and the key may have been moved to a
+            // different bucket. If the layout has changed, check the key again
+            final long currentLayout = bucketLayout;
+            if (currentLayout == layout) {
+                return notFoundValue;
+            }
+            layout = currentLayout;
+        }
+    }
+
+    private long findValue(final int bucketIndex, final Bytes keyBytes, final int keyHashCode, final long notFoundValue)
+            throws IOException {
+        if ((bucketFilter != null) && !bucketFilter.mightContain(bucketIndex, keyHashCode)) {
+            return notFoundValue;
+        }
         try (final Bucket bucket = readBucket(bucketIndex)) {
             if (bucket != null) {
                 return bucket.findValue(keyHashCode, keyBytes, notFoundValue);
@@ -750,6 +888,158 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         return notFoundValue;
     }
 
+    /**
+     * Reads all buckets from disk to rebuild the bucket filter and / or to count entries in this
+     * map. Used when the map is loaded from a snapshot without a bucket filter file, or with a
+     * filter file that doesn't match the current config, or from a snapshot without the number
+     * of entries in metadata.
+     */
+    private void scanBuckets(final boolean rebuildBucketFilter, final boolean countEntries) throws IOException {
+        assert !rebuildBucketFilter || (bucketFilter != null);
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "Scanning buckets in {}, rebuildBucketFilter={} countEntries={}",
+                storeName,
+                rebuildBucketFilter,
+                countEntries);
+        final int numOfBuckets = numOfBuckets(bucketLayout);
+        long entries = 0;
+        for (int i = 0; i < numOfBuckets; i++) {
+            try (final Bucket bucket = readBucket(i)) {
+                if (bucket != null) {
+                    if (rebuildBucketFilter) {
+                        bucketFilter.addAll(bucket);
+                    }
+                    entries += bucket.getBucketEntryCount();
+                }
+            }
+        }
+        if (countEntries) {
+            numOfEntries.set(entries);
+        }
+    }
+
+    /**
+     * Returns the number of buckets to split in the current flush. Buckets are split when
+     * the average number of entries per bucket exceeds {@link #GOOD_AVERAGE_BUCKET_ENTRY_COUNT}.
+     */
+    private int numOfBucketsToSplit() {
+        if (maxBucketSplitsPerFlush == 0) {
+            return 0;
+        }
+        final long targetNumOfBuckets =
+                Math.min(numOfEntries.get() / GOOD_AVERAGE_BUCKET_ENTRY_COUNT, MAX_NUM_OF_BUCKETS);
+        final long bucketsToSplit = targetNumOfBuckets - numOfBuckets(bucketLayout);
+        return (int) Math.max(0, Math.min(bucketsToSplit, maxBucketSplitsPerFlush));
+    }
+
+    /**
+     * Updates the location of the given bucket in the bucket index, or removes the bucket from the
+     * index, if the new location is {@link DataFileCommon#NON_EXISTENT_DATA_LOCATION}. The previous
+     * bucket data item, if any, is marked as garbage in its data file, unless the bucket index is
+     * disk based.
+     *
+     * @param bucketIndex the bucket index
+     * @param bucketLocation the new bucket location
+     */
+    private void updateBucketLocation(final int bucketIndex, final long bucketLocation) {
+        if (bucketIndexToBucketLocation instanceof LongListDisk) {
+            // Reading the old location would cost an extra random disk read per update. Garbage is
+            // only estimated when the index is scanned during compactions
+            if (bucketLocation == NON_EXISTENT_DATA_LOCATION) {
+                bucketIndexToBucketLocation.remove(bucketIndex);
+            } else {
+                bucketIndexToBucketLocation.put(bucketIndex, bucketLocation);
+            }
+            return;
+        }
+        // The location is swapped atomically, so a concurrent compaction can't move the old bucket
+        final long oldBucketLocation = (bucketLocation == NON_EXISTENT_DATA_LOCATION)
+                ? bucketIndexToBucketLocation.getAndRemove(bucketIndex)
+                : bucketIndexToBucketLocation.getAndPut(bucketIndex, bucketLocation);
+        fileCollection.markDataItemDead(oldBucketLocation);
+    }
+
+    /**
+     * Splits the given number of buckets starting from the current split index. Must be called on
+     * the writing thread, in a file collection writing session, after all bucket updates in the
+     * current flush are processed.
+     *
+     * <p>A bucket is split in three steps. First, keys that move to the new bucket are stored to
+     * disk, and the bucket index is updated. Second, the new layout is published, so readers start
+     * looking up the moved keys in the new bucket. Readers that computed bucket indices using the
+     * old layout may still read the old bucket, which contains all the keys. Third, the moved keys
+     * are removed from the old bucket. Readers that don't find a key check if the layout has changed
+     * and retry, if needed, see {@link #get(Bytes, int, long)}.
+     *
+     * @param count the number of buckets to split
+     * @throws IOException if an I/O error occurred
+     */
+    private void splitBuckets(final int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            final long layout = bucketLayout;
+            final int levelNumOfBuckets = levelNumOfBuckets(layout);
+            final int bucketIndex = splitIndex(layout);
+            final int newBucketIndex = bucketIndex + levelNumOfBuckets;
+            final int bucketIndexMask = (levelNumOfBuckets << 1) - 1;
+            bucketIndexToBucketLocation.updateValidRange(0, newBucketIndex);
+            if ((bucketFilter != null) && (bucketFilter.getNumOfBuckets() <= newBucketIndex)) {
+                bucketFilter.resize(levelNumOfBuckets << 1);
+            }
+            final BufferedData bucketData =
+                    fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex);
+            if (bucketData == null) {
+                // An empty bucket, nothing to move
+                bucketLayout = nextBucketLayout(layout);
+                continue;
+            }
+            try (final Bucket bucket = bucketPool.getBucket();
+                    final Bucket newBucket = bucketPool.getBucket()) {
+                final long bucketDataPosition = bucketData.position();
+                bucket.readFrom(bucketData);
+                bucketData.position(bucketDataPosition);
+                newBucket.readFrom(bucketData);
+                // Step 1: store the new bucket
+                newBucket.sanitize(newBucketIndex, bucketIndexMask);
+                if (!newBucket.isEmpty()) {
+                    if (bucketFilter != null) {
+                        bucketFilter.reset(newBucket);
+                    }
+                    final long newBucketLocation =
+                            fileCollection.storeDataItem(newBucket::writeTo, newBucket.sizeInBytes());
+                    updateBucketLocation(newBucketIndex, newBucketLocation);
+                }
+                // Step 2: publish the new layout
+                bucketLayout = nextBucketLayout(layout);
+                // Step 3: remove moved keys from the old bucket
+                final int oldEntryCount = bucket.getBucketEntryCount();
+                bucket.sanitize(bucketIndex, bucketIndexMask);
+                if (bucket.getBucketEntryCount() != oldEntryCount) {
+                    if (bucket.isEmpty()) {
+                        updateBucketLocation(bucketIndex, NON_EXISTENT_DATA_LOCATION);
+                        if (bucketFilter != null) {
+                            bucketFilter.clear(bucketIndex);
+                        }
+                    } else {
+                        final long bucketLocation = fileCollection.storeDataItem(bucket::writeTo, bucket.sizeInBytes());
+                        updateBucketLocation(bucketIndex, bucketLocation);
+                        if (bucketFilter != null) {
+                            bucketFilter.reset(bucket);
+                        }
+                    }
+                }
+            }
+        }
+        final long layout = bucketLayout;
+        logger.info(
+                MERKLE_DB.getMarker(),
+                "Split {} buckets in {}, levelNumOfBuckets={} splitIndex={}",
+                count,
+                storeName,
+                levelNumOfBuckets(layout),
+                splitIndex(layout));
+    }
+
     private Bucket readBucket(final int bucketIndex) throws IOException {
         final BufferedData bucketData = fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex);
         if (bucketData == null) {
@@ -771,10 +1061,14 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
                         HalfDiskHashMap Stats {
                         	mapSize = {}
                         	numOfBuckets = {}
+                        	splitIndex = {}
+                        	numOfEntries = {}
                         	GOOD_AVERAGE_BUCKET_ENTRY_COUNT = {}
                         }""",
                 mapSize,
-                numOfBuckets,
+                numOfBuckets(bucketLayout),
+                splitIndex(bucketLayout),
+                numOfEntries.get(),
                 GOOD_AVERAGE_BUCKET_ENTRY_COUNT);
     }
 
@@ -786,18 +1080,68 @@ public class HalfDiskHashMap implements AutoCloseable, Snapshotable, FileStatist
         return bucketIndexToBucketLocation;
     }
 
+    /**
+     * Returns the current number of buckets in this map. If the map is configured to grow, this
+     * number increases over time.
+     */
+    int getNumOfBuckets() {
+        return numOfBuckets(bucketLayout);
+    }
+
     // =================================================================================================================
     // Private API
 
     /**
-     * Computes which bucket a key with the given hash falls. Depends on the fact the numOfBuckets
-     * is a power of two. Based on same calculation that is used in java HashMap.
+     * Computes which bucket a key with the given hash falls. Depends on the fact the level number
+     * of buckets is a power of two. Based on same calculation that is used in java HashMap, plus
+     * linear hashing split index check.
      *
      * @param keyHash the int hash for key
+     * @param layout the bucket layout, see {@link #bucketLayout}
      * @return the index of the bucket that key falls in
      */
-    private int computeBucketIndex(final int keyHash) {
-        return (numOfBuckets - 1) & keyHash;
+    private static int computeBucketIndex(final int keyHash, final long layout) {
+        final int levelNumOfBuckets = levelNumOfBuckets(layout);
+        final int bucketIndex = (levelNumOfBuckets - 1) & keyHash;
+        if (bucketIndex < splitIndex(layout)) {
+            // the bucket is already split at this level
+            return ((levelNumOfBuckets << 1) - 1) & keyHash;
+        }
+        return bucketIndex;
+    }
+
+    /**
+     * Returns the mask to apply to key hash codes to check if they belong to the given bucket.
+     */
+    private static int bucketIndexMask(final int bucketIndex, final long layout) {
+        final int levelNumOfBuckets = levelNumOfBuckets(layout);
+        return (bucketIndex < splitIndex(layout)) || (bucketIndex >= levelNumOfBuckets)
+                ? (levelNumOfBuckets << 1) - 1
+                : levelNumOfBuckets - 1;
+    }
+
+    private static long bucketLayout(final int levelNumOfBuckets, final int splitIndex) {
+        return ((long) levelNumOfBuckets << 32) | splitIndex;
+    }
+
+    private static long nextBucketLayout(final long layout) {
+        final int levelNumOfBuckets = levelNumOfBuckets(layout);
+        final int splitIndex = splitIndex(layout) + 1;
+        return splitIndex == levelNumOfBuckets
+                ? bucketLayout(levelNumOfBuckets << 1, 0)
+                : bucketLayout(levelNumOfBuckets, splitIndex);
+    }
+
+    private static int levelNumOfBuckets(final long layout) {
+        return (int) (layout >>> 32);
+    }
+
+    private static int splitIndex(final long layout) {
+        return (int) layout;
+    }
+
+    private static int numOfBuckets(final long layout) {
+        return levelNumOfBuckets(layout) + splitIndex(layout);
     }
 
     private record ReadBucketResult(Bucket bucket, Throwable error) {
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -119,6 +120,25 @@ public final class ParsedBucket extends Bucket {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sanitize(final int index, final int bucketIndexMask) {
+        bucketIndex = index;
+        entries.removeIf(entry -> (entry.getHashCode() & bucketIndexMask) != index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachKeyHashCode(final IntConsumer action) {
+        for (final BucketEntry entry : entries) {
+            action.accept(entry.getHashCode());
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
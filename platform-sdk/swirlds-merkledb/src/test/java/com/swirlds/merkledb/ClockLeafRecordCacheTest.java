@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import static com.swirlds.merkledb.ClockLeafRecordCache.ENTRY_OVERHEAD_BYTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ClockLeafRecordCacheTest {
+
+    private static final int VALUE_SIZE = 64;
+
+    private static Bytes key(final int i) {
+        return Bytes.wrap(new byte[] {(byte) (i >>> 24), (byte) (i >>> 16), (byte) (i >>> 8), (byte) i});
+    }
+
+    private static VirtualLeafBytes leaf(final int i) {
+        return new VirtualLeafBytes(i, key(i), i, Bytes.wrap(new byte[VALUE_SIZE]));
+    }
+
+    private static long entrySize() {
+        return ENTRY_OVERHEAD_BYTES + Integer.BYTES + VALUE_SIZE;
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ClockLeafRecordCache(0, 1, () -> {}));
+        assertThrows(IllegalArgumentException.class, () -> new ClockLeafRecordCache(1024, 3, () -> {}));
+        assertThrows(IllegalArgumentException.class, () -> new ClockLeafRecordCache(1024, 0, () -> {}));
+    }
+
+    @Test
+    void putGetInvalidate() {
+        final ClockLeafRecordCache cache = new ClockLeafRecordCache(1024 * 1024, 4, () -> {});
+        for (int i = 0; i < 100; i++) {
+            cache.put(leaf(i), i);
+        }
+        for (int i = 0; i < 100; i++) {
+            final VirtualLeafBytes cached = cache.get(key(i), i);
+            assertNotNull(cached, "Entry should be cached");
+            assertEquals(i, cached.path(), "Wrong cached path");
+        }
+        assertNull(cache.get(key(100), 100), "Entry should not be cached");
+        cache.invalidate(key(5), 5);
+        assertNull(cache.get(key(5), 5), "Entry should be invalidated");
+        assertEquals(99 * entrySize(), cache.getSizeInBytes(), "Wrong cache size");
+    }
+
+    @Test
+    void updateExistingEntry() {
+        final ClockLeafRecordCache cache = new ClockLeafRecordCache(1024 * 1024, 1, () -> {});
+        cache.put(new VirtualLeafBytes(1, key(1), 1, null), 1);
+        final VirtualLeafBytes updated = leaf(1);
+        cache.put(updated, 1);
+        assertSame(updated, cache.get(key(1), 1), "Entry should be updated");
+        assertEquals(entrySize(), cache.getSizeInBytes(), "Wrong cache size");
+    }
+
+    @Test
+    void evictionRespectsCapacity() {
+        final int capacityEntries = 10;
+        final AtomicInteger evictions = new AtomicInteger();
+        final ClockLeafRecordCache cache =
+                new ClockLeafRecordCache(capacityEntries * entrySize(), 1, evictions::incrementAndGet);
+        for (int i = 0; i < 100; i++) {
+            cache.put(leaf(i), i);
+            assertTrue(cache.getSizeInBytes() <= capacityEntries * entrySize(), "Cache size exceeds capacity");
+        }
+        assertEquals(90, evictions.get(), "Wrong number of evictions");
+        final long cachedCount = IntStream.range(0, 100)
+                .filter(i -> cache.get(key(i), i) != null)
+                .count();
+        assertEquals(capacityEntries, cachedCount, "Wrong number of cached entries");
+    }
+
+    @Test
+    void referencedEntriesGetSecondChance() {
+        final int capacityEntries = 10;
+        final ClockLeafRecordCache cache = new ClockLeafRecordCache(capacityEntries * entrySize(), 1, () -> {});
+        for (int i = 0; i < capacityEntries; i++) {
+            cache.put(leaf(i), i);
+        }
+        // Hot entry, accessed before every new put
+        for (int i = capacityEntries; i < 1000; i++) {
+            assertNotNull(cache.get(key(0), 0), "Hot entry should stay in the cache");
+            cache.put(leaf(i), i);
+        }
+        assertNotNull(cache.get(key(0), 0), "Hot entry should stay in the cache");
+    }
+
+    @Test
+    void tooLargeEntriesAreNotCached() {
+        final ClockLeafRecordCache cache = new ClockLeafRecordCache(entrySize() - 1, 1, () -> {});
+        cache.put(leaf(1), 1);
+        assertNull(cache.get(key(1), 1), "Too large entry should not be cached");
+        assertEquals(0, cache.getSizeInBytes(), "Cache should be empty");
+    }
+}
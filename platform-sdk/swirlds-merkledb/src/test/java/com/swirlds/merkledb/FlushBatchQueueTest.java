@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class FlushBatchQueueTest {
+
+    @Test
+    void invalidBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> new FlushBatchQueue<Integer>(0), "Zero batch size");
+    }
+
+    @Test
+    void batchesAreSortedAndComplete() {
+        final FlushBatchQueue<Integer> queue = new FlushBatchQueue<>(100);
+        final CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            try {
+                IntStream.range(0, 10_000).map(i -> 9_999 - i).parallel().boxed().forEach(queue::put);
+            } finally {
+                queue.close();
+            }
+        });
+        final List<Integer> taken = new ArrayList<>();
+        final Iterator<Integer> iterator = queue.iterator(Comparator.naturalOrder());
+        while (iterator.hasNext()) {
+            taken.add(iterator.next());
+        }
+        producer.join();
+        assertEquals(10_000, taken.size(), "All records must be taken");
+        for (int start = 0; start < taken.size(); start += 100) {
+            final List<Integer> batch = taken.subList(start, start + 100);
+            final List<Integer> sorted = new ArrayList<>(batch);
+            sorted.sort(Comparator.naturalOrder());
+            assertEquals(sorted, batch, "Every batch must be sorted");
+        }
+        taken.sort(Comparator.naturalOrder());
+        assertEquals(IntStream.range(0, 10_000).boxed().toList(), taken, "No records must be lost or duplicated");
+    }
+
+    @Test
+    void lastBatchIsTakenAfterClose() throws InterruptedException {
+        final FlushBatchQueue<Integer> queue = new FlushBatchQueue<>(10);
+        for (int i = 0; i < 15; i++) {
+            queue.put(i);
+        }
+        queue.close();
+        assertEquals(10, queue.takeBatch().size(), "Full batch expected");
+        assertEquals(5, queue.takeBatch().size(), "Partial last batch expected");
+        assertTrue(queue.takeBatch().isEmpty(), "Closed and drained queue must return empty batches");
+        assertThrows(IllegalStateException.class, () -> queue.put(100), "Records can't be added after close");
+    }
+
+    @Test
+    void producerBlocksWhenQueueIsFull() throws Exception {
+        final FlushBatchQueue<Integer> queue = new FlushBatchQueue<>(10);
+        // The queue holds up to two batches
+        for (int i = 0; i < 20; i++) {
+            queue.put(i);
+        }
+        final CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> queue.put(20));
+        assertThrows(
+                Exception.class, () -> producer.get(200, TimeUnit.MILLISECONDS), "Producer must block on full queue");
+        assertEquals(10, queue.takeBatch().size(), "Full batch expected");
+        producer.get(10, TimeUnit.SECONDS);
+        queue.close();
+        assertEquals(10, queue.takeBatch().size(), "Full batch expected");
+        assertEquals(1, queue.takeBatch().size(), "Blocked record must be added");
+    }
+
+    @Test
+    void blockedProducerDoesNotStallForkJoinPool() throws Exception {
+        final FlushBatchQueue<Integer> queue = new FlushBatchQueue<>(10);
+        for (int i = 0; i < 20; i++) {
+            queue.put(i);
+        }
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            final CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> queue.put(20), pool);
+            // The only worker is blocked on the full queue, the pool must compensate to run this task
+            final CompletableFuture<Integer> consumer =
+                    CompletableFuture.supplyAsync(() -> assertDoesNotThrow(() -> queue.takeBatch().size()), pool);
+            assertEquals(10, consumer.get(10, TimeUnit.SECONDS), "Full batch expected");
+            producer.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void abortReleasesProducers() throws Exception {
+        final FlushBatchQueue<Integer> queue = new FlushBatchQueue<>(10);
+        for (int i = 0; i < 20; i++) {
+            queue.put(i);
+        }
+        final CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> queue.put(20));
+        assertFalse(queue.isAborted(), "Queue must not be aborted yet");
+        queue.abort();
+        producer.get(10, TimeUnit.SECONDS);
+        assertTrue(queue.isAborted(), "Queue must be aborted");
+        queue.put(21);
+        assertTrue(queue.takeBatch().isEmpty(), "Records must be dropped after abort");
+    }
+
+    @Test
+    void iteratorFailsWhenAborted() {
+        final FlushBatchQueue<Integer> queue = new FlushBatchQueue<>(10);
+        for (int i = 0; i < 15; i++) {
+            queue.put(i);
+        }
+        final Iterator<Integer> iterator = queue.iterator(Comparator.naturalOrder());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(iterator.hasNext(), "Records from the first batch expected");
+            iterator.next();
+        }
+        // A producer fails
+        queue.abort();
+        queue.close();
+        assertThrows(
+                UncheckedIOException.class,
+                iterator::hasNext,
+                "Aborted queue must not be reported as the end of records");
+    }
+}
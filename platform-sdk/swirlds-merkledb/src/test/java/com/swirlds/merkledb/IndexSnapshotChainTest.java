@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.hash;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.io.utility.FileUtils;
+import com.swirlds.merkledb.collections.HashListByteBuffer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IndexSnapshotChainTest {
+
+    private static final String FILE_NAME = "hashes.hl";
+
+    @Test
+    void deltasAreChainedAndMerged(@TempDir final Path tempDir) throws IOException {
+        final IndexSnapshotChain chain = new IndexSnapshotChain(2);
+        final HashListByteBuffer hashes = new HashListByteBuffer(10, 1000, false);
+        for (int i = 0; i < 100; i++) {
+            hashes.put(i, hash(i));
+        }
+        // the first snapshot is full
+        final Path file1 = snapshot(chain, hashes, tempDir.resolve("1"));
+        assertFalse(Files.exists(IndexSnapshotChain.deltaFile(file1, 1)), "First snapshot must be full");
+        // next snapshots are deltas
+        hashes.put(5, hash(1005));
+        final Path file2 = snapshot(chain, hashes, tempDir.resolve("2"));
+        assertTrue(Files.exists(IndexSnapshotChain.deltaFile(file2, 1)), "Second snapshot must have a delta");
+        checkRestored(hashes, file2, 1);
+        hashes.put(55, hash(1055));
+        final Path file3 = snapshot(chain, hashes, tempDir.resolve("3"));
+        assertTrue(Files.exists(IndexSnapshotChain.deltaFile(file3, 2)), "Third snapshot must have two deltas");
+        checkRestored(hashes, file3, 2);
+        // the chain is too long, the next snapshot is full again
+        hashes.put(95, hash(1095));
+        final Path file4 = snapshot(chain, hashes, tempDir.resolve("4"));
+        assertFalse(Files.exists(IndexSnapshotChain.deltaFile(file4, 1)), "Fourth snapshot must be full");
+        checkRestored(hashes, file4, 0);
+        hashes.close();
+    }
+
+    @Test
+    void fullSnapshotIfPreviousIsDeleted(@TempDir final Path tempDir) throws IOException {
+        final IndexSnapshotChain chain = new IndexSnapshotChain(10);
+        final HashListByteBuffer hashes = new HashListByteBuffer(10, 1000, false);
+        hashes.put(1, hash(1));
+        snapshot(chain, hashes, tempDir.resolve("1"));
+        FileUtils.deleteDirectory(tempDir.resolve("1"));
+        hashes.put(2, hash(2));
+        final Path file2 = snapshot(chain, hashes, tempDir.resolve("2"));
+        assertFalse(Files.exists(IndexSnapshotChain.deltaFile(file2, 1)), "Snapshot must be full");
+        checkRestored(hashes, file2, 0);
+        hashes.close();
+    }
+
+    @Test
+    void noDeltasIfDisabled(@TempDir final Path tempDir) throws IOException {
+        final IndexSnapshotChain chain = new IndexSnapshotChain(0);
+        final HashListByteBuffer hashes = new HashListByteBuffer(10, 1000, false);
+        hashes.put(1, hash(1));
+        snapshot(chain, hashes, tempDir.resolve("1"));
+        hashes.put(2, hash(2));
+        final Path file2 = snapshot(chain, hashes, tempDir.resolve("2"));
+        assertFalse(Files.exists(IndexSnapshotChain.deltaFile(file2, 1)), "Snapshot must be full");
+        hashes.close();
+    }
+
+    private static Path snapshot(final IndexSnapshotChain chain, final HashListByteBuffer hashes, final Path dir)
+            throws IOException {
+        Files.createDirectories(dir);
+        final Path file = dir.resolve(FILE_NAME);
+        chain.snapshot(hashes, file);
+        return file;
+    }
+
+    private static void checkRestored(final HashListByteBuffer expected, final Path file, final int expectedDeltas)
+            throws IOException {
+        final HashListByteBuffer restored = new HashListByteBuffer(file);
+        assertEquals(expectedDeltas, IndexSnapshotChain.applyDeltas(restored, file), "Unexpected number of deltas");
+        assertEquals(expected.size(), restored.size(), "Unexpected restored size");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), restored.get(i), "Unexpected restored hash " + i);
+        }
+        restored.close();
+    }
+}
@@ -84,6 +84,9 @@ class MerkleDbStatisticsTest {
         assertDoesNotThrow(statistics::countHashReads);
         assertDoesNotThrow(statistics::countLeafReads);
         assertDoesNotThrow(statistics::countLeafKeyReads);
+        assertDoesNotThrow(statistics::countLeafCacheHits);
+        assertDoesNotThrow(statistics::countLeafCacheMisses);
+        assertDoesNotThrow(statistics::countLeafCacheEvictions);
         assertDoesNotThrow(() -> statistics.setHashesStoreFileCount(42));
         assertDoesNotThrow(() -> statistics.setHashesStoreFileSizeMb(31415));
         assertDoesNotThrow(() -> statistics.setLeafKeysStoreFileCount(42));
@@ -105,6 +108,7 @@ class MerkleDbStatisticsTest {
         assertDoesNotThrow(() -> statistics.setOffHeapObjectKeyBucketsIndexMb(42));
         assertDoesNotThrow(() -> statistics.setOffHeapHashesListMb(42));
         assertDoesNotThrow(() -> statistics.setOffHeapDataSourceMb(42));
+        assertDoesNotThrow(() -> statistics.setLoadTimes(42, 42));
     }
 
     @Test
@@ -166,6 +170,71 @@ class MerkleDbStatisticsTest {
         assertValueSet(metric);
     }
 
+    @Test
+    void testCycleLeafCacheHits() {
+        // given
+        final Metric metric = getMetric("cache_", "leafHits_" + LABEL);
+        // when
+        statistics.countLeafCacheHits();
+        // then
+        assertValueSet(metric);
+    }
+
+    @Test
+    void testCycleLeafCacheMisses() {
+        // given
+        final Metric metric = getMetric("cache_", "leafMisses_" + LABEL);
+        // when
+        statistics.countLeafCacheMisses();
+        // then
+        assertValueSet(metric);
+    }
+
+    @Test
+    void testCycleLeafCacheEvictions() {
+        // given
+        final Metric metric = getMetric("cache_", "leafEvictions_" + LABEL);
+        // when
+        statistics.countLeafCacheEvictions();
+        // then
+        assertValueSet(metric);
+    }
+
+    @Test
+    void testSetLoadTimes() {
+        // given
+        final Metric indicesMetric = getMetric("load_", "indicesTimeMs_" + LABEL);
+        final Metric storesMetric = getMetric("load_", "storesTimeMs_" + LABEL);
+        // when
+        statistics.setLoadTimes(42, 43);
+        // then
+        assertValueSet(indicesMetric);
+        assertValueSet(storesMetric);
+    }
+
+    @Test
+    void testSetRebuiltIndexEntries() {
+        // given
+        final Metric metric = getMetric("load_", "rebuiltIndexEntries_" + LABEL);
+        // when
+        statistics.setRebuiltIndexEntries(1000);
+        // then
+        assertValueSet(metric);
+    }
+
+    @Test
+    void testLoadTimesSetBeforeRegister() {
+        // given
+        final MerkleDbStatistics notRegisteredStatistics =
+                new MerkleDbStatistics(configuration.getConfigData(MerkleDbConfig.class), LABEL + "_load");
+        // when
+        notRegisteredStatistics.setLoadTimes(42, 43);
+        notRegisteredStatistics.registerMetrics(metrics);
+        // then
+        assertValueSet(getMetric("load_", "indicesTimeMs_" + LABEL + "_load"));
+        assertValueSet(getMetric("load_", "storesTimeMs_" + LABEL + "_load"));
+    }
+
     @Test
     void testSetHashesStoreFileCount() {
         // given
@@ -21,6 +21,7 @@ import static com.swirlds.base.units.UnitConstants.MEBIBYTES_TO_BYTES;
 import static com.swirlds.merkledb.collections.AbstractLongList.FILE_HEADER_SIZE_V2;
 import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -30,6 +31,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -228,6 +230,84 @@ abstract class AbstractLongListTest<T extends AbstractLongList<?>> {
                         + "MB");
     }
 
+    @Test
+    @Order(7)
+    void getAndPut() {
+        try (final T list = createFullyParameterizedLongListWith(100, 10_000)) {
+            list.updateValidRange(0, 999);
+            assertEquals(LongList.IMPERMISSIBLE_VALUE, list.getAndPut(10, 11), "Index must not be set yet");
+            assertEquals(11, list.getAndPut(10, 12), "Previous value must be returned");
+            assertEquals(12, list.get(10, DEFAULT_VALUE), "New value must be stored");
+            assertFalse(list.putIfEqual(10, 11, 13), "Swapped value must not match the old value");
+            assertEquals(12, list.getAndRemove(10), "Previous value must be returned");
+            assertEquals(DEFAULT_VALUE, list.get(10, DEFAULT_VALUE), "Index must be cleared");
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> list.getAndPut(10, LongList.IMPERMISSIBLE_VALUE),
+                    "Should be illegal to put 0 in a LongList");
+        }
+    }
+
+    @Test
+    @Order(8)
+    void writeDeltasAndApply(@TempDir final Path tempDir) throws IOException {
+        final Path file = tempDir.resolve("LongListDeltaTest.ll");
+        try (final T list = createFullyParameterizedLongListWith(100, 10_000)) {
+            list.updateValidRange(0, 999);
+            for (int i = 0; i < 1000; i++) {
+                list.put(i, i + 1);
+            }
+            list.writeToFile(file);
+            // update a single chunk
+            list.put(450, 1450);
+            list.putIfEqual(451, 452, 1451);
+            final Path delta1 = tempDir.resolve("LongListDeltaTest.ll.delta1");
+            list.writeDeltaToFile(delta1);
+            assertTrue(Files.size(delta1) < Files.size(file) / 4, "Delta should only contain a single chunk");
+            // move the valid range, so chunks are cleaned up on the left and added on the right
+            list.updateValidRange(250, 1999);
+            list.put(1999, 2000);
+            final Path delta2 = tempDir.resolve("LongListDeltaTest.ll.delta2");
+            list.writeDeltaToFile(delta2);
+            // nothing is modified
+            final Path delta3 = tempDir.resolve("LongListDeltaTest.ll.delta3");
+            list.writeDeltaToFile(delta3);
+
+            try (final LongList restored = createLongListFromFile(file, CONFIGURATION)) {
+                restored.applyDeltaFromFile(delta1);
+                restored.applyDeltaFromFile(delta2);
+                restored.applyDeltaFromFile(delta3);
+                assertEquals(list.size(), restored.size(), "Unexpected value for restored.size()");
+                assertEquals(list.getMinValidIndex(), restored.getMinValidIndex(), "Min valid index mismatch");
+                assertEquals(list.getMaxValidIndex(), restored.getMaxValidIndex(), "Max valid index mismatch");
+                for (int i = 250; i < 2000; i++) {
+                    assertEquals(list.get(i, 0), restored.get(i, 0), "Longs don't match for " + i);
+                }
+                assertEquals(1450, restored.get(450, 0), "Value from the first delta is not applied");
+                assertEquals(2000, restored.get(1999, 0), "Value from the second delta is not applied");
+            }
+        }
+    }
+
+    @Test
+    @Order(9)
+    void putIfGreaterKeepsGreatestValue() {
+        try (final T list = createFullyParameterizedLongListWith(100, 10_000)) {
+            list.updateValidRange(0, 9_999);
+            assertTrue(list.putIfGreater(150, 10), "Value must be put to an empty chunk");
+            assertFalse(list.putIfGreater(150, 5), "Lesser value must not be put");
+            assertFalse(list.putIfGreater(150, 10), "Equal value must not be put");
+            assertTrue(list.putIfGreater(150, 20), "Greater value must be put");
+            assertEquals(20, list.get(150, 0), "Greatest value expected");
+            assertEquals(151, list.size(), "Size must be updated");
+            // concurrent updates, every index must get the greatest value
+            IntStream.range(0, 10_000).parallel().forEach(v -> list.putIfGreater(v % 100, v + 1));
+            for (int i = 0; i < 100; i++) {
+                assertEquals(9_901 + i, list.get(i, 0), "Greatest value expected at " + i);
+            }
+        }
+    }
+
     private void checkRange() {
         for (int i = 0; i < getSampleSize(); i++) {
             final long readValue = longList.get(i, 0);
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class DirtyChunkSetTest {
+
+    @Test
+    void markAndIterate() {
+        final DirtyChunkSet set = new DirtyChunkSet(200);
+        assertEquals(-1, set.nextMarked(0), "New set must be empty");
+        set.mark(0);
+        set.mark(63);
+        set.mark(64);
+        set.mark(199);
+        set.mark(64);
+        assertEquals(List.of(0, 63, 64, 199), marked(set), "Unexpected marked chunks");
+        assertEquals(64, set.nextMarked(64), "Start index is inclusive");
+        assertEquals(-1, set.nextMarked(200), "Start index is out of range");
+    }
+
+    @Test
+    void clear() {
+        final DirtyChunkSet set = new DirtyChunkSet(100);
+        set.mark(10);
+        set.mark(70);
+        assertTrue(set.clear(10), "Chunk was marked");
+        assertFalse(set.clear(10), "Chunk was already cleared");
+        assertEquals(List.of(70), marked(set), "Unexpected marked chunks");
+        set.clearAll();
+        assertEquals(-1, set.nextMarked(0), "All chunks must be cleared");
+    }
+
+    @Test
+    void concurrentMarks() {
+        final DirtyChunkSet set = new DirtyChunkSet(10_000);
+        IntStream.range(0, 10_000).parallel().filter(i -> i % 3 == 0).forEach(set::mark);
+        assertEquals(
+                IntStream.range(0, 10_000).filter(i -> i % 3 == 0).boxed().toList(),
+                marked(set),
+                "All marks must be set");
+    }
+
+    private static List<Integer> marked(final DirtyChunkSet set) {
+        final List<Integer> result = new ArrayList<>();
+        for (int i = set.nextMarked(0); i >= 0; i = set.nextMarked(i + 1)) {
+            result.add(i);
+        }
+        return result;
+    }
+}
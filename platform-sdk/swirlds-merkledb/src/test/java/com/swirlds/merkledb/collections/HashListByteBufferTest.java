@@ -267,6 +267,56 @@ class HashListByteBufferTest {
         Files.delete(file);
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Deltas only contain modified buffers and restore the list")
+    void testDeltaFiles(final boolean offHeap, @TempDir final Path testDir) throws IOException {
+        final Path file = testDir.resolve("HashListByteBufferTest.hl");
+        final HashListByteBuffer hashList = new HashListByteBuffer(20, 1000, offHeap);
+        for (int i = 0; i < 95; i++) {
+            hashList.put(i, hash(i));
+        }
+        hashList.writeToFile(file);
+        // update a single buffer
+        hashList.put(45, hash(1045));
+        final Path delta1 = testDir.resolve("HashListByteBufferTest.hl.delta1");
+        hashList.writeDeltaToFile(delta1);
+        assertTrue(Files.size(delta1) < Files.size(file) / 2, "Delta should only contain a single buffer");
+        // grow the list, skipping a few buffers
+        hashList.put(150, hash(150));
+        final Path delta2 = testDir.resolve("HashListByteBufferTest.hl.delta2");
+        hashList.writeDeltaToFile(delta2);
+        // nothing is modified
+        final Path delta3 = testDir.resolve("HashListByteBufferTest.hl.delta3");
+        hashList.writeDeltaToFile(delta3);
+
+        final HashListByteBuffer hashList2 = new HashListByteBuffer(file);
+        hashList2.applyDeltaFromFile(delta1);
+        hashList2.applyDeltaFromFile(delta2);
+        hashList2.applyDeltaFromFile(delta3);
+        assertEquals(hashList.size(), hashList2.size(), "Unexpected value for hashList2.size()");
+        for (int i = 0; i < hashList.size(); i++) {
+            assertEquals(hashList.get(i), hashList2.get(i), "Unexpected value for hashList2.get(" + i + ")");
+        }
+        assertEquals(hash(1045), hashList2.get(45), "Value from the first delta is not applied");
+        assertEquals(hash(150), hashList2.get(150), "Value from the second delta is not applied");
+        hashList.close();
+        hashList2.close();
+    }
+
+    @Test
+    @DisplayName("Deltas can't be applied to a list with different layout")
+    void testIncompatibleDeltaFile(@TempDir final Path testDir) throws IOException {
+        final Path delta = testDir.resolve("HashListByteBufferTest.hl.delta1");
+        final HashListByteBuffer hashList = new HashListByteBuffer(20, 1000, false);
+        hashList.put(5, hash(5));
+        hashList.writeDeltaToFile(delta);
+        final HashListByteBuffer hashList2 = new HashListByteBuffer(10, 1000, false);
+        assertThrows(IOException.class, () -> hashList2.applyDeltaFromFile(delta), "Layouts don't match");
+        hashList.close();
+        hashList2.close();
+    }
+
     private Stream<Arguments> provideLargeHashLists() {
         return Stream.of(
                 Arguments.of(createHashList(LARGE_HASHES_PER_BUFFER, LARGE_MAX_HASHES, false)),
@@ -29,6 +29,11 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -202,6 +207,27 @@ class LongListDiskTest {
         }
     }
 
+    @Test
+    void createDiskApplyDeltas() throws IOException {
+        longListDisk = new LongListDisk(NUM_LONGS_PER_CHUNK, SAMPLE_SIZE, 0, CONFIGURATION);
+        populateList(longListDisk);
+        final Path listFile = testDirectory.resolve("LongListDiskTest.ll");
+        longListDisk.writeToFile(listFile);
+        // update a single chunk
+        assertTrue(longListDisk.putIfEqual(10, 110, 123), "Unexpected value from putIfEqual()");
+        final Path deltaFile = testDirectory.resolve("LongListDiskTest.ll.delta1");
+        longListDisk.writeDeltaToFile(deltaFile);
+        assertTrue(Files.size(deltaFile) < Files.size(listFile) / 100, "Delta should only contain a single chunk");
+
+        try (final LongListDisk longListDiskRestored = new LongListDisk(listFile, CONFIGURATION)) {
+            longListDiskRestored.applyDeltaFromFile(deltaFile);
+            assertEquals(longListDisk.size(), longListDiskRestored.size(), "Unexpected size after delta");
+            assertEquals(123, longListDiskRestored.get(10, -1), "Value from the delta is not applied");
+            longListDiskRestored.put(10, 110); // put back
+            checkData(longListDiskRestored);
+        }
+    }
+
     @Test
     void testBackwardCompatibility_halfEmpty() throws URISyntaxException, IOException {
         final Path pathToList = ResourceLoader.getFile("test_data/LongListOffHeapHalfEmpty_10k_10pc_v1.ll");
@@ -330,6 +356,38 @@ class LongListDiskTest {
         }
     }
 
+    @Test
+    void testConcurrentPutsAndCas() throws Exception {
+        final int numThreads = 8;
+        longListDisk = new LongListDisk(100, SAMPLE_SIZE * 2, 0, CONFIGURATION);
+        longListDisk.updateValidRange(0, SAMPLE_SIZE * 2 - 1);
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                final int threadIndex = t;
+                // All threads write to all chunks, so chunks are created concurrently
+                futures.add(executor.submit(() -> {
+                    for (int i = threadIndex; i < SAMPLE_SIZE * 2; i += numThreads) {
+                        longListDisk.put(i, i + 1);
+                    }
+                    for (int i = threadIndex; i < SAMPLE_SIZE * 2; i += numThreads) {
+                        assertTrue(longListDisk.putIfEqual(i, i + 1, i + 2), "CAS must succeed");
+                        assertFalse(longListDisk.putIfEqual(i, i + 1, i + 3), "CAS must fail");
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < SAMPLE_SIZE * 2; i++) {
+            assertEquals(i + 2, longListDisk.get(i), "Unexpected value at index " + i);
+        }
+    }
+
     @AfterEach
     public void tearDown() {
         if (longListDisk != null) {
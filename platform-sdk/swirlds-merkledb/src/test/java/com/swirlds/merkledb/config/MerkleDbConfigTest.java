@@ -49,4 +49,55 @@ class MerkleDbConfigTest {
         // then
         Assertions.assertEquals(1, configViolationException.getViolations().size());
     }
+
+    @Test
+    public void testDataFileReadModeViolation() {
+        // given
+        final ConfigurationBuilder configurationBuilder = ConfigurationBuilder.create()
+                .withConfigDataTypes(MerkleDbConfig.class)
+                .withSources(new SimpleConfigSource("merkleDb.dataFileReadMode", "mmapp"));
+
+        // when
+        final ConfigViolationException configViolationException = Assertions.assertThrows(
+                ConfigViolationException.class,
+                () -> configurationBuilder.build(),
+                "A violation should cancel the initialization");
+
+        // then
+        Assertions.assertEquals(1, configViolationException.getViolations().size());
+    }
+
+    @Test
+    public void testLeafRecordCacheModeViolation() {
+        // given
+        final ConfigurationBuilder configurationBuilder = ConfigurationBuilder.create()
+                .withConfigDataTypes(MerkleDbConfig.class)
+                .withSources(new SimpleConfigSource("merkleDb.leafRecordCacheMode", "clok"));
+
+        // when
+        final ConfigViolationException configViolationException = Assertions.assertThrows(
+                ConfigViolationException.class,
+                () -> configurationBuilder.build(),
+                "A violation should cancel the initialization");
+
+        // then
+        Assertions.assertEquals(1, configViolationException.getViolations().size());
+    }
+
+    @Test
+    public void testDataFileCompressionViolation() {
+        // given
+        final ConfigurationBuilder configurationBuilder = ConfigurationBuilder.create()
+                .withConfigDataTypes(MerkleDbConfig.class)
+                .withSources(new SimpleConfigSource("merkleDb.dataFileCompression", "zstd"));
+
+        // when
+        final ConfigViolationException configViolationException = Assertions.assertThrows(
+                ConfigViolationException.class,
+                () -> configurationBuilder.build(),
+                "A violation should cancel the initialization");
+
+        // then
+        Assertions.assertEquals(1, configViolationException.getViolations().size());
+    }
 }
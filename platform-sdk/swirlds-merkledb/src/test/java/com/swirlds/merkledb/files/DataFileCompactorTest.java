@@ -18,17 +18,23 @@ package com.swirlds.merkledb.files;
 
 import static com.swirlds.common.test.fixtures.RandomUtils.nextInt;
 import static com.swirlds.merkledb.files.DataFileCompactor.compactionPlan;
+import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.CONFIGURATION;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
 
+import com.swirlds.merkledb.collections.LongListHeap;
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 
 class DataFileCompactorTest {
@@ -66,6 +72,10 @@ class DataFileCompactorTest {
         initReaderLevel(secondLevel2, 2);
     }
 
+    private void initReaderGarbageRatio(DataFileReader reader, double garbageRatio) {
+        when(reader.getGarbageRatio()).thenReturn(garbageRatio);
+    }
+
     private void initReaderLevel(DataFileReader reader, int level) {
         DataFileMetadata metadata = mock(DataFileMetadata.class);
         when(reader.getMetadata()).thenReturn(metadata);
@@ -157,4 +167,94 @@ class DataFileCompactorTest {
                 compactionPlan(Arrays.asList(firstLevel1, secondLevel1, secondLevel2), 3, 5);
         assertEquals(0, result.size());
     }
+
+    @Test
+    void testCompactionPlanGarbage_disabled() {
+        initReaderGarbageRatio(firstLevel1, 0.9);
+        List<? extends DataFileReader> result =
+                compactionPlan(Arrays.asList(initialLevel1, firstLevel1, secondLevel1), 3, 5, 0.0);
+        assertEquals(0, result.size(), "Garbage must be ignored when the threshold is zero");
+    }
+
+    @Test
+    void testCompactionPlanGarbage_noLevelDue() {
+        initReaderGarbageRatio(firstLevel1, 0.6);
+        initReaderGarbageRatio(secondLevel1, 0.8);
+        initReaderGarbageRatio(secondLevel2, 0.3);
+        List<? extends DataFileReader> result = compactionPlan(
+                Arrays.asList(initialLevel1, firstLevel1, secondLevel1, secondLevel2), 3, 5, 0.5);
+        assertEquals(2, result.size(), "Only files with enough garbage must be compacted");
+        assertEquals(secondLevel1, result.get(0), "Files with the most garbage must be first");
+        assertEquals(firstLevel1, result.get(1));
+    }
+
+    @Test
+    void testCompactionPlanGarbage_extraFiles() {
+        initReaderGarbageRatio(secondLevel1, 0.9);
+        initReaderGarbageRatio(secondLevel2, 0.7);
+        List<? extends DataFileReader> result = compactionPlan(
+                Arrays.asList(initialLevel1, initialLevel2, initialLevel3, firstLevel1, secondLevel1, secondLevel2),
+                3,
+                5,
+                0.5);
+        assertEquals(5, result.size(), "Level 0 files and files with garbage must be compacted");
+        assertEquals(initialLevel1, result.get(0));
+        assertEquals(initialLevel2, result.get(1));
+        assertEquals(initialLevel3, result.get(2));
+        assertEquals(secondLevel1, result.get(3));
+        assertEquals(secondLevel2, result.get(4));
+    }
+
+    @Test
+    void testGarbageTracking(@TempDir final Path dir) throws IOException, InterruptedException {
+        final MerkleDbConfig dbConfig = CONFIGURATION.getConfigData(MerkleDbConfig.class);
+        final LongListHeap index = new LongListHeap(1024);
+        final MemoryIndexDiskKeyValueStore store =
+                new MemoryIndexDiskKeyValueStore(dbConfig, dir, "garbage", null, null, index);
+        // Two files, the second one overwrites half of the keys from the first one
+        writeBatch(store, 0, 10);
+        writeBatch(store, 0, 5);
+        final List<DataFileReader> files = store.getFileCollection().getAllCompletedFiles();
+        assertEquals(2, files.size(), "Two files must be created");
+        assertEquals(0.5, files.get(0).getGarbageRatio(), "Half of the first file must be garbage");
+        assertEquals(0.0, files.get(1).getGarbageRatio(), "No garbage in the second file");
+        assertEquals(
+                0.5 * files.get(0).getSize() / (files.get(0).getSize() + files.get(1).getSize()),
+                store.getFileCollection().getGarbageRatio(),
+                1e-9,
+                "Wrong collection garbage ratio");
+
+        // Garbage estimates are corrected, when the index is scanned during compaction
+        files.get(0).countDeadDataItem();
+        assertEquals(0.6, files.get(0).getGarbageRatio(), 1e-9, "Garbage estimate must be changed");
+        final DataFileCompactor compactor =
+                new DataFileCompactor(dbConfig, "garbage", store.getFileCollection(), index, null, null, null, null) {
+                    @Override
+                    int getMinNumberOfFilesToCompact() {
+                        return 1;
+                    }
+                };
+        compactor.compactFiles(index, List.of(files.get(1)), 1);
+        assertEquals(0.5, files.get(0).getGarbageRatio(), 1e-9, "Garbage estimate must be corrected");
+
+        // Items marked dead by a flush while the compaction scan is running are not lost
+        final long deadAtScanStart = files.get(0).getDeadDataItemCount();
+        files.get(0).countDeadDataItem();
+        files.get(0).correctDeadDataItemCount(deadAtScanStart, 5);
+        assertEquals(0.6, files.get(0).getGarbageRatio(), 1e-9, "Concurrent garbage must be kept");
+        files.get(0).correctDeadDataItemCount(deadAtScanStart + 1, 6);
+        assertEquals(0.4, files.get(0).getGarbageRatio(), 1e-9, "Correction must be applied as a delta");
+        store.close();
+    }
+
+    private static void writeBatch(final MemoryIndexDiskKeyValueStore store, final int start, final int count)
+            throws IOException {
+        store.updateValidKeyRange(0, 9);
+        store.startWriting();
+        for (int i = start; i < start + count; i++) {
+            final long value = i;
+            store.put(i, out -> out.writeLong(value), Long.BYTES);
+        }
+        store.endWriting();
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.swirlds.merkledb.files;
+
+import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.CONFIGURATION;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.merkledb.config.DataFileCompression;
+import com.swirlds.merkledb.config.MerkleDbConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DataFileCompressionTest {
+
+    private static final int BLOCK_SIZE = 1024;
+
+    private final MerkleDbConfig dbConfig = CONFIGURATION.getConfigData(MerkleDbConfig.class);
+
+    /** Test data item: repeated pattern, so it's compressible, with a random tail. Item 17 is larger than a block. */
+    private static byte[] dataItem(final int i) {
+        final int size = (i == 17) ? BLOCK_SIZE * 3 : 8 + (i % 13) * 24;
+        final byte[] bytes = new byte[size];
+        for (int j = 0; j < size; j++) {
+            bytes[j] = (byte) (j % 7 + i);
+        }
+        final Random random = new Random(i);
+        for (int j = size - 4; j < size; j++) {
+            bytes[j] = (byte) random.nextInt();
+        }
+        return bytes;
+    }
+
+    private static byte[] toArray(final BufferedData data) {
+        final byte[] bytes = new byte[Math.toIntExact(data.remaining())];
+        data.readBytes(bytes);
+        return bytes;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {DataFileCompression.LZ4, DataFileCompression.DEFLATE})
+    void codecRoundTrip(final String compression) throws IOException {
+        final BlockCodec codec = BlockCodec.forCompression(compression);
+        assertNotNull(codec, "Codec must be found for " + compression);
+        assertEquals(codec, BlockCodec.forId(codec.id()), "Codec must be found by its ID");
+        final Random random = new Random(7);
+        for (final int length : new int[] {0, 1, 15, 100, 4096, 65536}) {
+            final byte[] src = new byte[length];
+            for (int i = 0; i < length; i++) {
+                // Mix of runs and random bytes
+                src[i] = (i % 64 < 32) ? (byte) (i % 5) : (byte) random.nextInt();
+            }
+            final byte[] compressed = new byte[codec.maxCompressedLength(length)];
+            final int compressedLength = codec.compress(src, length, compressed);
+            final byte[] dst = new byte[length];
+            codec.decompress(compressed, 0, compressedLength, dst, length);
+            assertArrayEquals(src, dst, "Decompressed bytes must match, length " + length);
+            if (length > 0) {
+                assertThrows(
+                        IOException.class,
+                        () -> codec.decompress(compressed, 0, compressedLength - 1, dst, length),
+                        "Truncated block must be rejected");
+            }
+        }
+    }
+
+    @Test
+    void unknownCompression() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> BlockCodec.forCompression("unknown"),
+                "Unknown compression must be rejected");
+        assertEquals(null, BlockCodec.forCompression(DataFileCompression.NONE), "No codec for uncompressed files");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {DataFileCompression.LZ4, DataFileCompression.DEFLATE})
+    void writeReadIterate(final String compression, @TempDir final Path dir) throws IOException {
+        final DataFileWriter writer = new DataFileWriter("test", dir, 1, Instant.now(), 0, compression, BLOCK_SIZE);
+        final long[] locations = new long[200];
+        try (final DataFileReader reader = new DataFileReader(dbConfig, writer)) {
+            assertTrue(reader.isCompressed(), "Reader must be in compressed mode");
+            for (int i = 0; i < locations.length; i++) {
+                final byte[] bytes = dataItem(i);
+                locations[i] = writer.storeDataItem(BufferedData.wrap(bytes));
+                // Data items must be readable while the file is being written, including
+                // the items in the pending block
+                assertArrayEquals(
+                        bytes, toArray(reader.readDataItem(locations[i])), "Wrong item " + i + " before flush");
+            }
+            for (int i = 0; i < locations.length; i++) {
+                assertArrayEquals(
+                        dataItem(i), toArray(reader.readDataItem(locations[i])), "Wrong item " + i + " while writing");
+            }
+            writer.finishWriting();
+            reader.setFileCompleted();
+            for (int i = locations.length - 1; i >= 0; i--) {
+                assertArrayEquals(
+                        dataItem(i), toArray(reader.readDataItem(locations[i])), "Wrong item " + i + " after writing");
+            }
+        }
+        assertTrue(
+                writer.getUncompressedBlocksSize() > Files.size(writer.getPath()),
+                "Compressed file must be smaller than its data");
+
+        // Reopen the file from disk and iterate over all data items
+        try (final DataFileReader reader = new DataFileReader(dbConfig, writer.getPath())) {
+            assertEquals(
+                    BlockCodec.forCompression(compression).id(),
+                    reader.getMetadata().getCompression(),
+                    "Wrong compression in metadata");
+            assertEquals(locations.length, reader.getMetadata().getDataItemCount(), "Wrong data item count");
+            final DataFileIterator iterator = reader.createIterator();
+            int count = 0;
+            while (iterator.next()) {
+                assertEquals(locations[count], iterator.getDataItemDataLocation(), "Wrong location " + count);
+                assertArrayEquals(dataItem(count), toArray(iterator.getDataItemData()), "Wrong iterated item " + count);
+                count++;
+            }
+            iterator.close();
+            assertEquals(locations.length, count, "All data items must be iterated");
+            reader.setFileCompleted();
+            for (int i = 0; i < locations.length; i++) {
+                assertArrayEquals(
+                        dataItem(i), toArray(reader.readDataItem(locations[i])), "Wrong item " + i + " after reopen");
+            }
+        }
+    }
+
+    @Test
+    void emptyCompressedFile(@TempDir final Path dir) throws IOException {
+        final DataFileWriter writer =
+                new DataFileWriter("test", dir, 1, Instant.now(), 0, DataFileCompression.LZ4, BLOCK_SIZE);
+        writer.finishWriting();
+        try (final DataFileReader reader = new DataFileReader(dbConfig, writer.getPath())) {
+            reader.setFileCompleted();
+            final DataFileIterator iterator = reader.createIterator();
+            assertFalse(iterator.next(), "Empty file must have no data items");
+            iterator.close();
+        }
+    }
+
+    @Test
+    void uncompressedFileIsNotAffected(@TempDir final Path dir) throws IOException {
+        final DataFileWriter writer = new DataFileWriter("test", dir, 1, Instant.now(), 0);
+        final long location = writer.storeDataItem(BufferedData.wrap(dataItem(1)));
+        writer.finishWriting();
+        assertEquals(0, writer.getUncompressedBlocksSize(), "No blocks in uncompressed files");
+        try (final DataFileReader reader = new DataFileReader(dbConfig, writer.getPath())) {
+            reader.setFileCompleted();
+            assertFalse(reader.isCompressed(), "Reader must not be in compressed mode");
+            assertTrue(Arrays.equals(dataItem(1), toArray(reader.readDataItem(location))), "Wrong data item");
+        }
+    }
+}
@@ -20,12 +20,21 @@ import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.CONFIGURATION
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.MockitoAnnotations.openMocks;
 
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
+import com.swirlds.merkledb.config.DataFileReadMode;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 
 class DataFileReaderTest {
@@ -130,6 +139,43 @@ class DataFileReaderTest {
         assertEquals(2, dataFileReader.leaseFileChannel());
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {DataFileReadMode.CHANNEL, DataFileReadMode.MMAP, DataFileReadMode.HYBRID})
+    void testReadDataItems(final String readMode, @TempDir final Path dir) throws IOException {
+        final MerkleDbConfig config = ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withSources(new SimpleConfigSource("merkleDb.dataFileReadMode", readMode))
+                .build()
+                .getConfigData(MerkleDbConfig.class);
+        final DataFileWriter writer = new DataFileWriter("test", dir, 1, Instant.now(), 0);
+        final long[] locations = new long[100];
+        for (int i = 0; i < locations.length; i++) {
+            final BufferedData dataItem = BufferedData.allocate(Long.BYTES * (i + 1));
+            while (dataItem.hasRemaining()) {
+                dataItem.writeLong(i);
+            }
+            dataItem.flip();
+            locations[i] = writer.storeDataItem(dataItem);
+        }
+        writer.finishWriting();
+
+        try (final DataFileReader reader = new DataFileReader(config, writer.getPath(), writer.getMetadata())) {
+            reader.setFileCompleted();
+            assertEquals(
+                    !DataFileReadMode.CHANNEL.equals(readMode),
+                    reader.isMemoryMapped(),
+                    "Unexpected memory mapping for read mode " + readMode);
+            for (int i = 0; i < locations.length; i++) {
+                final BufferedData dataItem = reader.readDataItem(locations[i]);
+                assertNotNull(dataItem, "Data item should be read");
+                assertEquals((long) Long.BYTES * (i + 1), dataItem.remaining(), "Wrong data item size");
+                while (dataItem.hasRemaining()) {
+                    assertEquals(i, dataItem.readLong(), "Wrong data item content");
+                }
+            }
+        }
+    }
+
     @AfterEach
     public void tearDown() {
         file.deleteOnExit();
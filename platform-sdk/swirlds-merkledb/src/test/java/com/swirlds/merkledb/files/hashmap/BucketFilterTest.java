@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files.hashmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BucketFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sizeIsRoundedUpToLongs() {
+        final BucketFilter filter = new BucketFilter(16, 65);
+        assertEquals(16 * 2 * Long.BYTES, filter.getSizeInBytes(), "Bits per bucket must be rounded up to 128");
+        assertThrows(IllegalArgumentException.class, () -> new BucketFilter(0, 64), "Zero buckets must be rejected");
+        assertThrows(IllegalArgumentException.class, () -> new BucketFilter(16, 0), "Zero bits must be rejected");
+    }
+
+    @Test
+    void noFalseNegatives() {
+        final BucketFilter filter = new BucketFilter(64, 256);
+        final Random random = new Random(4321);
+        final int[] hashCodes = random.ints(64 * 32).toArray();
+        for (final int hashCode : hashCodes) {
+            filter.add(hashCode & 63, hashCode);
+        }
+        for (final int hashCode : hashCodes) {
+            assertTrue(filter.mightContain(hashCode & 63, hashCode), "Added hash code must be found");
+        }
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        final BucketFilter filter = new BucketFilter(8, 64);
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(filter.mightContain(i & 7, i), "Empty filter must not contain any hash codes");
+        }
+    }
+
+    @Test
+    void resetAndClearBucket() {
+        final BucketFilter filter = new BucketFilter(4, 128);
+        final Bucket bucket = new Bucket();
+        bucket.setBucketIndex(1);
+        bucket.putValue(Bytes.wrap(new byte[] {1}), 101, 1);
+        bucket.putValue(Bytes.wrap(new byte[] {2}), 105, 2);
+        filter.addAll(bucket);
+        assertTrue(filter.mightContain(1, 101), "Hash code 101 must be found");
+        assertTrue(filter.mightContain(1, 105), "Hash code 105 must be found");
+        // delete a key and reset the filter
+        bucket.putValue(Bytes.wrap(new byte[] {1}), 101, HalfDiskHashMap.INVALID_VALUE);
+        filter.reset(bucket);
+        assertTrue(filter.mightContain(1, 105), "Hash code 105 must be found after reset");
+        filter.clear(1);
+        assertFalse(filter.mightContain(1, 105), "Hash code 105 must not be found after clear");
+    }
+
+    @Test
+    void writeAndLoad() throws IOException {
+        final BucketFilter filter = new BucketFilter(32, 64);
+        for (int i = 0; i < 500; i++) {
+            filter.add(i & 31, i * 7919);
+        }
+        final Path file = tempDir.resolve("test_bucket_filter.bf");
+        filter.writeToFile(file);
+        final BucketFilter loaded = BucketFilter.loadFromFile(file, 32, 64);
+        assertNotNull(loaded, "Filter must be loaded");
+        for (int i = 0; i < 500; i++) {
+            assertTrue(loaded.mightContain(i & 31, i * 7919), "Loaded filter must contain added hash codes");
+        }
+        assertNull(BucketFilter.loadFromFile(file, 64, 64), "Filter for a different number of buckets");
+        assertNull(BucketFilter.loadFromFile(file, 32, 128), "Filter for a different number of bits");
+    }
+}
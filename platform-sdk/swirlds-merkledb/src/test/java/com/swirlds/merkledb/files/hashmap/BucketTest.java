@@ -85,6 +85,29 @@ class BucketTest {
                 "Should not find a value in an empty bucket");
     }
 
+    @ParameterizedTest
+    @EnumSource(KeyType.class)
+    void testBucketSanitize(KeyType keyType) throws IOException {
+        final Bucket bucket = new Bucket();
+        bucket.setBucketIndex(1);
+        // keys with hash codes 1, 3, 5, ... all belong to bucket 1 with two buckets
+        final VirtualKey[] testKeys = new VirtualKey[20];
+        for (int i = 0; i < testKeys.length; i++) {
+            testKeys[i] = keyType.keyConstructor.apply((long) i);
+            bucket.putValue(keyType.keySerializer.toBytes(testKeys[i]), i * 2 + 1, i);
+        }
+        assertEquals(20, bucket.getBucketEntryCount(), "Check we have correct count");
+        // split the bucket in two: with four buckets, hash codes 1, 5, 9, ... belong to bucket 1,
+        // while hash codes 3, 7, 11, ... belong to bucket 3
+        bucket.sanitize(3, 3);
+        assertEquals(3, bucket.getBucketIndex(), "Bucket index should be updated");
+        assertEquals(10, bucket.getBucketEntryCount(), "Half of the entries should be removed");
+        for (int i = 0; i < testKeys.length; i++) {
+            final long value = bucket.findValue(i * 2 + 1, keyType.keySerializer.toBytes(testKeys[i]), -1);
+            assertEquals(((i * 2 + 1) & 3) == 3 ? i : -1, value, "Only entries from bucket 3 should be kept");
+        }
+    }
+
     @ParameterizedTest
     @EnumSource(KeyType.class)
     void testBucketAddAndDelete(KeyType keyType) throws IOException {
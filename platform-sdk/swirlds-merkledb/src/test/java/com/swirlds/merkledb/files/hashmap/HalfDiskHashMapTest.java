@@ -19,14 +19,23 @@ package com.swirlds.merkledb.files.hashmap;
 import static com.swirlds.merkledb.test.fixtures.MerkleDbTestUtils.CONFIGURATION;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.swirlds.common.config.StateCommonConfig;
+import com.swirlds.common.io.config.FileSystemManagerConfig;
+import com.swirlds.common.io.config.TemporaryFileConfig;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.config.api.Configuration;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.test.fixtures.ExampleLongKeyFixedSize;
 import com.swirlds.merkledb.test.fixtures.files.FilesTestType;
 import com.swirlds.virtualmap.VirtualKey;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Random;
 import org.junit.jupiter.api.Test;
@@ -79,6 +88,17 @@ class HalfDiskHashMapTest {
         printTestUpdate(START, count, "Read");
     }
 
+    private static void checkMissing(FilesTestType testType, HalfDiskHashMap map, int start, int count)
+            throws IOException {
+        for (int i = start; i < (start + count); i++) {
+            final var key = testType.createVirtualLongKey(i);
+            assertEquals(
+                    -1,
+                    map.get(testType.keySerializer.toBytes(key), key.hashCode(), -1),
+                    "Expect not to exist key=" + key);
+        }
+    }
+
     // =================================================================================================================
     // Tests
 
@@ -176,6 +196,101 @@ class HalfDiskHashMapTest {
         checkData(testType, map, 600, 400, 1);
     }
 
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void createDataAndCheckWithBucketFilter(FilesTestType testType) throws Exception {
+        final Configuration configuration = ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withConfigDataType(VirtualMapConfig.class)
+                .withConfigDataType(TemporaryFileConfig.class)
+                .withConfigDataType(StateCommonConfig.class)
+                .withConfigDataType(FileSystemManagerConfig.class)
+                .withSources(new SimpleConfigSource("merkleDb.halfDiskHashMapBucketFilterBits", 128))
+                .build();
+        final Path storeDir = tempDirPath.resolve("BucketFilter_" + testType.name());
+        final Path snapshotDir = tempDirPath.resolve("BucketFilterSnapshot_" + testType.name());
+        final int count = 10_000;
+        final HalfDiskHashMap map =
+                new HalfDiskHashMap(configuration, count, storeDir, "HalfDiskHashMapTest", null, false);
+        createSomeData(testType, map, 1, count, 1);
+        checkData(testType, map, 1, count, 1);
+        // absent keys must not be found
+        checkMissing(testType, map, count + 1, count);
+        // delete some keys and check they are gone, while all other keys are still there
+        map.startWriting();
+        for (int i = 1; i <= 100; i++) {
+            final VirtualKey key = testType.createVirtualLongKey(i);
+            map.delete(testType.keySerializer.toBytes(key), key.hashCode());
+        }
+        map.endWriting();
+        checkMissing(testType, map, 1, 100);
+        checkData(testType, map, 101, count - 100, 1);
+        // snapshot, the filter is loaded from the snapshot
+        map.snapshot(snapshotDir);
+        map.close();
+        try (final HalfDiskHashMap mapFromSnapshot =
+                new HalfDiskHashMap(configuration, count, snapshotDir, "HalfDiskHashMapTest", null, false)) {
+            checkData(testType, mapFromSnapshot, 101, count - 100, 1);
+            checkMissing(testType, mapFromSnapshot, 1, 100);
+        }
+        // remove the filter file, the filter is rebuilt from buckets
+        assertTrue(
+                Files.deleteIfExists(snapshotDir.resolve("HalfDiskHashMapTest_bucket_filter.bf")),
+                "Bucket filter file must be present in the snapshot");
+        try (final HalfDiskHashMap mapFromSnapshot =
+                new HalfDiskHashMap(configuration, count, snapshotDir, "HalfDiskHashMapTest", null, false)) {
+            checkData(testType, mapFromSnapshot, 101, count - 100, 1);
+            checkMissing(testType, mapFromSnapshot, 1, 100);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void growBeyondMapSize(FilesTestType testType) throws Exception {
+        final Configuration configuration = ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withConfigDataType(VirtualMapConfig.class)
+                .withConfigDataType(TemporaryFileConfig.class)
+                .withConfigDataType(StateCommonConfig.class)
+                .withConfigDataType(FileSystemManagerConfig.class)
+                .withSources(
+                        new SimpleConfigSource("merkleDb.halfDiskHashMapMaxBucketSplitsPerFlush", 64),
+                        new SimpleConfigSource("merkleDb.halfDiskHashMapBucketFilterBits", 64))
+                .build();
+        final Path storeDir = tempDirPath.resolve("Grow_" + testType.name());
+        final Path snapshotDir = tempDirPath.resolve("GrowSnapshot_" + testType.name());
+        final int mapSize = 1_000;
+        final HalfDiskHashMap map =
+                new HalfDiskHashMap(configuration, mapSize, storeDir, "HalfDiskHashMapTest", null, false);
+        final int initialNumOfBuckets = map.getNumOfBuckets();
+        // add 10x more keys than the map is created for, in small batches
+        final int batchSize = 500;
+        for (int i = 0; i < 20; i++) {
+            createSomeData(testType, map, i * batchSize, batchSize, 1);
+            checkData(testType, map, 0, (i + 1) * batchSize, 1);
+        }
+        final int numOfBuckets = map.getNumOfBuckets();
+        assertTrue(numOfBuckets > initialNumOfBuckets, "Map should have grown");
+        checkMissing(testType, map, 20 * batchSize, 1000);
+        // snapshot, the layout is loaded from the snapshot
+        map.snapshot(snapshotDir);
+        map.close();
+        try (final HalfDiskHashMap mapFromSnapshot =
+                new HalfDiskHashMap(configuration, mapSize, snapshotDir, "HalfDiskHashMapTest", null, false)) {
+            assertEquals(numOfBuckets, mapFromSnapshot.getNumOfBuckets(), "Wrong number of buckets after load");
+            checkData(testType, mapFromSnapshot, 0, 20 * batchSize, 1);
+            // delete some keys
+            mapFromSnapshot.startWriting();
+            for (int i = 0; i < 1000; i++) {
+                final VirtualKey key = testType.createVirtualLongKey(i);
+                mapFromSnapshot.delete(testType.keySerializer.toBytes(key), key.hashCode());
+            }
+            mapFromSnapshot.endWriting();
+            checkMissing(testType, mapFromSnapshot, 0, 1000);
+            checkData(testType, mapFromSnapshot, 1000, 20 * batchSize - 1000, 1);
+        }
+    }
+
     @Test
     void testOverwritesWithCollision() throws IOException {
         final FilesTestType testType = FilesTestType.fixed;
@@ -31,15 +31,24 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import com.swirlds.base.function.CheckedConsumer;
 import com.swirlds.base.units.UnitConstants;
+import com.swirlds.common.config.StateCommonConfig;
 import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.crypto.DigestType;
 import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.io.config.FileSystemManagerConfig;
+import com.swirlds.common.io.config.TemporaryFileConfig;
 import com.swirlds.common.io.utility.LegacyTemporaryFileBuilder;
+import com.swirlds.config.api.Configuration;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
+import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.test.fixtures.ExampleByteArrayVirtualValue;
 import com.swirlds.merkledb.test.fixtures.TestType;
 import com.swirlds.metrics.api.IntegerGauge;
 import com.swirlds.metrics.api.Metric.ValueType;
 import com.swirlds.metrics.api.Metrics;
 import com.swirlds.virtualmap.VirtualKey;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
 import com.swirlds.virtualmap.datasource.VirtualHashRecord;
 import com.swirlds.virtualmap.datasource.VirtualLeafBytes;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
@@ -533,6 +542,121 @@ class MerkleDbDataSourceTest {
         });
     }
 
+    @ParameterizedTest
+    @EnumSource(TestType.class)
+    void snapshotRestoreParallelLoading(final TestType testType) throws IOException {
+        final int count = 1000;
+        final String tableName = "vm";
+        final Path originalDbPath = testDirectory.resolve("merkledb-snapshotRestoreParallelLoading-" + testType);
+        final KeySerializer keySerializer = testType.dataType().getKeySerializer();
+        final ValueSerializer valueSerializer = testType.dataType().getValueSerializer();
+        final Configuration parallelLoadingConfig = ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withConfigDataType(VirtualMapConfig.class)
+                .withConfigDataType(TemporaryFileConfig.class)
+                .withConfigDataType(StateCommonConfig.class)
+                .withConfigDataType(FileSystemManagerConfig.class)
+                .withSources(new SimpleConfigSource("merkleDb.parallelDataSourceLoading", true))
+                .build();
+        createAndApplyDataSource(originalDbPath, tableName, testType, count, 0, dataSource -> {
+            final int tableId = dataSource.getTableId();
+            // create some leaves
+            dataSource.saveRecords(
+                    count,
+                    count * 2,
+                    IntStream.range(0, count * 2).mapToObj(i -> createVirtualInternalRecord(i, i + 1)),
+                    IntStream.range(count, count * 2)
+                            .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i))
+                            .map(r -> r.toBytes(keySerializer, valueSerializer)),
+                    Stream.empty());
+            // create a snapshot
+            final Path snapshotDbPath =
+                    testDirectory.resolve("merkledb-snapshotRestoreParallelLoading-" + testType + "_SNAPSHOT");
+            dataSource.getDatabase().snapshot(snapshotDbPath, dataSource);
+            // close data source
+            dataSource.close();
+
+            final MerkleDb snapshotDb = MerkleDb.getInstance(snapshotDbPath, parallelLoadingConfig);
+            final MerkleDbPaths snapshotPaths = new MerkleDbPaths(snapshotDb.getTableDir(tableName, tableId));
+            // Delete leaf index, so it's rebuilt while other stores are loaded
+            Files.delete(snapshotPaths.pathToDiskLocationLeafNodesFile);
+
+            final MerkleDbDataSource snapshotDataSource = snapshotDb.getDataSource(tableName, false);
+            reinitializeDirectMemoryUsage();
+            IntStream.range(0, count * 2).forEach(i -> assertHash(snapshotDataSource, i, i + 1));
+            IntStream.range(count, count * 2)
+                    .forEach(i ->
+                            assertLeaf(testType, keySerializer, valueSerializer, snapshotDataSource, i, i, i + 1, i));
+            // close data source
+            snapshotDataSource.close();
+
+            // check db count
+            assertEventuallyEquals(
+                    0L, MerkleDbDataSource::getCountOfOpenDatabases, Duration.ofSeconds(1), "Expected no open dbs");
+        });
+    }
+
+    @ParameterizedTest
+    @EnumSource(TestType.class)
+    void snapshotRestoreIndexParallelRebuilding(final TestType testType) throws IOException {
+        final int count = 1000;
+        final String tableName = "vm";
+        final Path originalDbPath = testDirectory.resolve("merkledb-snapshotRestoreIndexParallel-" + testType);
+        final KeySerializer keySerializer = testType.dataType().getKeySerializer();
+        final ValueSerializer valueSerializer = testType.dataType().getValueSerializer();
+        final Configuration parallelRebuildingConfig = ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withConfigDataType(VirtualMapConfig.class)
+                .withConfigDataType(TemporaryFileConfig.class)
+                .withConfigDataType(StateCommonConfig.class)
+                .withConfigDataType(FileSystemManagerConfig.class)
+                .withSources(new SimpleConfigSource("merkleDb.indexRebuildingThreads", 4))
+                .build();
+        createAndApplyDataSource(originalDbPath, tableName, testType, count, 0, dataSource -> {
+            final int tableId = dataSource.getTableId();
+            // update all records a few times, so every store has multiple data files with different
+            // versions of the same records
+            for (int round = 0; round < 3; round++) {
+                final int hashOffset = round + 1;
+                final int valueOffset = round;
+                dataSource.saveRecords(
+                        count,
+                        count * 2,
+                        IntStream.range(0, count * 2).mapToObj(i -> createVirtualInternalRecord(i, i + hashOffset)),
+                        IntStream.range(count, count * 2)
+                                .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i, i, i + valueOffset))
+                                .map(r -> r.toBytes(keySerializer, valueSerializer)),
+                        Stream.empty());
+            }
+            // create a snapshot
+            final Path snapshotDbPath =
+                    testDirectory.resolve("merkledb-snapshotRestoreIndexParallel-" + testType + "_SNAPSHOT");
+            dataSource.getDatabase().snapshot(snapshotDbPath, dataSource);
+            // close data source
+            dataSource.close();
+
+            final MerkleDb snapshotDb = MerkleDb.getInstance(snapshotDbPath, parallelRebuildingConfig);
+            final MerkleDbPaths snapshotPaths = new MerkleDbPaths(snapshotDb.getTableDir(tableName, tableId));
+            // Delete path to disk location indices, so they are rebuilt from data files
+            Files.delete(snapshotPaths.pathToDiskLocationLeafNodesFile);
+            Files.delete(snapshotPaths.pathToDiskLocationInternalNodesFile);
+
+            final MerkleDbDataSource snapshotDataSource = snapshotDb.getDataSource(tableName, false);
+            reinitializeDirectMemoryUsage();
+            // the latest versions of all records are expected
+            IntStream.range(0, count * 2).forEach(i -> assertHash(snapshotDataSource, i, i + 3));
+            IntStream.range(count, count * 2)
+                    .forEach(i -> assertLeaf(
+                            testType, keySerializer, valueSerializer, snapshotDataSource, i, i, i + 3, i + 2));
+            // close data source
+            snapshotDataSource.close();
+
+            // check db count
+            assertEventuallyEquals(
+                    0L, MerkleDbDataSource::getCountOfOpenDatabases, Duration.ofSeconds(1), "Expected no open dbs");
+        });
+    }
+
     @Test
     void preservesInterruptStatusWhenInterruptedClosing() throws IOException {
         createAndApplyDataSource(testDirectory, "test8", TestType.fixed_fixed, 1000, dataSource -> {
@@ -697,6 +821,74 @@ class MerkleDbDataSourceTest {
         });
     }
 
+    @Test
+    void leavesProducerFailureDoesNotCommitFlush() throws IOException {
+        final int count = 100;
+        final String tableName = "leavesProducerFailure";
+        final TestType testType = TestType.variable_variable;
+        final KeySerializer keySerializer = testType.dataType().getKeySerializer();
+        final ValueSerializer valueSerializer = testType.dataType().getValueSerializer();
+        final Configuration batchedFlushConfig = ConfigurationBuilder.create()
+                .withConfigDataType(MerkleDbConfig.class)
+                .withConfigDataType(VirtualMapConfig.class)
+                .withConfigDataType(TemporaryFileConfig.class)
+                .withConfigDataType(StateCommonConfig.class)
+                .withConfigDataType(FileSystemManagerConfig.class)
+                .withSources(new SimpleConfigSource("merkleDb.flushLeavesBatchSize", 10))
+                .build();
+        final MerkleDb database =
+                MerkleDb.getInstance(testDirectory.resolve("merkledb-leavesProducerFailure"), batchedFlushConfig);
+        final MerkleDbDataSource dataSource = database.createDataSource(
+                tableName, new MerkleDbTableConfig((short) 1, DigestType.SHA_384, count * 10L, 0), false);
+        try {
+            dataSource.saveRecords(
+                    count - 1,
+                    count * 2 - 2,
+                    IntStream.range(0, count * 2 - 1).mapToObj(MerkleDbDataSourceTest::createVirtualInternalRecord),
+                    IntStream.range(count - 1, count * 2 - 1)
+                            .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i))
+                            .map(r -> r.toBytes(keySerializer, valueSerializer)),
+                    Stream.empty());
+            final long leafFilesBefore =
+                    dataSource.getPathToKeyValue().getFilesSizeStatistics().getCount();
+            final long keyFilesBefore = dataSource.getKeyToPath().getFilesSizeStatistics().getCount();
+
+            // Replace all leaves with new keys, serialization fails in the middle of the flush
+            final Stream<VirtualLeafBytes> failingLeaves = IntStream.range(count - 1, count * 2 - 1)
+                    .mapToObj(i -> testType.dataType().createVirtualLeafRecord(i, i + count * 10, i))
+                    .map(r -> {
+                        if (r.getPath() == count + count / 2) {
+                            throw new IllegalStateException("Leaf serialization failure");
+                        }
+                        return r.toBytes(keySerializer, valueSerializer);
+                    });
+            assertThrows(
+                    IllegalStateException.class,
+                    () -> dataSource.saveRecords(
+                            count - 1, count * 2 - 2, Stream.empty(), failingLeaves, Stream.empty()),
+                    "Producer failure must fail the flush");
+
+            assertEquals(
+                    leafFilesBefore,
+                    dataSource.getPathToKeyValue().getFilesSizeStatistics().getCount(),
+                    "No new leaf data file must be committed");
+            assertEquals(
+                    keyFilesBefore,
+                    dataSource.getKeyToPath().getFilesSizeStatistics().getCount(),
+                    "No new key to path data file must be committed");
+            for (int i = count - 1; i < count * 2 - 1; i++) {
+                final VirtualKey newKey = testType.dataType().createVirtualLongKey(i + count * 10);
+                assertNull(
+                        dataSource.loadLeafRecord(keySerializer.toBytes(newKey), newKey.hashCode()),
+                        "Key to path index must not be updated");
+            }
+        } finally {
+            dataSource.close();
+        }
+        assertEventuallyEquals(
+                0L, MerkleDbDataSource::getCountOfOpenDatabases, Duration.ofSeconds(1), "Expected no open dbs");
+    }
+
     @Test
     void copyStatisticsTest() throws Exception {
         // This test simulates what happens on reconnect and makes sure that MerkleDb stats are reported
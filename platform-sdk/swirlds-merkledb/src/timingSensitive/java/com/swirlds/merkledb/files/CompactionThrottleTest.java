@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.swirlds.merkledb.files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class CompactionThrottleTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    void disabledThrottleNeverWaits() throws InterruptedException {
+        final CompactionThrottle throttle = new CompactionThrottle(0, 1000, 1000);
+        assertFalse(throttle.isEnabled(), "Throttle with zero rate must be disabled");
+        assertEquals(0, throttle.acquire(Long.MAX_VALUE), "Disabled throttle must not wait");
+    }
+
+    @Test
+    void rateIsLimited() throws InterruptedException {
+        final CompactionThrottle throttle = new CompactionThrottle(10 * MB, 1000, 1000);
+        assertTrue(throttle.isEnabled(), "Throttle must be enabled");
+        final long start = System.nanoTime();
+        // 100ms burst is available immediately, the rest must take at least 200ms
+        for (int i = 0; i < 30; i++) {
+            throttle.acquire(MB / 10);
+        }
+        final long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(tookMillis >= 150, "Compaction must be throttled, took " + tookMillis + " ms");
+    }
+
+    @Test
+    void backOffOnSlowFlushesAndReads() throws InterruptedException {
+        final long maxRate = 1024 * MB;
+        final CompactionThrottle throttle = new CompactionThrottle(maxRate, 1000, 1000);
+        assertEquals(maxRate, throttle.getBytesPerSecond(), "Initial rate must be the max rate");
+
+        throttle.reportFlush(TimeUnit.SECONDS.toNanos(2));
+        Thread.sleep(1100);
+        throttle.acquire(1);
+        assertEquals(maxRate / 2, throttle.getBytesPerSecond(), "Rate must be halved after a slow flush");
+
+        for (int i = 0; i < 1000; i++) {
+            // 98% of fast reads, 2% of slow reads
+            throttle.reportRead((i % 50 == 0) ? TimeUnit.MILLISECONDS.toNanos(5) : 1000);
+        }
+        Thread.sleep(1100);
+        throttle.acquire(1);
+        assertEquals(maxRate / 4, throttle.getBytesPerSecond(), "Rate must be halved after slow reads");
+
+        for (int i = 0; i < 1000; i++) {
+            throttle.reportRead(1000);
+        }
+        Thread.sleep(1100);
+        throttle.acquire(1);
+        assertEquals(
+                maxRate / 4 + maxRate / 8,
+                throttle.getBytesPerSecond(),
+                "Rate must grow back when flushes and reads are fast");
+    }
+}
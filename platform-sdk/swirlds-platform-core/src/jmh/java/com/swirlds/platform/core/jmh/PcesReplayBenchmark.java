@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.core.jmh;
+
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+
+import com.swirlds.common.io.IOIterator;
+import com.swirlds.common.io.utility.FileUtils;
+import com.swirlds.common.test.fixtures.Randotron;
+import com.swirlds.platform.event.AncientMode;
+import com.swirlds.platform.event.PlatformEvent;
+import com.swirlds.platform.event.preconsensus.PcesFile;
+import com.swirlds.platform.event.preconsensus.PcesMultiFileIterator;
+import com.swirlds.platform.event.preconsensus.PcesMutableFile;
+import com.swirlds.platform.event.preconsensus.PcesReadAheadIterator;
+import com.swirlds.platform.test.fixtures.event.TestingEventBuilder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how long it takes to read and decode all events of a generated preconsensus event directory, sequentially
+ * and with files read ahead in parallel. To replay a multi-GB directory, override the directory size, for example,
+ * {@code -p directoryMegabytes=4096}.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class PcesReplayBenchmark {
+
+    @Param({"512"})
+    public int directoryMegabytes;
+
+    @Param({"10"})
+    public int fileMegabytes;
+
+    @Param({"0", "4", "8"})
+    public int readAheadFiles;
+
+    @Param({"1024"})
+    public int queueSize;
+
+    private Path directory;
+    private List<PcesFile> files;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        final Randotron r = Randotron.create(0);
+
+        // a pool of distinct events, written repeatedly until the directory reaches the requested size
+        final List<PlatformEvent> events = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            events.add(new TestingEventBuilder(r)
+                    .setAppTransactionCount(r.nextInt(1, 20))
+                    .setSystemTransactionCount(1)
+                    .setSelfParent(new TestingEventBuilder(r).build())
+                    .setOtherParent(new TestingEventBuilder(r).build())
+                    .build());
+        }
+
+        directory = Files.createTempDirectory("PcesReplayBenchmark");
+        files = new ArrayList<>();
+        final long directoryBytes = directoryMegabytes * 1024L * 1024L;
+        final long fileBytes = fileMegabytes * 1024L * 1024L;
+        long writtenBytes = 0;
+        int eventIndex = 0;
+        while (writtenBytes < directoryBytes) {
+            final PcesFile file = PcesFile.of(
+                    AncientMode.GENERATION_THRESHOLD, r.nextInstant(), files.size(), 0, Long.MAX_VALUE, 0, directory);
+            final PcesMutableFile mutableFile = file.getMutableFile();
+            while (mutableFile.fileSize() < fileBytes) {
+                mutableFile.writeEvent(events.get(eventIndex++ % events.size()));
+            }
+            mutableFile.close();
+            writtenBytes += mutableFile.fileSize();
+            files.add(file);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void replay(final Blackhole blackhole) throws IOException {
+        try (final IOIterator<PlatformEvent> iterator = readAheadFiles > 0
+                ? new PcesReadAheadIterator(
+                        Long.MIN_VALUE,
+                        files.iterator(),
+                        AncientMode.GENERATION_THRESHOLD,
+                        readAheadFiles,
+                        queueSize,
+                        getStaticThreadManager())
+                : new PcesMultiFileIterator(Long.MIN_VALUE, files.iterator(), AncientMode.GENERATION_THRESHOLD)) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+}
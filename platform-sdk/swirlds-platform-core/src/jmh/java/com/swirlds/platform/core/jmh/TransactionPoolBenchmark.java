@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.core.jmh;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
+import com.swirlds.platform.config.TransactionConfig_;
+import com.swirlds.platform.pool.TransactionPoolNexus;
+import com.swirlds.platform.system.status.PlatformStatus;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures transaction submission throughput with many concurrent producers and a single consumer draining the pool
+ * into events, like gRPC threads and the event creator. To compare different numbers of producers, override the
+ * group thread distribution, for example, {@code -tg 8,1} or {@code -tg 64,1}.
+ */
+@State(Scope.Group)
+@Fork(value = 1)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class TransactionPoolBenchmark {
+
+    @Param({"100"})
+    public int transactionSize;
+
+    @Param({"100000"})
+    public int queueSize;
+
+    private TransactionPoolNexus nexus;
+    private Bytes transaction;
+
+    @Setup
+    public void setup() {
+        final PlatformContext platformContext = TestPlatformContextBuilder.create()
+                .withConfiguration(new TestConfigBuilder()
+                        .withValue(TransactionConfig_.THROTTLE_TRANSACTION_QUEUE_SIZE, queueSize)
+                        .getOrCreateConfig())
+                .build();
+        nexus = new TransactionPoolNexus(platformContext);
+        nexus.updatePlatformStatus(PlatformStatus.ACTIVE);
+        transaction = Bytes.wrap(new byte[transactionSize]);
+    }
+
+    @Benchmark
+    @Group("submit")
+    @GroupThreads(32)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean submitTransaction() {
+        return nexus.submitApplicationTransaction(transaction);
+    }
+
+    @Benchmark
+    @Group("submit")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void createEvent(final Blackhole bh) {
+        bh.consume(nexus.getTransactions());
+    }
+}
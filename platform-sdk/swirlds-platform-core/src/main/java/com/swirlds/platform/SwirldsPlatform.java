@@ -34,6 +34,7 @@ import com.swirlds.common.io.IOIterator;
 import com.swirlds.common.notification.NotificationEngine;
 import com.swirlds.common.platform.NodeId;
 import com.swirlds.common.stream.RunningEventHashOverride;
+import com.swirlds.common.threading.manager.ThreadManager;
 import com.swirlds.common.utility.AutoCloseableWrapper;
 import com.swirlds.platform.builder.PlatformBuildingBlocks;
 import com.swirlds.platform.builder.PlatformComponentBuilder;
@@ -155,6 +156,11 @@ public class SwirldsPlatform implements Platform {
      */
     private final PlatformContext platformContext;
 
+    /**
+     * Responsible for creating and managing the platform's threads.
+     */
+    private final ThreadManager threadManager;
+
     /**
      * The initial preconsensus event files read from disk.
      */
@@ -184,6 +190,7 @@ public class SwirldsPlatform implements Platform {
     public SwirldsPlatform(@NonNull final PlatformComponentBuilder builder) {
         final PlatformBuildingBlocks blocks = builder.getBuildingBlocks();
         platformContext = blocks.platformContext();
+        threadManager = blocks.threadManager();
 
         final AncientMode ancientMode = platformContext
                 .getConfiguration()
@@ -445,8 +452,15 @@ public class SwirldsPlatform implements Platform {
     private void replayPreconsensusEvents() {
         platformWiring.getStatusActionSubmitter().submitStatusAction(new StartedReplayingEventsAction());
 
-        final IOIterator<PlatformEvent> iterator =
-                initialPcesFiles.getEventIterator(initialAncientThreshold, startingRound);
+        final PcesConfig pcesConfig = platformContext.getConfiguration().getConfigData(PcesConfig.class);
+        final IOIterator<PlatformEvent> iterator = pcesConfig.replayReadAheadFiles() > 0
+                ? initialPcesFiles.getReadAheadEventIterator(
+                        initialAncientThreshold,
+                        startingRound,
+                        pcesConfig.replayReadAheadFiles(),
+                        pcesConfig.replayQueueSize(),
+                        threadManager)
+                : initialPcesFiles.getEventIterator(initialAncientThreshold, startingRound);
 
         logger.info(
                 STARTUP.getMarker(),
@@ -32,6 +32,7 @@ import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.crypto.Signature;
 import com.swirlds.common.notification.NotificationEngine;
 import com.swirlds.common.platform.NodeId;
+import com.swirlds.common.threading.manager.ThreadManager;
 import com.swirlds.common.wiring.WiringConfig;
 import com.swirlds.common.wiring.model.WiringModel;
 import com.swirlds.common.wiring.model.WiringModelBuilder;
@@ -449,8 +450,11 @@ public final class PlatformBuilder {
             randomBuilder = new RandomBuilder();
         }
 
+        final ThreadManager threadManager = getStaticThreadManager();
+
         final PlatformBuildingBlocks buildingBlocks = new PlatformBuildingBlocks(
                 platformContext,
+                threadManager,
                 model,
                 keysAndCerts,
                 selfId,
@@ -470,7 +474,7 @@ public final class PlatformBuilder {
                 initialPcesFiles,
                 consensusEventStreamName,
                 issScratchpad,
-                NotificationEngine.buildEngine(getStaticThreadManager()),
+                NotificationEngine.buildEngine(threadManager),
                 statusActionSubmitterAtomicReference,
                 swirldStateManager,
                 new AtomicReference<>(),
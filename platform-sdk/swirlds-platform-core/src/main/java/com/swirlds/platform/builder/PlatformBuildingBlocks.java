@@ -21,6 +21,7 @@ import static java.util.Objects.requireNonNull;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.notification.NotificationEngine;
 import com.swirlds.common.platform.NodeId;
+import com.swirlds.common.threading.manager.ThreadManager;
 import com.swirlds.common.wiring.model.WiringModel;
 import com.swirlds.platform.consensus.ConsensusSnapshot;
 import com.swirlds.platform.crypto.KeysAndCerts;
@@ -51,6 +52,7 @@ import java.util.function.Supplier;
  * components.
  *
  * @param platformContext                        the context for this platform
+ * @param threadManager                          responsible for creating and managing the platform's threads
  * @param model                                  the wiring model for this platform
  * @param keysAndCerts                           an object holding all the public/private key pairs and the CSPRNG state
  *                                               for this member
@@ -97,6 +99,7 @@ import java.util.function.Supplier;
  */
 public record PlatformBuildingBlocks(
         @NonNull PlatformContext platformContext,
+        @NonNull ThreadManager threadManager,
         @NonNull WiringModel model,
         @NonNull KeysAndCerts keysAndCerts,
         @NonNull NodeId selfId,
@@ -126,6 +129,7 @@ public record PlatformBuildingBlocks(
 
     public PlatformBuildingBlocks {
         requireNonNull(platformContext);
+        requireNonNull(threadManager);
         requireNonNull(model);
         requireNonNull(keysAndCerts);
         requireNonNull(selfId);
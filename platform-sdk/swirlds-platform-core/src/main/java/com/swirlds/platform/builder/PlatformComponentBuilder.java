@@ -22,7 +22,6 @@ import static com.swirlds.platform.gui.internal.BrowserWindowManager.getPlatform
 import static com.swirlds.platform.state.iss.IssDetector.DO_NOT_IGNORE_ROUNDS;
 
 import com.swirlds.common.merkle.utility.SerializableLong;
-import com.swirlds.common.threading.manager.AdHocThreadManager;
 import com.swirlds.platform.SwirldsPlatform;
 import com.swirlds.platform.components.appcomm.DefaultLatestCompleteStateNotifier;
 import com.swirlds.platform.components.appcomm.LatestCompleteStateNotifier;
@@ -1019,7 +1018,7 @@ public class PlatformComponentBuilder {
         if (gossip == null) {
             gossip = new SyncGossip(
                     blocks.platformContext(),
-                    AdHocThreadManager.getStaticThreadManager(),
+                    blocks.threadManager(),
                     blocks.keysAndCerts(),
                     blocks.rosterHistory().getCurrentRoster(),
                     blocks.selfId(),
@@ -29,10 +29,14 @@ import com.swirlds.config.api.ConfigProperty;
  * @param maxTransactionCountPerEvent  the maximum number of transactions that a single event may contain
  * @param throttleTransactionQueueSize Stop accepting new non-system transactions into the 4 transaction queues if any
  *                                     of them have more than this many.
+ * @param throttleTransactionQueueBytes Stop accepting new non-system transactions into the transaction pool if the
+ *                                     total size of the transactions waiting to be put into events would exceed this
+ *                                     many bytes. If 0, the total size is not limited.
  */
 @ConfigData("transaction")
 public record TransactionConfig(
         @ConfigProperty(defaultValue = "6144") int transactionMaxBytes,
         @ConfigProperty(defaultValue = "245760") int maxTransactionBytesPerEvent,
         @ConfigProperty(defaultValue = "245760") int maxTransactionCountPerEvent,
-        @ConfigProperty(defaultValue = "100000") int throttleTransactionQueueSize) {}
+        @ConfigProperty(defaultValue = "100000") int throttleTransactionQueueSize,
+        @ConfigProperty(defaultValue = "0") long throttleTransactionQueueBytes) {}
@@ -87,6 +87,9 @@ import java.time.Duration;
  *                                             time, pause PCES replay until the system is able to catch up.
  * @param limitReplayFrequency                 if true, then directly limit the replay frequency of preconsensus events
  * @param maxEventReplayFrequency              the maximum number of events that can be replayed per second
+ * @param replayReadAheadFiles                 the number of preconsensus event files that are read and decoded in
+ *                                             parallel ahead of replay, each buffering up to {@code replayQueueSize}
+ *                                             events. If 0, files are read one at a time on the replay thread.
  */
 @ConfigData("event.preconsensus")
 public record PcesConfig(
@@ -109,4 +112,5 @@ public record PcesConfig(
         @ConfigProperty(defaultValue = "1m") Duration suspiciousRoundDurabilityDuration,
         @ConfigProperty(defaultValue = "1ms") Duration replayHealthThreshold,
         @ConfigProperty(defaultValue = "true") boolean limitReplayFrequency,
-        @ConfigProperty(defaultValue = "5000") int maxEventReplayFrequency) {}
+        @ConfigProperty(defaultValue = "5000") int maxEventReplayFrequency,
+        @ConfigProperty(defaultValue = "0") int replayReadAheadFiles) {}
@@ -29,6 +29,7 @@ import java.io.BufferedInputStream;
 import java.io.EOFException;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
@@ -147,4 +148,20 @@ public class PcesFileIterator implements IOIterator<PlatformEvent> {
             next = null;
         }
     }
+
+    /**
+     * Close the file. Events that have not yet been returned are discarded.
+     */
+    @Override
+    public void close() {
+        next = null;
+        if (!streamClosed) {
+            streamClosed = true;
+            try {
+                stream.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException("unable to close preconsensus event file", e);
+            }
+        }
+    }
 }
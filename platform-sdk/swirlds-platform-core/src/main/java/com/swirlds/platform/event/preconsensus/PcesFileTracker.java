@@ -19,6 +19,7 @@ package com.swirlds.platform.event.preconsensus;
 import static com.swirlds.logging.legacy.LogMarker.STARTUP;
 import static com.swirlds.platform.event.preconsensus.PcesFileManager.NO_LOWER_BOUND;
 
+import com.swirlds.common.threading.manager.ThreadManager;
 import com.swirlds.common.utility.RandomAccessDeque;
 import com.swirlds.common.utility.UnmodifiableIterator;
 import com.swirlds.platform.event.AncientMode;
@@ -171,6 +172,36 @@ public class PcesFileTracker {
         return new PcesMultiFileIterator(lowerBound, getFileIterator(lowerBound, startingRound), fileType);
     }
 
+    /**
+     * Get an iterator that walks over all events starting with a specified lower bound, reading and decoding several
+     * files in parallel ahead of the consumer. Returns the same events in the same order as
+     * {@link #getEventIterator(long, long)}.
+     * <p>
+     * Note: this method only works at system startup time, using this iterator after startup has undefined behavior.
+     *
+     * @param lowerBound     the desired lower bound, see {@link #getEventIterator(long, long)}
+     * @param startingRound  the round to start iterating from
+     * @param readAheadFiles the maximum number of files to read concurrently
+     * @param queueSize      the maximum number of decoded events to buffer per file
+     * @param threadManager  responsible for creating the reader threads
+     * @return an iterator that walks over events
+     */
+    @NonNull
+    public PcesReadAheadIterator getReadAheadEventIterator(
+            final long lowerBound,
+            final long startingRound,
+            final int readAheadFiles,
+            final int queueSize,
+            @NonNull final ThreadManager threadManager) {
+        return new PcesReadAheadIterator(
+                lowerBound,
+                getFileIterator(lowerBound, startingRound),
+                fileType,
+                readAheadFiles,
+                queueSize,
+                threadManager);
+    }
+
     /**
      * Get an iterator that walks over all event files currently being tracked, in order.
      * <p>
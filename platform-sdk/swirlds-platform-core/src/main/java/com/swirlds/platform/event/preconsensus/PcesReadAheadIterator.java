@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.preconsensus;
+
+import com.swirlds.common.io.IOIterator;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
+import com.swirlds.common.threading.manager.ThreadManager;
+import com.swirlds.platform.event.AncientMode;
+import com.swirlds.platform.event.PlatformEvent;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Iterates over events from a sequence of preconsensus event files, reading and decoding several files ahead of the
+ * consumer in parallel. Events are returned in exactly the same order as {@link PcesMultiFileIterator} returns them.
+ * <p>
+ * Each file is read by its own {@link PcesFileIterator} on a background thread, and decoded events are buffered in a
+ * bounded queue per file. At most {@code readAheadFiles} files are read at the same time, so the number of buffered
+ * events never exceeds {@code readAheadFiles * queueSize}.
+ * <p>
+ * The background threads are stopped when the iterator is exhausted or closed.
+ */
+public class PcesReadAheadIterator implements IOIterator<PlatformEvent> {
+
+    /**
+     * Put to a file queue after the last event of the file, or after the file failed to be read.
+     */
+    private static final Object END_OF_FILE = new Object();
+
+    private final Iterator<PcesFile> fileIterator;
+    private final AncientMode fileType;
+    private final long lowerBound;
+    private final int readAheadFiles;
+    private final int queueSize;
+    private final ExecutorService executor;
+
+    /**
+     * Readers of the files currently being read, in file order.
+     */
+    private final Deque<FileReader> readers = new ArrayDeque<>();
+
+    private PlatformEvent next;
+    private int truncatedFileCount = 0;
+    private boolean closed = false;
+
+    /**
+     * Create an iterator that walks over events in a series of event files.
+     *
+     * @param lowerBound     the minimum ancient indicator of events to return, events with lower ancient indicators
+     *                       are not returned
+     * @param fileIterator   an iterator that walks over event files
+     * @param fileType       the type of file to read
+     * @param readAheadFiles the maximum number of files to read concurrently
+     * @param queueSize      the maximum number of decoded events to buffer per file
+     * @param threadManager  responsible for creating the reader threads
+     */
+    public PcesReadAheadIterator(
+            final long lowerBound,
+            @NonNull final Iterator<PcesFile> fileIterator,
+            @NonNull final AncientMode fileType,
+            final int readAheadFiles,
+            final int queueSize,
+            @NonNull final ThreadManager threadManager) {
+
+        if (readAheadFiles < 1) {
+            throw new IllegalArgumentException("readAheadFiles must be positive, got " + readAheadFiles);
+        }
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("queueSize must be positive, got " + queueSize);
+        }
+
+        this.fileIterator = Objects.requireNonNull(fileIterator);
+        this.lowerBound = lowerBound;
+        this.fileType = Objects.requireNonNull(fileType);
+        this.readAheadFiles = readAheadFiles;
+        this.queueSize = queueSize;
+        this.executor = Executors.newFixedThreadPool(
+                readAheadFiles,
+                new ThreadConfiguration(threadManager)
+                        .setComponent("pces")
+                        .setThreadName("replay-reader")
+                        .buildFactory());
+    }
+
+    /**
+     * Find the next event that should be returned.
+     */
+    private void findNext() throws IOException {
+        while (next == null && !closed) {
+            while (readers.size() < readAheadFiles && fileIterator.hasNext()) {
+                readers.addLast(new FileReader(fileIterator.next()));
+            }
+
+            final FileReader reader = readers.peekFirst();
+            if (reader == null) {
+                close();
+                break;
+            }
+
+            next = reader.take();
+            if (next == null) {
+                readers.removeFirst();
+                if (reader.hasPartialEvent()) {
+                    truncatedFileCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext() throws IOException {
+        findNext();
+        return next != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public PlatformEvent next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("iterator is empty, can not get next element");
+        }
+        try {
+            return next;
+        } finally {
+            next = null;
+        }
+    }
+
+    /**
+     * Get the number of files that had partial event data at the end. This can happen if JVM is shut down abruptly
+     * while and event is being written to disk.
+     *
+     * @return the number of files that had partial event data at the end that have been encountered so far
+     */
+    public int getTruncatedFileCount() {
+        return truncatedFileCount;
+    }
+
+    /**
+     * Stop all reader threads. Events that have been read ahead but not yet returned are discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        readers.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reads the events of a single file on a background thread.
+     */
+    private final class FileReader {
+
+        /**
+         * Decoded events of the file, followed by {@link #END_OF_FILE}. The consumer blocks until either is available.
+         */
+        private final BlockingQueue<Object> events = new ArrayBlockingQueue<>(queueSize);
+
+        /**
+         * Completes before {@link #END_OF_FILE} is put to the queue, with whether the file ended with a partial event.
+         */
+        private final CompletableFuture<Boolean> done = new CompletableFuture<>();
+
+        FileReader(@NonNull final PcesFile file) {
+            executor.execute(() -> read(file));
+        }
+
+        private void read(@NonNull final PcesFile file) {
+            try {
+                // The iterator only closes the file at its end, so close it if reading is stopped early
+                try (final PcesFileIterator iterator = new PcesFileIterator(file, lowerBound, fileType)) {
+                    while (iterator.hasNext()) {
+                        events.put(iterator.next());
+                    }
+                    done.complete(iterator.hasPartialEvent());
+                } catch (final IOException | RuntimeException e) {
+                    done.completeExceptionally(e);
+                }
+                events.put(END_OF_FILE);
+            } catch (final InterruptedException e) {
+                // Only happens when the iterator is closed, nobody waits for the end of the file
+                Thread.currentThread().interrupt();
+                done.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Take the next event of the file, waiting for it to be read if necessary.
+         *
+         * @return the next event, or null if all events of the file have been returned
+         */
+        @Nullable
+        PlatformEvent take() throws IOException {
+            try {
+                final Object item = events.take();
+                if (item == END_OF_FILE) {
+                    // rethrows the failure, if the file could not be read
+                    hasPartialEvent();
+                    return null;
+                }
+                return (PlatformEvent) item;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while reading preconsensus events");
+            }
+        }
+
+        /**
+         * Check whether the file ended with a partial event. Must only be called after the file has been read.
+         *
+         * @return true if the file ended with a partial event
+         * @throws IOException if the file could not be read
+         */
+        boolean hasPartialEvent() throws IOException {
+            try {
+                return done.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof final IOException ioException) {
+                    throw ioException;
+                }
+                throw e;
+            }
+        }
+    }
+}
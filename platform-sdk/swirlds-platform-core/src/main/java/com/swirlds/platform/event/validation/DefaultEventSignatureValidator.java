@@ -23,6 +23,7 @@ import com.hedera.hapi.node.base.SemanticVersion;
 import com.hedera.hapi.node.state.roster.Roster;
 import com.hedera.hapi.node.state.roster.RosterEntry;
 import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.metrics.extensions.CountPerSecond;
 import com.swirlds.common.platform.NodeId;
 import com.swirlds.common.utility.throttle.RateLimitedLogger;
 import com.swirlds.metrics.api.LongAccumulator;
@@ -38,13 +39,18 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import java.security.PublicKey;
 import java.security.cert.X509Certificate;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * Default implementation for verifying event signatures
+ * Default implementation for verifying event signatures.
+ * <p>
+ * This validator is safe to call concurrently, so that the signatures of many events can be verified in parallel. The
+ * public keys of the previous and current rosters are decoded once per roster update rather than once per event.
  */
 public class DefaultEventSignatureValidator implements EventSignatureValidator {
     private static final Logger logger = LogManager.getLogger(DefaultEventSignatureValidator.class);
@@ -60,14 +66,10 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
     private final SignatureVerifier signatureVerifier;
 
     /**
-     * The previous roster map. May be null.
+     * The decoded public keys of the previous and current rosters. Replaced as a whole when the rosters are updated, so
+     * that a concurrent validation always sees a consistent pair.
      */
-    private Map<Long, RosterEntry> previousRosterMap;
-
-    /**
-     * The current roster map.
-     */
-    private Map<Long, RosterEntry> currentRosterMap;
+    private volatile RosterKeys rosterKeys;
 
     /**
      * The current software version.
@@ -77,7 +79,7 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
     /**
      * The current event window.
      */
-    private EventWindow eventWindow;
+    private volatile EventWindow eventWindow;
 
     /**
      * Keeps track of the number of events in the intake pipeline from each peer
@@ -95,6 +97,20 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
             .withUnit("events");
     private final LongAccumulator validationFailedAccumulator;
 
+    /**
+     * The number of events per second whose signatures were verified, successfully or not.
+     */
+    private final CountPerSecond verifiedEventsPerSecond;
+
+    /**
+     * Public keys of the nodes in the previous and current rosters, by node ID. A node whose certificate can't be
+     * decoded is mapped to null.
+     *
+     * @param previous the keys of the previous roster, or null if there is no previous roster
+     * @param current  the keys of the current roster
+     */
+    private record RosterKeys(@Nullable Map<Long, PublicKey> previous, @NonNull Map<Long, PublicKey> current) {}
+
     /**
      * Constructor
      *
@@ -115,13 +131,18 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
 
         this.signatureVerifier = Objects.requireNonNull(signatureVerifier);
         this.currentSoftwareVersion = Objects.requireNonNull(currentSoftwareVersion);
-        this.previousRosterMap = RosterUtils.toMap(previousRoster);
-        this.currentRosterMap = RosterUtils.toMap(Objects.requireNonNull(currentRoster));
+        this.rosterKeys = new RosterKeys(
+                decodePublicKeys(previousRoster), decodePublicKeys(Objects.requireNonNull(currentRoster)));
         this.intakeEventCounter = Objects.requireNonNull(intakeEventCounter);
 
         this.rateLimitedLogger = new RateLimitedLogger(logger, platformContext.getTime(), MINIMUM_LOG_PERIOD);
 
         this.validationFailedAccumulator = platformContext.getMetrics().getOrCreate(VALIDATION_FAILED_CONFIG);
+        this.verifiedEventsPerSecond = new CountPerSecond(
+                platformContext.getMetrics(),
+                new CountPerSecond.Config(PLATFORM_CATEGORY, "eventsSignatureVerified_per_sec")
+                        .withDescription("number of events per second whose signatures were verified")
+                        .withUnit("hz"));
 
         eventWindow = EventWindow.getGenesisEventWindow(platformContext
                 .getConfiguration()
@@ -129,6 +150,25 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
                 .getAncientMode());
     }
 
+    /**
+     * Decode the public keys of all nodes in a roster.
+     *
+     * @param roster the roster, may be null
+     * @return the public keys by node ID, or null if the roster is null
+     */
+    @Nullable
+    private static Map<Long, PublicKey> decodePublicKeys(@Nullable final Roster roster) {
+        if (roster == null) {
+            return null;
+        }
+        final Map<Long, PublicKey> keys = new HashMap<>();
+        for (final RosterEntry entry : roster.rosterEntries()) {
+            final X509Certificate cert = RosterUtils.fetchGossipCaCertificate(entry);
+            keys.put(entry.nodeId(), cert == null ? null : cert.getPublicKey());
+        }
+        return Collections.unmodifiableMap(keys);
+    }
+
     /**
      * Determine whether the previous roster or the current roster should be used to verify an event's
      * signature.
@@ -136,10 +176,12 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
      * Logs an error and returns null if an applicable roster cannot be selected
      *
      * @param event the event to be validated
-     * @return the applicable roster map, or null if an applicable roster cannot be selected
+     * @param keys  the decoded keys of the previous and current rosters
+     * @return the public keys of the applicable roster, or null if an applicable roster cannot be selected
      */
     @Nullable
-    private Map<Long, RosterEntry> determineApplicableRosterMap(@NonNull final PlatformEvent event) {
+    private Map<Long, PublicKey> determineApplicableRosterKeys(
+            @NonNull final PlatformEvent event, @NonNull final RosterKeys keys) {
         final SemanticVersion eventVersion = event.getSoftwareVersion();
 
         final int softwareComparison =
@@ -154,7 +196,7 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
             return null;
         } else if (softwareComparison > 0) {
             // current software version is greater than event software version
-            if (previousRosterMap == null) {
+            if (keys.previous() == null) {
                 rateLimitedLogger.error(
                         EXCEPTION.getMarker(),
                         "Cannot validate events for software version {} that is less than the current software version {} without a previous roster",
@@ -162,10 +204,10 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
                         currentSoftwareVersion);
                 return null;
             }
-            return previousRosterMap;
+            return keys.previous();
         } else {
             // current software version is equal to event software version
-            return currentRosterMap;
+            return keys.current();
         }
     }
 
@@ -176,15 +218,15 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
      * @return true if the event has a valid signature, otherwise false
      */
     private boolean isSignatureValid(@NonNull final PlatformEvent event) {
-        final Map<Long, RosterEntry> applicableRosterMap = determineApplicableRosterMap(event);
-        if (applicableRosterMap == null) {
+        final Map<Long, PublicKey> applicableRosterKeys = determineApplicableRosterKeys(event, rosterKeys);
+        if (applicableRosterKeys == null) {
             // this occurrence was already logged while attempting to determine the applicable roster
             return false;
         }
 
         final NodeId eventCreatorId = event.getCreatorId();
 
-        if (!applicableRosterMap.containsKey(eventCreatorId.id())) {
+        if (!applicableRosterKeys.containsKey(eventCreatorId.id())) {
             rateLimitedLogger.error(
                     EXCEPTION.getMarker(),
                     "Node {} doesn't exist in applicable roster. Event: {}",
@@ -193,8 +235,7 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
             return false;
         }
 
-        final X509Certificate cert = RosterUtils.fetchGossipCaCertificate(applicableRosterMap.get(eventCreatorId.id()));
-        final PublicKey publicKey = cert == null ? null : cert.getPublicKey();
+        final PublicKey publicKey = applicableRosterKeys.get(eventCreatorId.id());
         if (publicKey == null) {
             rateLimitedLogger.error(
                     EXCEPTION.getMarker(), "Cannot find publicKey for creator with ID: {}", eventCreatorId);
@@ -203,6 +244,7 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
 
         final boolean isSignatureValid =
                 signatureVerifier.verifySignature(event.getHash().getBytes(), event.getSignature(), publicKey);
+        verifiedEventsPerSecond.count();
 
         if (!isSignatureValid) {
             rateLimitedLogger.error(
@@ -251,7 +293,7 @@ public class DefaultEventSignatureValidator implements EventSignatureValidator {
      */
     @Override
     public void updateRosters(@NonNull final RosterUpdate rosterUpdate) {
-        this.previousRosterMap = RosterUtils.toMap(rosterUpdate.previousRoster());
-        this.currentRosterMap = RosterUtils.toMap(rosterUpdate.currentRoster());
+        this.rosterKeys = new RosterKeys(
+                decodePublicKeys(rosterUpdate.previousRoster()), decodePublicKeys(rosterUpdate.currentRoster()));
     }
 }
@@ -373,6 +373,7 @@ public class SyncGossip implements ConnectionTracker, Gossip {
                     .setComponent(PLATFORM_THREAD_POOL_NAME)
                     .setOtherNodeId(otherId)
                     .setThreadName("SyncProtocolWith" + otherId)
+                    .setVirtual(syncConfig.useVirtualThreads())
                     .setHangingThreadPeriod(hangingThreadDuration)
                     .setWork(new ProtocolNegotiatorThread(
                             connectionManagers.getManager(otherId, topology.shouldConnectTo(otherId)),
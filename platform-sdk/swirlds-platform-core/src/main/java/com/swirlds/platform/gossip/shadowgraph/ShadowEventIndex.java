@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.gossip.shadowgraph;
+
+import com.swirlds.common.crypto.Hash;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * An index of shadow events by event hash. This index uses the first 8 bytes of event hashes as primitive long keys in
+ * an open addressing hash table with linear probing, which avoids an entry object per event and the
+ * {@link Hash#equals(Object)} call for most probes. Full hashes are still compared on every match, so two hashes with
+ * the same prefix are handled correctly.
+ * <p>
+ * Event creators can grind event contents, so that hash prefixes of their events fall into the same few table slots.
+ * To prevent that, prefixes are mixed with a secret random seed before they are mapped to slots. If a probe sequence
+ * gets long anyway, the table is rehashed with a new seed.
+ * <p>
+ * This class is not thread safe.
+ */
+final class ShadowEventIndex {
+
+    /** The minimum capacity of the table, must be a power of two */
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * The max expected probe sequence length. Longer sequences are very unlikely with a load factor of 1/2 and random
+     * slots, so if a sequence is longer, the table is rehashed with a new seed
+     */
+    private static final int MAX_PROBE_LENGTH = 64;
+
+    /** The source of seeds */
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+
+    /** The seed mixed into hash prefixes to get slots */
+    private long seed = SEED_SOURCE.nextLong();
+
+    /**
+     * The number of events added since the table was last rehashed. Used to limit rehashing to once per so many
+     * additions, so distinct hashes with equal prefixes, which no seed can spread, don't make every addition rehash
+     */
+    private int putsSinceRehash;
+
+    /** Hash prefixes of the events in the table. A slot is empty, if the corresponding event is null */
+    private long[] prefixes;
+
+    /** Events in the table */
+    private ShadowEvent[] events;
+
+    /** The number of events in the table */
+    private int size;
+
+    /**
+     * Create a new empty index.
+     */
+    ShadowEventIndex() {
+        prefixes = new long[MIN_CAPACITY];
+        events = new ShadowEvent[MIN_CAPACITY];
+    }
+
+    /**
+     * Get the hash prefix used as the key in this index.
+     *
+     * @param hash the event hash
+     * @return the first 8 bytes of the hash as a long
+     */
+    private static long prefix(@NonNull final Hash hash) {
+        return hash.getBytes().getLong(0);
+    }
+
+    /**
+     * Get the first slot to probe for a prefix.
+     */
+    private int slot(final long prefix) {
+        // Murmur3 64-bit finalizer, so every bit of the seeded prefix affects the slot
+        long h = prefix ^ seed;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & (events.length - 1);
+    }
+
+    /**
+     * Get the number of events in the index.
+     *
+     * @return the number of events
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of slots in the table.
+     *
+     * @return the table capacity
+     */
+    int capacity() {
+        return events.length;
+    }
+
+    /**
+     * Get the shadow event with the given hash.
+     *
+     * @param hash the event hash
+     * @return the shadow event, or null if there is no event with this hash in the index
+     */
+    @Nullable
+    ShadowEvent get(@NonNull final Hash hash) {
+        final long prefix = prefix(hash);
+        final int mask = events.length - 1;
+        for (int i = slot(prefix); events[i] != null; i = (i + 1) & mask) {
+            if (prefixes[i] == prefix && events[i].getEventBaseHash().equals(hash)) {
+                return events[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add a shadow event to the index. If there is an event with the same hash in the index already, it is replaced.
+     *
+     * @param shadow the shadow event to add
+     */
+    void put(@NonNull final ShadowEvent shadow) {
+        final Hash hash = shadow.getEventBaseHash();
+        final long prefix = prefix(hash);
+        final int mask = events.length - 1;
+        int i = slot(prefix);
+        int probeLength = 0;
+        while (events[i] != null) {
+            if (prefixes[i] == prefix && events[i].getEventBaseHash().equals(hash)) {
+                events[i] = shadow;
+                return;
+            }
+            i = (i + 1) & mask;
+            probeLength++;
+        }
+        prefixes[i] = prefix;
+        events[i] = shadow;
+        size++;
+        putsSinceRehash++;
+        // Keep the load factor at or below 1/2, so probe sequences stay short
+        if (size * 2 > events.length) {
+            resize(events.length * 2);
+        } else if (probeLength > MAX_PROBE_LENGTH && putsSinceRehash > events.length / 4) {
+            // Prefixes cluster with the current seed, spread them with a new one
+            seed = SEED_SOURCE.nextLong();
+            resize(events.length);
+        }
+    }
+
+    /**
+     * Remove the shadow event with the given hash from the index.
+     *
+     * @param hash the event hash
+     * @return the removed shadow event, or null if there was no event with this hash in the index
+     */
+    @Nullable
+    ShadowEvent remove(@NonNull final Hash hash) {
+        final long prefix = prefix(hash);
+        final int mask = events.length - 1;
+        int i = slot(prefix);
+        while (events[i] != null) {
+            if (prefixes[i] == prefix && events[i].getEventBaseHash().equals(hash)) {
+                final ShadowEvent removed = events[i];
+                deleteSlot(i);
+                size--;
+                // Shrink the table, when expired events leave it sparse. The load factor after shrinking is at most
+                // 1/4, so the table doesn't grow again right away
+                if (size * 8 < events.length && events.length > MIN_CAPACITY) {
+                    resize(events.length / 2);
+                }
+                return removed;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Empty a slot, then shift later events in the same probe sequence back, so every event stays reachable from its
+     * first slot without tombstones.
+     *
+     * @param slot the slot to empty
+     */
+    private void deleteSlot(final int slot) {
+        final int mask = events.length - 1;
+        int hole = slot;
+        int i = (slot + 1) & mask;
+        while (events[i] != null) {
+            final int home = slot(prefixes[i]);
+            // Move the event to the hole, unless its first slot is cyclically in (hole, i]
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                prefixes[hole] = prefixes[i];
+                events[hole] = events[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        events[hole] = null;
+    }
+
+    /**
+     * Resize the table.
+     *
+     * @param capacity the new capacity, must be a power of two
+     */
+    private void resize(final int capacity) {
+        final long[] oldPrefixes = prefixes;
+        final ShadowEvent[] oldEvents = events;
+        prefixes = new long[capacity];
+        events = new ShadowEvent[capacity];
+        putsSinceRehash = 0;
+        final int mask = capacity - 1;
+        for (int j = 0; j < oldEvents.length; j++) {
+            if (oldEvents[j] != null) {
+                int i = slot(oldPrefixes[j]);
+                while (events[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                prefixes[i] = oldPrefixes[j];
+                events[i] = oldEvents[j];
+            }
+        }
+    }
+
+    /**
+     * Call an action for every event in the index, in no particular order.
+     *
+     * @param action the action to call
+     */
+    void forEach(@NonNull final Consumer<ShadowEvent> action) {
+        for (final ShadowEvent shadow : events) {
+            if (shadow != null) {
+                action.accept(shadow);
+            }
+        }
+    }
+
+    /**
+     * Remove all events from the index. The table shrinks back to the minimum capacity.
+     */
+    void clear() {
+        if (events.length > MIN_CAPACITY) {
+            prefixes = new long[MIN_CAPACITY];
+            events = new ShadowEvent[MIN_CAPACITY];
+        } else {
+            Arrays.fill(events, null);
+        }
+        size = 0;
+    }
+}
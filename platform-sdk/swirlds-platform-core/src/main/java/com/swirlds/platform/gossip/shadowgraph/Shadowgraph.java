@@ -23,6 +23,7 @@ import static com.swirlds.logging.legacy.LogMarker.SYNC_INFO;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.utility.Clearable;
+import com.swirlds.common.utility.RandomAccessDeque;
 import com.swirlds.platform.consensus.EventWindow;
 import com.swirlds.platform.event.AncientMode;
 import com.swirlds.platform.event.PlatformEvent;
@@ -34,16 +35,15 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
@@ -52,6 +52,10 @@ import org.apache.logging.log4j.Logger;
 /**
  * The primary purpose of the shadowgraph is to unlink events when it is safe to do so. In order to decide when it is
  * safe to unlink an event, it allows for batches of events (by ancient indicator) to be reserved.
+ * <p>
+ * The shadowgraph is read by all concurrent syncs and modified by event intake and event window updates. Reads are
+ * much more frequent than writes, so the shadowgraph is guarded by a read-write lock rather than by a monitor:
+ * concurrent syncs don't block each other while looking up tips and events.
  */
 public class Shadowgraph implements Clearable {
 
@@ -63,14 +67,16 @@ public class Shadowgraph implements Clearable {
     public static final int NO_RESERVATION = -1;
 
     /**
-     * The shadowgraph represented in a map from has to shadow event.
+     * The shadowgraph represented in an index from hash to shadow event.
      */
-    private final HashMap<Hash, ShadowEvent> hashToShadowEvent;
+    private final ShadowEventIndex hashToShadowEvent;
 
     /**
-     * Map from ancient indicator to all shadow events with that ancient indicator.
+     * All shadow events by ancient indicator. The element at index {@code i} contains all shadow events with ancient
+     * indicator {@link #oldestUnexpiredIndicator} {@code + i}, or is null if there are no such events. Events are
+     * expired in ancient indicator order, so expired events are always removed from the front.
      */
-    private final Map<Long /* ancient indicator */, Set<ShadowEvent>> indicatorToShadowEvent;
+    private final RandomAccessDeque<List<ShadowEvent>> indicatorToShadowEvent;
 
     /**
      * The set of all tips for the shadowgraph. A tip is an event with no self child (could have other children)
@@ -78,9 +84,10 @@ public class Shadowgraph implements Clearable {
     private final HashSet<ShadowEvent> tips;
 
     /**
-     * The oldest ancient indicator that has not yet been expired
+     * The oldest ancient indicator that has not yet been expired. Volatile, as it's read by {@link #findAncestors}
+     * without holding the lock.
      */
-    private long oldestUnexpiredIndicator;
+    private volatile long oldestUnexpiredIndicator;
 
     /**
      * The list of all currently reserved indicators and their number of reservations.
@@ -112,6 +119,13 @@ public class Shadowgraph implements Clearable {
      */
     private final IntakeEventCounter intakeEventCounter;
 
+    /**
+     * Guards all the shadowgraph state. The read lock is used for lookups, the write lock for modifications.
+     */
+    private final Lock readLock;
+
+    private final Lock writeLock;
+
     /**
      * Constructor.
      *
@@ -133,9 +147,12 @@ public class Shadowgraph implements Clearable {
         this.numberOfNodes = numberOfNodes;
         this.intakeEventCounter = Objects.requireNonNull(intakeEventCounter);
         tips = new HashSet<>();
-        hashToShadowEvent = new HashMap<>();
-        indicatorToShadowEvent = new HashMap<>();
+        hashToShadowEvent = new ShadowEventIndex();
+        indicatorToShadowEvent = new RandomAccessDeque<>();
         reservationList = new LinkedList<>();
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        readLock = lock.readLock();
+        writeLock = lock.writeLock();
     }
 
     /**
@@ -155,23 +172,26 @@ public class Shadowgraph implements Clearable {
     /**
      * Reset the shadowgraph manager to its constructed state.
      */
-    public synchronized void clear() {
-        eventWindow = null;
-        oldestUnexpiredIndicator = ancientMode.getGenesisIndicator();
-        disconnectShadowEvents();
-        tips.clear();
-        hashToShadowEvent.clear();
-        indicatorToShadowEvent.clear();
-        reservationList.clear();
+    public void clear() {
+        writeLock.lock();
+        try {
+            eventWindow = null;
+            oldestUnexpiredIndicator = ancientMode.getGenesisIndicator();
+            disconnectShadowEvents();
+            tips.clear();
+            hashToShadowEvent.clear();
+            indicatorToShadowEvent.clear();
+            reservationList.clear();
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
      * Disconnect all shadow events to help the garbage collector.
      */
     private void disconnectShadowEvents() {
-        for (final ShadowEvent shadow : hashToShadowEvent.values()) {
-            shadow.disconnect();
-        }
+        hashToShadowEvent.forEach(ShadowEvent::disconnect);
     }
 
     /**
@@ -181,7 +201,22 @@ public class Shadowgraph implements Clearable {
      * @return the reservation instance, must be closed when the reservation is no longer needed
      */
     @NonNull
-    public synchronized ReservedEventWindow reserve() {
+    public ReservedEventWindow reserve() {
+        // Reservations are modified by event window updates, so the write lock is needed. Reserving is cheap, and
+        // it's done once per sync, so this doesn't limit concurrency of syncs much
+        writeLock.lock();
+        try {
+            return reserveLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #reserve()}, must be called with the write lock held.
+     */
+    @NonNull
+    private ReservedEventWindow reserveLocked() {
         if (reservationList.isEmpty()) {
             // If we are not currently holding any reservations, we need to create a new one.
             return new ReservedEventWindow(eventWindow, newReservation());
@@ -215,8 +250,13 @@ public class Shadowgraph implements Clearable {
      * Get the latest event window known to the shadowgraph.
      */
     @NonNull
-    public synchronized EventWindow getEventWindow() {
-        return eventWindow;
+    public EventWindow getEventWindow() {
+        readLock.lock();
+        try {
+            return eventWindow;
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -227,8 +267,8 @@ public class Shadowgraph implements Clearable {
      * @deprecated still used by tests, planned for removal. Do not add new uses.
      */
     @Deprecated(forRemoval = true)
-    public synchronized boolean isHashInGraph(final Hash hash) {
-        return hashToShadowEvent.containsKey(hash);
+    public boolean isHashInGraph(final Hash hash) {
+        return shadow(hash) != null;
     }
 
     /**
@@ -242,9 +282,9 @@ public class Shadowgraph implements Clearable {
      *     <li>adding events to the the graph does not affect ancestors</li>
      *     <li>checks for expired parent events are atomic</li>
      * </ol>
-     * <p>Note: This method is always accessed after a call to a synchronized {@link Shadowgraph} method, like
-     * {@link #getTips()}, which acts as a memory gate and causes the calling thread to read the latest values for all
-     * variables from memory, including {@link ShadowEvent} links.</p>
+     * <p>Note: This method is always accessed after a call to a {@link Shadowgraph} method that acquires the lock,
+     * like {@link #getTips()}, which acts as a memory gate and causes the calling thread to read the latest values for
+     * all variables from memory, including {@link ShadowEvent} links.</p>
      *
      * @param events    the event to find ancestors of
      * @param predicate determines whether or not to add the ancestor to the return list
@@ -325,17 +365,28 @@ public class Shadowgraph implements Clearable {
      */
     @Deprecated(forRemoval = true)
     @NonNull
-    public synchronized Collection<PlatformEvent> findByAncientIndicator(
+    public Collection<PlatformEvent> findByAncientIndicator(
             final long lowerBound, final long upperBound, @NonNull final Predicate<PlatformEvent> predicate) {
         final List<PlatformEvent> result = new ArrayList<>();
         if (lowerBound >= upperBound) {
             return result;
         }
-        for (long indicator = lowerBound; indicator < upperBound; indicator++) {
-            indicatorToShadowEvent.getOrDefault(indicator, Collections.emptySet()).stream()
-                    .map(ShadowEvent::getEvent)
-                    .filter(predicate)
-                    .forEach(result::add);
+        readLock.lock();
+        try {
+            final long first = Math.max(lowerBound, oldestUnexpiredIndicator);
+            final long last = Math.min(upperBound, oldestUnexpiredIndicator + indicatorToShadowEvent.size());
+            for (long indicator = first; indicator < last; indicator++) {
+                final List<ShadowEvent> shadows =
+                        indicatorToShadowEvent.get((int) (indicator - oldestUnexpiredIndicator));
+                if (shadows != null) {
+                    shadows.stream()
+                            .map(ShadowEvent::getEvent)
+                            .filter(predicate)
+                            .forEach(result::add);
+                }
+            }
+        } finally {
+            readLock.unlock();
         }
         return result;
     }
@@ -353,7 +404,19 @@ public class Shadowgraph implements Clearable {
      *
      * @param eventWindow describes the current window of non-expired events
      */
-    public synchronized void updateEventWindow(@NonNull final EventWindow eventWindow) {
+    public void updateEventWindow(@NonNull final EventWindow eventWindow) {
+        writeLock.lock();
+        try {
+            updateEventWindowLocked(eventWindow);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #updateEventWindow(EventWindow)}, must be called with the write lock held.
+     */
+    private void updateEventWindowLocked(@NonNull final EventWindow eventWindow) {
         if (this.eventWindow == null) {
             startWithEventWindow(eventWindow);
             return;
@@ -391,7 +454,8 @@ public class Shadowgraph implements Clearable {
         final long minimumIndicatorToKeep = Math.min(eventWindow.getExpiredThreshold(), oldestReservedIndicator);
 
         while (oldestUnexpiredIndicator < minimumIndicatorToKeep) {
-            final Set<ShadowEvent> shadowsToExpire = indicatorToShadowEvent.remove(oldestUnexpiredIndicator);
+            final List<ShadowEvent> shadowsToExpire =
+                    indicatorToShadowEvent.size() > 0 ? indicatorToShadowEvent.removeFirst() : null;
             // shadowsToExpire should never be null, but check just in case.
             if (shadowsToExpire == null) {
                 logger.error(
@@ -458,7 +522,7 @@ public class Shadowgraph implements Clearable {
      * @throws IllegalArgumentException if {@code otherParentsDescriptors} contains more than one event descriptor
      */
     @Nullable
-    private synchronized ShadowEvent shadow(@NonNull final List<EventDescriptorWrapper> otherParentsDescriptors) {
+    private ShadowEvent shadow(@NonNull final List<EventDescriptorWrapper> otherParentsDescriptors) {
         if (otherParentsDescriptors.isEmpty()) {
             return null;
         }
@@ -467,7 +531,7 @@ public class Shadowgraph implements Clearable {
             throw new IllegalArgumentException("Only one otherParent descriptor is supported");
         }
 
-        return hashToShadowEvent.get(otherParentsDescriptors.getFirst().hash());
+        return shadowLocked(otherParentsDescriptors.getFirst().hash());
     }
 
     /**
@@ -477,12 +541,12 @@ public class Shadowgraph implements Clearable {
      * @return the shadow event that references an event, or null is {@code e} is null
      */
     @Nullable
-    public synchronized ShadowEvent shadow(@Nullable final EventDescriptorWrapper e) {
+    public ShadowEvent shadow(@Nullable final EventDescriptorWrapper e) {
         if (e == null) {
             return null;
         }
 
-        return hashToShadowEvent.get(e.hash());
+        return shadow(e.hash());
     }
 
     /**
@@ -491,11 +555,16 @@ public class Shadowgraph implements Clearable {
      * @param hashes The event hashes to get shadow events for
      * @return the shadow events that reference the events with the given hashes
      */
-    public synchronized List<ShadowEvent> shadows(final List<Hash> hashes) {
+    public List<ShadowEvent> shadows(final List<Hash> hashes) {
         Objects.requireNonNull(hashes);
         final List<ShadowEvent> shadows = new ArrayList<>(hashes.size());
-        for (final Hash hash : hashes) {
-            shadows.add(shadow(hash));
+        readLock.lock();
+        try {
+            for (final Hash hash : hashes) {
+                shadows.add(shadowLocked(hash));
+            }
+        } finally {
+            readLock.unlock();
         }
         return shadows;
     }
@@ -507,7 +576,7 @@ public class Shadowgraph implements Clearable {
      * @return the hashgraph event, if there is one in {@code this} shadowgraph, else `null`
      */
     @Nullable
-    public synchronized PlatformEvent hashgraphEvent(@Nullable final Hash h) {
+    public PlatformEvent hashgraphEvent(@Nullable final Hash h) {
         final ShadowEvent shadow = shadow(h);
         if (shadow == null) {
             return null;
@@ -523,8 +592,13 @@ public class Shadowgraph implements Clearable {
      * @return an unmodifiable copy of the tips
      */
     @NonNull
-    public synchronized List<ShadowEvent> getTips() {
-        return new ArrayList<>(tips);
+    public List<ShadowEvent> getTips() {
+        readLock.lock();
+        try {
+            return new ArrayList<>(tips);
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -534,7 +608,19 @@ public class Shadowgraph implements Clearable {
      * @return {@code true} if the event was added, {@code false} otherwise
      * @throws ShadowgraphInsertionException if the event was unable to be added to the shadowgraph
      */
-    public synchronized boolean addEvent(@NonNull final PlatformEvent event) throws ShadowgraphInsertionException {
+    public boolean addEvent(@NonNull final PlatformEvent event) throws ShadowgraphInsertionException {
+        writeLock.lock();
+        try {
+            return addEventLocked(event);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #addEvent(PlatformEvent)}, must be called with the write lock held.
+     */
+    private boolean addEventLocked(@NonNull final PlatformEvent event) throws ShadowgraphInsertionException {
         if (eventWindow == null) {
             throw new IllegalStateException("Initial event window not set");
         }
@@ -599,8 +685,30 @@ public class Shadowgraph implements Clearable {
         return reservation;
     }
 
-    private ShadowEvent shadow(final Hash h) {
-        return hashToShadowEvent.get(h);
+    @Nullable
+    private ShadowEvent shadow(@Nullable final Hash h) {
+        readLock.lock();
+        try {
+            return shadowLocked(h);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Get the shadow event with the given hash, must be called with the read or the write lock held.
+     */
+    @Nullable
+    private ShadowEvent shadowLocked(@Nullable final Hash h) {
+        return h == null ? null : hashToShadowEvent.get(h);
+    }
+
+    /**
+     * Get the shadow event for the given event descriptor, must be called with the read or the write lock held.
+     */
+    @Nullable
+    private ShadowEvent shadowLocked(@Nullable final EventDescriptorWrapper e) {
+        return e == null ? null : shadowLocked(e.hash());
     }
 
     /**
@@ -608,8 +716,8 @@ public class Shadowgraph implements Clearable {
      * @return the event that has the hash provided, or null if none exists
      */
     @Nullable
-    public synchronized PlatformEvent getEvent(@Nullable final Hash hash) {
-        final ShadowEvent shadowEvent = hashToShadowEvent.get(hash);
+    public PlatformEvent getEvent(@Nullable final Hash hash) {
+        final ShadowEvent shadowEvent = shadow(hash);
         return shadowEvent == null ? null : shadowEvent.getEvent();
     }
 
@@ -622,18 +730,24 @@ public class Shadowgraph implements Clearable {
      */
     @NonNull
     private ShadowEvent insert(@NonNull final PlatformEvent event) {
-        final ShadowEvent sp = shadow(event.getSelfParent());
+        final ShadowEvent sp = shadowLocked(event.getSelfParent());
         final ShadowEvent op = shadow(event.getOtherParents());
 
         final ShadowEvent se = new ShadowEvent(event, sp, op);
 
-        hashToShadowEvent.put(se.getEventBaseHash(), se);
+        hashToShadowEvent.put(se);
 
-        final long ancientIndicator = event.getAncientIndicator(ancientMode);
-        if (!indicatorToShadowEvent.containsKey(ancientIndicator)) {
-            indicatorToShadowEvent.put(ancientIndicator, new HashSet<>());
+        // Insertable events are never expired, so the index is never negative
+        final int index = Math.toIntExact(event.getAncientIndicator(ancientMode) - oldestUnexpiredIndicator);
+        while (indicatorToShadowEvent.size() <= index) {
+            indicatorToShadowEvent.addLast(null);
+        }
+        List<ShadowEvent> shadows = indicatorToShadowEvent.get(index);
+        if (shadows == null) {
+            shadows = new ArrayList<>();
+            indicatorToShadowEvent.set(index, shadows);
         }
-        indicatorToShadowEvent.get(ancientIndicator).add(se);
+        shadows.add(se);
 
         return se;
     }
@@ -693,7 +807,7 @@ public class Shadowgraph implements Clearable {
     @NonNull
     private InsertableStatus insertable(@NonNull final PlatformEvent e) {
         // No multiple insertions
-        if (shadow(e.getDescriptor()) != null) {
+        if (shadowLocked(e.getDescriptor()) != null) {
             return InsertableStatus.DUPLICATE_SHADOW_EVENT;
         }
 
@@ -712,7 +826,7 @@ public class Shadowgraph implements Clearable {
                 throw new IllegalStateException("Only one otherParent descriptor is supported");
             }
             final EventDescriptorWrapper otherParent = e.getOtherParents().getFirst();
-            final boolean knownOP = shadow(otherParent) != null;
+            final boolean knownOP = shadowLocked(otherParent) != null;
             final boolean expiredOP = expired(otherParent);
             if (!knownOP && !expiredOP) {
                 logger.warn(STARTUP.getMarker(), "Missing non-expired other parent for {}", e);
@@ -720,7 +834,7 @@ public class Shadowgraph implements Clearable {
         }
 
         if (hasSP) {
-            final boolean knownSP = shadow(e.getSelfParent()) != null;
+            final boolean knownSP = shadowLocked(e.getSelfParent()) != null;
             final boolean expiredSP = expired(e.getSelfParent());
             if (!knownSP && !expiredSP) {
                 logger.warn(STARTUP.getMarker(), "Missing non-expired self parent for {}", e);
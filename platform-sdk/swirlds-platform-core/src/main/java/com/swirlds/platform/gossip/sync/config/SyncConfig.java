@@ -50,6 +50,13 @@ import java.time.Duration;
  * @param minimumHealthyUnrevokedPermitCount the minimum number of permits that must be unrevoked when the system is in
  *                                           a healthy state. If non-zero, this means that this number of permits is
  *                                           immediately returned as soon as the system becomes healthy.
+ * @param useVirtualThreads                  if true, then protocols with every peer are run on virtual threads rather
+ *                                           than platform threads. Gossip threads spend most of the time blocked on
+ *                                           socket I/O, so virtual threads reduce the number of platform threads and
+ *                                           context switches with large rosters. Code run by protocol threads must
+ *                                           not block on socket I/O or wait while holding a monitor, because that
+ *                                           pins the carrier thread on JDK 21. Use locks from java.util.concurrent
+ *                                           instead
  */
 @ConfigData("sync")
 public record SyncConfig(
@@ -66,4 +73,5 @@ public record SyncConfig(
         @ConfigProperty(defaultValue = "1s") Duration unhealthyGracePeriod,
         @ConfigProperty(defaultValue = "5") double permitsRevokedPerSecond,
         @ConfigProperty(defaultValue = "0.1") double permitsReturnedPerSecond,
-        @ConfigProperty(defaultValue = "1") int minimumHealthyUnrevokedPermitCount) {}
+        @ConfigProperty(defaultValue = "1") int minimumHealthyUnrevokedPermitCount,
+        @ConfigProperty(defaultValue = "false") boolean useVirtualThreads) {}
@@ -22,6 +22,7 @@ import static com.swirlds.metrics.api.FloatFormats.FORMAT_8_1;
 import static com.swirlds.metrics.api.Metrics.INTERNAL_CATEGORY;
 import static com.swirlds.metrics.api.Metrics.PLATFORM_CATEGORY;
 
+import com.sun.management.OperatingSystemMXBean;
 import com.swirlds.base.units.UnitConstants;
 import com.swirlds.common.metrics.RunningAverageMetric;
 import com.swirlds.common.metrics.extensions.CountPerSecond;
@@ -38,7 +39,9 @@ import com.swirlds.platform.stats.AverageTimeStat;
 import com.swirlds.platform.stats.MaxStat;
 import com.swirlds.platform.system.PlatformStatNames;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.lang.management.ManagementFactory;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Interface to update relevant sync statistics
@@ -131,6 +134,13 @@ public class SyncMetrics {
             .withDescription("Number of times per second we do not sync because the intake counter is too high");
     private final CountPerSecond doNotSyncIntakeCounter;
 
+    private static final RunningAverageMetric.Config PROCESS_CPU_PER_SYNCED_EVENT_CONFIG =
+            new RunningAverageMetric.Config(INTERNAL_CATEGORY, "processCpuMicrosPerSyncedEvent")
+                    .withDescription("CPU time of the whole process, not only of gossip, per event sent or received "
+                            + "in syncs (in microseconds). Only comparable between runs with the same load")
+                    .withFormat(FORMAT_10_3);
+    private final RunningAverageMetric processCpuPerSyncedEvent;
+
     private final RunningAverageMetric tipsPerSync;
 
     private final AverageStat syncIndicatorDiff;
@@ -147,6 +157,18 @@ public class SyncMetrics {
     private final MaxStat multiTipsPerSync;
     private final RunningAverageMetric syncFilterTime;
 
+    /** The number of events sent or received in all syncs */
+    private final LongAdder syncedEvents = new LongAdder();
+
+    /** Used to get the process CPU time */
+    private final OperatingSystemMXBean osBean;
+
+    /** The process CPU time at the last metrics update, in nanoseconds. Only accessed by the metrics updater */
+    private long lastProcessCpuTime;
+
+    /** The number of synced events at the last metrics update. Only accessed by the metrics updater */
+    private long lastSyncedEvents;
+
     /**
      * Constructor of {@code SyncMetrics}
      *
@@ -165,6 +187,10 @@ public class SyncMetrics {
         outgoingSyncRequestsPerSec = new CountPerSecond(metrics, OUTGOING_SYNC_REQUESTS_CONFIG);
         syncsPerSec = new CountPerSecond(metrics, SYNCS_PER_SECOND_CONFIG);
         syncFilterTime = metrics.getOrCreate(SYNC_FILTER_TIME_CONFIG);
+        processCpuPerSyncedEvent = metrics.getOrCreate(PROCESS_CPU_PER_SYNCED_EVENT_CONFIG);
+        osBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        lastProcessCpuTime = osBean.getProcessCpuTime();
+        metrics.addUpdater(this::updateProcessCpuPerSyncedEvent);
 
         doNoSyncPlatformStatus = new CountPerSecond(metrics, DO_NOT_SYNC_PLATFORM_STATUS);
         doNotSyncCooldown = new CountPerSecond(metrics, DO_NOT_SYNC_COOLDOWN_CONFIG);
@@ -325,6 +351,25 @@ public class SyncMetrics {
 
         avgEventsPerSyncSent.update(info.getEventsWritten());
         avgEventsPerSyncRec.update(info.getEventsRead());
+        syncedEvents.add(info.getEventsWritten() + info.getEventsRead());
+    }
+
+    /**
+     * Updates the process CPU time per synced event metric. The CPU time of the whole process is used, as the CPU
+     * time of individual virtual threads can't be measured, so this includes work unrelated to gossip. Called
+     * periodically by the metrics system.
+     */
+    private void updateProcessCpuPerSyncedEvent() {
+        final long processCpuTime = osBean.getProcessCpuTime();
+        final long events = syncedEvents.sum();
+        // CPU time is negative if not supported on this platform
+        if (processCpuTime >= 0 && lastProcessCpuTime >= 0 && events > lastSyncedEvents) {
+            processCpuPerSyncedEvent.update((processCpuTime - lastProcessCpuTime)
+                    * UnitConstants.NANOSECONDS_TO_MICROSECONDS
+                    / (events - lastSyncedEvents));
+        }
+        lastProcessCpuTime = processCpuTime;
+        lastSyncedEvents = events;
     }
 
     /**
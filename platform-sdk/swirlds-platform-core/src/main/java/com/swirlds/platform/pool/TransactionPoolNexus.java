@@ -34,11 +34,14 @@ import com.swirlds.platform.util.TransactionUtils;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.hiero.event.creator.impl.EventCreationConfig;
@@ -46,6 +49,12 @@ import org.hiero.event.creator.impl.EventCreationConfig;
 /**
  * Store a list of transactions created by self, both system and non-system, for wrapping in the next event to be
  * created.
+ * <p>
+ * Transactions are submitted by many threads concurrently, for example, gRPC threads, and are drained by a single
+ * consumer, the event creator. Submission is lock-free: transactions are buffered in non-blocking queues, and the
+ * queue bounds (the number of transactions and, optionally, the number of bytes) are enforced using atomic counters.
+ * Only the consumer side, {@link #getTransactions()} and {@link #clear()}, is synchronized, so producers never wait
+ * for the event creator.
  */
 public class TransactionPoolNexus implements TransactionSupplier {
 
@@ -55,30 +64,63 @@ public class TransactionPoolNexus implements TransactionSupplier {
     /**
      * A list of transactions created by this node waiting to be put into a self-event.
      */
-    private final Queue<EventTransaction> bufferedTransactions = new LinkedList<>();
+    private final Queue<PooledTransaction> bufferedTransactions = new ConcurrentLinkedQueue<>();
 
     /**
      * A list of high-priority transactions created by this node waiting to be put into a self-event. Transactions in
      * this queue are always inserted into an event before transactions waiting in {@link #bufferedTransactions}.
      */
-    private final Queue<EventTransaction> priorityBufferedTransactions = new LinkedList<>();
+    private final Queue<PooledTransaction> priorityBufferedTransactions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of transactions in {@link #bufferedTransactions}. Concurrent queue sizes are not constant time
+     * operations, so the sizes are tracked separately.
+     */
+    private final AtomicInteger bufferedTransactionCount = new AtomicInteger();
+
+    /**
+     * The number of transactions in {@link #priorityBufferedTransactions}.
+     */
+    private final AtomicInteger priorityBufferedTransactionCount = new AtomicInteger();
+
+    /**
+     * The total number of transactions in both queues. New app transactions are rejected, when this number is
+     * greater than {@link #throttleTransactionQueueSize}.
+     */
+    private final AtomicInteger totalBufferedTransactionCount = new AtomicInteger();
+
+    /**
+     * The total size of all transactions in both queues, in bytes.
+     */
+    private final AtomicLong totalBufferedTransactionBytes = new AtomicLong();
 
     /**
      * The number of buffered signature transactions waiting to be put into events.
      */
-    private int bufferedSignatureTransactionCount = 0;
+    private final AtomicInteger bufferedSignatureTransactionCount = new AtomicInteger();
 
     /**
      * The maximum number of bytes of transactions that can be put in an event.
      */
     private final int maxTransactionBytesPerEvent;
 
+    /**
+     * The maximum number of transactions that can be put in an event.
+     */
+    private final int maxTransactionCountPerEvent;
+
     /**
      * The maximum desired size of the transaction queue. If the queue is larger than this, then new app transactions
      * are rejected.
      */
     private final int throttleTransactionQueueSize;
 
+    /**
+     * The maximum desired size of the transaction queue in bytes. If accepting a new app transaction would exceed
+     * this size, the transaction is rejected. If zero, the size of the queue in bytes is not limited.
+     */
+    private final long throttleTransactionQueueBytes;
+
     /**
      * Metrics for the transaction pool.
      */
@@ -92,7 +134,7 @@ public class TransactionPoolNexus implements TransactionSupplier {
     /**
      * The current status of the platform.
      */
-    private PlatformStatus platformStatus = PlatformStatus.STARTING_UP;
+    private volatile PlatformStatus platformStatus = PlatformStatus.STARTING_UP;
 
     /**
      * The maximum amount of time the platform may be in an unhealthy state before we start rejecting transactions.
@@ -102,7 +144,16 @@ public class TransactionPoolNexus implements TransactionSupplier {
     /**
      * Whether the platform is currently in a healthy state.
      */
-    private boolean healthy = true;
+    private volatile boolean healthy = true;
+
+    /**
+     * A transaction waiting in the pool along with its size, which is used for both the queue size accounting and the
+     * event size accounting.
+     *
+     * @param transaction the transaction
+     * @param size        the legacy size of the transaction, in bytes
+     */
+    private record PooledTransaction(@NonNull EventTransaction transaction, int size) {}
 
     /**
      * Creates a new transaction pool for transactions waiting to be put in an event.
@@ -117,7 +168,9 @@ public class TransactionPoolNexus implements TransactionSupplier {
         final TransactionConfig transactionConfig =
                 platformContext.getConfiguration().getConfigData(TransactionConfig.class);
         maxTransactionBytesPerEvent = transactionConfig.maxTransactionBytesPerEvent();
+        maxTransactionCountPerEvent = transactionConfig.maxTransactionCountPerEvent();
         throttleTransactionQueueSize = transactionConfig.throttleTransactionQueueSize();
+        throttleTransactionQueueBytes = transactionConfig.throttleTransactionQueueBytes();
 
         transactionPoolMetrics = new TransactionPoolMetrics(
                 platformContext, this::getBufferedTransactionCount, this::getPriorityBufferedTransactionCount);
@@ -140,7 +193,7 @@ public class TransactionPoolNexus implements TransactionSupplier {
      * @param appTransaction the transaction to submit
      * @return true if the transaction passed all validity checks and was accepted by the consumer
      */
-    public synchronized boolean submitApplicationTransaction(@NonNull final Bytes appTransaction) {
+    public boolean submitApplicationTransaction(@NonNull final Bytes appTransaction) {
         if (!healthy || platformStatus != PlatformStatus.ACTIVE) {
             return false;
         }
@@ -151,7 +204,8 @@ public class TransactionPoolNexus implements TransactionSupplier {
             return false;
         }
         final EventTransaction transaction = new EventTransaction(new OneOf<>(APPLICATION_TRANSACTION, appTransaction));
-        if (TransactionUtils.getLegacyTransactionSize(transaction) > maximumTransactionSize) {
+        final int size = TransactionUtils.getLegacyTransactionSize(transaction);
+        if (size > maximumTransactionSize) {
             // FUTURE WORK: This really should throw, but to avoid changing existing API this will be changed later.
             illegalTransactionLogger.error(
                     EXCEPTION.getMarker(),
@@ -161,7 +215,7 @@ public class TransactionPoolNexus implements TransactionSupplier {
             return false;
         }
 
-        return submitTransaction(transaction, false);
+        return submitTransaction(new PooledTransaction(transaction, size), false, false);
     }
 
     /**
@@ -174,32 +228,78 @@ public class TransactionPoolNexus implements TransactionSupplier {
      *                    functionalities.
      * @return true if successful
      */
-    public synchronized boolean submitTransaction(@NonNull final EventTransaction transaction, final boolean priority) {
-
+    public boolean submitTransaction(@NonNull final EventTransaction transaction, final boolean priority) {
         Objects.requireNonNull(transaction);
         final boolean isSystem = TransactionUtils.isSystemTransaction(transaction);
+        return submitTransaction(
+                new PooledTransaction(transaction, TransactionUtils.getLegacyTransactionSize(transaction)),
+                priority,
+                isSystem);
+    }
 
+    /**
+     * Attempt to submit a transaction. This method is lock-free and may be called by many threads concurrently.
+     *
+     * @param pooled   the transaction along with its size
+     * @param priority whether the transaction is a priority transaction
+     * @param isSystem whether the transaction is a system transaction
+     * @return true if successful
+     */
+    private boolean submitTransaction(
+            @NonNull final PooledTransaction pooled, final boolean priority, final boolean isSystem) {
         // Always submit system transactions. If it's not a system transaction, then only submit it if we
         // don't violate queue size capacity restrictions.
-        if (!isSystem
-                && (bufferedTransactions.size() + priorityBufferedTransactions.size()) > throttleTransactionQueueSize) {
-            transactionPoolMetrics.recordRejectedAppTransaction();
-            return false;
-        }
-
         if (isSystem) {
-            bufferedSignatureTransactionCount++;
+            totalBufferedTransactionCount.incrementAndGet();
+            totalBufferedTransactionBytes.addAndGet(pooled.size());
+            if (isSignatureTransaction(pooled)) {
+                bufferedSignatureTransactionCount.incrementAndGet();
+            }
             transactionPoolMetrics.recordSubmittedPlatformTransaction();
-        } else {
+        } else if (tryReserve(pooled.size())) {
             transactionPoolMetrics.recordAcceptedAppTransaction();
+        } else {
+            transactionPoolMetrics.recordRejectedAppTransaction();
+            return false;
         }
 
+        // Counters are incremented before transactions are added to the queues, and decremented after they are
+        // removed, so the counters never underestimate the queue sizes
         if (priority) {
-            priorityBufferedTransactions.add(transaction);
+            priorityBufferedTransactionCount.incrementAndGet();
+            priorityBufferedTransactions.add(pooled);
         } else {
-            bufferedTransactions.add(transaction);
+            bufferedTransactionCount.incrementAndGet();
+            bufferedTransactions.add(pooled);
+        }
+
+        return true;
+    }
+
+    /**
+     * Reserve space for an app transaction in the queues, unless the queues are full.
+     *
+     * @param size the size of the transaction, in bytes
+     * @return true if the space is reserved, false if the transaction should be rejected
+     */
+    private boolean tryReserve(final int size) {
+        while (true) {
+            final int count = totalBufferedTransactionCount.get();
+            if (count > throttleTransactionQueueSize) {
+                return false;
+            }
+            if (totalBufferedTransactionCount.compareAndSet(count, count + 1)) {
+                break;
+            }
         }
 
+        final long bytes = totalBufferedTransactionBytes.addAndGet(size);
+        // An empty queue always accepts a transaction, no matter how large it is
+        if (throttleTransactionQueueBytes > 0 && bytes > throttleTransactionQueueBytes && bytes != size) {
+            totalBufferedTransactionBytes.addAndGet(-size);
+            totalBufferedTransactionCount.decrementAndGet();
+            return false;
+        }
         return true;
     }
 
@@ -208,7 +308,7 @@ public class TransactionPoolNexus implements TransactionSupplier {
      *
      * @param platformStatus the new platform status
      */
-    public synchronized void updatePlatformStatus(@NonNull final PlatformStatus platformStatus) {
+    public void updatePlatformStatus(@NonNull final PlatformStatus platformStatus) {
         this.platformStatus = platformStatus;
     }
 
@@ -218,28 +318,33 @@ public class TransactionPoolNexus implements TransactionSupplier {
      *
      * @param duration the amount of time that the system has been in an unhealthy state
      */
-    public synchronized void reportUnhealthyDuration(@NonNull final Duration duration) {
+    public void reportUnhealthyDuration(@NonNull final Duration duration) {
         healthy = isLessThan(duration, maximumPermissibleUnhealthyDuration);
     }
 
     /**
      * Get the next transaction that should be inserted into an event, or null if there is no available transaction.
+     * Must only be called by the consumer.
      *
      * @param currentEventSize the current size in bytes of the event being constructed
      * @return the next transaction, or null if no transaction is available
      */
     @Nullable
-    private EventTransaction getNextTransaction(final int currentEventSize) {
+    private PooledTransaction getNextTransaction(final int currentEventSize) {
         final int maxSize = maxTransactionBytesPerEvent - currentEventSize;
 
-        if (!priorityBufferedTransactions.isEmpty()
-                && TransactionUtils.getLegacyTransactionSize(priorityBufferedTransactions.peek()) <= maxSize) {
-            return priorityBufferedTransactions.poll();
+        final PooledTransaction priorityTransaction = priorityBufferedTransactions.peek();
+        if (priorityTransaction != null && priorityTransaction.size() <= maxSize) {
+            priorityBufferedTransactions.poll();
+            priorityBufferedTransactionCount.decrementAndGet();
+            return priorityTransaction;
         }
 
-        if (!bufferedTransactions.isEmpty()
-                && TransactionUtils.getLegacyTransactionSize(bufferedTransactions.peek()) <= maxSize) {
-            return bufferedTransactions.poll();
+        final PooledTransaction transaction = bufferedTransactions.peek();
+        if (transaction != null && transaction.size() <= maxSize) {
+            bufferedTransactions.poll();
+            bufferedTransactionCount.decrementAndGet();
+            return transaction;
         }
 
         return null;
@@ -254,29 +359,37 @@ public class TransactionPoolNexus implements TransactionSupplier {
     @Override
     public synchronized List<EventTransaction> getTransactions() {
         // Early return due to no transactions waiting
-        if (bufferedTransactions.isEmpty() && priorityBufferedTransactions.isEmpty()) {
+        if (totalBufferedTransactionCount.get() == 0) {
             return Collections.emptyList();
         }
 
-        final List<EventTransaction> selectedTrans = new LinkedList<>();
+        final List<EventTransaction> selectedTrans = new ArrayList<>();
         int currEventSize = 0;
+        int signatureTransactionCount = 0;
 
-        while (true) {
-            final EventTransaction transaction = getNextTransaction(currEventSize);
+        while (selectedTrans.size() < maxTransactionCountPerEvent) {
+            final PooledTransaction pooled = getNextTransaction(currEventSize);
 
-            if (transaction == null) {
+            if (pooled == null) {
                 // No transaction of suitable size is available
                 break;
             }
 
-            currEventSize += TransactionUtils.getLegacyTransactionSize(transaction);
-            selectedTrans.add(transaction);
+            currEventSize += pooled.size();
+            selectedTrans.add(pooled.transaction());
 
-            if (STATE_SIGNATURE_TRANSACTION.equals(transaction.transaction().kind())) {
-                bufferedSignatureTransactionCount--;
+            if (isSignatureTransaction(pooled)) {
+                signatureTransactionCount++;
             }
         }
 
+        // Counters are updated once per batch rather than once per transaction to limit contention with producers
+        if (!selectedTrans.isEmpty()) {
+            totalBufferedTransactionBytes.addAndGet(-currEventSize);
+            totalBufferedTransactionCount.addAndGet(-selectedTrans.size());
+            bufferedSignatureTransactionCount.addAndGet(-signatureTransactionCount);
+        }
+
         return selectedTrans;
     }
 
@@ -285,8 +398,8 @@ public class TransactionPoolNexus implements TransactionSupplier {
      *
      * @return true if there are any buffered signature transactions
      */
-    public synchronized boolean hasBufferedSignatureTransactions() {
-        return bufferedSignatureTransactionCount > 0;
+    public boolean hasBufferedSignatureTransactions() {
+        return bufferedSignatureTransactionCount.get() > 0;
     }
 
     /**
@@ -294,8 +407,8 @@ public class TransactionPoolNexus implements TransactionSupplier {
      *
      * @return the number of transactions
      */
-    private synchronized int getBufferedTransactionCount() {
-        return bufferedTransactions.size();
+    private int getBufferedTransactionCount() {
+        return bufferedTransactionCount.get();
     }
 
     /**
@@ -303,16 +416,43 @@ public class TransactionPoolNexus implements TransactionSupplier {
      *
      * @return the number of transactions
      */
-    private synchronized int getPriorityBufferedTransactionCount() {
-        return priorityBufferedTransactions.size();
+    private int getPriorityBufferedTransactionCount() {
+        return priorityBufferedTransactionCount.get();
+    }
+
+    /**
+     * Check if a transaction is a state signature transaction. Only such transactions are counted in
+     * {@link #bufferedSignatureTransactionCount}.
+     *
+     * @param pooled the transaction
+     * @return true if the transaction is a state signature transaction
+     */
+    private static boolean isSignatureTransaction(@NonNull final PooledTransaction pooled) {
+        return STATE_SIGNATURE_TRANSACTION.equals(pooled.transaction().transaction().kind());
     }
 
     /**
-     * Clear all the transactions
+     * Clear all the transactions. Transactions submitted concurrently with this call may or may not be cleared.
      */
     synchronized void clear() {
-        bufferedTransactions.clear();
-        priorityBufferedTransactions.clear();
-        bufferedSignatureTransactionCount = 0;
+        clearQueue(bufferedTransactions, bufferedTransactionCount);
+        clearQueue(priorityBufferedTransactions, priorityBufferedTransactionCount);
+        bufferedSignatureTransactionCount.set(0);
+    }
+
+    /**
+     * Remove all transactions from a queue one by one, so the counters stay consistent with producers that submit
+     * transactions concurrently.
+     *
+     * @param queue the queue to clear
+     * @param count the counter of transactions in the queue
+     */
+    private void clearQueue(@NonNull final Queue<PooledTransaction> queue, @NonNull final AtomicInteger count) {
+        PooledTransaction pooled;
+        while ((pooled = queue.poll()) != null) {
+            count.decrementAndGet();
+            totalBufferedTransactionCount.decrementAndGet();
+            totalBufferedTransactionBytes.addAndGet(-pooled.size());
+        }
     }
 }
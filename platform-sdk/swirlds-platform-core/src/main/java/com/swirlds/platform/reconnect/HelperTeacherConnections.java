@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.swirlds.platform.reconnect;
+
+import static com.swirlds.logging.legacy.LogMarker.RECONNECT;
+
+import com.swirlds.common.threading.locks.AutoClosableLock;
+import com.swirlds.common.threading.locks.Locks;
+import com.swirlds.common.threading.locks.locked.Locked;
+import com.swirlds.platform.network.Connection;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Condition;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Collects connections to helper teachers for a learner reconnect. Helper teachers are peers, which serve
+ * some of the learner requests in parallel with the main teacher, provided they hold the same state.
+ * <ul>
+ *     <li>Connections are provided by reconnect protocol threads, one thread per peer</li>
+ *     <li>A protocol thread acquires a permit with {@link #acquirePermit()} before it negotiates the protocol
+ *     with the peer, and then either cancels the permit or provides the connection</li>
+ *     <li>Permits are only available while this object is open, and there are less than the maximum number
+ *     of helper teachers</li>
+ *     <li>{@link #provide(Connection)} blocks the protocol thread until the learner is done with the
+ *     connection</li>
+ *     <li>Connections provided after the learner has collected helper teachers are not used. Such peers are
+ *     notified that they are not needed</li>
+ * </ul>
+ * A lock is used rather than monitors, so that protocol threads don't pin their carrier threads when gossip runs on
+ * virtual threads.
+ */
+public class HelperTeacherConnections {
+
+    private static final Logger logger = LogManager.getLogger(HelperTeacherConnections.class);
+
+    /** guards the mutable fields below */
+    private final AutoClosableLock lock = Locks.createAutoLock();
+    /** signalled when a connection is provided */
+    private final Condition connectionProvided = lock.newCondition();
+    /** the maximum number of helper teachers used in a single reconnect */
+    private final int maxHelperTeachers;
+    /** whether helper teacher connections are accepted */
+    private boolean open = false;
+    /** the number of permits acquired, but not yet provided or cancelled */
+    private int permits = 0;
+    /** connections provided while this object is open */
+    private final List<HelperConnection> provided = new ArrayList<>();
+
+    /**
+     * @param maxHelperTeachers the maximum number of helper teachers used in a single reconnect
+     */
+    public HelperTeacherConnections(final int maxHelperTeachers) {
+        this.maxHelperTeachers = maxHelperTeachers;
+    }
+
+    /**
+     * Start accepting helper teacher connections.
+     */
+    public void open() {
+        try (final Locked l = lock.lock()) {
+            open = true;
+        }
+    }
+
+    /**
+     * Try to acquire a permit to provide a helper teacher connection.
+     *
+     * @return true if the permit has been acquired
+     */
+    public boolean acquirePermit() {
+        try (final Locked l = lock.lock()) {
+            if (!open || (permits + provided.size() >= maxHelperTeachers)) {
+                return false;
+            }
+            permits++;
+            return true;
+        }
+    }
+
+    /**
+     * Release a previously acquired permit, if the connection is not going to be provided.
+     */
+    public void cancelPermit() {
+        try (final Locked l = lock.lock()) {
+            permits--;
+        }
+    }
+
+    /**
+     * Provides a connection over which reconnect protocol has been negotiated with a peer, in the role of the
+     * learner. This method should only be called if {@link #acquirePermit()} has returned true previously. It
+     * blocks until the learner is done with the connection.
+     *
+     * @param connection the connection to the helper teacher
+     * @throws InterruptedException if the calling thread is interrupted while the connection is being used
+     */
+    public void provide(@NonNull final Connection connection) throws InterruptedException {
+        final HelperConnection helper = new HelperConnection(Objects.requireNonNull(connection));
+        try (final Locked l = lock.lock()) {
+            permits--;
+            if (open) {
+                provided.add(helper);
+                connectionProvided.signalAll();
+            } else {
+                helper.release();
+            }
+        }
+        helper.released.await();
+        if (!helper.used) {
+            try {
+                ReconnectUtils.sendLearnerRole(connection, ReconnectUtils.LEARNER_ROLE_NONE);
+            } catch (final IOException e) {
+                logger.info(RECONNECT.getMarker(), "Failed to release helper teacher {}", connection.getOtherId(), e);
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Wait for helper teacher connections, but no longer than the given time, and stop accepting new
+     * connections. All returned connections must be released with {@link #release()}, once the learner is
+     * done with them.
+     *
+     * @param waitTime the max time to wait for helper teachers
+     * @return the helper teacher connections, may be empty
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    @NonNull
+    public List<Connection> collect(@NonNull final Duration waitTime) throws InterruptedException {
+        try (final Locked l = lock.lockInterruptibly()) {
+            long remaining = waitTime.toNanos();
+            while (open && (provided.size() < maxHelperTeachers) && (remaining > 0)) {
+                remaining = connectionProvided.awaitNanos(remaining);
+            }
+            open = false;
+            final List<Connection> connections = new ArrayList<>(provided.size());
+            for (final HelperConnection helper : provided) {
+                helper.used = true;
+                connections.add(helper.connection);
+            }
+            return connections;
+        }
+    }
+
+    /**
+     * Stop accepting helper teacher connections, and release all connections provided so far.
+     */
+    public void release() {
+        try (final Locked l = lock.lock()) {
+            open = false;
+            provided.forEach(HelperConnection::release);
+            provided.clear();
+        }
+    }
+
+    /**
+     * A helper teacher connection, which is blocked until released.
+     */
+    private static final class HelperConnection {
+        private final Connection connection;
+        private final CountDownLatch released = new CountDownLatch(1);
+        /** whether the connection is used by the learner, written before the connection is released */
+        private boolean used = false;
+
+        HelperConnection(final Connection connection) {
+            this.connection = connection;
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
@@ -32,6 +32,7 @@ import com.swirlds.platform.system.SystemExitCode;
 import com.swirlds.platform.system.SystemExitUtils;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicReference;
@@ -51,6 +52,8 @@ public class ReconnectController implements Runnable {
     private final AtomicReference<SignedStateValidator> validator = new AtomicReference<>();
     private final ThreadManager threadManager;
     private final Duration minTimeBetweenReconnects;
+    private final HelperTeacherConnections helperConnections;
+    private final Duration helperTeacherWaitTime;
 
     /**
      * @param reconnectConfig configuration for reconnect
@@ -69,6 +72,8 @@ public class ReconnectController implements Runnable {
         this.threadRunning = new Semaphore(1);
         this.connectionProvider = new BlockingResourceProvider<>();
         this.minTimeBetweenReconnects = reconnectConfig.minimumTimeBetweenReconnects();
+        this.helperConnections = new HelperTeacherConnections(reconnectConfig.maxHelperTeachers());
+        this.helperTeacherWaitTime = reconnectConfig.helperTeacherWaitTime();
     }
 
     /**
@@ -108,10 +113,12 @@ public class ReconnectController implements Runnable {
         helper.prepareForReconnect();
 
         logger.info(RECONNECT.getMarker(), "waiting for reconnect connection");
+        helperConnections.open();
         try (final LockedResource<Connection> connection = connectionProvider.waitForResource()) {
             logger.info(RECONNECT.getMarker(), "acquired reconnect connection");
+            final List<Connection> helperTeachers = helperConnections.collect(helperTeacherWaitTime);
             try (final ReservedSignedState reservedState =
-                    helper.receiveSignedState(connection.getResource(), validator.get())) {
+                    helper.receiveSignedState(connection.getResource(), helperTeachers, validator.get())) {
 
                 if (!helper.loadSignedState(reservedState.get())) {
                     return false;
@@ -120,6 +127,8 @@ public class ReconnectController implements Runnable {
         } catch (final RuntimeException e) {
             logger.info(RECONNECT.getMarker(), "receiving signed state failed", e);
             return false;
+        } finally {
+            helperConnections.release();
         }
         resumeGossip.run();
         return true;
@@ -165,6 +174,37 @@ public class ReconnectController implements Runnable {
         connectionProvider.provide(connection);
     }
 
+    /**
+     * Try to acquire a permit to negotiate a reconnect in the role of the learner with a helper teacher. Helper
+     * teachers are only accepted while a learner reconnect is starting, and only if enabled in the configuration.
+     *
+     * @return true if the permit has been acquired
+     */
+    public boolean acquireHelperPermit() {
+        return helperConnections.acquirePermit();
+    }
+
+    /**
+     * Releases a previously acquired helper teacher permit
+     */
+    public void cancelHelperPermit() {
+        helperConnections.cancelPermit();
+    }
+
+    /**
+     * Provides a connection to a helper teacher, over which a reconnect learner has been already negotiated. This
+     * method should only be called if {@link #acquireHelperPermit()} has returned true previously. This method blocks
+     * until the reconnect is done.
+     *
+     * @param connection
+     * 		the connection to the helper teacher
+     * @throws InterruptedException
+     * 		if the calling thread is interrupted while the connection is being used
+     */
+    public void provideHelperConnection(final Connection connection) throws InterruptedException {
+        helperConnections.provide(connection);
+    }
+
     /**
      * Sets the validator used to determine if the state received in reconnect has sufficient valid signatures.
      *
@@ -29,6 +29,7 @@ import com.swirlds.platform.state.MerkleRoot;
 import com.swirlds.platform.state.signed.ReservedSignedState;
 import com.swirlds.platform.state.signed.SignedState;
 import com.swirlds.platform.state.signed.SignedStateValidator;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -107,8 +108,26 @@ public class ReconnectHelper {
      */
     public ReservedSignedState receiveSignedState(final Connection conn, final SignedStateValidator validator)
             throws ReconnectException {
+        return receiveSignedState(conn, List.of(), validator);
+    }
+
+    /**
+     * Attempts to receive a new signed state by reconnecting with the specified neighbor, while some of the
+     * requests are served by helper teachers.
+     *
+     * @param conn
+     * 		the connection to use for the reconnect attempt
+     * @param helperConns
+     * 		connections to helper teachers, may be empty
+     * @return the signed state received from the neighbor
+     * @throws ReconnectException
+     * 		if any error occurs during the reconnect attempt
+     */
+    public ReservedSignedState receiveSignedState(
+            final Connection conn, final List<Connection> helperConns, final SignedStateValidator validator)
+            throws ReconnectException {
         try {
-            final ReservedSignedState reservedState = reconnectLearner(conn, validator);
+            final ReservedSignedState reservedState = reconnectLearner(conn, helperConns, validator);
             reconnectLearnerThrottle.successfulReconnect();
             return reservedState;
         } catch (final RuntimeException e) {
@@ -117,7 +136,8 @@ public class ReconnectHelper {
         }
     }
 
-    private ReservedSignedState reconnectLearner(final Connection conn, final SignedStateValidator validator)
+    private ReservedSignedState reconnectLearner(
+            final Connection conn, final List<Connection> helperConns, final SignedStateValidator validator)
             throws ReconnectException {
 
         logger.info(RECONNECT.getMarker(), () -> new ReconnectStartPayload(
@@ -128,7 +148,8 @@ public class ReconnectHelper {
                         lastCompleteRoundSupplier.getAsLong())
                 .toString());
 
-        final ReconnectLearner reconnect = reconnectLearnerFactory.create(conn, workingStateSupplier.get());
+        final ReconnectLearner reconnect =
+                reconnectLearnerFactory.create(conn, helperConns, workingStateSupplier.get());
 
         final ReservedSignedState reservedState = reconnect.execute(validator);
 
@@ -22,6 +22,7 @@ import static com.swirlds.logging.legacy.LogMarker.RECONNECT;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.io.streams.MerkleDataInputStream;
 import com.swirlds.common.io.streams.MerkleDataOutputStream;
+import com.swirlds.common.merkle.synchronization.HelperTeacher;
 import com.swirlds.common.merkle.synchronization.LearningSynchronizer;
 import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
 import com.swirlds.common.threading.manager.ThreadManager;
@@ -41,6 +42,8 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.net.SocketException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -55,6 +58,10 @@ public class ReconnectLearner {
     private static final Logger logger = LogManager.getLogger(ReconnectLearner.class);
 
     private final Connection connection;
+    /**
+     * Connections to helper teachers, which hold the same state as the main teacher.
+     */
+    private final List<Connection> helperConnections;
     private final AddressBook addressBook;
     private final MerkleRoot currentState;
     private final Duration reconnectSocketTimeout;
@@ -91,6 +98,42 @@ public class ReconnectLearner {
             @NonNull final MerkleRoot currentState,
             @NonNull final Duration reconnectSocketTimeout,
             @NonNull final ReconnectMetrics statistics) {
+        this(
+                platformContext,
+                threadManager,
+                connection,
+                List.of(),
+                addressBook,
+                currentState,
+                reconnectSocketTimeout,
+                statistics);
+    }
+
+    /**
+     * @param threadManager
+     * 		responsible for managing thread lifecycles
+     * @param connection
+     * 		the connection to the main teacher
+     * @param helperConnections
+     * 		connections to helper teachers, which are asked to serve some of the requests to the main teacher
+     * @param addressBook
+     * 		the current address book
+     * @param currentState
+     * 		the most recent state from the learner
+     * @param reconnectSocketTimeout
+     * 		the amount of time that should be used for the socket timeout
+     * @param statistics
+     * 		reconnect metrics
+     */
+    public ReconnectLearner(
+            @NonNull final PlatformContext platformContext,
+            @NonNull final ThreadManager threadManager,
+            @NonNull final Connection connection,
+            @NonNull final List<Connection> helperConnections,
+            @NonNull final AddressBook addressBook,
+            @NonNull final MerkleRoot currentState,
+            @NonNull final Duration reconnectSocketTimeout,
+            @NonNull final ReconnectMetrics statistics) {
 
         currentState.throwIfImmutable("Can not perform reconnect with immutable state");
         currentState.throwIfDestroyed("Can not perform reconnect with destroyed state");
@@ -98,6 +141,7 @@ public class ReconnectLearner {
         this.platformContext = Objects.requireNonNull(platformContext);
         this.threadManager = Objects.requireNonNull(threadManager);
         this.connection = Objects.requireNonNull(connection);
+        this.helperConnections = List.copyOf(helperConnections);
         this.addressBook = Objects.requireNonNull(addressBook);
         this.currentState = Objects.requireNonNull(currentState);
         this.reconnectSocketTimeout = Objects.requireNonNull(reconnectSocketTimeout);
@@ -115,6 +159,9 @@ public class ReconnectLearner {
         try {
             originalSocketTimeout = connection.getTimeout();
             connection.setTimeout(reconnectSocketTimeout.toMillis());
+            for (final Connection helperConnection : helperConnections) {
+                helperConnection.setTimeout(reconnectSocketTimeout.toMillis());
+            }
         } catch (final SocketException e) {
             throw new ReconnectException(e);
         }
@@ -136,6 +183,11 @@ public class ReconnectLearner {
 
         try {
             connection.setTimeout(originalSocketTimeout);
+            for (final Connection helperConnection : helperConnections) {
+                if (helperConnection.connected()) {
+                    helperConnection.setTimeout(originalSocketTimeout);
+                }
+            }
         } catch (final SocketException e) {
             throw new ReconnectException(e);
         }
@@ -154,10 +206,12 @@ public class ReconnectLearner {
         increaseSocketTimeout();
         ReservedSignedState reservedSignedState = null;
         try {
+            sendLearnerRoles();
             receiveSignatures();
             reservedSignedState = reconnect();
             validator.validate(reservedSignedState.get(), addressBook, stateValidationData);
             ReconnectUtils.endReconnectHandshake(connection);
+            endHelperHandshakes();
             return reservedSignedState;
         } catch (final IOException | SignedStateInvalidException e) {
             if (reservedSignedState != null) {
@@ -174,6 +228,53 @@ public class ReconnectLearner {
         }
     }
 
+    /**
+     * Tell the main teacher and all helper teachers what they are expected to do.
+     *
+     * @throws IOException
+     * 		if any I/O related errors occur
+     */
+    private void sendLearnerRoles() throws IOException {
+        ReconnectUtils.sendLearnerRole(connection, ReconnectUtils.LEARNER_ROLE_MAIN);
+        for (final Connection helperConnection : helperConnections) {
+            ReconnectUtils.sendLearnerRole(helperConnection, ReconnectUtils.LEARNER_ROLE_HELPER);
+        }
+        if (!helperConnections.isEmpty()) {
+            logger.info(
+                    RECONNECT.getMarker(),
+                    "Reconnecting from node {} with helper teachers {}",
+                    connection.getOtherId(),
+                    helperConnections.stream().map(Connection::getOtherId).toList());
+        }
+    }
+
+    /**
+     * Finish reconnect with all helper teachers. The state is already received and validated at this
+     * point, so a failure here doesn't fail the reconnect, the helper connection is just closed.
+     */
+    private void endHelperHandshakes() {
+        for (final Connection helperConnection : helperConnections) {
+            try {
+                ReconnectUtils.endReconnectHandshake(helperConnection);
+            } catch (final IOException e) {
+                logger.warn(
+                        RECONNECT.getMarker(),
+                        "Failed to finish reconnect with helper teacher {}",
+                        helperConnection.getOtherId(),
+                        e);
+                helperConnection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Breaks connections to the main teacher and all helper teachers.
+     */
+    private void disconnectAll() {
+        connection.disconnect();
+        helperConnections.forEach(Connection::disconnect);
+    }
+
     /**
      * Get a copy of the state from the other node.
      *
@@ -189,6 +290,15 @@ public class ReconnectLearner {
 
         connection.getDis().getSyncByteCounter().resetCount();
         connection.getDos().getSyncByteCounter().resetCount();
+        final List<HelperTeacher> helperTeachers = new ArrayList<>(helperConnections.size());
+        for (final Connection helperConnection : helperConnections) {
+            helperConnection.getDis().getSyncByteCounter().resetCount();
+            helperConnection.getDos().getSyncByteCounter().resetCount();
+            helperTeachers.add(new HelperTeacher(
+                    "node " + helperConnection.getOtherId(),
+                    new MerkleDataInputStream(helperConnection.getDis()),
+                    new MerkleDataOutputStream(helperConnection.getDos())));
+        }
 
         final ReconnectConfig reconnectConfig =
                 platformContext.getConfiguration().getConfigData(ReconnectConfig.class);
@@ -196,8 +306,9 @@ public class ReconnectLearner {
                 threadManager,
                 in,
                 out,
+                helperTeachers,
                 currentState,
-                connection::disconnect,
+                this::disconnectAll,
                 reconnectConfig,
                 platformContext.getMetrics());
         synchronizer.synchronize();
@@ -213,10 +324,14 @@ public class ReconnectLearner {
                 false);
         newSignedState.setSigSet(sigSet);
 
-        final double mbReceived = connection.getDis().getSyncByteCounter().getMebiBytes();
+        double mbReceived = connection.getDis().getSyncByteCounter().getMebiBytes();
+        for (final Connection helperConnection : helperConnections) {
+            mbReceived += helperConnection.getDis().getSyncByteCounter().getMebiBytes();
+        }
+        final double totalMbReceived = mbReceived;
         logger.info(
                 RECONNECT.getMarker(),
-                () -> new ReconnectDataUsagePayload("Reconnect data usage report", mbReceived).toString());
+                () -> new ReconnectDataUsagePayload("Reconnect data usage report", totalMbReceived).toString());
 
         statistics.incrementReceiverEndTimes();
 
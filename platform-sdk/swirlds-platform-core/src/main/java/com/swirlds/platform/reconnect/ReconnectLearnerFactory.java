@@ -24,6 +24,7 @@ import com.swirlds.platform.state.MerkleRoot;
 import com.swirlds.platform.system.address.AddressBook;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -64,7 +65,27 @@ public class ReconnectLearnerFactory {
      * @return a new instance
      */
     public ReconnectLearner create(final Connection conn, final MerkleRoot workingState) {
+        return create(conn, List.of(), workingState);
+    }
+
+    /**
+     * Create an instance of {@link ReconnectLearner}, which uses helper teachers
+     *
+     * @param conn         the connection to the main teacher
+     * @param helperConns  connections to helper teachers
+     * @param workingState the state to use to perform a delta based reconnect
+     * @return a new instance
+     */
+    public ReconnectLearner create(
+            final Connection conn, final List<Connection> helperConns, final MerkleRoot workingState) {
         return new ReconnectLearner(
-                platformContext, threadManager, conn, addressBook, workingState, reconnectSocketTimeout, statistics);
+                platformContext,
+                threadManager,
+                conn,
+                helperConns,
+                addressBook,
+                workingState,
+                reconnectSocketTimeout,
+                statistics);
     }
 }
@@ -150,11 +150,16 @@ public class ReconnectProtocol implements Protocol {
         }
 
         // if a permit is acquired, it will be released by either initiateFailed or runProtocol
-        final boolean acquiredPermit = reconnectController.acquireLearnerPermit();
-        if (acquiredPermit) {
+        if (reconnectController.acquireLearnerPermit()) {
             initiatedBy = InitiatedBy.SELF;
+            return true;
         }
-        return acquiredPermit;
+        // another neighbor may already be the main teacher, this one can still help it
+        if (reconnectController.acquireHelperPermit()) {
+            initiatedBy = InitiatedBy.SELF_AS_HELPER_LEARNER;
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -162,7 +167,11 @@ public class ReconnectProtocol implements Protocol {
      */
     @Override
     public void initiateFailed() {
-        reconnectController.cancelLearnerPermit();
+        if (initiatedBy == InitiatedBy.SELF_AS_HELPER_LEARNER) {
+            reconnectController.cancelHelperPermit();
+        } else {
+            reconnectController.cancelLearnerPermit();
+        }
         initiatedBy = InitiatedBy.NO_ONE;
     }
 
@@ -279,6 +288,7 @@ public class ReconnectProtocol implements Protocol {
             switch (initiatedBy) {
                 case PEER -> teacher(connection);
                 case SELF -> learner(connection);
+                case SELF_AS_HELPER_LEARNER -> reconnectController.provideHelperConnection(connection);
                 default -> throw new NetworkProtocolException(
                         "runProtocol() called but it is unclear who the teacher and who the learner is");
             }
@@ -327,6 +337,11 @@ public class ReconnectProtocol implements Protocol {
     private enum InitiatedBy {
         NO_ONE,
         SELF,
+        /**
+         * Initiated by self as a learner, while another neighbor is the main teacher. The peer is used as
+         * a helper teacher
+         */
+        SELF_AS_HELPER_LEARNER,
         PEER
     }
 }
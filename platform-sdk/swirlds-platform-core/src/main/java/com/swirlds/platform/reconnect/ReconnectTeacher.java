@@ -164,8 +164,17 @@ public class ReconnectTeacher {
         increaseSocketTimeout();
 
         try {
-            sendSignatures(signedState);
-            reconnect(signedState);
+            final byte learnerRole = ReconnectUtils.receiveLearnerRole(connection);
+            if (learnerRole == ReconnectUtils.LEARNER_ROLE_NONE) {
+                logger.info(RECONNECT.getMarker(), "Learner {} doesn't need this node as a teacher", otherId);
+                return;
+            }
+            if (learnerRole == ReconnectUtils.LEARNER_ROLE_HELPER) {
+                serveHelperLearner(signedState);
+            } else {
+                sendSignatures(signedState);
+                reconnect(signedState);
+            }
             ReconnectUtils.endReconnectHandshake(connection);
         } catch (final InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -237,6 +246,32 @@ public class ReconnectTeacher {
         logger.info(RECONNECT.getMarker(), "Finished synchronization in the role of the sender.");
     }
 
+    /**
+     * Serve the learner as a helper teacher. The learner receives the signed state from another node, and only
+     * sends some of its requests to this node.
+     *
+     * @throws InterruptedException thrown if the current thread is interrupted
+     */
+    private void serveHelperLearner(final SignedState signedState) throws InterruptedException, IOException {
+        logger.info(RECONNECT.getMarker(), "Starting synchronization in the role of a helper sender.");
+
+        final ReconnectConfig reconnectConfig = configuration.getConfigData(ReconnectConfig.class);
+        final TeachingSynchronizer synchronizer = new TeachingSynchronizer(
+                platformContext.getConfiguration(),
+                time,
+                threadManager,
+                new MerkleDataInputStream(connection.getDis()),
+                new MerkleDataOutputStream(connection.getDos()),
+                signedState.getState(),
+                connection::disconnect,
+                reconnectConfig);
+
+        synchronizer.serveHelperLearner();
+        connection.getDos().flush();
+
+        logger.info(RECONNECT.getMarker(), "Finished synchronization in the role of a helper sender.");
+    }
+
     /**
      * Copy the signatures on the signed state from this node to the other node.
      *
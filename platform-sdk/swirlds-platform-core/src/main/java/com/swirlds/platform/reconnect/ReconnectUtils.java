@@ -39,8 +39,49 @@ public final class ReconnectUtils {
      */
     private static final long END_RECONNECT_MSG = 0x7747b5bd49693b61L;
 
+    /**
+     * The learner role sent to a teacher that is not needed by the learner anymore
+     */
+    static final byte LEARNER_ROLE_NONE = 0;
+    /**
+     * The learner role sent to the main teacher, which sends the whole signed state
+     */
+    static final byte LEARNER_ROLE_MAIN = 1;
+    /**
+     * The learner role sent to a helper teacher, which only serves some of the learner requests
+     */
+    static final byte LEARNER_ROLE_HELPER = 2;
+
     private ReconnectUtils() {}
 
+    /**
+     * Send the learner role to a teacher. This is the first message sent over a connection, once reconnect
+     * protocol is negotiated.
+     *
+     * @param connection the connection to send the role on
+     * @param role       one of {@link #LEARNER_ROLE_NONE}, {@link #LEARNER_ROLE_MAIN}, or {@link #LEARNER_ROLE_HELPER}
+     * @throws IOException if the connection breaks
+     */
+    static void sendLearnerRole(@NonNull final Connection connection, final byte role) throws IOException {
+        connection.getDos().writeByte(role);
+        connection.getDos().flush();
+    }
+
+    /**
+     * Receive the learner role on the teacher side.
+     *
+     * @param connection the connection to receive the role on
+     * @return the learner role
+     * @throws IOException if the connection breaks, times out, or an unknown role is received
+     */
+    static byte receiveLearnerRole(@NonNull final Connection connection) throws IOException {
+        final byte role = connection.getDis().readByte();
+        if ((role != LEARNER_ROLE_NONE) && (role != LEARNER_ROLE_MAIN) && (role != LEARNER_ROLE_HELPER)) {
+            throw new IOException("Unknown learner role: " + role);
+        }
+        return role;
+    }
+
     /**
      * Send and receive the end reconnect message
      *
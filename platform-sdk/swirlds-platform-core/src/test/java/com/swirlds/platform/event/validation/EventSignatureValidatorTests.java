@@ -228,6 +228,25 @@ class EventSignatureValidatorTests {
         assertEquals(1, exitedIntakePipelineCount.get());
     }
 
+    @Test
+    @DisplayName("Roster updates replace the keys used for validation")
+    void rosterUpdate() {
+        final PlatformEvent event = new TestingEventBuilder(random)
+                .setCreatorId(NodeId.of(previousNodeRosterEntry.nodeId()))
+                .setSoftwareVersion(defaultVersion)
+                .build();
+
+        // the creator isn't in the current roster yet
+        assertNull(validatorWithTrueVerifier.validateSignature(event));
+        assertEquals(1, exitedIntakePipelineCount.get());
+
+        validatorWithTrueVerifier.updateRosters(
+                new RosterUpdate(currentRoster, new Roster(List.of(currentNodeRosterEntry, previousNodeRosterEntry))));
+
+        assertNotEquals(null, validatorWithTrueVerifier.validateSignature(event));
+        assertEquals(1, exitedIntakePipelineCount.get());
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     @DisplayName("Ancient events are discarded")
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.gossip.shadowgraph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.test.fixtures.Randotron;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ShadowEventIndexTests {
+
+    private static ShadowEvent shadow(final Hash hash) {
+        final ShadowEvent shadow = mock(ShadowEvent.class);
+        when(shadow.getEventBaseHash()).thenReturn(hash);
+        return shadow;
+    }
+
+    /**
+     * Create a hash with the given prefix, so the tests can create hashes that collide in the index.
+     */
+    private static Hash hashWithPrefix(final Randotron random, final long prefix) {
+        final Hash hash = random.nextHash();
+        final byte[] bytes = hash.copyToByteArray();
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[i] = (byte) (prefix >>> (8 * i));
+        }
+        return new Hash(bytes, hash.getDigestType());
+    }
+
+    @Test
+    @DisplayName("Events can be added, found and removed")
+    void randomOperationsTest() {
+        final Randotron random = Randotron.create();
+        final ShadowEventIndex index = new ShadowEventIndex();
+        final Map<Hash, ShadowEvent> expected = new HashMap<>();
+        final List<Hash> hashes = new ArrayList<>();
+
+        // Enough events to resize the table a few times, with a mix of additions and removals
+        for (int i = 0; i < 20_000; i++) {
+            if (hashes.isEmpty() || random.nextInt(3) > 0) {
+                // A few distinct hashes share a prefix to exercise prefix collisions
+                final Hash hash =
+                        random.nextInt(10) == 0 ? hashWithPrefix(random, random.nextInt(4)) : random.nextHash();
+                final ShadowEvent shadow = shadow(hash);
+                index.put(shadow);
+                expected.put(hash, shadow);
+                hashes.add(hash);
+            } else {
+                final Hash hash = hashes.remove(random.nextInt(hashes.size()));
+                assertSame(expected.remove(hash), index.remove(hash));
+                assertNull(index.remove(hash), "an event can only be removed once");
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (final Map.Entry<Hash, ShadowEvent> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), index.get(entry.getKey()));
+        }
+        assertNull(index.get(random.nextHash()));
+
+        final Set<ShadowEvent> all = new HashSet<>();
+        index.forEach(all::add);
+        assertEquals(new HashSet<>(expected.values()), all);
+
+        index.clear();
+        assertEquals(0, index.size());
+        for (final Hash hash : expected.keySet()) {
+            assertNull(index.get(hash));
+        }
+    }
+
+    @Test
+    @DisplayName("Events with the same hash prefix are distinguished by the full hash")
+    void prefixCollisionTest() {
+        final Randotron random = Randotron.create();
+        final ShadowEventIndex index = new ShadowEventIndex();
+        final Hash hash1 = hashWithPrefix(random, 42);
+        final Hash hash2 = hashWithPrefix(random, 42);
+        final ShadowEvent shadow1 = shadow(hash1);
+        final ShadowEvent shadow2 = shadow(hash2);
+
+        index.put(shadow1);
+        assertNull(index.get(hash2));
+        index.put(shadow2);
+        assertEquals(2, index.size());
+        assertSame(shadow1, index.get(hash1));
+        assertSame(shadow2, index.get(hash2));
+
+        assertSame(shadow1, index.remove(hash1));
+        assertNull(index.get(hash1));
+        assertSame(shadow2, index.get(hash2), "the colliding event must still be reachable after a removal");
+    }
+
+    @Test
+    @DisplayName("The table shrinks when most events are removed")
+    void shrinkTest() {
+        final Randotron random = Randotron.create();
+        final ShadowEventIndex index = new ShadowEventIndex();
+        final List<ShadowEvent> shadows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            final ShadowEvent shadow = shadow(random.nextHash());
+            index.put(shadow);
+            shadows.add(shadow);
+        }
+        final int fullCapacity = index.capacity();
+
+        // Expire all but a few events
+        final List<ShadowEvent> remaining = shadows.subList(0, 100);
+        for (final ShadowEvent shadow : shadows.subList(100, shadows.size())) {
+            assertSame(shadow, index.remove(shadow.getEventBaseHash()));
+        }
+        assertTrue(index.capacity() < fullCapacity, "the table must shrink");
+        assertEquals(remaining.size(), index.size());
+        for (final ShadowEvent shadow : remaining) {
+            assertSame(shadow, index.get(shadow.getEventBaseHash()), "remaining events must be reachable");
+        }
+    }
+
+    @Test
+    @DisplayName("Many events with the same hash prefix are handled")
+    void clusteredPrefixesTest() {
+        final Randotron random = Randotron.create();
+        final ShadowEventIndex index = new ShadowEventIndex();
+        // Distinct hashes with equal prefixes land in the same slot with any seed
+        final List<ShadowEvent> shadows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            final ShadowEvent shadow = shadow(hashWithPrefix(random, 7));
+            index.put(shadow);
+            shadows.add(shadow);
+        }
+        assertEquals(shadows.size(), index.size());
+        for (final ShadowEvent shadow : shadows) {
+            assertSame(shadow, index.get(shadow.getEventBaseHash()));
+        }
+    }
+}
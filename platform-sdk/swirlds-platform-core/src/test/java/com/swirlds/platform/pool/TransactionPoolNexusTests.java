@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hapi.platform.event.EventTransaction;
+import com.hedera.hapi.platform.event.EventTransaction.TransactionOneOfType;
+import com.hedera.hapi.platform.event.StateSignatureTransaction;
+import com.hedera.pbj.runtime.OneOf;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
+import com.swirlds.platform.config.TransactionConfig_;
+import com.swirlds.platform.system.status.PlatformStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TransactionPoolNexusTests {
+
+    /** The legacy size of a 100 byte app transaction, including the length field */
+    private static final int APP_TRANSACTION_SIZE = 104;
+
+    private static TransactionPoolNexus createNexus(final TestConfigBuilder configBuilder) {
+        final PlatformContext platformContext = TestPlatformContextBuilder.create()
+                .withConfiguration(configBuilder.getOrCreateConfig())
+                .build();
+        final TransactionPoolNexus nexus = new TransactionPoolNexus(platformContext);
+        nexus.updatePlatformStatus(PlatformStatus.ACTIVE);
+        return nexus;
+    }
+
+    private static Bytes appTransaction() {
+        return Bytes.wrap(new byte[APP_TRANSACTION_SIZE - Integer.BYTES]);
+    }
+
+    private static EventTransaction signatureTransaction() {
+        return new EventTransaction(new OneOf<>(
+                TransactionOneOfType.STATE_SIGNATURE_TRANSACTION,
+                StateSignatureTransaction.newBuilder()
+                        .round(1)
+                        .signature(Bytes.EMPTY)
+                        .hash(Bytes.EMPTY)
+                        .build()));
+    }
+
+    @Test
+    @DisplayName("Priority transactions are put into events first")
+    void priorityTransactionsTest() {
+        final TransactionPoolNexus nexus = createNexus(new TestConfigBuilder());
+        assertTrue(nexus.submitApplicationTransaction(appTransaction()));
+        assertFalse(nexus.hasBufferedSignatureTransactions());
+
+        final EventTransaction signature = signatureTransaction();
+        assertTrue(nexus.submitTransaction(signature, true));
+        assertTrue(nexus.hasBufferedSignatureTransactions());
+
+        final List<EventTransaction> transactions = nexus.getTransactions();
+        assertEquals(2, transactions.size());
+        assertSame(signature, transactions.getFirst());
+        assertFalse(nexus.hasBufferedSignatureTransactions());
+        assertEquals(List.of(), nexus.getTransactions());
+    }
+
+    @Test
+    @DisplayName("Events are limited by transaction bytes and transaction count")
+    void eventLimitsTest() {
+        final TransactionPoolNexus nexus = createNexus(new TestConfigBuilder()
+                .withValue(TransactionConfig_.MAX_TRANSACTION_BYTES_PER_EVENT, 3 * APP_TRANSACTION_SIZE)
+                .withValue(TransactionConfig_.MAX_TRANSACTION_COUNT_PER_EVENT, 2));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(nexus.submitApplicationTransaction(appTransaction()));
+        }
+        assertEquals(2, nexus.getTransactions().size());
+        assertEquals(2, nexus.getTransactions().size());
+        assertEquals(1, nexus.getTransactions().size());
+        assertEquals(0, nexus.getTransactions().size());
+    }
+
+    @Test
+    @DisplayName("App transactions are rejected if the pool is over its byte budget")
+    void queueBytesThrottleTest() {
+        final TransactionPoolNexus nexus = createNexus(new TestConfigBuilder()
+                .withValue(TransactionConfig_.THROTTLE_TRANSACTION_QUEUE_BYTES, 3 * APP_TRANSACTION_SIZE));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(nexus.submitApplicationTransaction(appTransaction()));
+        }
+        assertFalse(nexus.submitApplicationTransaction(appTransaction()), "the byte budget is exhausted");
+        assertTrue(nexus.submitTransaction(signatureTransaction(), true), "system transactions are always accepted");
+
+        assertEquals(4, nexus.getTransactions().size());
+        assertTrue(nexus.submitApplicationTransaction(appTransaction()), "the byte budget is available again");
+    }
+
+    @Test
+    @DisplayName("Cleared transactions release the pool capacity")
+    void clearTest() {
+        final TransactionPoolNexus nexus = createNexus(
+                new TestConfigBuilder().withValue(TransactionConfig_.THROTTLE_TRANSACTION_QUEUE_SIZE, 1));
+        assertTrue(nexus.submitApplicationTransaction(appTransaction()));
+        assertTrue(nexus.submitApplicationTransaction(appTransaction()));
+        assertFalse(nexus.submitApplicationTransaction(appTransaction()), "the queue is full");
+        assertTrue(nexus.submitTransaction(signatureTransaction(), true));
+
+        nexus.clear();
+        assertFalse(nexus.hasBufferedSignatureTransactions());
+        assertEquals(List.of(), nexus.getTransactions());
+        assertTrue(nexus.submitApplicationTransaction(appTransaction()), "the queue has capacity again");
+    }
+
+    @Test
+    @DisplayName("Transactions submitted concurrently are all drained exactly once")
+    void concurrentSubmitTest() throws InterruptedException {
+        final int producerCount = 8;
+        final int transactionsPerProducer = 10_000;
+        final TransactionPoolNexus nexus = createNexus(new TestConfigBuilder()
+                .withValue(TransactionConfig_.THROTTLE_TRANSACTION_QUEUE_SIZE, 1_000)
+                .withValue(TransactionConfig_.MAX_TRANSACTION_BYTES_PER_EVENT, 10 * APP_TRANSACTION_SIZE));
+
+        final AtomicInteger accepted = new AtomicInteger();
+        final CountDownLatch producersDone = new CountDownLatch(producerCount);
+        final List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < producerCount; i++) {
+            final Thread producer = new Thread(() -> {
+                for (int j = 0; j < transactionsPerProducer; j++) {
+                    if (nexus.submitApplicationTransaction(appTransaction())) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                producersDone.countDown();
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        int drained = 0;
+        while (producersDone.getCount() > 0) {
+            final List<EventTransaction> transactions = nexus.getTransactions();
+            assertTrue(transactions.size() <= 10, "event byte limit exceeded");
+            drained += transactions.size();
+        }
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+        List<EventTransaction> transactions;
+        while (!(transactions = nexus.getTransactions()).isEmpty()) {
+            drained += transactions.size();
+        }
+
+        assertTrue(accepted.get() > 0);
+        assertEquals(accepted.get(), drained, "every accepted transaction must be drained exactly once");
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.swirlds.platform.reconnect;
+
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.common.io.streams.SerializableDataOutputStream;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.platform.network.Connection;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HelperTeacherConnectionsTests {
+
+    private final PlatformContext platformContext =
+            TestPlatformContextBuilder.create().build();
+
+    private Connection createConnection(final ByteArrayOutputStream out) {
+        return new DummyConnection(
+                platformContext,
+                new SerializableDataInputStream(new ByteArrayInputStream(new byte[0])),
+                new SerializableDataOutputStream(out));
+    }
+
+    @Test
+    @DisplayName("Permits are only available while open and below the max number of helpers")
+    void permitsTest() {
+        final HelperTeacherConnections helpers = new HelperTeacherConnections(2);
+        assertFalse(helpers.acquirePermit(), "no permits should be available before open");
+
+        helpers.open();
+        assertTrue(helpers.acquirePermit(), "a permit should be available");
+        assertTrue(helpers.acquirePermit(), "a permit should be available");
+        assertFalse(helpers.acquirePermit(), "no more than the max number of permits should be available");
+        helpers.cancelPermit();
+        assertTrue(helpers.acquirePermit(), "a cancelled permit should be available again");
+
+        helpers.release();
+        assertFalse(helpers.acquirePermit(), "no permits should be available after release");
+    }
+
+    @Test
+    @DisplayName("No helpers are collected if disabled")
+    void disabledTest() throws InterruptedException {
+        final HelperTeacherConnections helpers = new HelperTeacherConnections(0);
+        helpers.open();
+        assertFalse(helpers.acquirePermit(), "no permits should be available if disabled");
+        assertEquals(List.of(), helpers.collect(Duration.ofMinutes(1)), "no helpers should be collected");
+    }
+
+    @Test
+    @DisplayName("Provided connections are used until released")
+    void providedConnectionsTest() throws InterruptedException {
+        final HelperTeacherConnections helpers = new HelperTeacherConnections(1);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Connection connection = createConnection(out);
+
+        helpers.open();
+        assertTrue(helpers.acquirePermit(), "a permit should be available");
+        final Thread provider = getStaticThreadManager()
+                .createThreadFactory("test", "helper-provider")
+                .newThread(() -> {
+                    try {
+                        helpers.provide(connection);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        provider.start();
+
+        assertEquals(List.of(connection), helpers.collect(Duration.ofMinutes(1)), "the helper should be collected");
+        assertTrue(provider.isAlive(), "the provider should be blocked until the connection is released");
+
+        helpers.release();
+        provider.join(Duration.ofSeconds(10).toMillis());
+        assertFalse(provider.isAlive(), "the provider should be unblocked after release");
+        assertEquals(0, out.size(), "nothing should be sent to a used helper by the provider");
+    }
+
+    @Test
+    @DisplayName("Connections provided after collection are released immediately")
+    void lateConnectionsTest() throws InterruptedException {
+        final HelperTeacherConnections helpers = new HelperTeacherConnections(1);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        helpers.open();
+        assertTrue(helpers.acquirePermit(), "a permit should be available");
+        assertEquals(List.of(), helpers.collect(Duration.ZERO), "no helpers should be collected");
+
+        // must not block
+        helpers.provide(createConnection(out));
+        assertArrayEquals(
+                new byte[] {ReconnectUtils.LEARNER_ROLE_NONE},
+                out.toByteArray(),
+                "the helper should be told it's not needed");
+    }
+}
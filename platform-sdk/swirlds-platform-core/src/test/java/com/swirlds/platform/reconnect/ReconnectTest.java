@@ -17,7 +17,10 @@
 package com.swirlds.platform.reconnect;
 
 import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -53,6 +56,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -104,8 +108,69 @@ final class ReconnectTest {
         }
     }
 
-    private void executeReconnect(final ReconnectMetrics reconnectMetrics) throws InterruptedException, IOException {
+    @Test
+    @DisplayName("Reconnects with a helper teacher")
+    void reconnectWithHelperTeacher() throws IOException, InterruptedException {
+        final ReconnectMetrics learnerMetrics = mock(ReconnectMetrics.class);
+        final ReconnectMetrics teacherMetrics = mock(ReconnectMetrics.class);
+        final ReconnectMetrics helperMetrics = mock(ReconnectMetrics.class);
+
+        try (final PairedStreams teacherStreams = new PairedStreams();
+                final PairedStreams helperStreams = new PairedStreams()) {
+            final SignedState signedState = buildSignedState();
+
+            // The state has no views that support helper teachers, so the helper teacher is only asked
+            // to finish serving the learner once the state is received
+            final ReconnectLearner receiver = buildReceiver(
+                    signedState.getState(),
+                    buildLearnerConnection(teacherStreams),
+                    List.of(buildLearnerConnection(helperStreams)),
+                    learnerMetrics);
+
+            final AtomicReference<Throwable> teacherException = new AtomicReference<>();
+            final AtomicReference<Throwable> helperException = new AtomicReference<>();
+            final Thread teacherThread = startSender(signedState, teacherStreams, teacherMetrics, teacherException);
+            final Thread helperThread = startSender(signedState, helperStreams, helperMetrics, helperException);
+
+            receiver.execute(mock(SignedStateValidator.class));
+            teacherThread.join();
+            helperThread.join();
+
+            assertNull(teacherException.get(), "The teacher should not fail");
+            assertNull(helperException.get(), "The helper teacher should not fail");
+            verify(learnerMetrics).incrementReceiverEndTimes();
+            verify(teacherMetrics).incrementSenderEndTimes();
+            verify(helperMetrics, never()).incrementSenderStartTimes();
+        }
+    }
+
+    @Test
+    @DisplayName("A helper teacher that is provided too late is released")
+    void lateHelperTeacherIsReleased() throws IOException, InterruptedException {
+        final ReconnectMetrics helperMetrics = mock(ReconnectMetrics.class);
+
+        try (final PairedStreams helperStreams = new PairedStreams()) {
+            final SignedState signedState = buildSignedState();
+
+            final HelperTeacherConnections helperConnections = new HelperTeacherConnections(1);
+            helperConnections.open();
+            assertTrue(helperConnections.acquirePermit(), "A permit should be acquired");
+            // The learner starts reconnect before the helper teacher connection is provided
+            assertTrue(helperConnections.collect(Duration.ZERO).isEmpty(), "No helper teachers are provided yet");
+
+            final AtomicReference<Throwable> helperException = new AtomicReference<>();
+            final Thread helperThread = startSender(signedState, helperStreams, helperMetrics, helperException);
 
+            // The helper teacher is told that it isn't needed
+            helperConnections.provide(buildLearnerConnection(helperStreams));
+            helperThread.join();
+
+            assertNull(helperException.get(), "The helper teacher should not fail");
+            verify(helperMetrics, never()).incrementSenderStartTimes();
+        }
+    }
+
+    private SignedState buildSignedState() {
         final long weightPerNode = 100L;
         final int numNodes = 4;
         final List<NodeId> nodeIds =
@@ -118,14 +183,47 @@ final class ReconnectTest {
                 .withWeightDistributionStrategy(RandomAddressBookBuilder.WeightDistributionStrategy.BALANCED)
                 .build();
 
-        try (final PairedStreams pairedStreams = new PairedStreams()) {
-            final SignedState signedState = new RandomSignedStateGenerator()
-                    .setAddressBook(addressBook)
-                    .setSigningNodeIds(nodeIds)
-                    .build();
+        final SignedState signedState = new RandomSignedStateGenerator()
+                .setAddressBook(addressBook)
+                .setSigningNodeIds(nodeIds)
+                .build();
+
+        final MerkleCryptography cryptography = MerkleCryptoFactory.getInstance();
+        cryptography.digestSync(signedState.getState());
+        return signedState;
+    }
 
-            final MerkleCryptography cryptography = MerkleCryptoFactory.getInstance();
-            cryptography.digestSync(signedState.getState());
+    private Connection buildLearnerConnection(final PairedStreams pairedStreams) {
+        return new DummyConnection(platformContext, pairedStreams.getLearnerInput(), pairedStreams.getLearnerOutput());
+    }
+
+    /**
+     * Starts a thread, which executes reconnect in the role of the teacher.
+     */
+    private Thread startSender(
+            final SignedState signedState,
+            final PairedStreams pairedStreams,
+            final ReconnectMetrics reconnectMetrics,
+            final AtomicReference<Throwable> exception) {
+        final Thread thread = new Thread(() -> {
+            try {
+                final ReconnectTeacher sender = buildSender(
+                        signedState.reserve("test"),
+                        new DummyConnection(
+                                platformContext, pairedStreams.getTeacherInput(), pairedStreams.getTeacherOutput()),
+                        reconnectMetrics);
+                sender.execute(signedState);
+            } catch (final Throwable t) {
+                exception.set(t);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void executeReconnect(final ReconnectMetrics reconnectMetrics) throws InterruptedException, IOException {
+        try (final PairedStreams pairedStreams = new PairedStreams()) {
+            final SignedState signedState = buildSignedState();
 
             final ReconnectLearner receiver = buildReceiver(
                     signedState.getState(),
@@ -191,12 +289,21 @@ final class ReconnectTest {
 
     private ReconnectLearner buildReceiver(
             final MerkleRoot state, final Connection connection, final ReconnectMetrics reconnectMetrics) {
+        return buildReceiver(state, connection, List.of(), reconnectMetrics);
+    }
+
+    private ReconnectLearner buildReceiver(
+            final MerkleRoot state,
+            final Connection connection,
+            final List<Connection> helperConnections,
+            final ReconnectMetrics reconnectMetrics) {
         final AddressBook addressBook = buildAddressBook(5);
 
         return new ReconnectLearner(
                 TestPlatformContextBuilder.create().build(),
                 getStaticThreadManager(),
                 connection,
+                helperConnections,
                 addressBook,
                 state,
                 RECONNECT_SOCKET_TIMEOUT,
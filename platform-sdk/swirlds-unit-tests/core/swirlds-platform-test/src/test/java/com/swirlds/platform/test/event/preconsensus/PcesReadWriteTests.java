@@ -18,6 +18,7 @@ package com.swirlds.platform.test.event.preconsensus;
 
 import static com.swirlds.common.test.fixtures.io.FileManipulation.corruptFile;
 import static com.swirlds.common.test.fixtures.io.FileManipulation.truncateFile;
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
 import static com.swirlds.platform.event.AncientMode.BIRTH_ROUND_THRESHOLD;
 import static com.swirlds.platform.event.AncientMode.GENERATION_THRESHOLD;
 import static com.swirlds.platform.test.consensus.ConsensusTestArgs.BIRTH_ROUND_PLATFORM_CONTEXT;
@@ -37,7 +38,9 @@ import com.swirlds.platform.event.AncientMode;
 import com.swirlds.platform.event.PlatformEvent;
 import com.swirlds.platform.event.preconsensus.PcesFile;
 import com.swirlds.platform.event.preconsensus.PcesFileIterator;
+import com.swirlds.platform.event.preconsensus.PcesMultiFileIterator;
 import com.swirlds.platform.event.preconsensus.PcesMutableFile;
+import com.swirlds.platform.event.preconsensus.PcesReadAheadIterator;
 import com.swirlds.platform.system.BasicSoftwareVersion;
 import com.swirlds.platform.system.StaticSoftwareVersion;
 import com.swirlds.platform.test.fixtures.event.generator.StandardGraphGenerator;
@@ -597,4 +600,113 @@ class PcesReadWriteTests {
         assertFalse(iterator.hasNext());
         assertThrows(NoSuchElementException.class, iterator::next);
     }
+
+    @ParameterizedTest
+    @MethodSource("ancientModeArguments")
+    @DisplayName("Read Ahead Test")
+    void readAheadTest(@NonNull final AncientMode ancientMode) throws IOException {
+        final Random random = RandomUtils.getRandomPrintSeed();
+
+        final int numFiles = 10;
+        final int eventsPerFile = 50;
+
+        final StandardGraphGenerator generator = new StandardGraphGenerator(
+                ancientMode == GENERATION_THRESHOLD ? DEFAULT_PLATFORM_CONTEXT : BIRTH_ROUND_PLATFORM_CONTEXT,
+                random.nextLong(),
+                new StandardEventSource(),
+                new StandardEventSource(),
+                new StandardEventSource(),
+                new StandardEventSource());
+
+        final List<PcesFile> files = new ArrayList<>();
+        long middle = 0;
+        for (int fileIndex = 0; fileIndex < numFiles; fileIndex++) {
+            final List<PlatformEvent> events = new ArrayList<>();
+            long upperBound = 0;
+            for (int i = 0; i < eventsPerFile; i++) {
+                final PlatformEvent event = generator.generateEvent().getBaseEvent();
+                events.add(event);
+                upperBound = Math.max(upperBound, event.getAncientIndicator(ancientMode));
+            }
+            if (fileIndex == numFiles / 2) {
+                middle = upperBound;
+            }
+
+            final PcesFile file = PcesFile.of(
+                    ancientMode, RandomUtils.randomInstant(random), fileIndex, 0, upperBound, 0, testDirectory);
+            final PcesMutableFile mutableFile = file.getMutableFile();
+            for (final PlatformEvent event : events) {
+                mutableFile.writeEvent(event);
+            }
+            mutableFile.close();
+            files.add(file);
+        }
+
+        // the last file ends with a partial event
+        final PcesFile lastFile = files.get(numFiles - 1);
+        truncateFile(lastFile.getPath(), (int) Files.size(lastFile.getPath()) - 1);
+
+        for (final long lowerBound : List.of(Long.MIN_VALUE, middle)) {
+            final PcesMultiFileIterator expectedIterator =
+                    new PcesMultiFileIterator(lowerBound, files.iterator(), ancientMode);
+            final List<PlatformEvent> expectedEvents = new ArrayList<>();
+            expectedIterator.forEachRemaining(expectedEvents::add);
+
+            // a small queue forces the readers to block on the consumer
+            final PcesReadAheadIterator iterator = new PcesReadAheadIterator(
+                    lowerBound, files.iterator(), ancientMode, 3, 4, getStaticThreadManager());
+            final List<PlatformEvent> deserializedEvents = new ArrayList<>();
+            iterator.forEachRemaining(deserializedEvents::add);
+
+            assertFalse(iterator.hasNext());
+            assertEquals(expectedEvents, deserializedEvents);
+            assertEquals(expectedIterator.getTruncatedFileCount(), iterator.getTruncatedFileCount());
+            assertEquals(1, iterator.getTruncatedFileCount());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("ancientModeArguments")
+    @DisplayName("Close Early Test")
+    void closeEarlyTest(@NonNull final AncientMode ancientMode) throws IOException {
+        final Random random = RandomUtils.getRandomPrintSeed();
+
+        final int numFiles = 3;
+        final int eventsPerFile = 50;
+
+        final StandardGraphGenerator generator = new StandardGraphGenerator(
+                ancientMode == GENERATION_THRESHOLD ? DEFAULT_PLATFORM_CONTEXT : BIRTH_ROUND_PLATFORM_CONTEXT,
+                random.nextLong(),
+                new StandardEventSource(),
+                new StandardEventSource(),
+                new StandardEventSource(),
+                new StandardEventSource());
+
+        final List<PcesFile> files = new ArrayList<>();
+        for (int fileIndex = 0; fileIndex < numFiles; fileIndex++) {
+            final PcesFile file = PcesFile.of(
+                    ancientMode, RandomUtils.randomInstant(random), fileIndex, 0, Long.MAX_VALUE, 0, testDirectory);
+            final PcesMutableFile mutableFile = file.getMutableFile();
+            for (int i = 0; i < eventsPerFile; i++) {
+                mutableFile.writeEvent(generator.generateEvent().getBaseEvent());
+            }
+            mutableFile.close();
+            files.add(file);
+        }
+
+        final PcesFileIterator fileIterator = files.get(0).iterator(Long.MIN_VALUE);
+        assertTrue(fileIterator.hasNext());
+        fileIterator.next();
+        fileIterator.close();
+        assertFalse(fileIterator.hasNext());
+        assertThrows(NoSuchElementException.class, fileIterator::next);
+
+        // a small queue leaves the readers blocked on the consumer when the iterator is closed
+        final PcesReadAheadIterator readAheadIterator = new PcesReadAheadIterator(
+                Long.MIN_VALUE, files.iterator(), ancientMode, numFiles, 1, getStaticThreadManager());
+        assertTrue(readAheadIterator.hasNext());
+        readAheadIterator.next();
+        readAheadIterator.close();
+        assertFalse(readAheadIterator.hasNext());
+    }
 }
@@ -17,6 +17,10 @@
 package com.swirlds.platform.test.event.preconsensus;
 
 import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyEquals;
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.platform.event.AncientMode.GENERATION_THRESHOLD;
+import static com.swirlds.platform.event.preconsensus.PcesFileManager.NO_LOWER_BOUND;
+import static com.swirlds.platform.test.consensus.ConsensusTestArgs.DEFAULT_PLATFORM_CONTEXT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,34 +29,57 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.swirlds.base.test.fixtures.time.FakeTime;
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.constructable.ConstructableRegistryException;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.io.IOIterator;
 import com.swirlds.common.test.fixtures.Randotron;
+import com.swirlds.common.test.fixtures.RandomUtils;
 import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
 import com.swirlds.common.wiring.wires.output.StandardOutputWire;
 import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
 import com.swirlds.platform.event.PlatformEvent;
+import com.swirlds.platform.event.preconsensus.PcesConfig;
 import com.swirlds.platform.event.preconsensus.PcesConfig_;
+import com.swirlds.platform.event.preconsensus.PcesFile;
+import com.swirlds.platform.event.preconsensus.PcesFileTracker;
+import com.swirlds.platform.event.preconsensus.PcesMutableFile;
 import com.swirlds.platform.event.preconsensus.PcesReplayer;
 import com.swirlds.platform.state.signed.ReservedSignedState;
 import com.swirlds.platform.state.signed.SignedState;
+import com.swirlds.platform.system.BasicSoftwareVersion;
+import com.swirlds.platform.system.StaticSoftwareVersion;
 import com.swirlds.platform.test.fixtures.event.TestingEventBuilder;
+import com.swirlds.platform.test.fixtures.event.generator.StandardGraphGenerator;
+import com.swirlds.platform.test.fixtures.event.source.StandardEventSource;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Tests for the {@link PcesReplayer} class
  */
 @DisplayName("PcesReplayer Tests")
 class PcesReplayerTests {
+
+    /**
+     * Temporary directory provided by JUnit
+     */
+    @TempDir
+    Path testDirectory;
+
     private PlatformContext noRateLimitContext;
     private PlatformContext rateLimitedContext;
     private FakeTime time;
@@ -185,4 +212,92 @@ class PcesReplayerTests {
         assertTrue(flushIntakeCalled.get());
         assertTrue(flushTransactionHandlingCalled.get());
     }
+
+    @Test
+    @DisplayName("Test replay of event files read ahead")
+    void testReadAheadReplay() throws IOException, ConstructableRegistryException {
+        ConstructableRegistry.getInstance().registerConstructables("");
+        StaticSoftwareVersion.setSoftwareVersion(new BasicSoftwareVersion(1));
+        try {
+            final Random random = RandomUtils.getRandomPrintSeed();
+            final StandardGraphGenerator generator = new StandardGraphGenerator(
+                    DEFAULT_PLATFORM_CONTEXT,
+                    random.nextLong(),
+                    new StandardEventSource(),
+                    new StandardEventSource(),
+                    new StandardEventSource(),
+                    new StandardEventSource());
+
+            final int numFiles = 5;
+            final int eventsPerFile = 20;
+            final PcesFileTracker files = new PcesFileTracker(GENERATION_THRESHOLD);
+            final List<PlatformEvent> expectedEvents = new ArrayList<>();
+            final Instant start = RandomUtils.randomInstant(random);
+            for (int fileIndex = 0; fileIndex < numFiles; fileIndex++) {
+                final List<PlatformEvent> events = new ArrayList<>();
+                long upperBound = 0;
+                for (int i = 0; i < eventsPerFile; i++) {
+                    final PlatformEvent event = generator.generateEvent().getBaseEvent();
+                    events.add(event);
+                    upperBound = Math.max(upperBound, event.getAncientIndicator(GENERATION_THRESHOLD));
+                }
+                final PcesFile file = PcesFile.of(
+                        GENERATION_THRESHOLD,
+                        start.plusSeconds(fileIndex),
+                        fileIndex,
+                        0,
+                        upperBound,
+                        0,
+                        testDirectory);
+                final PcesMutableFile mutableFile = file.getMutableFile();
+                for (final PlatformEvent event : events) {
+                    mutableFile.writeEvent(event);
+                }
+                mutableFile.close();
+                files.addFile(file);
+                expectedEvents.addAll(events);
+            }
+
+            // a small queue forces the readers to block on the replayer
+            final TestConfigBuilder configBuilder = new TestConfigBuilder()
+                    .withValue(PcesConfig_.LIMIT_REPLAY_FREQUENCY, false)
+                    .withValue(PcesConfig_.REPLAY_READ_AHEAD_FILES, 2)
+                    .withValue(PcesConfig_.REPLAY_QUEUE_SIZE, 4);
+            final PlatformContext platformContext = TestPlatformContextBuilder.create()
+                    .withTime(time)
+                    .withConfiguration(configBuilder.getOrCreateConfig())
+                    .build();
+            final PcesConfig pcesConfig = platformContext.getConfiguration().getConfigData(PcesConfig.class);
+
+            final List<PlatformEvent> replayedEvents = new ArrayList<>();
+            final StandardOutputWire<PlatformEvent> outputWire = mock(StandardOutputWire.class);
+            doAnswer(invocation -> {
+                        replayedEvents.add(invocation.getArgument(0));
+                        return null;
+                    })
+                    .when(outputWire)
+                    .forward(any());
+
+            final PcesReplayer replayer = new PcesReplayer(
+                    platformContext,
+                    outputWire,
+                    flushIntake,
+                    flushTransactionHandling,
+                    latestImmutableStateSupplier,
+                    () -> true);
+
+            replayer.replayPces(files.getReadAheadEventIterator(
+                    NO_LOWER_BOUND,
+                    0,
+                    pcesConfig.replayReadAheadFiles(),
+                    pcesConfig.replayQueueSize(),
+                    getStaticThreadManager()));
+
+            assertEquals(expectedEvents, replayedEvents, "Events must be replayed in file order");
+            assertTrue(flushIntakeCalled.get());
+            assertTrue(flushTransactionHandlingCalled.get());
+        } finally {
+            StaticSoftwareVersion.reset();
+        }
+    }
 }
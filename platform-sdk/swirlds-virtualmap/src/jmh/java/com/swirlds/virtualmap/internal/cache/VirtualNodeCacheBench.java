@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache; // NOSONAR: Needed to benchmark internal classes
+
+import static com.swirlds.virtualmap.test.fixtures.VirtualMapTestUtils.VIRTUAL_MAP_CONFIG;
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.test.fixtures.TestKey;
+import com.swirlds.virtualmap.test.fixtures.TestValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Virtual node cache benchmarks. Mutation benchmarks report time per single mutation. To see how
+ * many bytes are allocated per mutation, run them with the GC profiler ({@code -prof gc}) and check
+ * {@code gc.alloc.rate.norm}. Merge and flush benchmarks report time per call, caches to merge and
+ * flush are prepared before every call.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VirtualNodeCacheBench {
+
+    /** Number of dirty nodes in a single cache copy */
+    private static final int NUM_DIRTY_NODES = 100_000;
+
+    /** Number of cache copies merged before flush */
+    private static final int NUM_COPIES = 8;
+
+    private static final Hash[] HASHES = new Hash[1024];
+
+    static {
+        final Random random = new Random(1234);
+        final byte[] bytes = new byte[DigestType.SHA_384.digestLength()];
+        for (int i = 0; i < HASHES.length; i++) {
+            random.nextBytes(bytes);
+            HASHES[i] = new Hash(bytes, DigestType.SHA_384);
+        }
+    }
+
+    private List<VirtualLeafRecord<TestKey, TestValue>> leaves;
+
+    private VirtualNodeCache<TestKey, TestValue> lookupCache;
+
+    private long[] lookupPaths;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        leaves = new ArrayList<>(NUM_DIRTY_NODES);
+        for (int i = 0; i < NUM_DIRTY_NODES; i++) {
+            leaves.add(new VirtualLeafRecord<>(i, new TestKey(i), new TestValue(i)));
+        }
+        final List<VirtualNodeCache<TestKey, TestValue>> copies = createSealedCopies(2, NUM_DIRTY_NODES / 2);
+        lookupCache = copies.get(1);
+        final Random random = new Random(4321);
+        lookupPaths = new long[NUM_DIRTY_NODES];
+        for (int i = 0; i < NUM_DIRTY_NODES; i++) {
+            // Some lookups hit the newer copy, some hit the older one, and some miss
+            lookupPaths[i] = random.nextInt(NUM_DIRTY_NODES * 2);
+        }
+    }
+
+    /**
+     * Puts hashes to a fresh cache, every put creates a new mutation.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NUM_DIRTY_NODES)
+    public void putHash(final Blackhole blackhole) {
+        final VirtualNodeCache<TestKey, TestValue> cache = new VirtualNodeCache<>(VIRTUAL_MAP_CONFIG);
+        // Make the cache mutable for hashes
+        blackhole.consume(cache.copy());
+        for (int i = 0; i < NUM_DIRTY_NODES; i++) {
+            cache.putHash(i, HASHES[i & (HASHES.length - 1)]);
+        }
+        blackhole.consume(cache);
+    }
+
+    /**
+     * Puts leaves to a fresh cache, every put creates new path and key mutations.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NUM_DIRTY_NODES)
+    public void putLeaf(final Blackhole blackhole) {
+        final VirtualNodeCache<TestKey, TestValue> cache = new VirtualNodeCache<>(VIRTUAL_MAP_CONFIG);
+        for (int i = 0; i < NUM_DIRTY_NODES; i++) {
+            cache.putLeaf(leaves.get(i));
+        }
+        blackhole.consume(cache);
+    }
+
+    /**
+     * Looks hashes up by path in a cache with two copies.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NUM_DIRTY_NODES)
+    public void lookupHashByPath(final Blackhole blackhole) {
+        for (final long path : lookupPaths) {
+            blackhole.consume(lookupCache.lookupHashByPath(path, false));
+        }
+    }
+
+    /**
+     * Merges a sealed cache copy into the next copy.
+     */
+    @Benchmark
+    public void merge(final MergeState state) {
+        state.copies.get(0).merge();
+    }
+
+    /**
+     * Gets dirty hashes to flush from a cache, which has several older copies merged into it.
+     */
+    @Benchmark
+    public void dirtyHashesForFlush(final FlushState state, final Blackhole blackhole) {
+        blackhole.consume(state.cache.dirtyHashesForFlush(Long.MAX_VALUE).count());
+    }
+
+    @State(Scope.Thread)
+    public static class MergeState {
+        private List<VirtualNodeCache<TestKey, TestValue>> copies;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            copies = createSealedCopies(2, NUM_DIRTY_NODES / 2);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FlushState {
+        private VirtualNodeCache<TestKey, TestValue> cache;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            final List<VirtualNodeCache<TestKey, TestValue>> copies =
+                    createSealedCopies(NUM_COPIES, NUM_DIRTY_NODES / 4);
+            for (int i = 0; i < NUM_COPIES - 1; i++) {
+                copies.get(i).merge();
+            }
+            cache = copies.get(NUM_COPIES - 1);
+        }
+    }
+
+    /**
+     * Creates a chain of sealed cache copies, oldest first. Every copy contains {@link #NUM_DIRTY_NODES}
+     * dirty hashes. Paths in every next copy are shifted by the given offset, so copies have some paths
+     * in common.
+     */
+    private static List<VirtualNodeCache<TestKey, TestValue>> createSealedCopies(
+            final int numOfCopies, final int pathOffset) {
+        final List<VirtualNodeCache<TestKey, TestValue>> copies = new ArrayList<>(numOfCopies);
+        VirtualNodeCache<TestKey, TestValue> cache = new VirtualNodeCache<>(VIRTUAL_MAP_CONFIG);
+        for (int c = 0; c < numOfCopies; c++) {
+            final VirtualNodeCache<TestKey, TestValue> next = cache.copy();
+            final long firstPath = (long) c * pathOffset;
+            for (int i = 0; i < NUM_DIRTY_NODES; i++) {
+                cache.putHash(firstPath + i, HASHES[i & (HASHES.length - 1)]);
+            }
+            cache.seal();
+            copies.add(cache);
+            cache = next;
+        }
+        return copies;
+    }
+}
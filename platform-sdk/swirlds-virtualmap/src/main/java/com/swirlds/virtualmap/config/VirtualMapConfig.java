@@ -87,6 +87,23 @@ import java.time.Duration;
  * 		increase the amount of time required to make a fast copy by this amount of time.
  * @param maximumFlushThrottlePeriod
  * 		The maximum amount of time that any virtual map fast copy will be delayed due to a flush backlog.
+ * @param offHeapDirtyHashes
+ *      Whether virtual node caches should store dirty node hashes off-heap rather than as on-heap objects.
+ *      Off-heap hashes reduce heap usage and GC pressure between flushes, at the cost of creating a new
+ *      hash object every time a dirty hash is read from a cache.
+ * @param virtualHasherMaxChunkHeight
+ *      Max virtual hasher chunk height, when chunk heights are chosen adaptively. If greater than {@link
+ *      #virtualHasherChunkHeight}, the hasher picks a chunk height between the two values for every hashing
+ *      run based on dirty leaf density: the denser dirty leaves are, the taller chunks are, so fewer tasks
+ *      are created without wasting task memory on clean nodes. Sparse dirty leaves always use {@link
+ *      #virtualHasherChunkHeight}. Every task allocates {@code 2^height} input slots, so the value is capped
+ *      at 16. Otherwise, the fixed {@link #virtualHasherChunkHeight} is used.
+ * @param reconnectResume
+ *      Whether a failed pull reconnect keeps what the learner has received so far. If true, a snapshot of
+ *      the partially reconnected data source is taken when a learner reconnect fails, and the next reconnect
+ *      attempt for the same original map starts from it rather than from the original map, so only nodes that
+ *      still differ from the teacher are transferred again. The reconnected root hash is also verified
+ *      against the teacher root hash. Ignored in push reconnect mode.
  */
 @ConfigData("virtualMap")
 public record VirtualMapConfig(
@@ -109,7 +126,10 @@ public record VirtualMapConfig(
         @ConfigProperty(defaultValue = "2000000000") long familyThrottleThreshold,
         @ConfigProperty(defaultValue = "10000") int preferredFlushQueueSize,
         @ConfigProperty(defaultValue = "200ms") Duration flushThrottleStepSize,
-        @ConfigProperty(defaultValue = "5s") Duration maximumFlushThrottlePeriod) {
+        @ConfigProperty(defaultValue = "5s") Duration maximumFlushThrottlePeriod,
+        @ConfigProperty(defaultValue = "false") boolean offHeapDirtyHashes,
+        @Min(0) @Max(16) @ConfigProperty(defaultValue = "0") int virtualHasherMaxChunkHeight,
+        @ConfigProperty(defaultValue = "false") boolean reconnectResume) {
 
     private static final double UNIT_FRACTION_PERCENT = 100.0;
 
@@ -39,5 +39,14 @@ public final class VirtualMapReconnectMode {
      */
     public static final String PULL_TWO_PHASE_PESSIMISTIC = "pullTwoPhasePessimistic";
 
+    /**
+     * "Pull / range digest" reconnect mode, when learner sends digests of ranges of adjacent nodes
+     * at the same rank to teacher, and teacher responses if it has the same nodes in the range.
+     * Mismatched ranges are split into smaller ranges, and descendants of mismatched internal nodes
+     * are requested as ranges, down to individual leaves. Range digests are computed from existing
+     * node hashes, a range has at most 16 nodes. No nodes are requested redundantly in this mode
+     */
+    public static final String PULL_RANGE_DIGEST = "pullRangeDigest";
+
     private VirtualMapReconnectMode() {}
 }
@@ -0,0 +1,387 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A concurrent map from primitive {@code long} keys to object values. It's used by {@link VirtualNodeCache}
+ * for path indices, which are updated and queried very often. Compared to a {@code ConcurrentHashMap<Long, V>},
+ * this map doesn't box keys and doesn't allocate a node object per entry, which reduces GC pressure a lot
+ * when there are millions of dirty paths in the cache.
+ * <p>
+ * The map is split into a fixed number of segments. Each segment is an open addressing hash table with
+ * linear probing, guarded by its own {@link StampedLock}. Updates take the segment write lock. Lookups
+ * are lock-free in most cases: they use optimistic reads and only take the segment read lock, if the
+ * segment was modified concurrently. Deletions use backward shift, there are no tombstones.
+ * <p>
+ * Null values aren't supported. Like in {@code ConcurrentHashMap}, remapping functions passed to
+ * {@link #compute(long, RemappingFunction)} must not modify this map.
+ *
+ * @param <V> the type of values
+ */
+final class ConcurrentLongObjectMap<V> {
+
+    /**
+     * A function to compute a new value for a key, see {@link #compute(long, RemappingFunction)}.
+     *
+     * @param <V> the type of values
+     */
+    @FunctionalInterface
+    interface RemappingFunction<V> {
+        /**
+         * Computes a new value for the given key.
+         *
+         * @param key the key
+         * @param value the current value for the key, or null if there is no value
+         * @return the new value, or null if the entry should be removed
+         */
+        V apply(long key, V value);
+    }
+
+    /**
+     * An action to perform for every entry in the map, see {@link #forEach(EntryConsumer)}.
+     *
+     * @param <V> the type of values
+     * @param <E> the type of exception thrown by the action
+     */
+    @FunctionalInterface
+    interface EntryConsumer<V, E extends Exception> {
+        /**
+         * Performs the action for a single entry.
+         *
+         * @param key the key
+         * @param value the value, never null
+         * @throws E the exception type thrown by the action
+         */
+        void accept(long key, V value) throws E;
+    }
+
+    /** Default number of segments */
+    private static final int DEFAULT_NUM_OF_SEGMENTS = 64;
+
+    /** Initial and min capacity of a single segment, must be a power of two */
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    /** Segments, the number of segments is a power of two */
+    private final Segment[] segments;
+
+    /** Mask to get a segment index from a key hash */
+    private final int segmentMask;
+
+    /**
+     * Creates a new empty map with the default number of segments.
+     */
+    ConcurrentLongObjectMap() {
+        this(DEFAULT_NUM_OF_SEGMENTS);
+    }
+
+    /**
+     * Creates a new empty map.
+     *
+     * @param numOfSegments the number of segments, rounded up to a power of two. This is the number
+     *                      of threads that can update the map concurrently without blocking each other
+     */
+    ConcurrentLongObjectMap(final int numOfSegments) {
+        if (numOfSegments <= 0) {
+            throw new IllegalArgumentException("Number of segments must be positive: " + numOfSegments);
+        }
+        final int n = numOfSegments == 1 ? 1 : Integer.highestOneBit(numOfSegments - 1) << 1;
+        segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment(MIN_SEGMENT_CAPACITY);
+        }
+        segmentMask = n - 1;
+    }
+
+    /**
+     * Returns the value for the given key, or null if there is no value for the key.
+     *
+     * @param key the key
+     * @return the value, or null
+     */
+    @SuppressWarnings("unchecked")
+    V get(final long key) {
+        final long hash = hash(key);
+        final Segment segment = segmentFor(hash);
+        final long stamp = segment.tryOptimisticRead();
+        Object value = segment.find(key, hash);
+        if (!segment.validate(stamp)) {
+            final long readStamp = segment.readLock();
+            try {
+                value = segment.find(key, hash);
+            } finally {
+                segment.unlockRead(readStamp);
+            }
+        }
+        return (V) value;
+    }
+
+    /**
+     * Associates the given value with the given key.
+     *
+     * @param key the key
+     * @param value the value, must not be null
+     */
+    void put(final long key, final V value) {
+        requireNonNull(value);
+        final long hash = hash(key);
+        final Segment segment = segmentFor(hash);
+        final long stamp = segment.writeLock();
+        try {
+            final Table table = segment.table;
+            final int index = table.indexOf(key, hash);
+            if (table.values[index] == null) {
+                segment.insert(index, key, value);
+            } else {
+                table.values[index] = value;
+            }
+        } finally {
+            segment.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Computes a new value for the given key, similar to {@link java.util.Map#compute}. The function is
+     * called while the key's segment is locked, so it's atomic with respect to all other updates to the
+     * same key. If the function returns null, the entry is removed.
+     *
+     * @param key the key
+     * @param function the function to compute the new value, must not modify this map
+     * @return the new value, or null if there is no value for the key after this call
+     */
+    @SuppressWarnings("unchecked")
+    V compute(final long key, final RemappingFunction<V> function) {
+        final long hash = hash(key);
+        final Segment segment = segmentFor(hash);
+        final long stamp = segment.writeLock();
+        try {
+            final Table table = segment.table;
+            final int index = table.indexOf(key, hash);
+            final V oldValue = (V) table.values[index];
+            final V newValue = function.apply(key, oldValue);
+            if (newValue == null) {
+                if (oldValue != null) {
+                    segment.remove(index);
+                }
+            } else if (oldValue == null) {
+                segment.insert(index, key, newValue);
+            } else {
+                table.values[index] = newValue;
+            }
+            return newValue;
+        } finally {
+            segment.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of entries in the map. If the map is updated concurrently, the result may
+     * not reflect any particular state of the map.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        int size = 0;
+        for (final Segment segment : segments) {
+            final long stamp = segment.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Performs the given action for every entry in the map. Segments are processed one by one, each
+     * segment is read locked while its entries are processed. The action must not modify this map.
+     *
+     * @param action the action
+     * @param <E> the type of exception thrown by the action
+     * @throws E if the action throws an exception
+     */
+    @SuppressWarnings("unchecked")
+    <E extends Exception> void forEach(final EntryConsumer<V, E> action) throws E {
+        for (final Segment segment : segments) {
+            final long stamp = segment.readLock();
+            try {
+                final Table table = segment.table;
+                for (int i = 0; i < table.values.length; i++) {
+                    final Object value = table.values[i];
+                    if (value != null) {
+                        action.accept(table.keys[i], (V) value);
+                    }
+                }
+            } finally {
+                segment.unlockRead(stamp);
+            }
+        }
+    }
+
+    private Segment segmentFor(final long hash) {
+        // Higher bits select the segment, lower bits select the slot in the segment table
+        return segments[(int) (hash >>> 32) & segmentMask];
+    }
+
+    /**
+     * Spreads key bits over 64 bits. Paths are often sequential, so a good mix is needed for
+     * linear probing to work well. This is the finalization step of MurmurHash3 64-bit variant.
+     */
+    private static long hash(final long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Segment hash table. Keys and values are kept together in a single object, so lock-free readers
+     * always see arrays of the same length, even if the table is being resized concurrently.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+
+        /** Table values, a null value marks an empty slot */
+        private final Object[] values;
+
+        private final int mask;
+
+        Table(final int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+
+        /**
+         * Returns the slot of the given key, or the empty slot where the key should be inserted.
+         * Must only be called while the segment is locked.
+         */
+        int indexOf(final long key, final long hash) {
+            int index = (int) hash & mask;
+            while ((values[index] != null) && (keys[index] != key)) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * A map segment. The segment itself is the lock for its table.
+     */
+    @SuppressWarnings("serial")
+    private static final class Segment extends StampedLock {
+
+        /** Segment table. Guarded by this lock, but may be read optimistically */
+        private Table table;
+
+        /** Number of entries in the segment. Guarded by this lock */
+        private int size;
+
+        Segment(final int capacity) {
+            table = new Table(capacity);
+        }
+
+        /**
+         * Finds a value for the given key. This method may be called without any locks. In this case,
+         * the result is only valid if the lock stamp is validated after the call.
+         */
+        Object find(final long key, final long hash) {
+            final Table t = table;
+            final int mask = t.mask;
+            int index = (int) hash & mask;
+            // If the table is modified concurrently, there may be no empty slots to stop at, so the
+            // number of probes is limited by the table size
+            for (int i = 0; i <= mask; i++) {
+                final Object value = t.values[index];
+                if (value == null) {
+                    return null;
+                }
+                if (t.keys[index] == key) {
+                    return value;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        /**
+         * Inserts a new entry to the given empty slot. Must be called under the write lock.
+         */
+        void insert(final int index, final long key, final Object value) {
+            final Table t = table;
+            t.keys[index] = key;
+            t.values[index] = value;
+            size++;
+            // Max load factor is 0.5
+            if (size > (t.values.length >>> 1)) {
+                resize(t.values.length << 1);
+            }
+        }
+
+        /**
+         * Removes the entry at the given slot. Entries after the slot in the same probe sequence are
+         * shifted back, so no tombstones are needed. Must be called under the write lock.
+         */
+        void remove(final int index) {
+            final Table t = table;
+            final int mask = t.mask;
+            int hole = index;
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                final Object value = t.values[next];
+                if (value == null) {
+                    break;
+                }
+                final long key = t.keys[next];
+                final int ideal = (int) hash(key) & mask;
+                // The entry may be moved to the hole, if the hole is between its ideal slot and
+                // its current slot, with wrapping around the end of the table
+                if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                    t.keys[hole] = key;
+                    t.values[hole] = value;
+                    hole = next;
+                }
+            }
+            t.values[hole] = null;
+            size--;
+        }
+
+        private void resize(final int newCapacity) {
+            final Table oldTable = table;
+            final Table newTable = new Table(newCapacity);
+            for (int i = 0; i < oldTable.values.length; i++) {
+                final Object value = oldTable.values[i];
+                if (value != null) {
+                    final long key = oldTable.keys[i];
+                    final int index = newTable.indexOf(key, hash(key));
+                    newTable.keys[index] = key;
+                    newTable.values[index] = value;
+                }
+            }
+            table = newTable;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache;
+
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Append-only off-heap storage for dirty node hashes in a single {@link VirtualNodeCache} copy. A hash
+ * stored in the arena takes exactly {@link #DIGEST_TYPE} digest length bytes off-heap, instead of a few
+ * on-heap objects per hash.
+ * <p>
+ * Hashes are stored in slots. Slot references are ints, the upper bits are chunk indices, the lower
+ * bits are slot indices in chunks. Chunks are direct byte buffers. The first chunks are small, so caches
+ * with just a few dirty hashes don't take much memory, and every next chunk is twice as large as the
+ * previous one, up to {@link #MAX_CHUNK_SLOTS} slots. Slots are never reused within an arena, a new hash
+ * for the same node is stored to a new slot.
+ * <p>
+ * Once no mutations refer to the arena any longer, it's {@link #release() released}, and its chunks are
+ * returned to a shared pool, from which new arenas take their chunks. The pool is bounded, chunks that
+ * don't fit into the pool are left to the garbage collector. Lookups may still hold a slot reference
+ * to a released arena for a short time, so reads are validated like in a sequence lock: a read that
+ * may overlap with the release reports that the hash isn't available.
+ * <p>
+ * This class is thread safe. Slot allocation is synchronized, hash bytes are written and read without
+ * locks, using absolute buffer operations.
+ */
+final class DirtyHashArena {
+
+    /** Digest type of hashes stored in the arena. Hashes of other types can't be stored */
+    static final DigestType DIGEST_TYPE = DigestType.SHA_384;
+
+    /** Hash size in bytes */
+    static final int HASH_SIZE = DIGEST_TYPE.digestLength();
+
+    /** Number of bits in slot references used for slot indices in chunks */
+    private static final int SLOT_BITS = 16;
+
+    /** Max number of slots in a single chunk */
+    private static final int MAX_CHUNK_SLOTS = 1 << SLOT_BITS;
+
+    /** Number of bits in {@link #MIN_CHUNK_SLOTS} */
+    private static final int MIN_CHUNK_SLOT_BITS = 6;
+
+    /** Number of slots in the very first chunk */
+    private static final int MIN_CHUNK_SLOTS = 1 << MIN_CHUNK_SLOT_BITS;
+
+    /** Max number of chunks, so slot references are always positive ints */
+    private static final int MAX_CHUNKS = 1 << (Integer.SIZE - 1 - SLOT_BITS);
+
+    /** Max number of released chunks of every size kept in the pool */
+    private static final int MAX_POOLED_CHUNKS = 4;
+
+    /**
+     * Released chunks, by chunk size. Pool {@code i} contains chunks of {@code MIN_CHUNK_SLOTS << i}
+     * slots. In total, the pool holds up to about 25 MB of off-heap memory.
+     */
+    private static final Queue<ByteBuffer>[] CHUNK_POOL = createChunkPool();
+
+    /** Chunks. Guarded by this, but may be read without locks, see {@link #copyTo(int, byte[], int)} */
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+
+    /** Whether the chunks of this arena have been returned to the pool */
+    private volatile boolean released = false;
+
+    /** Index of the next free slot in the last chunk. Guarded by this */
+    private int nextSlot = 0;
+
+    /** Total off-heap size of all chunks, in bytes. Guarded by this */
+    private long sizeInBytes = 0;
+
+    @SuppressWarnings("unchecked")
+    private static Queue<ByteBuffer>[] createChunkPool() {
+        final Queue<ByteBuffer>[] pool = new Queue[SLOT_BITS - MIN_CHUNK_SLOT_BITS + 1];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new ArrayBlockingQueue<>(MAX_POOLED_CHUNKS);
+        }
+        return pool;
+    }
+
+    /**
+     * Checks if the given hash can be stored in this arena.
+     *
+     * @param hash the hash
+     * @return whether the hash is of {@link #DIGEST_TYPE} digest type
+     */
+    static boolean canStore(final Hash hash) {
+        return hash.getDigestType() == DIGEST_TYPE;
+    }
+
+    /**
+     * Stores the given hash in a new slot.
+     *
+     * @param hash the hash to store, must be of {@link #DIGEST_TYPE} digest type
+     * @return the slot reference, a non-negative int
+     * @throws IllegalArgumentException if the hash is of a different digest type
+     * @throws IllegalStateException if the arena is released
+     */
+    int add(final Hash hash) {
+        if (!canStore(hash)) {
+            throw new IllegalArgumentException("Unsupported digest type: " + hash.getDigestType());
+        }
+        final int ref = allocate();
+        final ByteBuffer chunk = chunks[ref >>> SLOT_BITS];
+        // Absolute position in a buffer duplicate, so concurrent writes don't interfere
+        hash.getBytes().writeTo(chunk.duplicate().position(slotOffset(ref)));
+        return ref;
+    }
+
+    /**
+     * Copies hash bytes from the given slot to the given array. No objects are allocated.
+     *
+     * @param ref the slot reference, as returned by {@link #add(Hash)}
+     * @param dst the array to copy to
+     * @param offset the offset in the array, there must be at least {@link #HASH_SIZE} bytes after it
+     * @return true if the bytes are copied, or false if the arena is released, and the hash is no longer
+     *      available. In the latter case, the contents of the array in the given range are undefined
+     */
+    boolean copyTo(final int ref, final byte[] dst, final int offset) {
+        // Chunks must be read before the flag, see release()
+        final ByteBuffer[] currentChunks = chunks;
+        if (released) {
+            return false;
+        }
+        currentChunks[ref >>> SLOT_BITS].get(slotOffset(ref), dst, offset, HASH_SIZE);
+        // The same as in StampedLock.validate(), bytes must be read before the flag is checked again. If the
+        // arena is still not released, the chunk can't have been reused by another arena during the read
+        VarHandle.acquireFence();
+        return !released;
+    }
+
+    /**
+     * Reads a hash from the given slot. The returned hash is a new on-heap object.
+     *
+     * @param ref the slot reference, as returned by {@link #add(Hash)}
+     * @return the hash, or null if the arena is released
+     */
+    Hash get(final int ref) {
+        final byte[] bytes = new byte[HASH_SIZE];
+        return copyTo(ref, bytes, 0) ? new Hash(Bytes.wrap(bytes), DIGEST_TYPE) : null;
+    }
+
+    /**
+     * Returns the total off-heap size of this arena, in bytes.
+     */
+    synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Checks if this arena is released.
+     *
+     * @return whether {@link #release()} has been called
+     */
+    boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Returns all chunks of this arena to the pool. After this call, no hashes can be stored in or read
+     * from the arena. This method must only be called when no mutations refer to the arena any longer,
+     * except for lookups in progress. It's idempotent.
+     */
+    synchronized void release() {
+        if (released) {
+            return;
+        }
+        final ByteBuffer[] currentChunks = chunks;
+        // The flag must be set before chunks are cleared, see copyTo()
+        released = true;
+        chunks = new ByteBuffer[0];
+        sizeInBytes = 0;
+        for (final ByteBuffer chunk : currentChunks) {
+            // If the pool is full, the chunk is left to the garbage collector
+            CHUNK_POOL[poolIndex(chunk.capacity() / HASH_SIZE)].offer(chunk);
+        }
+    }
+
+    private synchronized int allocate() {
+        if (released) {
+            throw new IllegalStateException("Dirty hash arena is released");
+        }
+        ByteBuffer[] currentChunks = chunks;
+        final int lastChunk = currentChunks.length - 1;
+        if ((lastChunk < 0) || (nextSlot == currentChunks[lastChunk].capacity() / HASH_SIZE)) {
+            if (currentChunks.length == MAX_CHUNKS) {
+                throw new IllegalStateException("Dirty hash arena is full");
+            }
+            final int chunkSlots =
+                    Math.min(MAX_CHUNK_SLOTS, MIN_CHUNK_SLOTS << Math.min(currentChunks.length, SLOT_BITS));
+            final ByteBuffer pooled = CHUNK_POOL[poolIndex(chunkSlots)].poll();
+            currentChunks = Arrays.copyOf(currentChunks, currentChunks.length + 1);
+            currentChunks[currentChunks.length - 1] =
+                    (pooled != null) ? pooled : ByteBuffer.allocateDirect(chunkSlots * HASH_SIZE);
+            sizeInBytes += (long) chunkSlots * HASH_SIZE;
+            chunks = currentChunks;
+            nextSlot = 0;
+        }
+        return ((currentChunks.length - 1) << SLOT_BITS) | nextSlot++;
+    }
+
+    private static int slotOffset(final int ref) {
+        return (ref & (MAX_CHUNK_SLOTS - 1)) * HASH_SIZE;
+    }
+
+    private static int poolIndex(final int chunkSlots) {
+        return Integer.numberOfTrailingZeros(chunkSlots) - MIN_CHUNK_SLOT_BITS;
+    }
+}
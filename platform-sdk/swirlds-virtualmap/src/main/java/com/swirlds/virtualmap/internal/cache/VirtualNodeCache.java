@@ -21,6 +21,7 @@ import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 import static com.swirlds.virtualmap.internal.cache.VirtualNodeCache.CLASS_ID;
 import static java.util.Objects.requireNonNull;
 
+import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.base.state.MutabilityException;
 import com.swirlds.common.FastCopyable;
 import com.swirlds.common.constructable.ConstructableClass;
@@ -40,7 +41,9 @@ import com.swirlds.virtualmap.datasource.VirtualHashRecord;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
@@ -52,6 +55,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -95,7 +99,8 @@ import org.apache.logging.log4j.Logger;
  * <p>
  * To fulfill these design requirements, each "chain" of caches share three different indexes:
  * {@link #keyToDirtyLeafIndex}, {@link #pathToDirtyLeafIndex}, and {@link #pathToDirtyHashIndex}.
- * Each of these is a map from either the leaf key or a path (long) to a custom linked list data structure. Each element
+ * Each of these is a map from either the leaf key or a path (long) to a custom linked list data structure. Path
+ * indexes are {@link ConcurrentLongObjectMap}s, so paths aren't boxed on every update and lookup. Each element
  * in the list is a {@link Mutation} with a reference to the data item (either a {@link VirtualHashRecord}
  * or a {@link VirtualLeafRecord}, depending on the list), and a reference to the next {@link Mutation}
  * in the list. In this way, given a leaf key or path (based on the index), you can get the linked list and
@@ -228,14 +233,14 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * <p>
      * <strong>ONE PER CHAIN OF CACHES</strong>.
      */
-    private final Map<Long, Mutation<Long, K>> pathToDirtyLeafIndex;
+    private final ConcurrentLongObjectMap<Mutation<Long, K>> pathToDirtyLeafIndex;
 
     /**
      * A shared index of paths to internals, via {@link Mutation}s. Works the same as {@link #keyToDirtyLeafIndex}.
      * <p>
      * <strong>ONE PER CHAIN OF CACHES</strong>.
      */
-    private final Map<Long, Mutation<Long, Hash>> pathToDirtyHashIndex;
+    private final ConcurrentLongObjectMap<Mutation<Long, Hash>> pathToDirtyHashIndex;
 
     /**
      * Whether this instance is released. A released cache is often the last in the
@@ -293,6 +298,24 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      */
     private ConcurrentArray<Mutation<Long, Hash>> dirtyHashes = new ConcurrentArray<>();
 
+    /**
+     * Off-heap storage for dirty hashes, which are put to this version of the cache. If null, hashes
+     * are stored on-heap in mutations. Hash mutations refer to the arena, so it stays alive even after
+     * this cache is merged into a newer one, until the cache with the mutations is released.
+     * <p>
+     * <strong>ONE PER CACHE INSTANCE</strong>.
+     */
+    private final DirtyHashArena hashArena;
+
+    /**
+     * Arenas of all hash mutations in {@link #dirtyHashes}: the arena of this cache, and the arenas of
+     * all caches merged into this cache. They are released, when this cache is released. Guarded by
+     * {@link #releaseLock}.
+     * <p>
+     * <strong>ONE PER CACHE INSTANCE</strong>.
+     */
+    private final List<DirtyHashArena> hashArenas = new ArrayList<>();
+
     /**
      * Indicates if this virtual cache instance contains mutations from older cache versions
      * as a result of cache merge operation.
@@ -337,11 +360,15 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
     public VirtualNodeCache(final @NonNull VirtualMapConfig virtualMapConfig) {
         requireNonNull(virtualMapConfig);
         this.keyToDirtyLeafIndex = new ConcurrentHashMap<>();
-        this.pathToDirtyLeafIndex = new ConcurrentHashMap<>();
-        this.pathToDirtyHashIndex = new ConcurrentHashMap<>();
+        this.pathToDirtyLeafIndex = new ConcurrentLongObjectMap<>();
+        this.pathToDirtyHashIndex = new ConcurrentLongObjectMap<>();
         this.releaseLock = new ReentrantLock();
         this.lastReleased = new AtomicLong(-1L);
         this.virtualMapConfig = virtualMapConfig;
+        this.hashArena = virtualMapConfig.offHeapDirtyHashes() ? new DirtyHashArena() : null;
+        if (hashArena != null) {
+            hashArenas.add(hashArena);
+        }
     }
 
     /**
@@ -366,6 +393,10 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         this.releaseLock = source.releaseLock;
         this.lastReleased = source.lastReleased;
         this.virtualMapConfig = source.virtualMapConfig;
+        this.hashArena = virtualMapConfig.offHeapDirtyHashes() ? new DirtyHashArena() : null;
+        if (hashArena != null) {
+            hashArenas.add(hashArena);
+        }
 
         // The source now has immutable leaves and mutable internals
         source.prepareForHashing();
@@ -450,12 +481,18 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             releaseLock.unlock();
         }
 
+        final List<DirtyHashArena> arenasToRelease = List.copyOf(hashArenas);
+
         // Fire off the cleaning threads to go and clear out data in the indexes that doesn't need
         // to be there anymore.
         getCleaningPool(virtualMapConfig).execute(() -> {
             purge(dirtyLeaves, keyToDirtyLeafIndex, virtualMapConfig);
-            purge(dirtyLeafPaths, pathToDirtyLeafIndex, virtualMapConfig);
-            purge(dirtyHashes, pathToDirtyHashIndex, virtualMapConfig);
+            purgePaths(dirtyLeafPaths, pathToDirtyLeafIndex, virtualMapConfig);
+            purgePaths(dirtyHashes, pathToDirtyHashIndex, virtualMapConfig);
+            // All hashes in the arenas have been flushed. Lookups of mutations, which aren't purged
+            // yet, report no hash in the cache once the arenas are released, and the hashes are then
+            // loaded from the data source
+            arenasToRelease.forEach(DirtyHashArena::release);
 
             dirtyLeaves = null;
             dirtyLeafPaths = null;
@@ -502,6 +539,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             p.dirtyLeaves.merge(dirtyLeaves);
             p.dirtyLeafPaths.merge(dirtyLeafPaths);
             p.dirtyHashes.merge(dirtyHashes);
+            p.hashArenas.addAll(hashArenas);
             p.mergedCopy.set(true);
 
             // Remove this cache from the chain and wire the prev and next caches together.
@@ -573,7 +611,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         assert key != null : "Keys cannot be null";
 
         // Update the path index to point to this node at this path
-        updatePaths(key, leaf.getPath(), pathToDirtyLeafIndex, dirtyLeafPaths);
+        updatePaths(key, leaf.getPath(), pathToDirtyLeafIndex, dirtyLeafPaths, Mutation::new);
 
         // Get the first data element (mutation) in the list based on the key,
         // and then create or update the associated mutation.
@@ -630,7 +668,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
     public void clearLeafPath(final long path) {
         throwIfLeafImmutable();
         // Note: this marks the mutations as deleted, in addition to clearing the value of the mutation
-        updatePaths(null, path, pathToDirtyLeafIndex, dirtyLeafPaths);
+        updatePaths(null, path, pathToDirtyLeafIndex, dirtyLeafPaths, Mutation::new);
     }
 
     /**
@@ -909,7 +947,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
     public void putHash(final long path, final Hash hash) {
         throwIfInternalsImmutable();
         // If the hash is null, put NULL_HASH instead to avoid mutation to be marked as deleted
-        updatePaths(hash != null ? hash : NULL_HASH, path, pathToDirtyHashIndex, dirtyHashes);
+        updatePaths(hash != null ? hash : NULL_HASH, path, pathToDirtyHashIndex, dirtyHashes, this::newHashMutation);
     }
 
     /**
@@ -927,7 +965,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      */
     public void deleteHash(final long path) {
         throwIfLeafImmutable();
-        updatePaths(null, path, pathToDirtyHashIndex, dirtyHashes);
+        updatePaths(null, path, pathToDirtyHashIndex, dirtyHashes, this::newHashMutation);
     }
 
     /**
@@ -963,7 +1001,11 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         final Mutation<Long, Hash> mutation = lookup(pathToDirtyHashIndex.get(path));
 
         // Always return null if there is no mutation regardless of forModify
-        if ((mutation == null) || (mutation.value == NULL_HASH)) {
+        if (mutation == null) {
+            return null;
+        }
+        final Hash hash = mutation.getValue();
+        if (hash == NULL_HASH) {
             return null;
         }
 
@@ -976,11 +1018,11 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         // create a new value and a new mutation and return the new mutation.
         if (forModify && mutation.version < fastCopyVersion.get()) {
             assert !hashesAreImmutable.get() : "You cannot create internal records at this time!";
-            updatePaths(NULL_HASH, path, pathToDirtyHashIndex, dirtyHashes);
+            updatePaths(NULL_HASH, path, pathToDirtyHashIndex, dirtyHashes, this::newHashMutation);
             return null;
         }
 
-        return mutation.value;
+        return hash;
     }
 
     /**
@@ -1003,11 +1045,16 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         }
         // Mark obsolete mutations to filter later
         filterMutations(dirtyHashes, virtualMapConfig);
+        final FlushHashSlab slab = new FlushHashSlab();
         return dirtyHashes.stream()
                 .filter(mutation -> mutation.key <= lastLeafPath)
                 .filter(mutation -> !mutation.isFiltered())
-                .map(mutation ->
-                        new VirtualHashRecord(mutation.key, mutation.value != NULL_HASH ? mutation.value : null));
+                .map(mutation -> {
+                    final Hash hash = (mutation instanceof final OffHeapHashMutation offHeapMutation)
+                            ? offHeapMutation.getValue(slab)
+                            : mutation.getValue();
+                    return new VirtualHashRecord(mutation.key, hash != NULL_HASH ? hash : null);
+                });
     }
 
     /**
@@ -1089,10 +1136,17 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
     public VirtualNodeCache<K, V> snapshot() {
         synchronized (lastReleased) {
             final VirtualNodeCache<K, V> newSnapshot = new VirtualNodeCache<>(virtualMapConfig);
-            setMapSnapshotAndArray(
-                    this.pathToDirtyHashIndex, newSnapshot.pathToDirtyHashIndex, newSnapshot.dirtyHashes);
-            setMapSnapshotAndArray(
-                    this.pathToDirtyLeafIndex, newSnapshot.pathToDirtyLeafIndex, newSnapshot.dirtyLeafPaths);
+            // Hash arenas are released with the caches they belong to, so the snapshot keeps its hashes on-heap
+            setPathMapSnapshotAndArray(
+                    this.pathToDirtyHashIndex,
+                    newSnapshot.pathToDirtyHashIndex,
+                    newSnapshot.dirtyHashes,
+                    VirtualNodeCache::onHeapHashMutation);
+            setPathMapSnapshotAndArray(
+                    this.pathToDirtyLeafIndex,
+                    newSnapshot.pathToDirtyLeafIndex,
+                    newSnapshot.dirtyLeafPaths,
+                    UnaryOperator.identity());
             setMapSnapshotAndArray(this.keyToDirtyLeafIndex, newSnapshot.keyToDirtyLeafIndex, newSnapshot.dirtyLeaves);
             newSnapshot.snapshot.set(true);
             newSnapshot.fastCopyVersion.set(this.fastCopyVersion.get());
@@ -1177,6 +1231,8 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * @param dirtyPaths
      * 		The {@link ConcurrentArray} holding references to the dirty paths (leaf or internal).
      * 		Cannot be null.
+     * @param mutationFactory
+     * 		The factory to create new mutations for this path index
      * @param <V1>
      * 		The type of value stored in the mutation. Either a leaf key (K) or a hash.
      * @throws NullPointerException
@@ -1185,8 +1241,9 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
     private <V1> void updatePaths(
             final V1 value,
             final long path,
-            final Map<Long, Mutation<Long, V1>> index,
-            final ConcurrentArray<Mutation<Long, V1>> dirtyPaths) {
+            final ConcurrentLongObjectMap<Mutation<Long, V1>> index,
+            final ConcurrentArray<Mutation<Long, V1>> dirtyPaths,
+            final PathMutationFactory<V1> mutationFactory) {
         index.compute(path, (key, mutation) -> {
             // If there is no mutation or the mutation isn't for this version, then we need to create a new mutation.
             // Note that this code DEPENDS on hashing only a single round at a time. VirtualPipeline
@@ -1201,14 +1258,14 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
                 // It must be that there is *NO* mutation in the dirtyPaths for this cache version.
                 // I don't have an easy way to assert it programmatically, but by inspection, it must be true.
                 // Create a mutation for this version pointing to the next oldest mutation (if any).
-                nextMutation = new Mutation<>(nextMutation, path, value, fastCopyVersion.get());
+                nextMutation = mutationFactory.create(nextMutation, path, value, fastCopyVersion.get());
                 nextMutation.setDeleted(value == null);
                 // Hold a reference to this newest mutation in this cache
                 dirtyPaths.add(nextMutation);
             } else {
                 assert !nextMutation.isFiltered();
                 // This mutation already exists in this version. Simply update its value and deleted status.
-                nextMutation.value = value;
+                nextMutation.setValue(value);
                 nextMutation.setDeleted(value == null);
             }
             if (previousMutation != null) {
@@ -1221,6 +1278,30 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         });
     }
 
+    /**
+     * Creates a new hash mutation. If off-heap dirty hashes are enabled, the mutation stores its hash
+     * in this cache's {@link #hashArena}.
+     */
+    private Mutation<Long, Hash> newHashMutation(
+            final Mutation<Long, Hash> next, final long path, final Hash hash, final long version) {
+        return hashArena == null
+                ? new Mutation<>(next, path, hash, version)
+                : new OffHeapHashMutation(next, path, hash, version, hashArena);
+    }
+
+    /**
+     * Converts an off-heap hash mutation to an on-heap one with the same path, hash, version, and
+     * deleted status. Other mutations are returned as is.
+     */
+    private static Mutation<Long, Hash> onHeapHashMutation(final Mutation<Long, Hash> mutation) {
+        if (!(mutation instanceof OffHeapHashMutation)) {
+            return mutation;
+        }
+        final Mutation<Long, Hash> copy = new Mutation<>(null, mutation.key, mutation.getValue(), mutation.version);
+        copy.setDeleted(mutation.isDeleted());
+        return copy;
+    }
+
     /**
      * Given a mutation list, look up the most recent mutation to this version, but no newer than this
      * cache's version. This method is very fast. Newer mutations are closer to the head of the mutation list,
@@ -1310,19 +1391,50 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             @NonNull final VirtualMapConfig virtualMapConfig) {
         array.parallelTraverse(
                 getCleaningPool(virtualMapConfig),
-                element -> index.compute(element.key, (key, mutation) -> {
-                    if (mutation == null || element.equals(mutation)) {
-                        // Already removed for a more recent mutation
-                        return null;
-                    }
-                    for (Mutation<K, V> m = mutation; m.next != null; m = m.next) {
-                        if (element.equals(m.next)) {
-                            m.next = null;
-                            break;
-                        }
-                    }
-                    return mutation;
-                }));
+                element -> index.compute(element.key, (key, mutation) -> purgeMutation(element, mutation)));
+    }
+
+    /**
+     * The same as {@link #purge(ConcurrentArray, Map, VirtualMapConfig)}, but for path indexes.
+     *
+     * @param array
+     * 		The mutations to purge
+     * @param index
+     * 		The path index to look through for entries to purge
+     * @param <V>
+     * 		The value type referenced by the mutation list
+     */
+    private static <V> void purgePaths(
+            final ConcurrentArray<Mutation<Long, V>> array,
+            final ConcurrentLongObjectMap<Mutation<Long, V>> index,
+            @NonNull final VirtualMapConfig virtualMapConfig) {
+        array.parallelTraverse(
+                getCleaningPool(virtualMapConfig),
+                element -> index.compute(element.key, (path, mutation) -> purgeMutation(element, mutation)));
+    }
+
+    /**
+     * Removes the given mutation {@code element} from the mutation list. All mutations in the list
+     * after the element, which are older than the element, are removed, too.
+     *
+     * @param element
+     * 		The mutation to remove
+     * @param mutation
+     * 		The mutation list, can be null
+     * @return the new mutation list, or null if the list is empty after removal
+     */
+    private static <K, V> Mutation<K, V> purgeMutation(final Mutation<K, V> element, final Mutation<K, V> mutation) {
+        if (mutation == null || element.equals(mutation)) {
+            // Already removed for a more recent mutation
+            return null;
+        }
+        for (Mutation<K, V> m = mutation; m.next != null; m = m.next) {
+            if (element.equals(m.next)) {
+                m.next = null;
+                break;
+            }
+        }
+        return mutation;
     }
 
     /**
@@ -1387,19 +1499,56 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         final long accepted = fastCopyVersion.get();
         final long rejected = lastReleased.get();
         for (final Map.Entry<K2, Mutation<K2, L2>> entry : src.entrySet()) {
-            Mutation<K2, L2> mutation = entry.getValue();
-
-            while (mutation != null && mutation.version > accepted) {
-                mutation = mutation.next;
+            final Mutation<K2, L2> mutation = snapshotMutation(entry.getValue(), accepted, rejected);
+            if (mutation != null) {
+                dst.put(entry.getKey(), mutation);
+                array.add(mutation);
             }
+        }
+    }
 
-            if (mutation == null || mutation.version <= rejected) {
-                continue;
+    /**
+     * The same as {@link #setMapSnapshotAndArray(Map, Map, ConcurrentArray)}, but for path indexes.
+     *
+     * @param src
+     * 		Path index that contains the original mutations
+     * @param dst
+     * 		Path index that acts as the destination of mutations
+     * @param copier
+     * 		Function to convert original mutations to snapshot mutations
+     * @param <L2>
+     * 		Value type
+     */
+    private <L2> void setPathMapSnapshotAndArray(
+            final ConcurrentLongObjectMap<Mutation<Long, L2>> src,
+            final ConcurrentLongObjectMap<Mutation<Long, L2>> dst,
+            final ConcurrentArray<Mutation<Long, L2>> array,
+            final UnaryOperator<Mutation<Long, L2>> copier) {
+        final long accepted = fastCopyVersion.get();
+        final long rejected = lastReleased.get();
+        src.forEach((path, value) -> {
+            final Mutation<Long, L2> original = snapshotMutation(value, accepted, rejected);
+            if (original != null) {
+                final Mutation<Long, L2> mutation = copier.apply(original);
+                dst.put(path, mutation);
+                array.add(mutation);
             }
+        });
+    }
 
-            dst.put(entry.getKey(), mutation);
-            array.add(mutation);
+    /**
+     * Finds the latest mutation in the list with version less than or equal to {@code accepted}. If there
+     * is no such mutation, or its version is less than or equal to {@code rejected}, null is returned.
+     */
+    private static <K2, L2> Mutation<K2, L2> snapshotMutation(
+            Mutation<K2, L2> mutation, final long accepted, final long rejected) {
+        while (mutation != null && mutation.version > accepted) {
+            mutation = mutation.next;
+        }
+        if (mutation == null || mutation.version <= rejected) {
+            return null;
         }
+        return mutation;
     }
 
     /**
@@ -1413,21 +1562,20 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		If something fails.
      */
     private void serializePathToDirtyHashIndex(
-            final Map<Long, Mutation<Long, Hash>> map, final SerializableDataOutputStream out) throws IOException {
+            final ConcurrentLongObjectMap<Mutation<Long, Hash>> map, final SerializableDataOutputStream out)
+            throws IOException {
         assert snapshot.get() : "Only snapshots can be serialized";
         out.writeInt(map.size());
-        for (final Map.Entry<Long, Mutation<Long, Hash>> entry : map.entrySet()) {
-            out.writeLong(entry.getKey());
-            final Mutation<Long, Hash> mutation = entry.getValue();
-            assert mutation != null : "Mutations cannot be null in a snapshot";
+        map.forEach((path, mutation) -> {
+            out.writeLong(path);
             assert mutation.version <= this.fastCopyVersion.get()
                     : "Trying to serialize pathToDirtyInternalIndex with a version ahead";
             out.writeLong(mutation.version);
             out.writeBoolean(mutation.isDeleted());
             if (!mutation.isDeleted()) {
-                out.writeSerializable(mutation.value, true);
+                out.writeSerializable(mutation.getValue(), true);
             }
-        }
+        });
     }
 
     /**
@@ -1441,7 +1589,9 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		In case of trouble.
      */
     private void deserializePathToDirtyHashIndex(
-            final Map<Long, Mutation<Long, Hash>> map, final SerializableDataInputStream in, final int version)
+            final ConcurrentLongObjectMap<Mutation<Long, Hash>> map,
+            final SerializableDataInputStream in,
+            final int version)
             throws IOException {
         final int sizeOfMap = in.readInt();
         for (int index = 0; index < sizeOfMap; index++) {
@@ -1474,20 +1624,19 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		If something fails.
      */
     private void serializePathToDirtyLeafIndex(
-            final Map<Long, Mutation<Long, K>> map, final SerializableDataOutputStream out) throws IOException {
+            final ConcurrentLongObjectMap<Mutation<Long, K>> map, final SerializableDataOutputStream out)
+            throws IOException {
         assert snapshot.get() : "Only snapshots can be serialized";
         out.writeInt(map.size());
-        for (final Map.Entry<Long, Mutation<Long, K>> entry : map.entrySet()) {
-            out.writeLong(entry.getKey());
-            final Mutation<Long, K> mutation = entry.getValue();
-            assert mutation != null : "Mutations cannot be null in a snapshot";
+        map.forEach((path, mutation) -> {
+            out.writeLong(path);
             assert mutation.version <= this.fastCopyVersion.get()
                     : "Trying to serialize pathToDirtyLeafIndex with a version ahead";
 
             out.writeSerializable(mutation.value, true);
             out.writeLong(mutation.version);
             out.writeBoolean(mutation.isDeleted());
-        }
+        });
     }
 
     /**
@@ -1501,10 +1650,11 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * 		In case of trouble.
      */
     private void deserializePathToDirtyLeafIndex(
-            final Map<Long, Mutation<Long, K>> map, final SerializableDataInputStream in) throws IOException {
+            final ConcurrentLongObjectMap<Mutation<Long, K>> map, final SerializableDataInputStream in)
+            throws IOException {
         final int sizeOfMap = in.readInt();
         for (int index = 0; index < sizeOfMap; index++) {
-            final Long path = in.readLong();
+            final long path = in.readLong();
             final K key = in.readSerializable();
             final long mutationVersion = in.readLong();
             final boolean deleted = in.readBoolean();
@@ -1600,7 +1750,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
      * @param <K> The key type of data held by the mutation.
      * @param <V> The type of data held by the mutation.
      */
-    private static final class Mutation<K, V> {
+    private static class Mutation<K, V> {
         private volatile Mutation<K, V> next;
         private final long version; // The version of the cache that owns this mutation
         private final K key;
@@ -1620,6 +1770,14 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             this.version = version;
         }
 
+        V getValue() {
+            return value;
+        }
+
+        void setValue(final V value) {
+            this.value = value;
+        }
+
         boolean getFlag(int bit) {
             return ((0xFF & flags) & (1 << bit)) != 0;
         }
@@ -1650,6 +1808,136 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
         }
     }
 
+    /**
+     * A factory to create path mutations, see {@link #updatePaths}.
+     *
+     * @param <V> The type of data held by the mutation.
+     */
+    @FunctionalInterface
+    private interface PathMutationFactory<V> {
+        Mutation<Long, V> create(Mutation<Long, V> next, long path, V value, long version);
+    }
+
+    /**
+     * A hash mutation, which stores its hash in a {@link DirtyHashArena} rather than on-heap. A hash
+     * is materialized as a {@link Hash} object on the first {@link #getValue()} call, and the object is
+     * reused by subsequent calls. Hashes for flushes are materialized without keeping them in the
+     * mutation, see {@link #getValue(FlushHashSlab)}. Special hashes, like {@link #NULL_HASH}, and
+     * hashes of unsupported digest types are still stored on-heap.
+     * <p>
+     * Once the arena is released, arena hashes are no longer available, and {@link #getValue()}
+     * returns null for them, unless they have been materialized before.
+     */
+    private static final class OffHeapHashMutation extends Mutation<Long, Hash> {
+        // Slot values for hashes not stored in the arena
+        private static final int SLOT_NO_VALUE = -1;
+        private static final int SLOT_NULL_HASH = -2;
+        private static final int SLOT_ON_HEAP = -3;
+
+        private final DirtyHashArena arena;
+
+        // Arena slot reference, or one of the special slot values above
+        private volatile int slot = SLOT_NO_VALUE;
+
+        // The last hash materialized from the arena, along with its slot reference
+        private volatile MaterializedHash materialized;
+
+        private record MaterializedHash(int slot, Hash hash) {}
+
+        OffHeapHashMutation(
+                final Mutation<Long, Hash> next,
+                final long path,
+                final Hash hash,
+                final long version,
+                final DirtyHashArena arena) {
+            super(next, path, null, version);
+            this.arena = arena;
+            setValue(hash);
+        }
+
+        @Override
+        Hash getValue() {
+            final int s = slot;
+            return switch (s) {
+                case SLOT_NO_VALUE -> null;
+                case SLOT_NULL_HASH -> NULL_HASH;
+                case SLOT_ON_HEAP -> super.getValue();
+                default -> {
+                    final MaterializedHash m = materialized;
+                    if ((m != null) && (m.slot() == s)) {
+                        yield m.hash();
+                    }
+                    final Hash hash = arena.get(s);
+                    if (hash != null) {
+                        materialized = new MaterializedHash(s, hash);
+                    }
+                    yield hash;
+                }
+            };
+        }
+
+        /**
+         * Gets the hash for a flush. Arena hashes are copied to the given slab rather than to a new
+         * array, and they aren't kept in the mutation.
+         */
+        Hash getValue(final FlushHashSlab slab) {
+            final int s = slot;
+            if (s < 0) {
+                return getValue();
+            }
+            final MaterializedHash m = materialized;
+            return ((m != null) && (m.slot() == s)) ? m.hash() : slab.copy(arena, s);
+        }
+
+        @Override
+        void setValue(final Hash hash) {
+            if (hash == null) {
+                slot = SLOT_NO_VALUE;
+            } else if (hash == NULL_HASH) {
+                slot = SLOT_NULL_HASH;
+            } else if (!DirtyHashArena.canStore(hash)) {
+                super.setValue(hash);
+                slot = SLOT_ON_HEAP;
+                return;
+            } else {
+                slot = arena.add(hash);
+            }
+            super.setValue(null);
+        }
+    }
+
+    /**
+     * Materializes off-heap hashes for a flush. Hash bytes are copied from arenas to large shared
+     * arrays, rather than to a new array per hash, and {@link Hash} objects are created over array
+     * ranges. An array is garbage collected, once all hashes created over it are gone.
+     */
+    private static final class FlushHashSlab {
+        // Number of hashes in a single shared array
+        private static final int SLAB_HASHES = 1024;
+
+        private byte[] slab = new byte[0];
+        private int offset = 0;
+
+        /**
+         * Creates a hash with bytes copied from the given arena slot.
+         *
+         * @return the hash, or null if the arena is released
+         */
+        synchronized Hash copy(final DirtyHashArena arena, final int ref) {
+            if (offset == slab.length) {
+                slab = new byte[SLAB_HASHES * DirtyHashArena.HASH_SIZE];
+                offset = 0;
+            }
+            if (!arena.copyTo(ref, slab, offset)) {
+                return null;
+            }
+            final Hash hash = new Hash(
+                    Bytes.wrap(slab, offset, DirtyHashArena.HASH_SIZE), DirtyHashArena.DIGEST_TYPE);
+            offset += DirtyHashArena.HASH_SIZE;
+            return hash;
+        }
+    }
+
     /**
      * Given some cache, print out the contents of all the data structures and mark specially the set of mutations
      * that apply to this cache.
@@ -1668,11 +1956,11 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
                 .append("\n");
         //noinspection unchecked
         builder.append(toDebugStringIndex(
-                        "pathToDirtyLeafIndex", (Map<Object, Mutation>) (Object) pathToDirtyLeafIndex))
+                        "pathToDirtyLeafIndex", (ConcurrentLongObjectMap<Mutation>) (Object) pathToDirtyLeafIndex))
                 .append("\n");
         //noinspection unchecked
         builder.append(toDebugStringIndex(
-                        "pathToDirtyHashIndex", (Map<Object, Mutation>) (Object) pathToDirtyHashIndex))
+                        "pathToDirtyHashIndex", (ConcurrentLongObjectMap<Mutation>) (Object) pathToDirtyHashIndex))
                 .append("\n");
         //noinspection unchecked
         builder.append(toDebugStringArray("dirtyLeaves", (ConcurrentArray<Mutation>) (Object) dirtyLeaves));
@@ -1709,28 +1997,38 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             final String indexName, @SuppressWarnings("rawtypes") final Map<Object, Mutation> index) {
         final StringBuilder builder = new StringBuilder();
         builder.append(indexName).append(":\n");
+        index.forEach((key, mutation) -> toDebugStringIndexEntry(builder, key, mutation));
+        return builder.toString();
+    }
 
-        index.forEach((key, mutation) -> {
-            builder.append("\t").append(key).append(":==> ");
-            while (mutation != null) {
-                builder.append("[")
-                        .append(mutation.key)
-                        .append(",")
-                        .append(mutation.value)
-                        .append(",")
-                        .append(mutation.isDeleted() ? "D," : "")
-                        .append("V")
-                        .append(mutation.version)
-                        .append(mutation.version == this.fastCopyVersion.get() ? "*" : "")
-                        .append("]->");
-                mutation = mutation.next;
-            }
-            builder.append("\n");
-        });
-
+    private String toDebugStringIndex(
+            final String indexName,
+            @SuppressWarnings("rawtypes") final ConcurrentLongObjectMap<Mutation> index) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(indexName).append(":\n");
+        index.forEach((path, mutation) -> toDebugStringIndexEntry(builder, path, mutation));
         return builder.toString();
     }
 
+    private void toDebugStringIndexEntry(
+            final StringBuilder builder, final Object key, @SuppressWarnings("rawtypes") Mutation mutation) {
+        builder.append("\t").append(key).append(":==> ");
+        while (mutation != null) {
+            builder.append("[")
+                    .append(mutation.key)
+                    .append(",")
+                    .append(mutation.getValue())
+                    .append(",")
+                    .append(mutation.isDeleted() ? "D," : "")
+                    .append("V")
+                    .append(mutation.version)
+                    .append(mutation.version == this.fastCopyVersion.get() ? "*" : "")
+                    .append("]->");
+            mutation = mutation.next;
+        }
+        builder.append("\n");
+    }
+
     private String toDebugStringArray(
             final String name, @SuppressWarnings("rawtypes") final ConcurrentArray<Mutation> arr) {
         final StringBuilder builder = new StringBuilder();
@@ -1742,7 +2040,7 @@ public final class VirtualNodeCache<K extends VirtualKey, V extends VirtualValue
             builder.append("\t")
                     .append(mutation.key)
                     .append(",")
-                    .append(mutation.value)
+                    .append(mutation.getValue())
                     .append(",")
                     .append(mutation.isDeleted() ? "D," : "")
                     .append("V")
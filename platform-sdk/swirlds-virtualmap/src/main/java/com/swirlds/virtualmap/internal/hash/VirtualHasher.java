@@ -17,6 +17,7 @@
 package com.swirlds.virtualmap.internal.hash;
 
 import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
+import static com.swirlds.logging.legacy.LogMarker.VIRTUAL_MERKLE_STATS;
 import static com.swirlds.virtualmap.internal.Path.INVALID_PATH;
 import static com.swirlds.virtualmap.internal.Path.ROOT_PATH;
 import static java.util.Objects.requireNonNull;
@@ -24,7 +25,7 @@ import static java.util.Objects.requireNonNull;
 import com.swirlds.common.crypto.Cryptography;
 import com.swirlds.common.crypto.CryptographyHolder;
 import com.swirlds.common.crypto.Hash;
-import com.swirlds.common.crypto.HashBuilder;
+import com.swirlds.common.crypto.engine.HashPairBatch;
 import com.swirlds.common.wiring.tasks.AbstractTask;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualMap;
@@ -41,6 +42,7 @@ import java.util.Iterator;
 import java.util.Objects;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.LongFunction;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -64,10 +66,23 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
     private static final Logger logger = LogManager.getLogger(VirtualHasher.class);
 
     /**
-     * This thread-local gets a HashBuilder that can be used for hashing on a per-thread basis.
+     * Max number of internal nodes of a single rank in a chunk, which are hashed in one batch.
      */
-    private static final ThreadLocal<HashBuilder> HASH_BUILDER_THREAD_LOCAL =
-            ThreadLocal.withInitial(() -> new HashBuilder(Cryptography.DEFAULT_DIGEST_TYPE));
+    static final int HASH_BATCH_SIZE = 64;
+
+    /**
+     * This thread-local gets a hash pair batch that can be used for hashing on a per-thread basis.
+     */
+    private static final ThreadLocal<HashPairBatch> HASH_BATCH_THREAD_LOCAL =
+            ThreadLocal.withInitial(() -> new HashPairBatch(Cryptography.DEFAULT_DIGEST_TYPE, HASH_BATCH_SIZE));
+
+    /**
+     * When chunk heights are chosen adaptively, this is the max expected number of clean inputs at
+     * the lowest rank of a chunk. Every chunk task allocates and scans all its inputs, dirty or not,
+     * so chunks are only made taller, when dirty leaves are dense. Sparse dirty leaves result in
+     * default chunk heights.
+     */
+    static final int MAX_CLEAN_CHUNK_INPUTS = 8;
 
     /**
      * A function to look up clean hashes by path during hashing. This function is stored in
@@ -100,6 +115,116 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
 
     private static volatile ForkJoinPool hashingPool = null;
 
+    /**
+     * The number of hashing tasks created during the current hashing run. Tasks are only created
+     * on the thread that calls {@link #hash(LongFunction, Iterator, long, long, VirtualHashListener,
+     * VirtualMapConfig, long)}, so no synchronization is needed.
+     */
+    private long tasksCreated;
+
+    /**
+     * The total number of input hashes of all hashing tasks created during the current hashing run.
+     * Every task allocates an array of this size and scans it, so this is a measure of hashing
+     * overhead. Updated on the same thread as {@link #tasksCreated}.
+     */
+    private long chunkInputs;
+
+    /**
+     * Time spent in hashing tasks during the current hashing run, in nanoseconds, by tree rank of
+     * the task path. Updated concurrently from hashing threads.
+     */
+    private AtomicLongArray rankHashingNanos;
+
+    /**
+     * Statistics of the last completed hashing run, or null if nothing has been hashed yet.
+     */
+    private volatile HashingStats lastHashingStats;
+
+    /**
+     * Statistics of a single hashing run.
+     *
+     * @param chunkHeight the default chunk height used in the run
+     * @param tasksCreated the number of hashing tasks created
+     * @param chunkInputs the total number of input hashes of all hashing tasks created, whether
+     *      the inputs are dirty or not
+     * @param steals the number of tasks stolen by hashing pool threads from other threads' queues.
+     *      The pool is shared by all virtual maps, so steals of concurrent hashing runs may be
+     *      counted, too
+     * @param rankHashingNanos time spent in hashing tasks, in nanoseconds, by tree rank of the task path.
+     *      The array is copied, both when the record is created and when it's returned
+     * @param firstLeafRank the first leaf rank of the tree. Ranks starting from this one contain leaf tasks
+     */
+    public record HashingStats(
+            int chunkHeight,
+            long tasksCreated,
+            long chunkInputs,
+            long steals,
+            @NonNull long[] rankHashingNanos,
+            int firstLeafRank) {
+
+        public HashingStats {
+            rankHashingNanos = rankHashingNanos.clone();
+        }
+
+        /**
+         * Time spent in hashing tasks, in nanoseconds, by tree rank of the task path.
+         */
+        @Override
+        @NonNull
+        public long[] rankHashingNanos() {
+            return rankHashingNanos.clone();
+        }
+
+        /**
+         * Time spent in hashing tasks for leaves, in nanoseconds.
+         */
+        public long leafHashingNanos() {
+            return Arrays.stream(rankHashingNanos, firstLeafRank, rankHashingNanos.length)
+                    .sum();
+        }
+
+        /**
+         * Time spent in hashing tasks for internal nodes, in nanoseconds.
+         */
+        public long internalHashingNanos() {
+            return Arrays.stream(rankHashingNanos, 0, Math.min(firstLeafRank, rankHashingNanos.length))
+                    .sum();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof final HashingStats that
+                    && chunkHeight == that.chunkHeight
+                    && tasksCreated == that.tasksCreated
+                    && chunkInputs == that.chunkInputs
+                    && steals == that.steals
+                    && firstLeafRank == that.firstLeafRank
+                    && Arrays.equals(rankHashingNanos, that.rankHashingNanos);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                    chunkHeight, tasksCreated, chunkInputs, steals, Arrays.hashCode(rankHashingNanos), firstLeafRank);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "HashingStats[chunkHeight=" + chunkHeight + ", tasksCreated=" + tasksCreated + ", chunkInputs="
+                    + chunkInputs + ", steals=" + steals + ", rankHashingNanos=" + Arrays.toString(rankHashingNanos)
+                    + ", firstLeafRank=" + firstLeafRank + "]";
+        }
+    }
+
     /**
      * This method is invoked from a non-static method, passing the provided configuration.
      * Consequently, the hashing pool will be initialized using the configuration provided
@@ -122,6 +247,50 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
         return pool;
     }
 
+    /**
+     * Chooses the default chunk height for a hashing run. If adaptive chunk heights are disabled,
+     * or the number of dirty leaves is unknown, returns {@link VirtualMapConfig#virtualHasherChunkHeight()}.
+     * Otherwise, chooses the tallest chunk height, so the expected number of clean inputs at the
+     * lowest chunk rank, which is {@code 2^height * (1 - density)}, doesn't exceed {@link
+     * #MAX_CLEAN_CHUNK_INPUTS}. Chunk inputs are stored in a dense array, so sparse dirty leaves
+     * don't benefit from taller chunks, they would only waste more memory and time per task. The
+     * result is in the range between {@link VirtualMapConfig#virtualHasherChunkHeight()} and {@link
+     * VirtualMapConfig#virtualHasherMaxChunkHeight()}.
+     *
+     * @param virtualMapConfig virtual map config
+     * @param firstLeafPath the first leaf path
+     * @param lastLeafPath the last leaf path
+     * @param dirtyLeavesCount the number of dirty leaves, or a negative value if unknown
+     * @return the chunk height
+     */
+    static int chooseChunkHeight(
+            final @NonNull VirtualMapConfig virtualMapConfig,
+            final long firstLeafPath,
+            final long lastLeafPath,
+            final long dirtyLeavesCount) {
+        final int minHeight = virtualMapConfig.virtualHasherChunkHeight();
+        final int maxHeight = virtualMapConfig.virtualHasherMaxChunkHeight();
+        if ((maxHeight <= minHeight) || (dirtyLeavesCount <= 0) || (firstLeafPath < 1)) {
+            return minHeight;
+        }
+        final long leafCount = lastLeafPath - firstLeafPath + 1;
+        final double density = Math.min(1.0, (double) dirtyLeavesCount / leafCount);
+        if (density >= 1.0) {
+            return maxHeight;
+        }
+        final int height = (int) Math.floor(Math.log(MAX_CLEAN_CHUNK_INPUTS / (1.0 - density)) / Math.log(2));
+        return Math.max(minHeight, Math.min(maxHeight, height));
+    }
+
+    /**
+     * Returns statistics of the last completed hashing run.
+     *
+     * @return hashing stats, or null if nothing has been hashed yet
+     */
+    public HashingStats getLastHashingStats() {
+        return lastHashingStats;
+    }
+
     /**
      * Indicate to the virtual hasher that it has been shut down. This method does not interrupt threads, but
      * it indicates to threads that an interrupt may happen, and that the interrupt should not be treated as
@@ -195,6 +364,8 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
             super(pool, 1 + (1 << height), height > 0 ? 1 << height : 0);
             this.height = height;
             this.path = path;
+            tasksCreated++;
+            chunkInputs += (ins != null) ? ins.length : 0;
         }
 
         void setOut(final HashHoldingTask out) {
@@ -223,6 +394,7 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
 
         @Override
         protected boolean exec() {
+            final long start = System.nanoTime();
             try {
                 final Hash hash;
                 if (leaf != null) {
@@ -230,31 +402,22 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
                     listener.onLeafHashed(leaf);
                     listener.onNodeHashed(path, hash);
                 } else {
+                    final HashPairBatch batch = HASH_BATCH_THREAD_LOCAL.get();
                     int len = 1 << height;
+                    final Hash[] batchHashes = new Hash[Math.min(len / 2, HASH_BATCH_SIZE)];
                     long rankPath = Path.getLeftGrandChildPath(path, height);
                     while (len > 1) {
-                        for (int i = 0; i < len / 2; i++) {
-                            final long hashedPath = Path.getParentPath(rankPath + i * 2);
-                            Hash left = ins[i * 2];
-                            Hash right = ins[i * 2 + 1];
-                            if ((left == null) && (right == null)) {
-                                ins[i] = null;
-                            } else {
-                                if (left == null) {
-                                    left = hashReader.apply(rankPath + i * 2);
-                                }
-                                if (right == null) {
-                                    right = hashReader.apply(rankPath + i * 2 + 1);
-                                }
-                                ins[i] = hash(hashedPath, left, right);
-                                listener.onNodeHashed(hashedPath, ins[i]);
-                            }
+                        final int pairs = len / 2;
+                        for (int from = 0; from < pairs; from += HASH_BATCH_SIZE) {
+                            final int to = Math.min(from + HASH_BATCH_SIZE, pairs);
+                            hashBatch(batch, batchHashes, rankPath, from, to);
                         }
                         rankPath = Path.getParentPath(rankPath);
                         len = len >> 1;
                     }
                     hash = ins[0];
                 }
+                rankHashingNanos.addAndGet(Path.getRank(path), System.nanoTime() - start);
                 out.setHash(getIndexInOut(), hash);
                 return true;
             } catch (final Throwable e) {
@@ -263,18 +426,59 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
             }
         }
 
-        static Hash hash(final long path, final Hash left, final Hash right) {
+        /**
+         * Hashes internal nodes of a single rank in this chunk, from pair {@code from} inclusive
+         * to pair {@code to} exclusive. Input hashes of pair {@code i} are {@code ins[i * 2]} and
+         * {@code ins[i * 2 + 1]}, the resulting hash is stored to {@code ins[i]}. If both input
+         * hashes are null, the node is clean, and the result is null, too. If only one of them is
+         * null, it's loaded using the hash reader.
+         *
+         * <p>All dirty nodes are first added to the batch, then hashed in a single batch call. Input
+         * hashes are copied to the batch, so they can be safely overwritten with results after that.
+         */
+        private void hashBatch(
+                final HashPairBatch batch,
+                final Hash[] batchHashes,
+                final long rankPath,
+                final int from,
+                final int to) {
+            // The batch may be left non-empty, if the previous task failed
+            batch.clear();
+            for (int i = from; i < to; i++) {
+                Hash left = ins[i * 2];
+                Hash right = ins[i * 2 + 1];
+                if ((left != null) || (right != null)) {
+                    if (left == null) {
+                        left = hashReader.apply(rankPath + i * 2);
+                    }
+                    if (right == null) {
+                        right = hashReader.apply(rankPath + i * 2 + 1);
+                    }
+                    addToBatch(batch, Path.getParentPath(rankPath + i * 2), left, right);
+                }
+            }
+            batch.digest(batchHashes, 0);
+            // Results are stored in path order. A result with index i never overwrites inputs of
+            // pairs after i, since their indices are at least 2 * (i + 1)
+            int next = 0;
+            for (int i = from; i < to; i++) {
+                if ((ins[i * 2] == null) && (ins[i * 2 + 1] == null)) {
+                    ins[i] = null;
+                } else {
+                    final long hashedPath = Path.getParentPath(rankPath + i * 2);
+                    ins[i] = batchHashes[next];
+                    batchHashes[next++] = null;
+                    listener.onNodeHashed(hashedPath, ins[i]);
+                }
+            }
+        }
+
+        static void addToBatch(final HashPairBatch batch, final long path, final Hash left, final Hash right) {
             final long classId = path == ROOT_PATH ? VirtualRootNode.CLASS_ID : VirtualInternalNode.CLASS_ID;
             final int serId = path == ROOT_PATH
                     ? VirtualRootNode.ClassVersion.CURRENT_VERSION
                     : VirtualInternalNode.SERIALIZATION_VERSION;
-            final HashBuilder builder = HASH_BUILDER_THREAD_LOCAL.get();
-            builder.reset();
-            builder.update(classId);
-            builder.update(serId);
-            builder.update(left);
-            builder.update(right);
-            return builder.build();
+            batch.add(classId, serId, left, right);
         }
 
         private int getIndexInOut() {
@@ -306,6 +510,31 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
             final long lastLeafPath,
             VirtualHashListener<K, V> listener,
             final @NonNull VirtualMapConfig virtualMapConfig) {
+        return hash(hashReader, sortedDirtyLeaves, firstLeafPath, lastLeafPath, listener, virtualMapConfig, -1);
+    }
+
+    /**
+     * If a dirty leaves stream is empty, returns {@code null}. If leaf path is empty, that
+     * is when {@code firstLeafPath} and/or {@code lastLeafPath} are zero or less, and
+     * dirty leaves stream is not empty, throws an {@link IllegalArgumentException}.
+     *
+     * @param hashReader A function to read hashes for clean paths
+     * @param sortedDirtyLeaves A stream of leaf records, sorted by path
+     * @param firstLeafPath First leaf path
+     * @param lastLeafPath Last leaf path
+     * @param listener Hash listener. May be null
+     * @param virtualMapConfig VirtualMap config
+     * @param dirtyLeavesCount The number of dirty leaves, may be an estimate. Used to choose chunk
+     *      heights, if adaptive chunk heights are enabled. If negative, the number is unknown
+     */
+    public Hash hash(
+            final LongFunction<Hash> hashReader,
+            final Iterator<VirtualLeafRecord<K, V>> sortedDirtyLeaves,
+            final long firstLeafPath,
+            final long lastLeafPath,
+            VirtualHashListener<K, V> listener,
+            final @NonNull VirtualMapConfig virtualMapConfig,
+            final long dirtyLeavesCount) {
         requireNonNull(virtualMapConfig);
 
         // We don't want to include null checks everywhere, so let the listener be NoopListener if null
@@ -357,11 +586,16 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
         // is calculated, it is set as an input dependency of that task. Output dependency value
         // may not be null.
 
-        // Default chunk height, from config
-        final int chunkHeight = virtualMapConfig.virtualHasherChunkHeight();
+        // Default chunk height, from config or chosen based on dirty leaves density
+        final int chunkHeight = chooseChunkHeight(virtualMapConfig, firstLeafPath, lastLeafPath, dirtyLeavesCount);
         int firstLeafRank = Path.getRank(firstLeafPath);
         int lastLeafRank = Path.getRank(lastLeafPath);
 
+        tasksCreated = 0;
+        chunkInputs = 0;
+        rankHashingNanos = new AtomicLongArray(lastLeafRank + 1);
+        final long stealsAtStart = getHashingPool(virtualMapConfig).getStealCount();
+
         // This map contains all tasks created, but not scheduled for execution yet
         final HashMap<Long, ChunkHashTask> map = new HashMap<>();
         // The result task is never executed but used as an output dependency for
@@ -536,6 +770,29 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
 
         listener.onHashingCompleted();
 
+        final long[] rankNanos = new long[rankHashingNanos.length()];
+        for (int i = 0; i < rankNanos.length; i++) {
+            rankNanos[i] = rankHashingNanos.get(i);
+        }
+        final HashingStats stats = new HashingStats(
+                chunkHeight,
+                tasksCreated,
+                chunkInputs,
+                getHashingPool(virtualMapConfig).getStealCount() - stealsAtStart,
+                rankNanos,
+                firstLeafRank);
+        lastHashingStats = stats;
+        if (logger.isDebugEnabled(VIRTUAL_MERKLE_STATS.getMarker())) {
+            logger.debug(
+                    VIRTUAL_MERKLE_STATS.getMarker(),
+                    "Hashed with chunk height {}: {} tasks, {} inputs, {} steals, task time by rank (us): {}",
+                    chunkHeight,
+                    stats.tasksCreated(),
+                    stats.chunkInputs(),
+                    stats.steals(),
+                    Arrays.toString(Arrays.stream(rankNanos).map(n -> n / 1000).toArray()));
+        }
+
         this.hashReader = null;
         this.listener = null;
 
@@ -544,6 +801,11 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
 
     public Hash emptyRootHash() {
         final Hash NULL_HASH = CryptographyHolder.get().getNullHash();
-        return ChunkHashTask.hash(ROOT_PATH, NULL_HASH, NULL_HASH);
+        final HashPairBatch batch = HASH_BATCH_THREAD_LOCAL.get();
+        batch.clear();
+        ChunkHashTask.addToBatch(batch, ROOT_PATH, NULL_HASH, NULL_HASH);
+        final Hash[] rootHash = new Hash[1];
+        batch.digest(rootHash, 0);
+        return rootHash[0];
     }
 }
@@ -85,6 +85,9 @@ public abstract class AbstractHashListener<K extends VirtualKey, V extends Virtu
     // protection from that
     private final AtomicBoolean flushInProgress = new AtomicBoolean(false);
 
+    // Set if a flush fails. Data source contents may be inconsistent after that
+    private volatile boolean flushFailed = false;
+
     private int flushInterval = 0;
 
     private final VirtualMapStatistics statistics;
@@ -203,6 +206,7 @@ public abstract class AbstractHashListener<K extends VirtualKey, V extends Virtu
                     leavesToFlush.size());
             // flush it down
             final long start = System.currentTimeMillis();
+            boolean saved = false;
             try {
                 dataSource.saveRecords(
                         firstLeafPath,
@@ -211,17 +215,53 @@ public abstract class AbstractHashListener<K extends VirtualKey, V extends Virtu
                         leavesToFlush.stream().map(r -> r.toBytes(keySerializer, valueSerializer)),
                         findLeavesToRemove().map(r -> r.toBytes(keySerializer, valueSerializer)),
                         true);
+                saved = true;
                 final long end = System.currentTimeMillis();
                 statistics.recordFlush(end - start);
                 logger.debug(VIRTUAL_MERKLE_STATS.getMarker(), "Flushed in {} ms", end - start);
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
+            } finally {
+                if (!saved) {
+                    flushFailed = true;
+                }
             }
+            onFlushCompleted(hashesToFlush, leavesToFlush);
         } finally {
             flushInProgress.set(false);
         }
     }
 
+    /**
+     * Called after a batch of hashes and leaves is saved to the data source. Flushes are never
+     * run concurrently with each other. This implementation does nothing.
+     *
+     * @param flushedHashes the hashes saved to the data source
+     * @param flushedLeaves the leaves saved to the data source
+     */
+    protected void onFlushCompleted(
+            @NonNull final List<VirtualHashRecord> flushedHashes,
+            @NonNull final List<VirtualLeafRecord<K, V>> flushedLeaves) {}
+
+    /**
+     * Checks if a flush is currently running.
+     *
+     * @return whether a flush is in progress
+     */
+    public boolean isFlushInProgress() {
+        return flushInProgress.get();
+    }
+
+    /**
+     * Checks if any flush has failed. If so, the data source may contain only a part of the failed
+     * batch.
+     *
+     * @return whether a flush has failed
+     */
+    public boolean hasFlushFailed() {
+        return flushFailed;
+    }
+
     /**
      * Find the leaves that need to be removed from the data source up to this moment.
      *
@@ -22,7 +22,9 @@ import com.swirlds.metrics.api.IntegerGauge;
 import com.swirlds.metrics.api.LongAccumulator;
 import com.swirlds.metrics.api.LongGauge;
 import com.swirlds.metrics.api.Metrics;
+import com.swirlds.virtualmap.internal.hash.VirtualHasher;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Encapsulates statistics for a virtual map.
@@ -71,6 +73,16 @@ public class VirtualMapStatistics {
     private Counter flushCount;
     /** The average time to hash virtual map copy, ms */
     private LongAccumulator hashDurationMs;
+    /** Virtual hasher chunk height used to hash the last virtual map copy */
+    private IntegerGauge hashChunkHeight;
+    /** The number of virtual hasher tasks created to hash virtual map copies */
+    private LongAccumulator hashTasks;
+    /** The number of tasks stolen by virtual hasher threads while hashing virtual map copies */
+    private LongAccumulator hashSteals;
+    /** Time spent in virtual hasher tasks to hash leaves, total for all hashing threads, ms */
+    private LongAccumulator hashLeavesTimeMs;
+    /** Time spent in virtual hasher tasks to hash internal nodes, total for all hashing threads, ms */
+    private LongAccumulator hashInternalNodesTimeMs;
 
     private static LongAccumulator buildLongAccumulator(
             final Metrics metrics, final String name, final String description) {
@@ -166,6 +178,25 @@ public class VirtualMapStatistics {
                 metrics,
                 VMAP_PREFIX + LIFECYCLE_PREFIX + "hashDurationMs_" + label,
                 "Virtual root copy hash duration, " + label + ", ms");
+        hashChunkHeight = metrics.getOrCreate(
+                new IntegerGauge.Config(STAT_CATEGORY, VMAP_PREFIX + LIFECYCLE_PREFIX + "hashChunkHeight_" + label)
+                        .withDescription("Virtual hasher chunk height, " + label));
+        hashTasks = buildLongAccumulator(
+                metrics,
+                VMAP_PREFIX + LIFECYCLE_PREFIX + "hashTasks_" + label,
+                "Virtual hasher tasks created, " + label);
+        hashSteals = buildLongAccumulator(
+                metrics,
+                VMAP_PREFIX + LIFECYCLE_PREFIX + "hashSteals_" + label,
+                "Virtual hasher tasks stolen by hashing threads, " + label);
+        hashLeavesTimeMs = buildLongAccumulator(
+                metrics,
+                VMAP_PREFIX + LIFECYCLE_PREFIX + "hashLeavesTimeMs_" + label,
+                "Virtual hasher time to hash leaves, all threads, " + label + ", ms");
+        hashInternalNodesTimeMs = buildLongAccumulator(
+                metrics,
+                VMAP_PREFIX + LIFECYCLE_PREFIX + "hashInternalNodesTimeMs_" + label,
+                "Virtual hasher time to hash internal nodes, all threads, " + label + ", ms");
     }
 
     /**
@@ -305,4 +336,30 @@ public class VirtualMapStatistics {
             this.hashDurationMs.update(hashDurationMs);
         }
     }
+
+    /**
+     * Record virtual hasher statistics of a virtual root copy hashing run.
+     *
+     * @param stats hashing stats, may be null
+     */
+    public void recordHashingStats(final VirtualHasher.HashingStats stats) {
+        if (stats == null) {
+            return;
+        }
+        if (this.hashChunkHeight != null) {
+            this.hashChunkHeight.set(stats.chunkHeight());
+        }
+        if (this.hashTasks != null) {
+            this.hashTasks.update(stats.tasksCreated());
+        }
+        if (this.hashSteals != null) {
+            this.hashSteals.update(stats.steals());
+        }
+        if (this.hashLeavesTimeMs != null) {
+            this.hashLeavesTimeMs.update(TimeUnit.NANOSECONDS.toMillis(stats.leafHashingNanos()));
+        }
+        if (this.hashInternalNodesTimeMs != null) {
+            this.hashInternalNodesTimeMs.update(TimeUnit.NANOSECONDS.toMillis(stats.internalHashingNanos()));
+        }
+    }
 }
@@ -83,6 +83,8 @@ import com.swirlds.virtualmap.internal.reconnect.ConcurrentBlockingIterator;
 import com.swirlds.virtualmap.internal.reconnect.LearnerPullVirtualTreeView;
 import com.swirlds.virtualmap.internal.reconnect.LearnerPushVirtualTreeView;
 import com.swirlds.virtualmap.internal.reconnect.NodeTraversalOrder;
+import com.swirlds.virtualmap.internal.reconnect.RangeDigestTraversalOrder;
+import com.swirlds.virtualmap.internal.reconnect.ReconnectCheckpoint;
 import com.swirlds.virtualmap.internal.reconnect.ReconnectHashListener;
 import com.swirlds.virtualmap.internal.reconnect.ReconnectNodeRemover;
 import com.swirlds.virtualmap.internal.reconnect.ReconnectState;
@@ -336,6 +338,35 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
 
     private ReconnectNodeRemover<K, V> nodeRemover;
 
+    /**
+     * During reconnect as a learner, the listener that flushes received nodes to the reconnect data source.
+     */
+    private ReconnectHashListener<K, V> reconnectHashListener;
+
+    /**
+     * During reconnect as a learner, the virtual root hash of the teacher tree, or null if unknown.
+     */
+    private Hash reconnectTargetRootHash;
+
+    /**
+     * During reconnect as a learner, the checkpoint of a previous failed reconnect attempt that this
+     * reconnect is resumed from, or null if reconnect is started from the original map. The checkpoint
+     * is owned by the original map.
+     */
+    private ReconnectCheckpoint resumedCheckpoint;
+
+    /**
+     * During reconnect as a learner, if reconnect resumption is enabled, the original map to save a
+     * checkpoint to if this map is destroyed before it's ever copied, i.e. if reconnect fails.
+     */
+    private VirtualRootNode<K, V> checkpointOwner;
+
+    /**
+     * The checkpoint of the last failed reconnect attempt that used this map as the original map, or
+     * null if there is no such attempt. Closed when this map is destroyed.
+     */
+    private ReconnectCheckpoint reconnectCheckpoint;
+
     private final long fastCopyVersion;
 
     private VirtualMapStatistics statistics;
@@ -743,6 +774,8 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         // has a chance to "seal" the cache, and we will get exceptions.
         final VirtualRootNode<K, V> copy = new VirtualRootNode<>(this);
         setImmutable(true);
+        // A reconnected map that is copied is in use, there is nothing to resume
+        checkpointOwner = null;
 
         if (isHashed()) {
             // Special case: after a "reconnect", the mutable copy will already be hashed
@@ -758,6 +791,14 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
      */
     @Override
     protected void destroyNode() {
+        if (checkpointOwner != null) {
+            checkpointOwner.saveReconnectCheckpoint(createReconnectCheckpoint());
+            checkpointOwner = null;
+        }
+        synchronized (this) {
+            closeReconnectCheckpoint(reconnectCheckpoint);
+            reconnectCheckpoint = null;
+        }
         if (pipeline != null) {
             pipeline.destroyCopy(this);
         } else {
@@ -1389,7 +1430,10 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                 state.getFirstLeafPath(),
                 state.getLastLeafPath(),
                 hashListener,
-                virtualMapConfig);
+                virtualMapConfig,
+                cache.estimatedDirtyLeavesCount(state.getFirstLeafPath(), state.getLastLeafPath()));
+        // If there are no dirty leaves, no hashing tasks are run
+        final boolean hashingTasksRun = virtualHash != null;
 
         if (virtualHash == null) {
             final Hash rootHash = (state.size() == 0) ? null : records.findHash(0);
@@ -1405,6 +1449,9 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
 
         final long end = System.currentTimeMillis();
         statistics.recordHash(end - start);
+        if (hashingTasksRun) {
+            statistics.recordHashingStats(hasher.getLastHashingStats());
+        }
     }
 
     /*
@@ -1465,9 +1512,11 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
             case VirtualMapReconnectMode.PUSH -> new TeacherPushVirtualTreeView<>(
                     getStaticThreadManager(), reconnectConfig, this, state, pipeline);
             case VirtualMapReconnectMode.PULL_TOP_TO_BOTTOM -> new TeacherPullVirtualTreeView<>(
-                    getStaticThreadManager(), reconnectConfig, this, state, pipeline);
+                    getStaticThreadManager(), reconnectConfig, this, state, pipeline, false);
             case VirtualMapReconnectMode.PULL_TWO_PHASE_PESSIMISTIC -> new TeacherPullVirtualTreeView<>(
-                    getStaticThreadManager(), reconnectConfig, this, state, pipeline);
+                    getStaticThreadManager(), reconnectConfig, this, state, pipeline, false);
+            case VirtualMapReconnectMode.PULL_RANGE_DIGEST -> new TeacherPullVirtualTreeView<>(
+                    getStaticThreadManager(), reconnectConfig, this, state, pipeline, true);
             default -> throw new UnsupportedOperationException(
                     "Unknown reconnect mode: " + virtualMapConfig.reconnectMode());
         };
@@ -1497,14 +1546,27 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         // helpful and will just burn resources.
         originalMap.dataSource.stopAndDisableBackgroundCompaction();
 
-        // Take a snapshot, and use the snapshot database as my data source
-        this.dataSource = dataSourceBuilder.copy(originalMap.dataSource, true);
-
-        // The old map's cache is going to become immutable, but that's OK, because the old map
-        // will NEVER be updated again.
-        assert originalMap.isHashed() : "The system should have made sure this was hashed by this point!";
-        final VirtualNodeCache<K, V> snapshotCache = originalMap.cache.snapshot();
-        flush(snapshotCache, originalMap.state, this.dataSource);
+        final boolean resumable = virtualMapConfig.reconnectResume()
+                && !VirtualMapReconnectMode.PUSH.equals(virtualMapConfig.reconnectMode());
+        resumedCheckpoint = resumable ? originalMap.reconnectCheckpoint : null;
+        checkpointOwner = resumable ? originalMap : null;
+
+        final VirtualNodeCache<K, V> snapshotCache;
+        if (resumedCheckpoint != null) {
+            logger.info(RECONNECT.getMarker(), "Resuming reconnect from {}", resumedCheckpoint);
+            // The checkpoint data source already contains everything from the original map's cache
+            this.dataSource = dataSourceBuilder.copy(resumedCheckpoint.dataSource(), true);
+            snapshotCache = new VirtualNodeCache<>(virtualMapConfig);
+        } else {
+            // Take a snapshot, and use the snapshot database as my data source
+            this.dataSource = dataSourceBuilder.copy(originalMap.dataSource, true);
+
+            // The old map's cache is going to become immutable, but that's OK, because the old map
+            // will NEVER be updated again.
+            assert originalMap.isHashed() : "The system should have made sure this was hashed by this point!";
+            snapshotCache = originalMap.cache.snapshot();
+            flush(snapshotCache, originalMap.state, this.dataSource);
+        }
 
         // Set up the VirtualHasher which we will use during reconnect.
         // Initial timeout is intentionally very long, timeout is reduced once we receive the first leaf in the tree.
@@ -1537,19 +1599,34 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
     public LearnerTreeView<Long> buildLearnerView(
             final ReconnectConfig reconnectConfig, @NonNull final ReconnectMapStats mapStats) {
         assert originalMap != null;
-        // During reconnect we want to look up state from the original records
-        final VirtualStateAccessor originalState = originalMap.getState();
+        // During reconnect we want to look up state from the original records. If reconnect is resumed,
+        // the partially reconnected tree from the checkpoint is used as the original tree
+        final VirtualStateAccessor originalState;
+        final RecordAccessor<K, V> originalRecords;
+        if (resumedCheckpoint != null) {
+            originalState =
+                    new ReconnectState(resumedCheckpoint.firstLeafPath(), resumedCheckpoint.lastLeafPath());
+            originalRecords = new RecordAccessorImpl<>(
+                    originalState,
+                    new VirtualNodeCache<>(virtualMapConfig),
+                    keySerializer,
+                    valueSerializer,
+                    resumedCheckpoint.dataSource());
+        } else {
+            originalState = originalMap.getState();
+            originalRecords = originalMap.getRecords();
+        }
         nodeRemover = new ReconnectNodeRemover<>(
-                originalMap.getRecords(), originalState.getFirstLeafPath(), originalState.getLastLeafPath());
+                originalRecords, originalState.getFirstLeafPath(), originalState.getLastLeafPath());
         return switch (virtualMapConfig.reconnectMode()) {
             case VirtualMapReconnectMode.PUSH -> new LearnerPushVirtualTreeView<>(
-                    reconnectConfig, this, originalMap.records, originalState, reconnectState, nodeRemover, mapStats);
+                    reconnectConfig, this, originalRecords, originalState, reconnectState, nodeRemover, mapStats);
             case VirtualMapReconnectMode.PULL_TOP_TO_BOTTOM -> {
                 final NodeTraversalOrder topToBottom = new TopToBottomTraversalOrder();
                 yield new LearnerPullVirtualTreeView<>(
                         reconnectConfig,
                         this,
-                        originalMap.records,
+                        originalRecords,
                         originalState,
                         reconnectState,
                         nodeRemover,
@@ -1561,13 +1638,25 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                 yield new LearnerPullVirtualTreeView<>(
                         reconnectConfig,
                         this,
-                        originalMap.records,
+                        originalRecords,
                         originalState,
                         reconnectState,
                         nodeRemover,
                         twoPhasePessimistic,
                         mapStats);
             }
+            case VirtualMapReconnectMode.PULL_RANGE_DIGEST -> {
+                final NodeTraversalOrder rangeDigest = new RangeDigestTraversalOrder();
+                yield new LearnerPullVirtualTreeView<>(
+                        reconnectConfig,
+                        this,
+                        originalRecords,
+                        originalState,
+                        reconnectState,
+                        nodeRemover,
+                        rangeDigest,
+                        mapStats);
+            }
             default -> throw new UnsupportedOperationException(
                     "Unknown reconnect mode: " + virtualMapConfig.reconnectMode());
         };
@@ -1617,6 +1706,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                 virtualMapConfig.reconnectFlushInterval(),
                 statistics,
                 nodeRemover);
+        reconnectHashListener = hashListener;
 
         // This background thread will be responsible for hashing the tree and sending the
         // data to the hash listener to flush.
@@ -1644,6 +1734,114 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         reconnectHashingStarted.set(true);
     }
 
+    /**
+     * Sets the virtual root hash of the teacher tree. If reconnect resumption is enabled, the root hash of
+     * the reconnected tree is checked against it at the end of reconnect, and it's stored in the checkpoint
+     * if reconnect fails.
+     *
+     * @param targetRootHash the teacher root hash, or null if unknown
+     */
+    public void setReconnectTargetRootHash(@Nullable final Hash targetRootHash) {
+        this.reconnectTargetRootHash = targetRootHash;
+        if ((resumedCheckpoint != null) && (targetRootHash != null)) {
+            logger.info(
+                    RECONNECT.getMarker(),
+                    "Resumed reconnect targets {} root hash",
+                    targetRootHash.equals(resumedCheckpoint.targetRootHash()) ? "the same" : "a different");
+        }
+    }
+
+    /**
+     * Checks if this learner reconnect is resumed from a checkpoint of a failed reconnect attempt. If so,
+     * the original tree used by the learner view is the partially reconnected tree from the checkpoint,
+     * where some node hashes may be missing.
+     *
+     * @return whether reconnect is resumed
+     */
+    public boolean isReconnectResumed() {
+        return resumedCheckpoint != null;
+    }
+
+    /**
+     * Takes a snapshot of the reconnect data source, if reconnect has failed after something was
+     * flushed to it. The snapshot contains all batches flushed by the reconnect hash listener and
+     * nothing else, unless a flush failed or is still in progress.
+     *
+     * @return the checkpoint, or null if there is nothing to resume from
+     */
+    private ReconnectCheckpoint createReconnectCheckpoint() {
+        final ReconnectHashListener<K, V> hashListener = reconnectHashListener;
+        if (hashListener == null) {
+            // Reconnect failed before the hashing thread was started, nothing is flushed
+            return null;
+        }
+        // The learner view isn't closed on failure, so the hashing thread is still waiting for leaves.
+        // Stop it and wait till the leaves received so far are hashed and flushed
+        reconnectIterator.close();
+        try {
+            reconnectHashingFuture.get();
+        } catch (final ExecutionException e) {
+            // Already logged by the hashing thread. Whether the last flush failed is checked below
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn(
+                    RECONNECT.getMarker(), "VirtualMap@{} interrupted while stopping reconnect hashing", getRoute());
+            return null;
+        }
+        if (hashListener.getFlushedLeafCount() == 0) {
+            // Nothing new is received, keep the previous checkpoint, if any
+            return null;
+        }
+        if (hashListener.isFlushInProgress() || hashListener.hasFlushFailed()) {
+            logger.warn(
+                    RECONNECT.getMarker(), "VirtualMap@{} reconnect data is inconsistent, can't resume", getRoute());
+            return null;
+        }
+        try {
+            final ReconnectCheckpoint checkpoint = new ReconnectCheckpoint(
+                    dataSourceBuilder.copy(dataSource, false),
+                    reconnectTargetRootHash,
+                    reconnectState.getFirstLeafPath(),
+                    reconnectState.getLastLeafPath(),
+                    hashListener.getFlushedLeafCount(),
+                    hashListener.getFirstFlushedLeafPath(),
+                    hashListener.getLastFlushedLeafPath());
+            logger.info(RECONNECT.getMarker(), "VirtualMap@{} reconnect failed, saved {}", getRoute(), checkpoint);
+            return checkpoint;
+        } catch (final Exception e) {
+            logger.warn(RECONNECT.getMarker(), "VirtualMap@{} failed to save reconnect checkpoint", getRoute(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the reconnect checkpoint of this map, which is used as the original map in a learner
+     * reconnect. If this map is already destroyed, the checkpoint is released immediately.
+     *
+     * @param checkpoint the new checkpoint. If null, the previous checkpoint is kept
+     */
+    private synchronized void saveReconnectCheckpoint(@Nullable final ReconnectCheckpoint checkpoint) {
+        if (checkpoint == null) {
+            return;
+        }
+        if (isDestroyed()) {
+            closeReconnectCheckpoint(checkpoint);
+            return;
+        }
+        closeReconnectCheckpoint(reconnectCheckpoint);
+        reconnectCheckpoint = checkpoint;
+    }
+
+    private static void closeReconnectCheckpoint(@Nullable final ReconnectCheckpoint checkpoint) {
+        if (checkpoint != null) {
+            try {
+                checkpoint.close();
+            } catch (final IOException e) {
+                logger.warn(RECONNECT.getMarker(), "Failed to close reconnect checkpoint data source", e);
+            }
+        }
+    }
+
     public void endLearnerReconnect() {
         try {
             logger.info(RECONNECT.getMarker(), "call reconnectIterator.close()");
@@ -1651,7 +1849,16 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
             if (reconnectHashingStarted.get()) {
                 // Only block on future if the hashing thread is known to have been started.
                 logger.info(RECONNECT.getMarker(), "call setHashPrivate()");
-                setHashPrivate(reconnectHashingFuture.get());
+                final Hash reconnectedHash = reconnectHashingFuture.get();
+                if (virtualMapConfig.reconnectResume()
+                        && (reconnectTargetRootHash != null)
+                        && (reconnectedHash != null)
+                        && !reconnectTargetRootHash.equals(reconnectedHash)) {
+                    throw new MerkleSynchronizationException("VirtualMap@" + getRoute()
+                            + " root hash mismatch after learner reconnect, expected " + reconnectTargetRootHash
+                            + ", got " + reconnectedHash);
+                }
+                setHashPrivate(reconnectedHash);
             } else {
                 logger.warn(RECONNECT.getMarker(), "virtual map hashing thread was never started");
             }
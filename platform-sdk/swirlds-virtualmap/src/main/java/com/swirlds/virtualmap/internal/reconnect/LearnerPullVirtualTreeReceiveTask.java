@@ -18,7 +18,6 @@ package com.swirlds.virtualmap.internal.reconnect;
 
 import static com.swirlds.logging.legacy.LogMarker.RECONNECT;
 
-import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationException;
 import com.swirlds.common.threading.pool.StandardWorkGroup;
 import java.util.concurrent.CountDownLatch;
@@ -34,7 +33,8 @@ import org.apache.logging.log4j.Logger;
  * is alive, or some responses are expected from the teacher.
  *
  * <p>For every response from the teacher, the learner view is notified, which in turn notifies
- * the current traversal order, so it can recalculate the next virtual path to request.
+ * the current traversal order, so it can recalculate the next virtual path to request. If helper
+ * teachers are used, responses are read from all teachers in the order the requests were sent.
  */
 public class LearnerPullVirtualTreeReceiveTask {
 
@@ -43,7 +43,7 @@ public class LearnerPullVirtualTreeReceiveTask {
     private static final String NAME = "reconnect-learner-receiver";
 
     private final StandardWorkGroup workGroup;
-    private final SerializableDataInputStream in;
+    private final PullVirtualTreeTeachers teachers;
     private final LearnerPullVirtualTreeView view;
 
     // Indicates if the learner sender task is done sending all requests to the teacher
@@ -61,8 +61,8 @@ public class LearnerPullVirtualTreeReceiveTask {
      *
      * @param workGroup
      * 		the work group that will manage this thread
-     * @param in
-     * 		the input stream, this object is responsible for closing this when finished
+     * @param teachers
+     * 		the teachers to read responses from
      * @param view
      * 		the view to be used when touching the merkle tree
      * @param senderIsFinished
@@ -70,13 +70,13 @@ public class LearnerPullVirtualTreeReceiveTask {
      */
     public LearnerPullVirtualTreeReceiveTask(
             final StandardWorkGroup workGroup,
-            final SerializableDataInputStream in,
+            final PullVirtualTreeTeachers teachers,
             final LearnerPullVirtualTreeView view,
             final AtomicBoolean senderIsFinished,
             final AtomicLong expectedResponses,
             final CountDownLatch rootResponseReceived) {
         this.workGroup = workGroup;
-        this.in = in;
+        this.teachers = teachers;
         this.view = view;
         this.senderIsFinished = senderIsFinished;
         this.expectedResponses = expectedResponses;
@@ -96,7 +96,7 @@ public class LearnerPullVirtualTreeReceiveTask {
                 if (responseExpected) {
                     final PullVirtualTreeResponse response = new PullVirtualTreeResponse(view);
                     // the learner tree is notified about the new response in deserialize() method below
-                    response.deserialize(in, 0);
+                    response.deserialize(teachers.nextResponseStream(), 0);
                     view.getMapStats().incrementTransfersFromTeacher();
                     logger.debug(RECONNECT.getMarker(), "Learner receive path: " + response.getPath());
                     if (response.getPath() == 0) {
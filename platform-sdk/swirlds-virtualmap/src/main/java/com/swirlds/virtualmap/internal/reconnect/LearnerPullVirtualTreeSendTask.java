@@ -20,7 +20,6 @@ import static com.swirlds.logging.legacy.LogMarker.RECONNECT;
 
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
-import com.swirlds.common.merkle.synchronization.streams.AsyncOutputStream;
 import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationException;
 import com.swirlds.common.threading.pool.StandardWorkGroup;
 import com.swirlds.virtualmap.internal.Path;
@@ -39,9 +38,10 @@ import org.apache.logging.log4j.Logger;
  * is waited for before any other requests are sent, because root node response contains virtual
  * tree path range on the teacher side.
  *
- * <p>After the root response has been received, this task keeps sending requests according to
- * the provided {@link NodeTraversalOrder}. After the next path to request is {@link
- * Path#INVALID_PATH}, this request is sent to indicate that there will be no more requests from
+ * <p>After the root response has been received, helper teachers are connected, if any, and this
+ * task keeps sending requests according to the provided {@link NodeTraversalOrder}. Requests are
+ * distributed across all teachers. After the next path to request is {@link Path#INVALID_PATH},
+ * this request is sent to all teachers to indicate that there will be no more requests from
  * the learner, and this task is finished.
  */
 public class LearnerPullVirtualTreeSendTask {
@@ -51,7 +51,7 @@ public class LearnerPullVirtualTreeSendTask {
     private static final String NAME = "reconnect-learner-sender";
 
     private final StandardWorkGroup workGroup;
-    private final AsyncOutputStream<PullVirtualTreeRequest> out;
+    private final PullVirtualTreeTeachers teachers;
     private final LearnerPullVirtualTreeView view;
     private final NodeTraversalOrder traversalOrder;
 
@@ -75,8 +75,9 @@ public class LearnerPullVirtualTreeSendTask {
      *      the reconnect configuration
      * @param workGroup
      * 		the work group that will manage this thread
-     * @param out
-     * 		the output stream, this object is responsible for closing this when finished
+     * @param teachers
+     * 		the teachers to send requests to, this object is responsible for closing their output
+     * 		streams when finished
      * @param view
      * 		the view to be used when touching the merkle tree
      * @param senderIsFinished
@@ -88,14 +89,14 @@ public class LearnerPullVirtualTreeSendTask {
     public LearnerPullVirtualTreeSendTask(
             final ReconnectConfig reconnectConfig,
             final StandardWorkGroup workGroup,
-            final AsyncOutputStream<PullVirtualTreeRequest> out,
+            final PullVirtualTreeTeachers teachers,
             final LearnerPullVirtualTreeView view,
             final NodeTraversalOrder traversalOrder,
             final AtomicBoolean senderIsFinished,
             final CountDownLatch rootResponseReceived,
             final AtomicLong responsesExpected) {
         this.workGroup = workGroup;
-        this.out = out;
+        this.teachers = teachers;
         this.view = view;
         this.traversalOrder = traversalOrder;
         this.senderIsFinished = senderIsFinished;
@@ -110,14 +111,17 @@ public class LearnerPullVirtualTreeSendTask {
     }
 
     private void run() {
-        try (out) {
+        try (teachers) {
             // Send a request for the root node first. The response will contain virtual tree path range
-            out.sendAsync(new PullVirtualTreeRequest(Path.ROOT_PATH, new Hash()));
+            final boolean pathRanges = traversalOrder.usesPathRanges();
+            teachers.sendRequest(view.newRootRequest());
             view.getMapStats().incrementTransfersFromLearner();
             responsesExpected.incrementAndGet();
             if (!rootResponseReceived.await(rootResponseTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
                 throw new MerkleSynchronizationException("Timed out waiting for root node response from the teacher");
             }
+            // All helper teachers must be connected before any other requests are sent
+            view.connectHelperTeachers(teachers);
 
             while (true) {
                 final long path = traversalOrder.getNextPathToSend();
@@ -126,12 +130,20 @@ public class LearnerPullVirtualTreeSendTask {
                     Thread.onSpinWait();
                     continue;
                 }
-                final Hash hash = path == Path.INVALID_PATH ? null : view.getNodeHash(path);
-                out.sendAsync(new PullVirtualTreeRequest(path, hash));
-                view.getMapStats().incrementTransfersFromLearner();
                 if (path == Path.INVALID_PATH) {
+                    teachers.sendToAll(view.newEndRequest());
+                    view.getMapStats().incrementTransfersFromLearner();
                     break;
                 }
+                if (pathRanges) {
+                    final long lastPath = traversalOrder.getLastPathInRange(path);
+                    final Hash digest = view.getRangeDigest(path, lastPath);
+                    teachers.sendRequest(new PullVirtualTreeRequest(path, lastPath, digest));
+                } else {
+                    final Hash hash = view.getNodeHash(path);
+                    teachers.sendRequest(new PullVirtualTreeRequest(path, hash));
+                }
+                view.getMapStats().incrementTransfersFromLearner();
                 responsesExpected.incrementAndGet();
             }
             logger.debug(RECONNECT.getMarker(), "Learner send done");
@@ -16,6 +16,7 @@
 
 package com.swirlds.virtualmap.internal.reconnect;
 
+import static com.swirlds.logging.legacy.LogMarker.RECONNECT;
 import static com.swirlds.virtualmap.internal.Path.ROOT_PATH;
 
 import com.swirlds.common.crypto.CryptographyHolder;
@@ -25,6 +26,7 @@ import com.swirlds.common.io.streams.MerkleDataOutputStream;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
 import com.swirlds.common.io.streams.SerializableDataOutputStream;
 import com.swirlds.common.merkle.MerkleNode;
+import com.swirlds.common.merkle.synchronization.HelperTeacher;
 import com.swirlds.common.merkle.synchronization.LearningSynchronizer;
 import com.swirlds.common.merkle.synchronization.config.ReconnectConfig;
 import com.swirlds.common.merkle.synchronization.stats.ReconnectMapStats;
@@ -49,6 +51,8 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * An implementation of {@link LearnerTreeView} for the virtual merkle. The learner during reconnect
@@ -67,6 +71,8 @@ import java.util.concurrent.atomic.AtomicReference;
 public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends VirtualValue>
         extends VirtualTreeViewBase<K, V> implements LearnerTreeView<Long> {
 
+    private static final Logger logger = LogManager.getLogger(LearnerPullVirtualTreeView.class);
+
     /**
      * A stashed null hash, which is used for any leaves which are null that we need to send
      * (specifically, leaf 2 for a tree with only a single leaf).
@@ -106,6 +112,22 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
      */
     private boolean firstNodeResponse = true;
 
+    /**
+     * The virtual root hash on the main teacher, as received in the root response. Helper teachers
+     * are only used if their root hashes are the same.
+     */
+    private Hash teacherRootHash;
+
+    /**
+     * The learning synchronizer, used to create output streams to helper teachers.
+     */
+    private LearningSynchronizer learningSynchronizer;
+
+    /**
+     * The work group to run helper teacher output streams in.
+     */
+    private StandardWorkGroup workGroup;
+
     /**
      * Create a new {@link LearnerPullVirtualTreeView}.
      *
@@ -150,24 +172,27 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
             final Queue<MerkleNode> rootsToReceive,
             final AtomicReference<Long> reconstructedRoot) {
         this.nodeCount = learningSynchronizer;
+        this.learningSynchronizer = learningSynchronizer;
+        this.workGroup = workGroup;
 
         final AsyncOutputStream<PullVirtualTreeRequest> out =
                 learningSynchronizer.buildOutputStream(workGroup, outputStream);
         out.start();
+        final PullVirtualTreeTeachers teachers = new PullVirtualTreeTeachers(inputStream, out);
 
         final AtomicBoolean senderIsFinished = new AtomicBoolean();
         final CountDownLatch rootResponseReceived = new CountDownLatch(1);
         final AtomicLong expectedResponses = new AtomicLong(0);
 
         final LearnerPullVirtualTreeReceiveTask learnerReceiveTask = new LearnerPullVirtualTreeReceiveTask(
-                workGroup, inputStream, this, senderIsFinished, expectedResponses, rootResponseReceived);
+                workGroup, teachers, this, senderIsFinished, expectedResponses, rootResponseReceived);
         learnerReceiveTask.exec();
         reconstructedRoot.set(0L);
         assert traversalOrder != null;
         final LearnerPullVirtualTreeSendTask learnerSendTask = new LearnerPullVirtualTreeSendTask(
                 reconnectConfig,
                 workGroup,
-                out,
+                teachers,
                 this,
                 traversalOrder,
                 senderIsFinished,
@@ -191,8 +216,8 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
      * written by reconnect teacher. This method should match {@link
      * TeacherPullVirtualTreeView#writeNode(SerializableDataOutputStream, long, boolean)}.
      *
-     * <p>For a root node, reconnect state information is read: the first and the last leaf paths. Nothing
-     * is read for other internal nodes.
+     * <p>For a root node, reconnect state information is read: the first and the last leaf paths, and
+     * the teacher root hash. Nothing is read for other internal nodes.
      *
      * <p>For dirty leaf nodes, leaf records are read. Nothing is read for clean leaf nodes.
      *
@@ -206,9 +231,12 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
         if (path == Path.ROOT_PATH) {
             final long firstLeafPath = in.readLong();
             final long lastLeafPath = in.readLong();
+            final Hash rootHash = readRootHash(in);
             if (firstNodeResponse) {
                 reconnectState.setFirstLeafPath(firstLeafPath);
                 reconnectState.setLastLeafPath(lastLeafPath);
+                teacherRootHash = rootHash;
+                root.setReconnectTargetRootHash(rootHash);
                 root.prepareReconnectHashing(firstLeafPath, lastLeafPath);
                 nodeRemover.setPathInformation(firstLeafPath, lastLeafPath);
                 traversalOrder.start(firstLeafPath, lastLeafPath, nodeCount);
@@ -233,6 +261,144 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
         }
     }
 
+    /**
+     * Creates a request for the virtual root node. The response contains the teacher virtual tree
+     * path range and root hash.
+     *
+     * @return the root request
+     */
+    PullVirtualTreeRequest newRootRequest() {
+        return usesPathRanges()
+                ? new PullVirtualTreeRequest(Path.ROOT_PATH, Path.ROOT_PATH, new Hash())
+                : new PullVirtualTreeRequest(Path.ROOT_PATH, new Hash());
+    }
+
+    /**
+     * Creates a terminating request, which indicates there will be no more requests from the learner.
+     *
+     * @return the terminating request
+     */
+    PullVirtualTreeRequest newEndRequest() {
+        return usesPathRanges()
+                ? new PullVirtualTreeRequest(Path.INVALID_PATH, Path.INVALID_PATH, null)
+                : new PullVirtualTreeRequest(Path.INVALID_PATH, null);
+    }
+
+    /**
+     * Connects helper teachers provided by the learning synchronizer, if any. Must be called after the
+     * root response from the main teacher is received, and before any other requests are sent.
+     *
+     * <p>Every helper teacher is sent a root request, just like the main teacher. If the helper teacher
+     * has the same virtual tree path range and root hash as the main teacher, it has the same virtual tree,
+     * so it's added to the given teachers. Otherwise, the helper teacher is sent a terminating request
+     * and isn't used.
+     *
+     * @param teachers the teachers to add helper teachers to
+     * @throws IOException if an I/O error occurs
+     */
+    void connectHelperTeachers(final PullVirtualTreeTeachers teachers) throws IOException {
+        if (reconnectState.getFirstLeafPath() <= 0) {
+            // There is nothing to request in an empty tree, but helper teachers still need to be
+            // released from this view
+            for (final HelperTeacher helper : learningSynchronizer.getHelperTeachers()) {
+                if (helper.readServeReply()) {
+                    sendSync(helper, newEndRequest());
+                }
+            }
+            return;
+        }
+        for (final HelperTeacher helper : learningSynchronizer.getHelperTeachers()) {
+            if (!helper.readServeReply()) {
+                logger.info(RECONNECT.getMarker(), "Helper teacher {} can't serve the virtual map", helper.name());
+                continue;
+            }
+            sendSync(helper, newRootRequest());
+            if (readHelperRootResponse(helper.inputStream())) {
+                final AsyncOutputStream<PullVirtualTreeRequest> out =
+                        learningSynchronizer.buildOutputStream(workGroup, helper.outputStream());
+                out.start();
+                teachers.addHelperTeacher(helper.inputStream(), out);
+            } else {
+                logger.info(
+                        RECONNECT.getMarker(),
+                        "Helper teacher {} has a different virtual tree than the main teacher, not using it",
+                        helper.name());
+                sendSync(helper, newEndRequest());
+            }
+        }
+        logger.info(RECONNECT.getMarker(), "Requesting virtual nodes from {} teacher(s)", teachers.size());
+    }
+
+    private static void sendSync(final HelperTeacher helper, final PullVirtualTreeRequest request)
+            throws IOException {
+        request.serialize(helper.outputStream());
+        helper.outputStream().flush();
+    }
+
+    /**
+     * Reads a root response from a helper teacher and compares it to the root response from the main
+     * teacher. This method should match {@link PullVirtualTreeResponse#serialize(SerializableDataOutputStream)}
+     * for the root node.
+     *
+     * @param in the helper teacher input stream
+     * @return whether the helper teacher has the same virtual tree as the main teacher
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean readHelperRootResponse(final SerializableDataInputStream in) throws IOException {
+        final long path = in.readLong();
+        if (usesPathRanges()) {
+            in.readLong(); // last path
+        }
+        in.read(); // isClean
+        if (path != Path.ROOT_PATH) {
+            throw new IOException("Wrong root response from helper teacher, path = " + path);
+        }
+        final long firstLeafPath = in.readLong();
+        final long lastLeafPath = in.readLong();
+        final Hash rootHash = readRootHash(in);
+        return (firstLeafPath == reconnectState.getFirstLeafPath())
+                && (lastLeafPath == reconnectState.getLastLeafPath())
+                && Objects.equals(rootHash, teacherRootHash);
+    }
+
+    private static Hash readRootHash(final SerializableDataInputStream in) throws IOException {
+        return in.readSerializable(false, Hash::new);
+    }
+
+    /**
+     * Indicates whether this view requests path ranges from the teacher rather than individual nodes.
+     *
+     * @return whether path ranges are used
+     */
+    public boolean usesPathRanges() {
+        return traversalOrder.usesPathRanges();
+    }
+
+    /**
+     * Notifies the traversal order that a response for a range of paths is received from the teacher.
+     * No leaf records are sent for path ranges.
+     *
+     * @param firstPath the first path in the range
+     * @param lastPath the last path in the range
+     * @param isClean indicates that all nodes in the range are the same on the learner and teacher
+     */
+    public void rangeReceived(final long firstPath, final long lastPath, final boolean isClean) {
+        assert !firstNodeResponse : "Root node must be the first node received from the teacher";
+        traversalOrder.rangeReceived(firstPath, lastPath, isClean);
+    }
+
+    /**
+     * Computes a digest of original node hashes in the given path range. This method should match
+     * {@link TeacherPullVirtualTreeView#loadRangeDigest(long, long)}.
+     *
+     * @param firstPath the first path in the range
+     * @param lastPath the last path in the range
+     * @return the range digest
+     */
+    public Hash getRangeDigest(final long firstPath, final long lastPath) {
+        return VirtualReconnectUtils.rangeDigest(this::getNodeHash, firstPath, lastPath);
+    }
+
     /**
      * Returns the ReconnectMapStats object.
      * @return the ReconnectMapStats object.
@@ -242,6 +408,14 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
         return mapStats;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean supportsHelperTeachers() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -272,6 +446,11 @@ public final class LearnerPullVirtualTreeView<K extends VirtualKey, V extends Vi
         }
 
         final Hash hash = originalRecords.findHash(originalChild);
+        // If reconnect is resumed, the original tree is a partially reconnected tree, which may have
+        // no hashes for some nodes. Such nodes are just different from the teacher
+        if ((hash == null) && root.isReconnectResumed()) {
+            return NULL_HASH;
+        }
         // The hash must have been specified by this point. The original tree was hashed before
         // we started running on the learner, so either the hash is in cache or on disk, but it
         // definitely exists at this point. If it is null, something bad happened elsewhere.
@@ -47,4 +47,39 @@ public interface NodeTraversalOrder {
      * @param isClean indicates if the node at the given path matches the corresponding node on the teacher
      */
     void nodeReceived(final long path, final boolean isClean);
+
+    /**
+     * Indicates whether this traversal order requests path ranges rather than individual virtual
+     * nodes. Request and response formats depend on it, so the teacher must be configured to use
+     * path ranges, too.
+     *
+     * @return whether path ranges are requested
+     */
+    default boolean usesPathRanges() {
+        return false;
+    }
+
+    /**
+     * Called by the learner's sending thread right after {@link #getNextPathToSend()} to get the
+     * last path in the range, which starts at the given path. If the range contains more than one
+     * path, a response for it is reported using {@link #rangeReceived(long, long, boolean)}, otherwise
+     * using {@link #nodeReceived(long, boolean)}.
+     *
+     * @param firstPath the first path in the range, as returned by {@link #getNextPathToSend()}
+     * @return the last path in the range
+     */
+    default long getLastPathInRange(final long firstPath) {
+        return firstPath;
+    }
+
+    /**
+     * Notifies this object that a response for a range of paths is received from the teacher.
+     * Traversal orders, which don't use path ranges, never get range responses, so by default this
+     * method does nothing.
+     *
+     * @param firstPath the first path in the range
+     * @param lastPath the last path in the range
+     * @param isClean indicates if all nodes in the range match the corresponding nodes on the teacher
+     */
+    default void rangeReceived(final long firstPath, final long lastPath, final boolean isClean) {}
 }
@@ -30,6 +30,9 @@ import java.io.IOException;
  * <p>On the learner side, a request is created with a path and a hash in the old learner
  * tree (if exists), then sent to the teacher. On the teacher side, requests are deserialized
  * from the stream, and for every request a response is sent back to the learner.
+ *
+ * <p>If path ranges are used, see {@link NodeTraversalOrder#usesPathRanges()}, a request also
+ * contains the last path in the range, and the hash is a digest of all node hashes in the range.
  */
 public class PullVirtualTreeRequest implements SelfSerializable {
 
@@ -43,14 +46,32 @@ public class PullVirtualTreeRequest implements SelfSerializable {
     // not send any more node requests to the teacher
     private long path;
 
+    // The last path in the requested range. Only serialized if path ranges are used, otherwise
+    // it's always the same as path
+    private long lastPath;
+
     // Virtual node hash. If a node with the given path does not exist on the learner (path is
     // outside of range), NULL_HASH is used. If the path is Path.INVALID_PATH, the hash is null
     private Hash hash;
 
+    // Indicates if the last path in the range is serialized
+    private final boolean pathRanges;
+
     /**
      * This constructor is used by the teacher to deserialize the request from the stream.
      */
-    public PullVirtualTreeRequest() {}
+    public PullVirtualTreeRequest() {
+        this(false);
+    }
+
+    /**
+     * This constructor is used by the teacher to deserialize the request from the stream.
+     *
+     * @param pathRanges whether the learner sends path ranges
+     */
+    public PullVirtualTreeRequest(final boolean pathRanges) {
+        this.pathRanges = pathRanges;
+    }
 
     /**
      * This constructor is used by the learner to send requests to the teacher.
@@ -59,7 +80,21 @@ public class PullVirtualTreeRequest implements SelfSerializable {
         // Null hash for the terminating requests, non-null otherwise
         assert path == Path.INVALID_PATH || (path >= 0 && hash != null);
         this.path = path;
+        this.lastPath = path;
         this.hash = hash;
+        this.pathRanges = false;
+    }
+
+    /**
+     * This constructor is used by the learner to send path range requests to the teacher.
+     */
+    public PullVirtualTreeRequest(final long firstPath, final long lastPath, final Hash digest) {
+        // Null digest for the terminating requests, non-null otherwise
+        assert firstPath == Path.INVALID_PATH || (firstPath >= 0 && lastPath >= firstPath && digest != null);
+        this.path = firstPath;
+        this.lastPath = lastPath;
+        this.hash = digest;
+        this.pathRanges = true;
     }
 
     /**
@@ -68,6 +103,9 @@ public class PullVirtualTreeRequest implements SelfSerializable {
     @Override
     public void serialize(final SerializableDataOutputStream out) throws IOException {
         out.writeLong(path);
+        if (pathRanges && (path >= 0)) {
+            out.writeLong(lastPath);
+        }
         if (hash != null) {
             hash.getBytes().writeTo(out);
         }
@@ -79,6 +117,10 @@ public class PullVirtualTreeRequest implements SelfSerializable {
     @Override
     public void deserialize(final SerializableDataInputStream in, final int version) throws IOException {
         path = in.readLong();
+        lastPath = (pathRanges && (path >= 0)) ? in.readLong() : path;
+        if (lastPath < path) {
+            throw new IOException("Wrong path range from the learner: " + path + " - " + lastPath);
+        }
         if (path >= 0) {
             final byte[] hashBytes = new byte[DigestType.SHA_384.digestLength()];
             if (VirtualReconnectUtils.completelyRead(in, hashBytes) != DigestType.SHA_384.digestLength()) {
@@ -92,6 +134,10 @@ public class PullVirtualTreeRequest implements SelfSerializable {
         return path;
     }
 
+    public long getLastPath() {
+        return lastPath;
+    }
+
     public Hash getHash() {
         return hash;
     }
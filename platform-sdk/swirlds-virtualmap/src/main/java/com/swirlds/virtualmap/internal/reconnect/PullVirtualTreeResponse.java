@@ -31,6 +31,10 @@ import java.io.IOException;
  * value). If the path corresponds to a leaf node, and the node is not clear, a {@link
  * com.swirlds.virtualmap.datasource.VirtualLeafRecord} for the node is included in the end of the
  * response.
+ *
+ * <p>If path ranges are used, see {@link NodeTraversalOrder#usesPathRanges()}, the path is followed
+ * by the last path in the range. Leaf records are only included into responses for dirty single
+ * leaf ranges.
  */
 @SuppressWarnings("rawtypes")
 public class PullVirtualTreeResponse implements SelfSerializable {
@@ -50,6 +54,9 @@ public class PullVirtualTreeResponse implements SelfSerializable {
     // Virtual node path
     private long path;
 
+    // The last path in the range. The same as path, unless path ranges are used
+    private long lastPath;
+
     // Virtual node hash on the learner side. May be NULL_HASH, if the path is outside of path range
     // in the old learner virtual tree
     private Hash learnerHash;
@@ -70,11 +77,13 @@ public class PullVirtualTreeResponse implements SelfSerializable {
     public PullVirtualTreeResponse(
             final TeacherPullVirtualTreeView teacherView,
             final long path,
+            final long lastPath,
             final Hash learnerHash,
             final Hash teacherHash) {
         this.teacherView = teacherView;
         this.learnerView = null;
         this.path = path;
+        this.lastPath = lastPath;
         this.learnerHash = learnerHash;
         assert learnerHash != null;
         this.teacherHash = teacherHash;
@@ -99,9 +108,14 @@ public class PullVirtualTreeResponse implements SelfSerializable {
     public void serialize(final SerializableDataOutputStream out) throws IOException {
         assert teacherView != null;
         out.writeLong(path);
+        if (teacherView.usesPathRanges()) {
+            out.writeLong(lastPath);
+        }
         final boolean isClean = (teacherHash == null) || teacherHash.equals(learnerHash);
         out.write(isClean ? 0 : 1);
-        teacherView.writeNode(out, path, isClean);
+        if (lastPath == path) {
+            teacherView.writeNode(out, path, isClean);
+        }
     }
 
     /**
@@ -111,9 +125,15 @@ public class PullVirtualTreeResponse implements SelfSerializable {
     public void deserialize(final SerializableDataInputStream in, final int version) throws IOException {
         assert learnerView != null;
         path = in.readLong();
+        lastPath = learnerView.usesPathRanges() ? in.readLong() : path;
         final boolean isClean = in.read() == 0;
-        learnerView.readNode(in, path, isClean);
-        if (learnerView.isLeaf(path)) {
+        if (lastPath == path) {
+            learnerView.readNode(in, path, isClean);
+        } else {
+            learnerView.rangeReceived(path, lastPath, isClean);
+        }
+        // Range responses are counted as internal hashes, even if the range contains leaves
+        if ((lastPath == path) && learnerView.isLeaf(path)) {
             learnerView.getMapStats().incrementLeafHashes(1, isClean ? 1 : 0);
         } else {
             learnerView.getMapStats().incrementInternalHashes(1, isClean ? 1 : 0);
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.swirlds.virtualmap.internal.reconnect;
+
+import com.swirlds.common.io.streams.SerializableDataInputStream;
+import com.swirlds.common.merkle.synchronization.streams.AsyncOutputStream;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request and response streams of all teachers used by a learner pull view: the main teacher and,
+ * optionally, helper teachers, which hold the same virtual tree. Requests are distributed across
+ * teachers in round-robin order, and responses are read from teachers in the same order. Every
+ * teacher responds to its requests in order, so the learner view gets responses in exactly the
+ * same order as requests are sent, just like with a single teacher.
+ *
+ * <p>The first request, for the virtual root node, is always sent to the main teacher. Helper
+ * teachers may only be added after the root response is received and before any other requests
+ * are sent. Requests are only sent from the learner sending task, and responses are only read
+ * from the learner receiving task.
+ */
+final class PullVirtualTreeTeachers implements AutoCloseable {
+
+    /**
+     * Teacher output streams. The main teacher stream is always the first one.
+     */
+    private volatile List<AsyncOutputStream<PullVirtualTreeRequest>> outputs;
+
+    /**
+     * Teacher input streams, in the same order as {@link #outputs}.
+     */
+    private volatile List<SerializableDataInputStream> inputs;
+
+    /**
+     * The number of requests sent. Only accessed from the sending task.
+     */
+    private long requestsSent = 0;
+
+    /**
+     * The number of responses read. Only accessed from the receiving task.
+     */
+    private long responsesRead = 0;
+
+    /**
+     * Creates a new teacher list with a single main teacher.
+     *
+     * @param in the main teacher input stream
+     * @param out the main teacher output stream
+     */
+    PullVirtualTreeTeachers(
+            @NonNull final SerializableDataInputStream in,
+            @NonNull final AsyncOutputStream<PullVirtualTreeRequest> out) {
+        inputs = List.of(in);
+        outputs = List.of(out);
+    }
+
+    /**
+     * Adds a helper teacher. Must be called from the sending task before any requests other than
+     * the root request are sent.
+     *
+     * @param in the helper teacher input stream
+     * @param out the helper teacher output stream, already started
+     */
+    void addHelperTeacher(
+            @NonNull final SerializableDataInputStream in,
+            @NonNull final AsyncOutputStream<PullVirtualTreeRequest> out) {
+        assert requestsSent <= 1 : "Helper teachers must be added before requests are sent";
+        final List<SerializableDataInputStream> newInputs = new ArrayList<>(inputs);
+        newInputs.add(in);
+        final List<AsyncOutputStream<PullVirtualTreeRequest>> newOutputs = new ArrayList<>(outputs);
+        newOutputs.add(out);
+        inputs = List.copyOf(newInputs);
+        outputs = List.copyOf(newOutputs);
+    }
+
+    /**
+     * Returns the number of teachers, including the main teacher.
+     *
+     * @return the number of teachers
+     */
+    int size() {
+        return outputs.size();
+    }
+
+    /**
+     * Sends a request to the next teacher in round-robin order.
+     *
+     * @param request the request to send
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    void sendRequest(@NonNull final PullVirtualTreeRequest request) throws InterruptedException {
+        final List<AsyncOutputStream<PullVirtualTreeRequest>> outs = outputs;
+        outs.get((int) (requestsSent++ % outs.size())).sendAsync(request);
+    }
+
+    /**
+     * Sends a request to all teachers. Used for the terminating request, which isn't responded to.
+     *
+     * @param request the request to send
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    void sendToAll(@NonNull final PullVirtualTreeRequest request) throws InterruptedException {
+        for (final AsyncOutputStream<PullVirtualTreeRequest> out : outputs) {
+            out.sendAsync(request);
+        }
+    }
+
+    /**
+     * Returns the input stream to read the next response from.
+     *
+     * @return the teacher input stream
+     */
+    @NonNull
+    SerializableDataInputStream nextResponseStream() {
+        final List<SerializableDataInputStream> ins = inputs;
+        return ins.get((int) (responsesRead++ % ins.size()));
+    }
+
+    /**
+     * Closes all teacher output streams. Requests that are already sent are still flushed.
+     */
+    @Override
+    public void close() {
+        for (final AsyncOutputStream<PullVirtualTreeRequest> out : outputs) {
+            out.close();
+        }
+    }
+}
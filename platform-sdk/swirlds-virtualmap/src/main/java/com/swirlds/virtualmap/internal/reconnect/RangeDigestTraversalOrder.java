@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.reconnect;
+
+import static com.swirlds.virtualmap.internal.Path.ROOT_PATH;
+
+import com.swirlds.common.merkle.synchronization.task.ReconnectNodeCount;
+import com.swirlds.virtualmap.internal.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual node traversal policy, which compares ranges of virtual nodes rather than individual
+ * nodes. A range is a few adjacent nodes at the same rank, so a range covers all leaves in the
+ * sub-trees of its nodes, and comparing the range only needs the existing hashes of its nodes.
+ *
+ * <p>When an internal node is dirty, its descendants {@link #RANGE_DEPTH} ranks below it, or
+ * fewer ranks if leaves are reached earlier, are requested as a single range. A request for a
+ * range contains a digest of learner node hashes in the range, see {@link
+ * VirtualReconnectUtils#rangeDigest}. If the teacher reports the range as dirty, it's split into
+ * up to {@link #RANGE_SPLIT} smaller ranges, which are requested next. Single internal nodes are
+ * not requested, their descendants are requested right away instead. Requests for individual
+ * leaves are the same as in other traversal orders, a dirty leaf response contains the leaf record.
+ *
+ * <p>Unlike in other traversal orders, no nodes are requested redundantly. Ranges to request are
+ * only known after responses for their parent ranges are received, so the sending thread may need
+ * to wait for responses, when there are no more ranges to request yet.
+ */
+public class RangeDigestTraversalOrder implements NodeTraversalOrder {
+
+    /**
+     * The number of ranks between a dirty internal node and its descendants requested as a range.
+     */
+    static final int RANGE_DEPTH = 4;
+
+    /**
+     * The max number of nodes in a range.
+     */
+    static final int RANGE_FANOUT = 1 << RANGE_DEPTH;
+
+    /**
+     * The number of sub-ranges to split a dirty range into.
+     */
+    static final int RANGE_SPLIT = 4;
+
+    /**
+     * Returned from {@link #getNextPathToSend()}, when there are no ranges to request, but more
+     * ranges may be added once responses for pending requests are received.
+     */
+    private static final long WAIT_FOR_RESPONSES = Path.INVALID_PATH - 1;
+
+    private ReconnectNodeCount nodeCount;
+
+    private long reconnectFirstLeafPath;
+    private long reconnectLastLeafPath;
+
+    // Ranges to request from the teacher, as pairs of the first and the last paths. Populated on
+    // the receiving thread, polled on the sending thread
+    private final Queue<long[]> rangesToSend = new ConcurrentLinkedQueue<>();
+
+    // Number of range requests sent, which responses haven't been received yet. Incremented on
+    // the sending thread, decremented on the receiving thread after all sub-ranges of a dirty
+    // range are added to rangesToSend
+    private final AtomicLong pendingResponses = new AtomicLong(0);
+
+    // The last path in the last range returned from getNextPathToSend(). Only used on the
+    // sending thread
+    private long lastSentRangeEnd = Path.INVALID_PATH;
+
+    public RangeDigestTraversalOrder() {}
+
+    @Override
+    public void start(final long firstLeafPath, final long lastLeafPath, final ReconnectNodeCount nodeCount) {
+        this.reconnectFirstLeafPath = firstLeafPath;
+        this.reconnectLastLeafPath = lastLeafPath;
+        this.nodeCount = nodeCount;
+        if ((firstLeafPath > 0) && (lastLeafPath >= firstLeafPath)) {
+            addNode(ROOT_PATH);
+        }
+    }
+
+    @Override
+    public boolean usesPathRanges() {
+        return true;
+    }
+
+    @Override
+    public long getNextPathToSend() {
+        // Check pending responses before polling the queue. If there are no pending responses, no
+        // new ranges can be added to the queue
+        final boolean responsesExpected = pendingResponses.get() > 0;
+        final long[] range = rangesToSend.poll();
+        if (range == null) {
+            return responsesExpected ? WAIT_FOR_RESPONSES : Path.INVALID_PATH;
+        }
+        pendingResponses.incrementAndGet();
+        lastSentRangeEnd = range[1];
+        return range[0];
+    }
+
+    @Override
+    public long getLastPathInRange(final long firstPath) {
+        return lastSentRangeEnd;
+    }
+
+    @Override
+    public void nodeReceived(final long path, final boolean isClean) {
+        if (path == ROOT_PATH) {
+            // The root is requested before this traversal order is started, it isn't a pending response
+            nodeCount.incrementInternalCount();
+            return;
+        }
+        if (path >= reconnectFirstLeafPath) {
+            nodeCount.incrementLeafCount();
+            if (isClean) {
+                nodeCount.incrementRedundantLeafCount();
+            }
+        } else {
+            // Single internal nodes aren't requested by this traversal order, but handle them anyway
+            nodeCount.incrementInternalCount();
+            if (isClean) {
+                nodeCount.incrementRedundantInternalCount();
+            } else {
+                addNode(path);
+            }
+        }
+        pendingResponses.decrementAndGet();
+    }
+
+    @Override
+    public void rangeReceived(final long firstPath, final long lastPath, final boolean isClean) {
+        assert firstPath < lastPath;
+        // Ranges play the role of internal nodes in other traversal orders
+        nodeCount.incrementInternalCount();
+        if (isClean) {
+            nodeCount.incrementRedundantInternalCount();
+        } else {
+            addSubRanges(firstPath, lastPath);
+        }
+        pendingResponses.decrementAndGet();
+    }
+
+    /**
+     * Schedules a dirty node to request from the teacher. A leaf is requested individually. For an
+     * internal node, its descendants are requested as a range. The range is {@link #RANGE_DEPTH}
+     * ranks below the node, or higher, if it already contains leaves. Since leaves are only at the
+     * last two ranks, all leaves in the node sub-tree are either in the range or in sub-trees of
+     * internal nodes in the range.
+     */
+    private void addNode(final long path) {
+        if (path >= reconnectFirstLeafPath) {
+            rangesToSend.add(new long[] {path, path});
+            return;
+        }
+        long first = path;
+        long last = path;
+        for (int i = 0; (i < RANGE_DEPTH) && (last < reconnectFirstLeafPath); i++) {
+            // All children of internal nodes exist
+            first = Path.getLeftChildPath(first);
+            last = Path.getRightChildPath(last);
+        }
+        assert last <= reconnectLastLeafPath;
+        rangesToSend.add(new long[] {first, last});
+    }
+
+    /**
+     * Splits the given dirty range into up to {@link #RANGE_SPLIT} ranges of about the same size
+     * and schedules them to request from the teacher. Single nodes are scheduled using {@link
+     * #addNode(long)}.
+     */
+    private void addSubRanges(final long firstPath, final long lastPath) {
+        final long count = lastPath - firstPath + 1;
+        final int parts = (int) Math.min(RANGE_SPLIT, count);
+        for (int i = 0; i < parts; i++) {
+            final long start = firstPath + count * i / parts;
+            final long end = firstPath + count * (i + 1) / parts - 1;
+            if (start == end) {
+                addNode(start);
+            } else {
+                rangesToSend.add(new long[] {start, end});
+            }
+        }
+    }
+}
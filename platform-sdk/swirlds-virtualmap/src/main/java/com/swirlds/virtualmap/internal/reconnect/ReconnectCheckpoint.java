@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.reconnect;
+
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.virtualmap.datasource.VirtualDataSource;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+
+/**
+ * Learner progress of a failed virtual map reconnect. The checkpoint owns a snapshot of the partially
+ * reconnected data source, which contains everything flushed by {@link ReconnectHashListener} before the
+ * failure. The data source is consistent: every persisted internal node hash matches the nodes under it. It
+ * can therefore be used as the learner original tree in the next reconnect attempt. Subtrees that were already
+ * received have the same hashes as on the teacher, so they are not transferred again, even if the next teacher
+ * or the round is different.
+ *
+ * @param dataSource the snapshot of the partially reconnected data source
+ * @param targetRootHash the virtual root hash of the teacher tree, or null if unknown
+ * @param firstLeafPath the first leaf path of the teacher tree, which the data source is in line with
+ * @param lastLeafPath the last leaf path of the teacher tree
+ * @param flushedLeafCount the number of leaves received and flushed to the data source
+ * @param firstFlushedLeafPath the min path of flushed leaves
+ * @param lastFlushedLeafPath the max path of flushed leaves
+ */
+public record ReconnectCheckpoint(
+        @NonNull VirtualDataSource dataSource,
+        @Nullable Hash targetRootHash,
+        long firstLeafPath,
+        long lastLeafPath,
+        long flushedLeafCount,
+        long firstFlushedLeafPath,
+        long lastFlushedLeafPath) {
+
+    /**
+     * Releases the data source snapshot.
+     *
+     * @throws IOException if the data source can't be closed
+     */
+    public void close() throws IOException {
+        dataSource.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ReconnectCheckpoint{targetRootHash=" + targetRootHash + ", leafPaths=" + firstLeafPath + "-"
+                + lastLeafPath + ", flushedLeafCount=" + flushedLeafCount + ", flushedLeafPaths="
+                + firstFlushedLeafPath + "-" + lastFlushedLeafPath + "}";
+    }
+}
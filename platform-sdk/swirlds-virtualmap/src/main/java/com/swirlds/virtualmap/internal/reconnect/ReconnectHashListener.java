@@ -19,13 +19,16 @@ package com.swirlds.virtualmap.internal.reconnect;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualValue;
 import com.swirlds.virtualmap.datasource.VirtualDataSource;
+import com.swirlds.virtualmap.datasource.VirtualHashRecord;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import com.swirlds.virtualmap.internal.Path;
 import com.swirlds.virtualmap.internal.hash.VirtualHashListener;
 import com.swirlds.virtualmap.internal.merkle.AbstractHashListener;
 import com.swirlds.virtualmap.internal.merkle.VirtualMapStatistics;
 import com.swirlds.virtualmap.serialize.KeySerializer;
 import com.swirlds.virtualmap.serialize.ValueSerializer;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -50,6 +53,9 @@ import java.util.stream.Stream;
  * deepest rank (the leaves) to the lowest rank (nearest the top). When we flush, we flush in the opposite order
  * from the closest to the top of the tree to the deepest rank. Each rank is processed in ascending path order.
  * So we store each rank as a separate array and then stream them out in the proper order to disk.
+ * <p>
+ * This listener also tracks what has been flushed so far. If reconnect fails, the data source contents up
+ * to the last completed flush can be used as a {@link ReconnectCheckpoint} to resume from.
  *
  * @param <K>
  * 		The key
@@ -59,6 +65,15 @@ import java.util.stream.Stream;
 public class ReconnectHashListener<K extends VirtualKey, V extends VirtualValue> extends AbstractHashListener<K, V> {
     private final ReconnectNodeRemover<K, V> nodeRemover;
 
+    /** The number of leaves flushed so far */
+    private volatile long flushedLeafCount = 0;
+
+    /** The min path of all flushed leaves, or INVALID_PATH if no leaves have been flushed */
+    private volatile long firstFlushedLeafPath = Path.INVALID_PATH;
+
+    /** The max path of all flushed leaves, or INVALID_PATH if no leaves have been flushed */
+    private volatile long lastFlushedLeafPath = Path.INVALID_PATH;
+
     /**
      * Create a new {@link ReconnectHashListener}.
      *
@@ -100,4 +115,51 @@ public class ReconnectHashListener<K extends VirtualKey, V extends VirtualValue>
     protected Stream<VirtualLeafRecord<K, V>> findLeavesToRemove() {
         return nodeRemover.getRecordsToDelete();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onFlushCompleted(
+            @NonNull final List<VirtualHashRecord> flushedHashes,
+            @NonNull final List<VirtualLeafRecord<K, V>> flushedLeaves) {
+        // Flushes are never run concurrently, no need to synchronize
+        long first = firstFlushedLeafPath;
+        long last = lastFlushedLeafPath;
+        for (final VirtualLeafRecord<K, V> leaf : flushedLeaves) {
+            final long path = leaf.getPath();
+            first = (first == Path.INVALID_PATH) ? path : Math.min(first, path);
+            last = Math.max(last, path);
+        }
+        firstFlushedLeafPath = first;
+        lastFlushedLeafPath = last;
+        flushedLeafCount += flushedLeaves.size();
+    }
+
+    /**
+     * Returns the number of leaves flushed to the data source so far.
+     *
+     * @return the number of flushed leaves
+     */
+    public long getFlushedLeafCount() {
+        return flushedLeafCount;
+    }
+
+    /**
+     * Returns the min path of all leaves flushed to the data source so far.
+     *
+     * @return the first flushed leaf path, or {@link Path#INVALID_PATH} if no leaves are flushed
+     */
+    public long getFirstFlushedLeafPath() {
+        return firstFlushedLeafPath;
+    }
+
+    /**
+     * Returns the max path of all leaves flushed to the data source so far.
+     *
+     * @return the last flushed leaf path, or {@link Path#INVALID_PATH} if no leaves are flushed
+     */
+    public long getLastFlushedLeafPath() {
+        return lastFlushedLeafPath;
+    }
 }
@@ -124,8 +124,11 @@ public class ReconnectNodeRemover<K extends VirtualKey, V extends VirtualValue>
             // no-op if new first leaf path is less or equal to old first leaf path
             for (long path = oldFirstLeafPath; path < Math.min(newFirstLeafPath, oldLastLeafPath + 1); path++) {
                 final VirtualLeafRecord<K, ?> oldRecord = oldRecords.findLeafRecord(path, false);
-                assert oldRecord != null;
-                leavesToDelete.add(oldRecord);
+                // The old record may be missing, if the old tree is a partially reconnected tree
+                // from a failed reconnect attempt
+                if (oldRecord != null) {
+                    leavesToDelete.add(oldRecord);
+                }
             }
         }
     }
@@ -154,7 +157,6 @@ public class ReconnectNodeRemover<K extends VirtualKey, V extends VirtualValue>
         // No-op if newLastLeafPath is greater or equal to oldLastLeafPath
         for (long p = firstOldStalePath; p <= oldLastLeafPath; p++) {
             final VirtualLeafRecord<K, ?> oldExtraLeafRecord = oldRecords.findLeafRecord(p, false);
-            assert oldExtraLeafRecord != null || p < oldFirstLeafPath;
             if (oldExtraLeafRecord != null) {
                 leavesToDelete.add(oldExtraLeafRecord);
             }
@@ -113,7 +113,7 @@ public class TeacherPullVirtualTreeReceiveTask {
         try (out) {
             while (true) {
                 rateLimit();
-                final PullVirtualTreeRequest request = new PullVirtualTreeRequest();
+                final PullVirtualTreeRequest request = new PullVirtualTreeRequest(view.usesPathRanges());
                 request.deserialize(in, 0);
                 logger.debug(RECONNECT.getMarker(), "Teacher receive path: " + request.getPath());
                 if (request.getPath() == Path.INVALID_PATH) {
@@ -121,15 +121,17 @@ public class TeacherPullVirtualTreeReceiveTask {
                     break;
                 }
                 final long path = request.getPath();
+                final long lastPath = request.getLastPath();
                 final Hash learnerHash = request.getHash();
-                final Hash teacherHash = view.loadHash(path);
+                final Hash teacherHash =
+                        (lastPath == path) ? view.loadHash(path) : view.loadRangeDigest(path, lastPath);
                 // The only valid scenario, when teacherHash may be null, is the empty tree
                 if ((teacherHash == null) && (path != 0)) {
                     throw new MerkleSerializationException(
                             "Cannot load node hash (bad request from learner?), path = " + path);
                 }
                 final PullVirtualTreeResponse response =
-                        new PullVirtualTreeResponse(view, path, learnerHash, teacherHash);
+                        new PullVirtualTreeResponse(view, path, lastPath, learnerHash, teacherHash);
                 // All real work is done in the async output thread. This call just registers a response
                 // and returns immediately
                 out.sendAsync(response);
@@ -77,6 +77,11 @@ public final class TeacherPullVirtualTreeView<K extends VirtualKey, V extends Vi
      */
     private final CountDownLatch ready = new CountDownLatch(1);
 
+    /**
+     * Indicates whether the learner requests path ranges rather than individual nodes.
+     */
+    private final boolean pathRanges;
+
     /**
      * Create a new {@link TeacherPullVirtualTreeView}.
      *
@@ -88,16 +93,20 @@ public final class TeacherPullVirtualTreeView<K extends VirtualKey, V extends Vi
      * 		The state of the virtual tree that we are synchronizing.
      * @param pipeline
      * 		The pipeline managing the virtual map.
+     * @param pathRanges
+     * 		Whether the learner requests path ranges rather than individual nodes.
      */
     public TeacherPullVirtualTreeView(
             final ThreadManager threadManager,
             final ReconnectConfig reconnectConfig,
             final VirtualRootNode<K, V> root,
             final VirtualStateAccessor state,
-            final VirtualPipeline pipeline) {
+            final VirtualPipeline pipeline,
+            final boolean pathRanges) {
         // There is no distinction between originalState and reconnectState in this implementation
         super(root, state, state);
         this.reconnectConfig = reconnectConfig;
+        this.pathRanges = pathRanges;
         new ThreadConfiguration(threadManager)
                 .setRunnable(() -> {
                     records = pipeline.detachCopy(root);
@@ -133,8 +142,10 @@ public final class TeacherPullVirtualTreeView<K extends VirtualKey, V extends Vi
     /**
      * Writes the virtual node identified by a given path to the output stream.
      *
-     * <p>For the root node (path 0), reconnect state information is written: the first leaf path (long)
-     * and the last leaf path (long). Other internal nodes are not written at all.
+     * <p>For the root node (path 0), reconnect state information is written: the first leaf path (long),
+     * the last leaf path (long), and the root hash (a serialized hash, which may be null). The learner uses the
+     * root hash to check helper teachers and, if reconnect resumption is enabled, to verify the reconnected tree.
+     * Other internal nodes are not written at all.
      *
      * <p>For dirty leaf nodes, the corresponding leaf records are written. Clean leaf nodes aren't
      * written at all.
@@ -150,6 +161,7 @@ public final class TeacherPullVirtualTreeView<K extends VirtualKey, V extends Vi
         if (path == 0) {
             out.writeLong(reconnectState.getFirstLeafPath());
             out.writeLong(reconnectState.getLastLeafPath());
+            out.writeSerializable(records.findHash(ROOT_PATH), false);
         }
         if (!isClean && isLeaf(path) && (reconnectState.getFirstLeafPath() > 0)) {
             out.writeSerializable(records.findLeafRecord(path, false), false);
@@ -166,6 +178,39 @@ public final class TeacherPullVirtualTreeView<K extends VirtualKey, V extends Vi
         return records.findHash(path);
     }
 
+    /**
+     * Computes a digest of node hashes in the given path range. This method should match {@link
+     * LearnerPullVirtualTreeView#getRangeDigest(long, long)}.
+     *
+     * @param firstPath the first path in the range
+     * @param lastPath the last path in the range
+     * @return the range digest, or null if any node hash in the range can't be loaded
+     */
+    public Hash loadRangeDigest(final long firstPath, final long lastPath) {
+        checkValidNode(firstPath, reconnectState);
+        checkValidNode(lastPath, reconnectState);
+        return VirtualReconnectUtils.rangeDigest(records::findHash, firstPath, lastPath);
+    }
+
+    /**
+     * Indicates whether the learner requests path ranges rather than individual nodes.
+     *
+     * @return whether path ranges are used
+     */
+    public boolean usesPathRanges() {
+        return pathRanges;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Learner requests are stateless, so a learner may distribute them across several teachers.
+     */
+    @Override
+    public boolean supportsHelperLearners() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
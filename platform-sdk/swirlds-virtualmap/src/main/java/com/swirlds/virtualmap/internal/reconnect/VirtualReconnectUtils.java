@@ -16,8 +16,12 @@
 
 package com.swirlds.virtualmap.internal.reconnect;
 
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.function.LongFunction;
 
 /**
  * A class with a set of utility methods used during virtual map reconnects.
@@ -45,4 +49,30 @@ public class VirtualReconnectUtils {
         }
         return totalBytesRead;
     }
+
+    /**
+     * Computes a digest of a range of virtual nodes. If the range contains a single path, the digest
+     * is the node hash itself. Otherwise, it's a hash of all node hashes in the range in path order.
+     * Both reconnect learner and teacher must use this method, so range digests are comparable.
+     * Ranges should be small, since every node hash in the range is read.
+     *
+     * @param hashes a function to get virtual node hashes by path
+     * @param firstPath the first path in the range
+     * @param lastPath the last path in the range, inclusive
+     * @return the range digest, or null if any node hash in the range is null
+     */
+    public static Hash rangeDigest(final LongFunction<Hash> hashes, final long firstPath, final long lastPath) {
+        if (firstPath == lastPath) {
+            return hashes.apply(firstPath);
+        }
+        final MessageDigest digest = DigestType.SHA_384.buildDigest();
+        for (long path = firstPath; path <= lastPath; path++) {
+            final Hash hash = hashes.apply(path);
+            if (hash == null) {
+                return null;
+            }
+            hash.getBytes().writeTo(digest);
+        }
+        return new Hash(digest.digest(), DigestType.SHA_384);
+    }
 }
@@ -165,6 +165,20 @@ class VirtualMapConfigTest {
         Assertions.assertEquals(1, exception.getViolations().size(), "We must exactly have 1 violation");
     }
 
+    @Test
+    public void testVirtualHasherMaxChunkHeightOutOfRangeMax() {
+        // given
+        final ConfigurationBuilder configurationBuilder = ConfigurationBuilder.create()
+                .withSources(new SimpleConfigSource("virtualMap.virtualHasherMaxChunkHeight", 17))
+                .withConfigDataType(VirtualMapConfig.class);
+
+        // then
+        final ConfigViolationException exception = Assertions.assertThrows(
+                ConfigViolationException.class, () -> configurationBuilder.build(), "init must end in a violation");
+
+        Assertions.assertEquals(1, exception.getViolations().size(), "We must exactly have 1 violation");
+    }
+
     @Test
     public void testNumCleanerThreadsRangeMin() {
         // given
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.reconnect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.merkle.synchronization.task.ReconnectNodeCount;
+import com.swirlds.virtualmap.internal.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.LongFunction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+class RangeDigestTraversalOrderTest {
+
+    // 1000 leaves
+    private static final long FIRST_LEAF_PATH = 999;
+    private static final long LAST_LEAF_PATH = 1998;
+
+    @Test
+    @Tags({@Tag("Reconnect")})
+    @DisplayName("Dirty leaves and a few neighbors are requested")
+    void dirtyLeavesRequested() {
+        final Set<Long> dirtyLeaves = Set.of(1003L, 1500L, 1501L, LAST_LEAF_PATH);
+        final NodeCounter counter = new NodeCounter();
+        final List<Long> requestedLeaves = traverse(dirtyLeaves, counter);
+        assertTrue(requestedLeaves.containsAll(dirtyLeaves), "All dirty leaves must be requested");
+        assertEquals(dirtyLeaves.size(), counter.leaves - counter.redundantLeaves, "Wrong dirty leaf count");
+        // Clean leaves are only requested, if they share the last split range with a dirty leaf
+        assertTrue(
+                counter.leaves <= dirtyLeaves.size() * RangeDigestTraversalOrder.RANGE_SPLIT,
+                "Too many leaf requests: " + counter.leaves);
+        assertTrue(counter.internals < 100, "Too many range requests: " + counter.internals);
+    }
+
+    @Test
+    @Tags({@Tag("Reconnect")})
+    @DisplayName("All leaves of a dirty tree are requested once")
+    void dirtyTree() {
+        final Set<Long> dirtyLeaves = new TreeSet<>();
+        for (long path = FIRST_LEAF_PATH; path <= LAST_LEAF_PATH; path++) {
+            dirtyLeaves.add(path);
+        }
+        final NodeCounter counter = new NodeCounter();
+        final List<Long> requestedLeaves = traverse(dirtyLeaves, counter);
+        assertEquals(dirtyLeaves.size(), requestedLeaves.size(), "Every leaf must be requested once");
+        assertEquals(dirtyLeaves, new TreeSet<>(requestedLeaves), "Every leaf must be requested");
+        assertEquals(0, counter.redundantLeaves, "No clean leaves expected");
+    }
+
+    @Test
+    @Tags({@Tag("Reconnect")})
+    @DisplayName("Clean tree only needs the top level range")
+    void cleanTree() {
+        final NodeCounter counter = new NodeCounter();
+        final List<Long> requestedLeaves = traverse(Set.of(), counter);
+        assertTrue(requestedLeaves.isEmpty(), "No leaves expected");
+        assertEquals(1, counter.internals, "Only the top level range expected");
+        assertEquals(1, counter.redundantInternals, "The range is clean");
+    }
+
+    @Test
+    @Tags({@Tag("Reconnect")})
+    @DisplayName("Sender waits for pending responses")
+    void senderWaitsForResponses() {
+        final RangeDigestTraversalOrder order = new RangeDigestTraversalOrder();
+        order.start(FIRST_LEAF_PATH, LAST_LEAF_PATH, new NodeCounter());
+        final long path = order.getNextPathToSend();
+        final long lastPath = order.getLastPathInRange(path);
+        assertEquals(RangeDigestTraversalOrder.RANGE_FANOUT, lastPath - path + 1, "Wrong top level range size");
+        assertTrue(order.getNextPathToSend() < Path.INVALID_PATH, "Sender must wait for responses");
+        order.rangeReceived(path, lastPath, false);
+        assertEquals(path, order.getNextPathToSend(), "Sub-ranges of the dirty range expected");
+        assertTrue(order.getLastPathInRange(path) < lastPath, "Sub-ranges must be smaller");
+    }
+
+    @Test
+    @Tags({@Tag("Reconnect")})
+    @DisplayName("Range digests")
+    void rangeDigests() {
+        final Random random = new Random(42);
+        final Hash[] hashes = new Hash[10];
+        for (int i = 0; i < hashes.length; i++) {
+            final byte[] bytes = new byte[DigestType.SHA_384.digestLength()];
+            random.nextBytes(bytes);
+            hashes[i] = new Hash(bytes, DigestType.SHA_384);
+        }
+        final LongFunction<Hash> hashReader = path -> hashes[(int) path];
+        assertSame(hashes[3], VirtualReconnectUtils.rangeDigest(hashReader, 3, 3), "Single path digest");
+        assertEquals(
+                VirtualReconnectUtils.rangeDigest(hashReader, 2, 7),
+                VirtualReconnectUtils.rangeDigest(path -> new Hash(hashes[(int) path]), 2, 7),
+                "Digests of equal hashes must be equal");
+        assertNotEquals(
+                VirtualReconnectUtils.rangeDigest(hashReader, 2, 7),
+                VirtualReconnectUtils.rangeDigest(hashReader, 2, 8),
+                "Digests of different ranges must differ");
+    }
+
+    /**
+     * Runs the traversal order against a teacher with the given dirty leaves. Every request is
+     * responded immediately. Only leaves are dirty in the teacher tree, internal nodes are dirty if
+     * their sub-trees contain dirty leaves.
+     *
+     * @return leaves requested individually
+     */
+    private static List<Long> traverse(final Set<Long> dirtyLeaves, final NodeCounter counter) {
+        final RangeDigestTraversalOrder order = new RangeDigestTraversalOrder();
+        order.start(FIRST_LEAF_PATH, LAST_LEAF_PATH, counter);
+        final List<Long> requestedLeaves = new ArrayList<>();
+        long path = order.getNextPathToSend();
+        while (path != Path.INVALID_PATH) {
+            final long lastPath = order.getLastPathInRange(path);
+            assertTrue(path > 0 && lastPath <= LAST_LEAF_PATH, "Wrong range: " + path + " - " + lastPath);
+            assertEquals(Path.getRank(path), Path.getRank(lastPath), "Range must be within a single rank");
+            assertTrue(lastPath - path < RangeDigestTraversalOrder.RANGE_FANOUT, "Range is too large");
+            final long first = path;
+            // A range is clean, if there are no dirty leaves in sub-trees of its nodes
+            final boolean isClean = dirtyLeaves.stream().noneMatch(p -> {
+                for (long node = first; node <= lastPath; node++) {
+                    if (Path.isInSubTree(node, p)) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+            if (lastPath == path) {
+                assertTrue(path >= FIRST_LEAF_PATH, "Only leaves are requested individually");
+                requestedLeaves.add(path);
+                order.nodeReceived(path, isClean);
+            } else {
+                order.rangeReceived(path, lastPath, isClean);
+            }
+            path = order.getNextPathToSend();
+        }
+        return requestedLeaves;
+    }
+
+    private static class NodeCounter implements ReconnectNodeCount {
+        int leaves;
+        int redundantLeaves;
+        int internals;
+        int redundantInternals;
+
+        @Override
+        public void incrementLeafCount() {
+            leaves++;
+        }
+
+        @Override
+        public void incrementRedundantLeafCount() {
+            redundantLeaves++;
+        }
+
+        @Override
+        public void incrementInternalCount() {
+            internals++;
+        }
+
+        @Override
+        public void incrementRedundantInternalCount() {
+            redundantInternals++;
+        }
+    }
+}
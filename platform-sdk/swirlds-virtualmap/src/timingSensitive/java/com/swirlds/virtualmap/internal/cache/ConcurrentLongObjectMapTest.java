@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ConcurrentLongObjectMapTest {
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Number of segments must be positive")
+    void invalidNumberOfSegments() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentLongObjectMap<>(0), "Zero segments");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Put, compute, get, and remove entries")
+    void basicOperations() {
+        final ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        assertNull(map.get(1), "Empty map");
+        map.put(1, "one");
+        map.put(-1, "minus one");
+        map.put(Long.MAX_VALUE, "max");
+        assertEquals("one", map.get(1), "Wrong value");
+        assertEquals("minus one", map.get(-1), "Wrong value");
+        assertEquals("max", map.get(Long.MAX_VALUE), "Wrong value");
+        assertEquals(3, map.size(), "Wrong size");
+
+        assertEquals("one!", map.compute(1, (key, value) -> value + "!"), "Wrong computed value");
+        assertEquals("two", map.compute(2, (key, value) -> value == null ? "two" : value), "Wrong computed value");
+        assertEquals(4, map.size(), "Wrong size");
+
+        assertNull(map.compute(1, (key, value) -> null), "Null must be returned after removal");
+        assertNull(map.get(1), "Removed value must not be found");
+        assertNull(map.compute(100, (key, value) -> null), "Removing a missing key must be a no-op");
+        assertEquals(3, map.size(), "Wrong size");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 64})
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Random operations give the same results as HashMap")
+    void randomOperations(final int numOfSegments) throws IOException {
+        final ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>(numOfSegments);
+        final Map<Long, Long> expected = new HashMap<>();
+        final Random random = new Random(numOfSegments);
+        for (int i = 0; i < 500_000; i++) {
+            final long key = random.nextInt(20_000);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    final long value = random.nextLong();
+                    map.put(key, value);
+                    expected.put(key, value);
+                }
+                case 1 -> {
+                    map.compute(key, (k, v) -> null);
+                    expected.remove(key);
+                }
+                case 2 -> assertEquals(
+                        expected.compute(key, (k, v) -> v == null ? k : v + 1),
+                        map.compute(key, (k, v) -> v == null ? k : v + 1),
+                        "Wrong computed value");
+                default -> assertEquals(expected.get(key), map.get(key), "Wrong value");
+            }
+        }
+        assertEquals(expected.size(), map.size(), "Wrong size");
+        final Map<Long, Long> actual = new HashMap<>();
+        map.forEach((key, value) -> {
+            if (actual.put(key, value) != null) {
+                throw new IOException("Duplicate key " + key);
+            }
+        });
+        assertEquals(expected, actual, "All entries must be iterated");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Lookups don't miss entries while other entries are updated")
+    void concurrentLookups() throws Exception {
+        final ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>(4);
+        // Even keys are never changed, odd keys are added and removed concurrently
+        final int stableKeys = 10_000;
+        for (long key = 0; key < stableKeys; key++) {
+            map.put(key * 2, key * 2);
+        }
+        final int numOfThreads = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(numOfThreads * 2);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < numOfThreads; t++) {
+                final Random writerRandom = new Random(t);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500_000; i++) {
+                        final long key = writerRandom.nextInt(100_000) * 2L + 1;
+                        if (writerRandom.nextBoolean()) {
+                            map.put(key, key);
+                        } else {
+                            map.compute(key, (k, v) -> null);
+                        }
+                    }
+                }));
+                final Random readerRandom = new Random(-t);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000_000; i++) {
+                        final long key = readerRandom.nextInt(stableKeys) * 2L;
+                        assertEquals(key, map.get(key), "Stable key must always be found");
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
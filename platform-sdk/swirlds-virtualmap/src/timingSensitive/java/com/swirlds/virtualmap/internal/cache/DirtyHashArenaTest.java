@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+class DirtyHashArenaTest {
+
+    private static Hash randomHash(final Random random, final DigestType digestType) {
+        final byte[] bytes = new byte[digestType.digestLength()];
+        random.nextBytes(bytes);
+        return new Hash(bytes, digestType);
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Hashes are read back from all arena chunks")
+    void addAndGet() {
+        final DirtyHashArena arena = new DirtyHashArena();
+        assertEquals(0, arena.getSizeInBytes(), "Empty arena must not allocate memory");
+        final Random random = new Random(42);
+        // Enough hashes to fill several chunks
+        final Hash[] hashes = new Hash[10_000];
+        final int[] refs = new int[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = randomHash(random, DigestType.SHA_384);
+            refs[i] = arena.add(hashes[i]);
+            assertTrue(refs[i] >= 0, "Slot references must be non-negative");
+        }
+        for (int i = 0; i < hashes.length; i++) {
+            assertEquals(hashes[i], arena.get(refs[i]), "Wrong hash at slot " + refs[i]);
+        }
+        assertTrue(
+                arena.getSizeInBytes() >= (long) hashes.length * DigestType.SHA_384.digestLength(),
+                "Arena size must cover all hashes");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Hashes of other digest types are rejected")
+    void unsupportedDigestType() {
+        final DirtyHashArena arena = new DirtyHashArena();
+        final Hash hash = randomHash(new Random(42), DigestType.SHA_512);
+        assertFalse(DirtyHashArena.canStore(hash), "SHA-512 hashes can't be stored");
+        assertThrows(IllegalArgumentException.class, () -> arena.add(hash), "SHA-512 hashes must be rejected");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Hashes aren't available after release")
+    void release() {
+        final DirtyHashArena arena = new DirtyHashArena();
+        final Random random = new Random(42);
+        final Hash hash = randomHash(random, DigestType.SHA_384);
+        final int ref = arena.add(hash);
+        final byte[] bytes = new byte[DirtyHashArena.HASH_SIZE + 1];
+        assertTrue(arena.copyTo(ref, bytes, 1), "Hash must be copied before release");
+        assertEquals(hash, new Hash(Arrays.copyOfRange(bytes, 1, bytes.length), DigestType.SHA_384), "Wrong copy");
+
+        arena.release();
+        assertTrue(arena.isReleased(), "Arena must be released");
+        assertEquals(0, arena.getSizeInBytes(), "Released arena must not hold memory");
+        assertFalse(arena.copyTo(ref, bytes, 0), "Hash must not be copied after release");
+        assertNull(arena.get(ref), "Hash must not be available after release");
+        assertThrows(
+                IllegalStateException.class,
+                () -> arena.add(randomHash(random, DigestType.SHA_384)),
+                "Hashes must not be added after release");
+        // Releasing twice is harmless
+        arena.release();
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Chunks of a released arena are reused")
+    void chunksReusedAfterRelease() {
+        final Random random = new Random(42);
+        final DirtyHashArena first = new DirtyHashArena();
+        final int firstRef = first.add(randomHash(random, DigestType.SHA_384));
+        first.release();
+
+        // A new arena may get the pooled chunk, hashes must not leak from the released arena
+        final DirtyHashArena second = new DirtyHashArena();
+        final Hash hash = randomHash(random, DigestType.SHA_384);
+        final int secondRef = second.add(hash);
+        assertEquals(firstRef, secondRef, "First slots of both arenas must be the same");
+        assertEquals(hash, second.get(secondRef), "Wrong hash in a reused chunk");
+        assertNull(first.get(firstRef), "Released arena must not read reused chunks");
+        second.release();
+    }
+}
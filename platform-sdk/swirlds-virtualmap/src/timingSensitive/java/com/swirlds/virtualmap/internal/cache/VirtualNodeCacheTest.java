@@ -33,11 +33,16 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import com.swirlds.base.state.MutabilityException;
 import com.swirlds.common.crypto.Cryptography;
+import com.swirlds.common.crypto.DigestType;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.crypto.HashBuilder;
 import com.swirlds.common.exceptions.ReferenceCountException;
 import com.swirlds.common.test.fixtures.io.InputOutputStream;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
 import com.swirlds.virtualmap.VirtualMap;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.config.VirtualMapConfig_;
 import com.swirlds.virtualmap.datasource.VirtualHashRecord;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
 import com.swirlds.virtualmap.test.fixtures.TestKey;
@@ -48,9 +53,11 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
@@ -2320,6 +2327,58 @@ class VirtualNodeCacheTest extends VirtualTestBase {
         assertEquals(0, internals.size(), "No internals should be dirty");
     }
 
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache"), @Tag("DirtyInternals")})
+    @DisplayName("dirtyInternals and lookups with off-heap dirty hashes")
+    void dirtyInternals_offHeapHashes() {
+        final VirtualMapConfig config = new TestConfigBuilder()
+                .withSource(new SimpleConfigSource(VirtualMapConfig_.OFF_HEAP_DIRTY_HASHES, "true"))
+                .withConfigDataType(VirtualMapConfig.class)
+                .getOrCreateConfig()
+                .getConfigData(VirtualMapConfig.class);
+        final Random random = new Random(1234);
+        final Hash[] hashes = new Hash[200];
+        for (int i = 0; i < hashes.length; i++) {
+            final byte[] bytes = new byte[DigestType.SHA_384.digestLength()];
+            random.nextBytes(bytes);
+            hashes[i] = new Hash(bytes, DigestType.SHA_384);
+        }
+
+        final VirtualNodeCache<TestKey, TestValue> cache0 = new VirtualNodeCache<>(config);
+        final VirtualNodeCache<TestKey, TestValue> cache1 = cache0.copy();
+        for (int i = 0; i < 100; i++) {
+            cache0.putHash(i, hashes[i]);
+        }
+        cache1.deleteHash(99);
+        final VirtualNodeCache<TestKey, TestValue> cache2 = cache1.copy();
+        for (int i = 50; i < 99; i++) {
+            cache1.putHash(i, hashes[i + 100]);
+        }
+        // A null hash is stored as a special value, not in the off-heap arena
+        cache1.putHash(1, null);
+        cache2.copy();
+
+        assertEquals(hashes[60], cache0.lookupHashByPath(60, false), "Wrong hash in the first copy");
+        assertEquals(hashes[160], cache2.lookupHashByPath(60, false), "Wrong hash in the last copy");
+        assertEquals(hashes[10], cache2.lookupHashByPath(10, false), "Hash from an older copy expected");
+        assertNull(cache2.lookupHashByPath(1, false), "Null hash expected");
+        assertEquals(DELETED_HASH, cache2.lookupHashByPath(99, false), "Deleted hash expected");
+
+        cache0.seal();
+        cache1.seal();
+        cache2.seal();
+        cache0.merge();
+        cache1.merge();
+
+        final Map<Long, Hash> flushed = new HashMap<>();
+        cache2.dirtyHashesForFlush(98).forEach(rec -> flushed.put(rec.path(), rec.hash()));
+        assertEquals(99, flushed.size(), "All hashes should be dirty");
+        for (int i = 0; i < 99; i++) {
+            final Hash expected = (i == 1) ? null : (i < 50 ? hashes[i] : hashes[i + 100]);
+            assertEquals(expected, flushed.get((long) i), "Wrong flushed hash at path " + i);
+        }
+    }
+
     @Test
     @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache"), @Tag("DirtyLeaves")})
     @DisplayName("dirtyLeaves for hashing and flushes do not affect each other")
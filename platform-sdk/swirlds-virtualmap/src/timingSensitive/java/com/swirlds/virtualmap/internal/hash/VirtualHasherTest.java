@@ -19,6 +19,7 @@ package com.swirlds.virtualmap.internal.hash;
 import static com.swirlds.virtualmap.test.fixtures.VirtualMapTestUtils.VIRTUAL_MAP_CONFIG;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -26,6 +27,10 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.test.fixtures.junit.tags.TestComponentTags;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.config.VirtualMapConfig_;
 import com.swirlds.virtualmap.datasource.VirtualHashRecord;
 import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
 import com.swirlds.virtualmap.internal.Path;
@@ -317,6 +322,101 @@ class VirtualHasherTest extends VirtualHasherTestBase {
         }
     }
 
+    /**
+     * Chunk heights are only chosen adaptively, when max chunk height is greater than chunk height. The
+     * denser dirty leaves are, the taller chunks are, up to the max chunk height.
+     */
+    @Test
+    @Tag(TestComponentTags.VMAP)
+    @DisplayName("Chunk height depends on dirty leaf density")
+    void adaptiveChunkHeight() {
+        assertEquals(
+                VIRTUAL_MAP_CONFIG.virtualHasherChunkHeight(),
+                VirtualHasher.chooseChunkHeight(VIRTUAL_MAP_CONFIG, 52L, 104L, 1),
+                "Adaptive chunk heights are disabled by default");
+
+        final VirtualMapConfig config = new TestConfigBuilder()
+                .withSource(new SimpleConfigSource()
+                        .withValue(VirtualMapConfig_.VIRTUAL_HASHER_CHUNK_HEIGHT, "3")
+                        .withValue(VirtualMapConfig_.VIRTUAL_HASHER_MAX_CHUNK_HEIGHT, "6"))
+                .withConfigDataType(VirtualMapConfig.class)
+                .getOrCreateConfig()
+                .getConfigData(VirtualMapConfig.class);
+        // 53 leaves in total
+        assertEquals(6, VirtualHasher.chooseChunkHeight(config, 52L, 104L, 53), "All leaves are dirty");
+        assertEquals(5, VirtualHasher.chooseChunkHeight(config, 52L, 104L, 40), "Most leaves are dirty");
+        assertEquals(3, VirtualHasher.chooseChunkHeight(config, 52L, 104L, 13), "A quarter of leaves are dirty");
+        assertEquals(3, VirtualHasher.chooseChunkHeight(config, 52L, 104L, 1), "Default chunk height expected");
+        assertEquals(3, VirtualHasher.chooseChunkHeight(config, 52L, 104L, -1), "Unknown dirty leaves count");
+
+        final TestDataSource ds = new TestDataSource(52L, 104L);
+        final VirtualHasher<TestKey, TestValue> hasher = new VirtualHasher<>();
+        final Hash expected = hashTree(ds);
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves =
+                invalidateNodes(ds, LongStream.rangeClosed(52L, 104L).boxed());
+        final Hash rootHash = hasher.hash(ds::loadHash, leaves.iterator(), 52L, 104L, null, config, leaves.size());
+        assertEquals(expected, rootHash, "Chunk height must not affect the root hash");
+
+        final VirtualHasher.HashingStats stats = hasher.getLastHashingStats();
+        assertNotNull(stats, "Hashing stats expected");
+        assertEquals(6, stats.chunkHeight(), "Adaptive chunk height expected");
+        assertTrue(stats.tasksCreated() > 0, "Hashing tasks must be created");
+        assertEquals(Path.getRank(52L), stats.firstLeafRank(), "Unexpected first leaf rank");
+    }
+
+    /**
+     * Every hashing task allocates and scans all its input hashes, whether they are dirty or not. Sparse
+     * dirty leaves must not result in taller chunks, even if a tall max chunk height is configured.
+     */
+    @Test
+    @Tag(TestComponentTags.VMAP)
+    @DisplayName("Sparse dirty leaves don't increase hashing overhead")
+    void sparseDirtyLeavesHashingOverhead() {
+        final long firstLeafPath = 4095L;
+        final long lastLeafPath = 8190L;
+        final VirtualMapConfig fixedConfig = new TestConfigBuilder()
+                .withSource(new SimpleConfigSource().withValue(VirtualMapConfig_.VIRTUAL_HASHER_CHUNK_HEIGHT, "3"))
+                .withConfigDataType(VirtualMapConfig.class)
+                .getOrCreateConfig()
+                .getConfigData(VirtualMapConfig.class);
+        final VirtualMapConfig adaptiveConfig = new TestConfigBuilder()
+                .withSource(new SimpleConfigSource()
+                        .withValue(VirtualMapConfig_.VIRTUAL_HASHER_CHUNK_HEIGHT, "3")
+                        .withValue(VirtualMapConfig_.VIRTUAL_HASHER_MAX_CHUNK_HEIGHT, "16"))
+                .withConfigDataType(VirtualMapConfig.class)
+                .getOrCreateConfig()
+                .getConfigData(VirtualMapConfig.class);
+
+        final TestDataSource ds = new TestDataSource(firstLeafPath, lastLeafPath);
+        final Hash expected = hashTree(ds);
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves =
+                invalidateNodes(ds, Stream.of(4100L, 5000L, 6000L, 8000L));
+
+        final VirtualHasher<TestKey, TestValue> hasher = new VirtualHasher<>();
+        assertEquals(
+                expected,
+                hasher.hash(ds::loadHash, leaves.iterator(), firstLeafPath, lastLeafPath, null, fixedConfig, 4),
+                "Wrong root hash with fixed chunk height");
+        final VirtualHasher.HashingStats fixedStats = hasher.getLastHashingStats();
+        assertEquals(
+                expected,
+                hasher.hash(ds::loadHash, leaves.iterator(), firstLeafPath, lastLeafPath, null, adaptiveConfig, 4),
+                "Wrong root hash with adaptive chunk height");
+        final VirtualHasher.HashingStats adaptiveStats = hasher.getLastHashingStats();
+
+        assertEquals(3, adaptiveStats.chunkHeight(), "Sparse dirty leaves must use the default chunk height");
+        assertEquals(fixedStats.tasksCreated(), adaptiveStats.tasksCreated(), "Unexpected number of tasks");
+        assertEquals(fixedStats.chunkInputs(), adaptiveStats.chunkInputs(), "Unexpected number of task inputs");
+        // On the route from a dirty leaf to the root, every 3 ranks there are at most 2^3 tasks (a chunk
+        // and its siblings) with 2^3 inputs each. It's far less than the number of leaves in the tree
+        final int ranks = Path.getRank(lastLeafPath);
+        final long maxInputs = leaves.size() * 64L * ((ranks + 2) / 3 + 1);
+        assertTrue(maxInputs < lastLeafPath - firstLeafPath + 1, "Input bound must be less than the leaf count");
+        assertTrue(
+                adaptiveStats.chunkInputs() <= maxInputs,
+                "Too many task inputs: " + adaptiveStats.chunkInputs() + ", expected at most " + maxInputs);
+    }
+
     /**
      * Test that the various callbacks on the listener are called the expected number of times.
      * For this test, I'm using our "canonical" example. I wish I could post the image directly
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.swirlds.virtualmap.internal.reconnect;
+
+import static com.swirlds.virtualmap.test.fixtures.VirtualMapTestUtils.CONFIGURATION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.constructable.ConstructableRegistryException;
+import com.swirlds.common.merkle.MerkleInternal;
+import com.swirlds.common.merkle.MerkleNode;
+import com.swirlds.common.test.fixtures.merkle.util.MerkleTestUtils;
+import com.swirlds.config.api.Configuration;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
+import com.swirlds.virtualmap.VirtualMap;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.config.VirtualMapConfig_;
+import com.swirlds.virtualmap.config.VirtualMapReconnectMode;
+import com.swirlds.virtualmap.datasource.VirtualDataSourceBuilder;
+import com.swirlds.virtualmap.test.fixtures.InMemoryBuilder;
+import com.swirlds.virtualmap.test.fixtures.TestKey;
+import com.swirlds.virtualmap.test.fixtures.TestKeySerializer;
+import com.swirlds.virtualmap.test.fixtures.TestValue;
+import com.swirlds.virtualmap.test.fixtures.TestValueSerializer;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for pull reconnects, where some of the learner requests are served by a helper teacher. Both the
+ * teacher and the helper teacher maps are flushed, so the nodes sent by every teacher can be counted by
+ * their data source builders.
+ */
+class VirtualMapHelperTeacherReconnectTest extends VirtualMapReconnectTestBase {
+
+    private static final int TEACHER_LEAF_COUNT = 256;
+
+    private static final Configuration PULL_CONFIGURATION = new TestConfigBuilder()
+            .withSource(new SimpleConfigSource()
+                    .withValue(VirtualMapConfig_.RECONNECT_MODE, VirtualMapReconnectMode.PULL_TOP_TO_BOTTOM))
+            .withConfigDataType(VirtualMapConfig.class)
+            .getOrCreateConfig();
+
+    private BrokenBuilder helperBuilder;
+    private VirtualMap<TestKey, TestValue> helperMap;
+
+    @BeforeAll
+    static void registerPullConstructables() throws ConstructableRegistryException {
+        // The registry may have been configured by other tests, learner maps must use pull reconnects
+        ConstructableRegistry.getInstance().reset();
+        registerConstructables(() -> PULL_CONFIGURATION);
+    }
+
+    @AfterAll
+    static void restoreConstructables() throws ConstructableRegistryException {
+        ConstructableRegistry.getInstance().reset();
+        registerConstructables(() -> CONFIGURATION);
+    }
+
+    @BeforeEach
+    void setupHelper() {
+        helperBuilder = new BrokenBuilder(createBuilder());
+        helperMap = new VirtualMap<>(
+                "Helper", TestKeySerializer.INSTANCE, TestValueSerializer.INSTANCE, helperBuilder, getConfiguration());
+    }
+
+    @Override
+    protected VirtualDataSourceBuilder createBuilder() {
+        return new InMemoryBuilder();
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        return PULL_CONFIGURATION;
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("Reconnect")})
+    @DisplayName("Requests are distributed across the teacher and a matching helper teacher")
+    void matchingHelperTeacherIsUsed() throws Exception {
+        for (int i = 0; i < TEACHER_LEAF_COUNT; i++) {
+            teacherMap.put(new TestKey(i), new TestValue(i));
+            helperMap.put(new TestKey(i), new TestValue(i));
+        }
+        // A part of the learner tree is the same as on the teachers
+        for (int i = 0; i < TEACHER_LEAF_COUNT / 4; i++) {
+            learnerMap.put(new TestKey(i), new TestValue(i));
+        }
+
+        reconnectWithHelper();
+
+        // Responses are read in the same order as requests are sent, otherwise the learner would get
+        // wrong nodes and the reconnected tree would be different from the teacher tree
+        assertTrue(teacherBuilder.getNumLeafLoads() > 0, "The teacher should send some leaves");
+        assertTrue(helperBuilder.getNumLeafLoads() > 0, "The helper teacher should send some leaves");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("Reconnect")})
+    @DisplayName("A helper teacher with a different root hash is not used")
+    void helperTeacherWithDifferentRootHashIsNotUsed() throws Exception {
+        for (int i = 0; i < TEACHER_LEAF_COUNT; i++) {
+            teacherMap.put(new TestKey(i), new TestValue(i));
+            helperMap.put(new TestKey(i), new TestValue(i == 0 ? -1 : i));
+        }
+
+        reconnectWithHelper();
+
+        assertTrue(
+                teacherBuilder.getNumLeafLoads() >= TEACHER_LEAF_COUNT, "All leaves should be sent by the teacher");
+        assertEquals(0, helperBuilder.getNumLeafLoads(), "The helper teacher should not be used");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("Reconnect")})
+    @DisplayName("A helper teacher with different leaf paths is not used")
+    void helperTeacherWithDifferentPathRangeIsNotUsed() throws Exception {
+        for (int i = 0; i < TEACHER_LEAF_COUNT; i++) {
+            teacherMap.put(new TestKey(i), new TestValue(i));
+            helperMap.put(new TestKey(i), new TestValue(i));
+        }
+        helperMap.put(new TestKey(TEACHER_LEAF_COUNT), new TestValue(TEACHER_LEAF_COUNT));
+
+        reconnectWithHelper();
+
+        assertTrue(
+                teacherBuilder.getNumLeafLoads() >= TEACHER_LEAF_COUNT, "All leaves should be sent by the teacher");
+        assertEquals(0, helperBuilder.getNumLeafLoads(), "The helper teacher should not be used");
+    }
+
+    /**
+     * Flushes the teacher and the helper teacher maps, and reconnects the learner from the teacher and
+     * the helper teacher. The reconnected tree is verified to match the teacher tree.
+     */
+    private void reconnectWithHelper() throws Exception {
+        teacherMap = flush(teacherMap);
+        helperMap = flush(helperMap);
+
+        final MerkleInternal teacherTree = createTreeForMap(teacherMap);
+        final VirtualMap<TestKey, TestValue> teacherCopy = teacherMap.copy();
+        final MerkleInternal helperTree = createTreeForMap(helperMap);
+        final VirtualMap<TestKey, TestValue> helperCopy = helperMap.copy();
+        final MerkleInternal learnerTree = createTreeForMap(learnerMap);
+        try {
+            final MerkleNode node = MerkleTestUtils.hashAndTestSynchronizationWithHelpers(
+                    learnerTree, teacherTree, List.of(helperTree), reconnectConfig);
+            try {
+                final VirtualMap<TestKey, TestValue> reconnectedMap =
+                        node.asInternal().getChild(1).asInternal().getChild(3).cast();
+                assertEquals(
+                        teacherMap.getRight().getHash(),
+                        reconnectedMap.getRight().getHash(),
+                        "Reconnected root hash should match the teacher");
+                assertEquals(TEACHER_LEAF_COUNT, reconnectedMap.size(), "All leaves should be reconnected");
+            } finally {
+                node.release();
+            }
+        } finally {
+            teacherTree.release();
+            helperTree.release();
+            learnerTree.release();
+            teacherCopy.release();
+            helperCopy.release();
+        }
+    }
+}
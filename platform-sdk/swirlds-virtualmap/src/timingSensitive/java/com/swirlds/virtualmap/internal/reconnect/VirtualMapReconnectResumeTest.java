@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.swirlds.virtualmap.internal.reconnect;
+
+import static com.swirlds.virtualmap.test.fixtures.VirtualMapTestUtils.CONFIGURATION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.constructable.ConstructableRegistryException;
+import com.swirlds.common.merkle.MerkleInternal;
+import com.swirlds.common.merkle.MerkleNode;
+import com.swirlds.common.merkle.synchronization.utility.MerkleSynchronizationException;
+import com.swirlds.common.test.fixtures.merkle.util.MerkleTestUtils;
+import com.swirlds.config.api.Configuration;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
+import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
+import com.swirlds.virtualmap.VirtualMap;
+import com.swirlds.virtualmap.config.VirtualMapConfig;
+import com.swirlds.virtualmap.config.VirtualMapConfig_;
+import com.swirlds.virtualmap.config.VirtualMapReconnectMode;
+import com.swirlds.virtualmap.datasource.VirtualDataSourceBuilder;
+import com.swirlds.virtualmap.internal.merkle.VirtualRootNode;
+import com.swirlds.virtualmap.test.fixtures.InMemoryBuilder;
+import com.swirlds.virtualmap.test.fixtures.TestKey;
+import com.swirlds.virtualmap.test.fixtures.TestValue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for resuming failed pull reconnects. Reconnect is broken on the teacher side, when the teacher
+ * loads nodes from its data source, so the learner fails in the middle of the stream after some leaves
+ * are flushed.
+ */
+class VirtualMapReconnectResumeTest extends VirtualMapReconnectTestBase {
+
+    private static final int TEACHER_LEAF_COUNT = 256;
+
+    // Internal node hashes, then leaf hashes and leaf records are loaded by the teacher. Fail after
+    // about a half of all leaves is sent
+    private static final int TEACHER_LOADS_BEFORE_THROW = TEACHER_LEAF_COUNT * 2;
+
+    private static final Configuration RESUME_CONFIGURATION = createConfiguration(true);
+
+    private static final Configuration NO_RESUME_CONFIGURATION = createConfiguration(false);
+
+    /**
+     * The configuration of learner virtual maps created by the constructable registry during reconnect.
+     */
+    private static volatile Configuration learnerConfiguration = RESUME_CONFIGURATION;
+
+    private static Configuration createConfiguration(final boolean reconnectResume) {
+        return new TestConfigBuilder()
+                .withSource(new SimpleConfigSource()
+                        .withValue(VirtualMapConfig_.RECONNECT_MODE, VirtualMapReconnectMode.PULL_TOP_TO_BOTTOM)
+                        .withValue(VirtualMapConfig_.RECONNECT_FLUSH_INTERVAL, "16")
+                        .withValue(VirtualMapConfig_.RECONNECT_RESUME, Boolean.toString(reconnectResume)))
+                .withConfigDataType(VirtualMapConfig.class)
+                .getOrCreateConfig();
+    }
+
+    @BeforeAll
+    static void registerResumeConstructables() throws ConstructableRegistryException {
+        // The registry may have been configured by other tests, learner maps must use pull reconnects
+        ConstructableRegistry.getInstance().reset();
+        registerConstructables(() -> learnerConfiguration);
+    }
+
+    @AfterAll
+    static void restoreConstructables() throws ConstructableRegistryException {
+        ConstructableRegistry.getInstance().reset();
+        registerConstructables(() -> CONFIGURATION);
+    }
+
+    @AfterEach
+    void restoreLearnerConfiguration() {
+        learnerConfiguration = RESUME_CONFIGURATION;
+    }
+
+    @Override
+    protected VirtualDataSourceBuilder createBuilder() {
+        return new InMemoryBuilder();
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        return RESUME_CONFIGURATION;
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("Reconnect")})
+    @DisplayName("Reconnect that failed mid-stream is resumed from the checkpoint")
+    void failedReconnectIsResumed() throws Exception {
+        populateAndFlushTeacher();
+        teacherBuilder.setLoadsToBreak(TEACHER_LOADS_BEFORE_THROW, 1);
+
+        final MerkleInternal teacherTree = createTreeForMap(teacherMap);
+        final VirtualMap<TestKey, TestValue> copy = teacherMap.copy();
+        final MerkleInternal learnerTree = createTreeForMap(learnerMap);
+        try {
+            assertThrows(
+                    MerkleSynchronizationException.class,
+                    () -> MerkleTestUtils.hashAndTestSynchronization(learnerTree, teacherTree, reconnectConfig),
+                    "The first reconnect attempt should fail");
+            assertEquals(1, learnerBuilder.getSnapshots().size(), "A checkpoint should be saved on failure");
+            assertFalse(
+                    learnerBuilder.getSnapshots().get(0).isClosed(),
+                    "The checkpoint should be kept by the original learner map");
+
+            final long leafLoadsBefore = teacherBuilder.getNumLeafLoads();
+            final MerkleNode node =
+                    MerkleTestUtils.hashAndTestSynchronization(learnerTree, teacherTree, reconnectConfig);
+            try {
+                final VirtualMap<TestKey, TestValue> reconnectedMap =
+                        node.asInternal().getChild(1).asInternal().getChild(3).cast();
+                final VirtualRootNode<TestKey, TestValue> reconnectedRoot = reconnectedMap.getRight();
+                assertTrue(reconnectedRoot.isReconnectResumed(), "Reconnect should be resumed");
+                assertEquals(
+                        teacherMap.getRight().getHash(),
+                        reconnectedRoot.getHash(),
+                        "Reconnected root hash should match the teacher");
+                assertEquals(TEACHER_LEAF_COUNT, reconnectedMap.size(), "All leaves should be reconnected");
+                assertTrue(
+                        teacherBuilder.getNumLeafLoads() - leafLoadsBefore < TEACHER_LEAF_COUNT,
+                        "Leaves flushed before the failure should not be sent again");
+            } finally {
+                node.release();
+            }
+        } finally {
+            teacherTree.release();
+            learnerTree.release();
+            copy.release();
+        }
+        assertTrue(
+                learnerBuilder.getSnapshots().get(0).isClosed(),
+                "The checkpoint should be closed when the original learner map is destroyed");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("Reconnect")})
+    @DisplayName("Failed reconnect isn't resumed if resumption is disabled")
+    void failedReconnectIsNotResumedIfDisabled() throws Exception {
+        learnerConfiguration = NO_RESUME_CONFIGURATION;
+        populateAndFlushTeacher();
+        teacherBuilder.setLoadsToBreak(TEACHER_LOADS_BEFORE_THROW, 1);
+
+        final MerkleInternal teacherTree = createTreeForMap(teacherMap);
+        final VirtualMap<TestKey, TestValue> copy = teacherMap.copy();
+        final MerkleInternal learnerTree = createTreeForMap(learnerMap);
+        try {
+            assertThrows(
+                    MerkleSynchronizationException.class,
+                    () -> MerkleTestUtils.hashAndTestSynchronization(learnerTree, teacherTree, reconnectConfig),
+                    "The first reconnect attempt should fail");
+            assertTrue(learnerBuilder.getSnapshots().isEmpty(), "No checkpoint should be saved");
+
+            // The teacher root hash is still sent to the learner, but it isn't checked
+            final long leafLoadsBefore = teacherBuilder.getNumLeafLoads();
+            final MerkleNode node =
+                    MerkleTestUtils.hashAndTestSynchronization(learnerTree, teacherTree, reconnectConfig);
+            try {
+                final VirtualMap<TestKey, TestValue> reconnectedMap =
+                        node.asInternal().getChild(1).asInternal().getChild(3).cast();
+                final VirtualRootNode<TestKey, TestValue> reconnectedRoot = reconnectedMap.getRight();
+                assertFalse(reconnectedRoot.isReconnectResumed(), "Reconnect should not be resumed");
+                assertEquals(
+                        teacherMap.getRight().getHash(),
+                        reconnectedRoot.getHash(),
+                        "Reconnected root hash should match the teacher");
+                assertTrue(
+                        teacherBuilder.getNumLeafLoads() - leafLoadsBefore >= TEACHER_LEAF_COUNT,
+                        "All leaves should be sent again");
+            } finally {
+                node.release();
+            }
+        } finally {
+            teacherTree.release();
+            learnerTree.release();
+            copy.release();
+        }
+    }
+
+    /**
+     * Puts leaves to the teacher map and flushes them to the teacher data source, so the teacher view
+     * loads all nodes from there.
+     */
+    private void populateAndFlushTeacher() throws InterruptedException {
+        for (int i = 0; i < TEACHER_LEAF_COUNT; i++) {
+            teacherMap.put(new TestKey(i), new TestValue(i));
+        }
+        teacherMap = flush(teacherMap);
+    }
+}
@@ -36,6 +36,7 @@ import com.swirlds.common.merkle.synchronization.task.QueryResponse;
 import com.swirlds.common.test.fixtures.merkle.dummy.DummyMerkleInternal;
 import com.swirlds.common.test.fixtures.merkle.dummy.DummyMerkleLeaf;
 import com.swirlds.common.test.fixtures.merkle.util.MerkleTestUtils;
+import com.swirlds.config.api.Configuration;
 import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
 import com.swirlds.metrics.api.Metrics;
 import com.swirlds.virtualmap.VirtualMap;
@@ -59,6 +60,9 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeAll;
@@ -103,20 +107,46 @@ public abstract class VirtualMapReconnectTestBase {
 
     protected abstract VirtualDataSourceBuilder createBuilder();
 
+    /**
+     * The configuration of the teacher and learner maps created before each test.
+     */
+    protected Configuration getConfiguration() {
+        return CONFIGURATION;
+    }
+
     @BeforeEach
     void setupEach() {
         final VirtualDataSourceBuilder dataSourceBuilder = createBuilder();
         teacherBuilder = new BrokenBuilder(dataSourceBuilder);
         learnerBuilder = new BrokenBuilder(dataSourceBuilder);
         teacherMap = new VirtualMap<>(
-                "Teacher", TestKeySerializer.INSTANCE, TestValueSerializer.INSTANCE, teacherBuilder, CONFIGURATION);
+                "Teacher",
+                TestKeySerializer.INSTANCE,
+                TestValueSerializer.INSTANCE,
+                teacherBuilder,
+                getConfiguration());
         learnerMap = new VirtualMap<>(
-                "Learner", TestKeySerializer.INSTANCE, TestValueSerializer.INSTANCE, learnerBuilder, CONFIGURATION);
+                "Learner",
+                TestKeySerializer.INSTANCE,
+                TestValueSerializer.INSTANCE,
+                learnerBuilder,
+                getConfiguration());
     }
 
     @BeforeAll
     public static void startup() throws ConstructableRegistryException, FileNotFoundException {
         loadLog4jContext();
+        registerConstructables(() -> CONFIGURATION);
+    }
+
+    /**
+     * Registers all constructables used in reconnect tests. Virtual maps received by learners are created
+     * by the registry, they use the given configuration.
+     *
+     * @param configuration the configuration of virtual maps created by the registry
+     */
+    protected static void registerConstructables(final Supplier<Configuration> configuration)
+            throws ConstructableRegistryException {
         final ConstructableRegistry registry = ConstructableRegistry.getInstance();
         registry.registerConstructables("com.swirlds.common");
         registry.registerConstructable(new ClassConstructorPair(QueryResponse.class, QueryResponse::new));
@@ -126,9 +156,11 @@ public abstract class VirtualMapReconnectTestBase {
         registry.registerConstructable(new ClassConstructorPair(TestValue.class, TestValue::new));
         registry.registerConstructable(new ClassConstructorPair(BrokenBuilder.class, BrokenBuilder::new));
         registry.registerConstructable(new ClassConstructorPair(VirtualMapState.class, VirtualMapState::new));
-        registry.registerConstructable(new ClassConstructorPair(VirtualMap.class, () -> new VirtualMap(CONFIGURATION)));
+        registry.registerConstructable(
+                new ClassConstructorPair(VirtualMap.class, () -> new VirtualMap(configuration.get())));
         registry.registerConstructable(new ClassConstructorPair(
-                VirtualRootNode.class, () -> new VirtualRootNode(CONFIGURATION.getConfigData(VirtualMapConfig.class))));
+                VirtualRootNode.class,
+                () -> new VirtualRootNode(configuration.get().getConfigData(VirtualMapConfig.class))));
     }
 
     protected MerkleInternal createTreeForMap(VirtualMap<TestKey, TestValue> map) {
@@ -168,6 +200,23 @@ public abstract class VirtualMapReconnectTestBase {
         }
     }
 
+    /**
+     * Flushes the given map to its data source, so that all nodes are loaded from the data source
+     * rather than from the cache.
+     *
+     * @param map the map to flush, released by this method
+     * @return a mutable copy of the map
+     */
+    protected static VirtualMap<TestKey, TestValue> flush(final VirtualMap<TestKey, TestValue> map)
+            throws InterruptedException {
+        final VirtualRootNode<TestKey, TestValue> root = map.getRight();
+        root.enableFlush();
+        final VirtualMap<TestKey, TestValue> copy = map.copy();
+        map.release();
+        root.waitUntilFlushed();
+        return copy;
+    }
+
     protected static final class BrokenBuilder implements VirtualDataSourceBuilder {
 
         private static final long CLASS_ID = 0x5a79654cd0f96dcfL;
@@ -176,6 +225,12 @@ public abstract class VirtualMapReconnectTestBase {
         private int numCalls = 0;
         private int numTimesToBreak = 0;
         private int numTimesBroken = 0;
+        private int numLoadsBeforeThrow = Integer.MAX_VALUE;
+        private int numLoads = 0;
+        private int numTimesToBreakLoads = 0;
+        private int numTimesLoadsBroken = 0;
+        private final AtomicLong numLeafLoads = new AtomicLong();
+        private final List<BreakableDataSource> snapshots = new CopyOnWriteArrayList<>();
 
         public BrokenBuilder() {}
 
@@ -200,6 +255,10 @@ public abstract class VirtualMapReconnectTestBase {
             out.writeInt(numTimesToBreak);
             out.writeInt(numCalls);
             out.writeInt(numTimesBroken);
+            out.writeInt(numLoadsBeforeThrow);
+            out.writeInt(numTimesToBreakLoads);
+            out.writeInt(numLoads);
+            out.writeInt(numTimesLoadsBroken);
         }
 
         @Override
@@ -209,6 +268,10 @@ public abstract class VirtualMapReconnectTestBase {
             numTimesToBreak = in.readInt();
             numCalls = in.readInt();
             numTimesBroken = in.readInt();
+            numLoadsBeforeThrow = in.readInt();
+            numTimesToBreakLoads = in.readInt();
+            numLoads = in.readInt();
+            numTimesLoadsBroken = in.readInt();
         }
 
         @Override
@@ -219,7 +282,11 @@ public abstract class VirtualMapReconnectTestBase {
         @Override
         public BreakableDataSource copy(final VirtualDataSource snapshotMe, final boolean makeCopyActive) {
             final var breakableSnapshot = (BreakableDataSource) snapshotMe;
-            return new BreakableDataSource(this, delegate.copy(breakableSnapshot.delegate, makeCopyActive));
+            final var copy = new BreakableDataSource(this, delegate.copy(breakableSnapshot.delegate, makeCopyActive));
+            if (!makeCopyActive) {
+                snapshots.add(copy);
+            }
+            return copy;
         }
 
         @Override
@@ -240,12 +307,48 @@ public abstract class VirtualMapReconnectTestBase {
         public void setNumTimesToBreak(int num) {
             this.numTimesToBreak = num;
         }
+
+        /**
+         * Makes data sources fail to load hashes and leaf records, for example, on the teacher side of reconnect.
+         *
+         * @param numLoadsBeforeThrow the number of successful loads before a failure
+         * @param numTimesToBreakLoads the number of failures
+         */
+        public void setLoadsToBreak(int numLoadsBeforeThrow, int numTimesToBreakLoads) {
+            this.numLoadsBeforeThrow = numLoadsBeforeThrow;
+            this.numTimesToBreakLoads = numTimesToBreakLoads;
+        }
+
+        /**
+         * @return the number of leaf records loaded by path from all data sources of this builder
+         */
+        public long getNumLeafLoads() {
+            return numLeafLoads.get();
+        }
+
+        /**
+         * @return inactive data source copies created by this builder, e.g. reconnect checkpoints
+         */
+        public List<BreakableDataSource> getSnapshots() {
+            return snapshots;
+        }
+
+        private synchronized void checkLoad() throws IOException {
+            if (numTimesLoadsBroken < numTimesToBreakLoads) {
+                if (++numLoads > numLoadsBeforeThrow) {
+                    numLoads = 0;
+                    numTimesLoadsBroken++;
+                    throw new IOException("Something bad on the DB!");
+                }
+            }
+        }
     }
 
     protected static final class BreakableDataSource implements VirtualDataSource {
 
         private final VirtualDataSource delegate;
         private final BrokenBuilder builder;
+        private volatile boolean closed = false;
 
         public BreakableDataSource(final BrokenBuilder builder, final VirtualDataSource delegate) {
             this.delegate = Objects.requireNonNull(delegate);
@@ -279,9 +382,14 @@ public abstract class VirtualMapReconnectTestBase {
 
         @Override
         public void close() throws IOException {
+            closed = true;
             delegate.close();
         }
 
+        public boolean isClosed() {
+            return closed;
+        }
+
         @Override
         public VirtualLeafBytes loadLeafRecord(final Bytes key, final int keyHashCode) throws IOException {
             return delegate.loadLeafRecord(key, keyHashCode);
@@ -289,6 +397,8 @@ public abstract class VirtualMapReconnectTestBase {
 
         @Override
         public VirtualLeafBytes loadLeafRecord(final long path) throws IOException {
+            builder.checkLoad();
+            builder.numLeafLoads.incrementAndGet();
             return delegate.loadLeafRecord(path);
         }
 
@@ -299,6 +409,7 @@ public abstract class VirtualMapReconnectTestBase {
 
         @Override
         public Hash loadHash(final long path) throws IOException {
+            builder.checkLoad();
             return delegate.loadHash(path);
         }
 